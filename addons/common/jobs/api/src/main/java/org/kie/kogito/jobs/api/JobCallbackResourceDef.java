@@ -37,6 +37,13 @@ public class JobCallbackResourceDef {
 
     public static final String JOBS_CALLBACK_POST_URI = "{" + PROCESS_ID + "}/instances/{" + PROCESS_INSTANCE_ID + "}/timers/{" + TIMER_ID + "}";
 
+    /**
+     * Receives many expired jobs at once, see {@link org.kie.kogito.jobs.ExpiredJob}.
+     */
+    public static final String JOBS_CALLBACK_BULK_POST_URI = "timers";
+
+    public static final String JOBS_CALLBACK_BULK_MAX_PARALLELISM = "kogito.jobs.callback.bulk.max-parallelism";
+
     private JobCallbackResourceDef() {
     }
 
@@ -0,0 +1,313 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.jobs.api;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.kie.kogito.jobs.JobsServiceException;
+import org.kie.kogito.jobs.ProcessInstanceJobDescription;
+import org.kie.kogito.uow.UnitOfWork;
+import org.kie.kogito.uow.events.UnitOfWorkAbortEvent;
+import org.kie.kogito.uow.events.UnitOfWorkEndEvent;
+import org.kie.kogito.uow.events.UnitOfWorkEventListener;
+import org.kie.kogito.uow.events.UnitOfWorkStartEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects the job creations and cancellations requested while a unit of work is running and hands them
+ * over as a single batch once the unit of work completes. Requests are discarded if the unit of work is aborted,
+ * and a job both created and cancelled within the same unit of work is never sent.
+ * <p>
+ * Batches are flushed from {@link #onAfterEndEvent(UnitOfWorkEndEvent)}, that is after the unit of work has been
+ * persisted. The batcher has {@link UnitOfWorkEventListener#LOW_PRIORITY}, so that it is notified after the listeners
+ * committing transactions and a rolled back unit of work does not leave jobs behind.
+ * <p>
+ * Requests made outside of a unit of work are handed over immediately, as a batch of one attempted only once, so that
+ * failures are reported to the caller. Batches flushed at the end of a unit of work can no longer be reported to the caller
+ * and are therefore attempted up to {@link #getMaxAttempts()} times; the requests still failing are logged and handed to
+ * the {@link FailureHandler} given to the batcher.
+ * <p>
+ * The batcher must be registered as {@link UnitOfWorkEventListener} to be aware of the running units of work.
+ */
+public class JobRequestBatcher implements UnitOfWorkEventListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JobRequestBatcher.class);
+
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+    private final ThreadLocal<Batch> currentBatch = new ThreadLocal<>();
+
+    private final Flusher flusher;
+
+    private final FailureHandler failureHandler;
+
+    private final int maxAttempts;
+
+    public JobRequestBatcher(Flusher flusher) {
+        this(flusher, (request, error) -> {
+        });
+    }
+
+    public JobRequestBatcher(Flusher flusher, FailureHandler failureHandler) {
+        this(flusher, failureHandler, DEFAULT_MAX_ATTEMPTS);
+    }
+
+    public JobRequestBatcher(Flusher flusher, FailureHandler failureHandler, int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Maximum number of attempts must be positive, was " + maxAttempts);
+        }
+        this.flusher = flusher;
+        this.failureHandler = failureHandler;
+        this.maxAttempts = maxAttempts;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Requests the creation of a job.
+     *
+     * @throws RuntimeException if the request is made outside of a unit of work and fails
+     */
+    public void create(ProcessInstanceJobDescription description) {
+        add(JobRequest.create(description));
+    }
+
+    /**
+     * Requests the cancellation of a job.
+     *
+     * @throws RuntimeException if the request is made outside of a unit of work and fails
+     */
+    public void cancel(String jobId) {
+        add(JobRequest.cancel(jobId));
+    }
+
+    private void add(JobRequest request) {
+        Batch batch = currentBatch.get();
+        if (batch != null) {
+            batch.add(request);
+            return;
+        }
+        List<Exception> failures = flushNow(request);
+        if (!failures.isEmpty()) {
+            Exception error = failures.get(0);
+            throw error instanceof RuntimeException ? (RuntimeException) error
+                    : new JobsServiceException("Error while sending job request " + request, error);
+        }
+    }
+
+    private List<Exception> flushNow(JobRequest request) {
+        List<Exception> failures = new ArrayList<>();
+        AtomicBoolean flushed = new AtomicBoolean();
+        flusher.flush(Collections.singletonList(request), 1, (failed, error) -> {
+            synchronized (failures) {
+                if (flushed.get()) {
+                    // reported asynchronously, the caller is gone already
+                    LOGGER.error("Job request {} failed", failed, error);
+                } else {
+                    failures.add(error);
+                }
+            }
+        });
+        synchronized (failures) {
+            flushed.set(true);
+            return failures;
+        }
+    }
+
+    @Override
+    public void onBeforeStartEvent(UnitOfWorkStartEvent event) {
+        currentBatch.set(new Batch(event.getUnitOfWork(), currentBatch.get()));
+    }
+
+    @Override
+    public void onAfterEndEvent(UnitOfWorkEndEvent event) {
+        Batch batch = release(event.getUnitOfWork());
+        if (batch != null) {
+            batch.flush();
+        }
+    }
+
+    @Override
+    public void onAfterAbortEvent(UnitOfWorkAbortEvent event) {
+        Batch batch = release(event.getUnitOfWork());
+        if (batch != null) {
+            batch.discard();
+        }
+    }
+
+    @Override
+    public int priority() {
+        return LOW_PRIORITY;
+    }
+
+    private Batch release(UnitOfWork unitOfWork) {
+        Batch batch = currentBatch.get();
+        if (batch == null || batch.unitOfWork != unitOfWork) {
+            return null;
+        }
+        if (batch.parent == null) {
+            currentBatch.remove();
+        } else {
+            currentBatch.set(batch.parent);
+        }
+        return batch;
+    }
+
+    private void onFailure(JobRequest request, Exception error) {
+        LOGGER.error("Job request {} failed after {} attempts", request, maxAttempts, error);
+        try {
+            failureHandler.onFailure(request, error);
+        } catch (RuntimeException e) {
+            LOGGER.error("Error while handling the failure of job request {}", request, e);
+        }
+    }
+
+    /**
+     * Sends a batch of job requests to the jobs service.
+     */
+    @FunctionalInterface
+    public interface Flusher {
+
+        /**
+         * Sends every request of the batch, also when some of them fail. Failures are never thrown, each request
+         * still failing after the given number of attempts is reported to the failure handler instead.
+         *
+         * @param requests requests to be sent, in the order they were made
+         * @param maxAttempts number of times a failing request can be sent before giving up
+         * @param failureHandler receives the requests given up on
+         */
+        void flush(List<JobRequest> requests, int maxAttempts, FailureHandler failureHandler);
+    }
+
+    /**
+     * Receives the job requests that could not be sent to the jobs service.
+     */
+    @FunctionalInterface
+    public interface FailureHandler {
+
+        void onFailure(JobRequest request, Exception error);
+    }
+
+    public static class JobRequest {
+
+        public enum Type {
+            CREATE,
+            CANCEL
+        }
+
+        private final Type type;
+        private final String jobId;
+        private final ProcessInstanceJobDescription description;
+
+        private JobRequest(Type type, String jobId, ProcessInstanceJobDescription description) {
+            this.type = type;
+            this.jobId = jobId;
+            this.description = description;
+        }
+
+        public static JobRequest create(ProcessInstanceJobDescription description) {
+            return new JobRequest(Type.CREATE, description.id(), description);
+        }
+
+        public static JobRequest cancel(String jobId) {
+            return new JobRequest(Type.CANCEL, jobId, null);
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        public String getJobId() {
+            return jobId;
+        }
+
+        /**
+         * @return the description of the job to be created, <code>null</code> for cancellations
+         */
+        public ProcessInstanceJobDescription getDescription() {
+            return description;
+        }
+
+        @Override
+        public String toString() {
+            return "JobRequest{type=" + type + ", jobId='" + jobId + "'}";
+        }
+    }
+
+    private class Batch {
+
+        private final UnitOfWork unitOfWork;
+        private final Batch parent;
+        // keyed by type and job id, in the order they were made: a job has at most a cancellation followed by a creation
+        private final Map<String, JobRequest> requests = new LinkedHashMap<>();
+
+        private Batch(UnitOfWork unitOfWork, Batch parent) {
+            this.unitOfWork = unitOfWork;
+            this.parent = parent;
+        }
+
+        private void add(JobRequest request) {
+            JobRequest previous = requests.get(key(JobRequest.Type.CREATE, request.getJobId()));
+            if (previous == null) {
+                previous = requests.get(key(JobRequest.Type.CANCEL, request.getJobId()));
+            }
+            if (previous != null && previous.getType() == JobRequest.Type.CREATE && request.getType() == JobRequest.Type.CANCEL) {
+                // the job never reached the jobs service, nothing to cancel
+                requests.remove(key(previous.getType(), previous.getJobId()));
+                LOGGER.debug("Job {} created and cancelled in the same unit of work, no request is sent", request.getJobId());
+                return;
+            }
+            String key = key(request.getType(), request.getJobId());
+            if (previous != null && previous.getType() == request.getType()) {
+                // only the latest of two consecutive requests of the same type matters, sent in the order of the latest
+                requests.remove(key);
+            }
+            // a cancellation followed by a creation is kept as is, the job has to be replaced
+            requests.put(key, request);
+        }
+
+        private String key(JobRequest.Type type, String jobId) {
+            return type.name() + ':' + jobId;
+        }
+
+        private void flush() {
+            if (!requests.isEmpty()) {
+                List<JobRequest> batch = new ArrayList<>(requests.values());
+                requests.clear();
+                LOGGER.debug("Flushing {} job requests", batch.size());
+                try {
+                    flusher.flush(batch, maxAttempts, JobRequestBatcher.this::onFailure);
+                } catch (RuntimeException e) {
+                    // the unit of work is already persisted, there is no caller left to report to
+                    LOGGER.error("Error while flushing job requests {}", batch, e);
+                }
+            }
+        }
+
+        private void discard() {
+            LOGGER.debug("Unit of work aborted, discarding {} job requests", requests.size());
+            requests.clear();
+        }
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.jobs.api;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.jobs.ExactExpirationTime;
+import org.kie.kogito.jobs.JobsServiceException;
+import org.kie.kogito.jobs.ProcessInstanceJobDescription;
+import org.kie.kogito.jobs.TimerJobId;
+import org.kie.kogito.jobs.api.JobRequestBatcher.JobRequest;
+import org.kie.kogito.uow.UnitOfWork;
+import org.kie.kogito.uow.WorkUnit;
+import org.kie.kogito.uow.events.UnitOfWorkAbortEvent;
+import org.kie.kogito.uow.events.UnitOfWorkEndEvent;
+import org.kie.kogito.uow.events.UnitOfWorkEventListener;
+import org.kie.kogito.uow.events.UnitOfWorkStartEvent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JobRequestBatcherTest {
+
+    private List<List<JobRequest>> batches;
+    private List<Integer> maxAttempts;
+    private Set<String> failingJobs;
+    private List<JobRequest> failedRequests;
+    private JobRequestBatcher batcher;
+
+    @BeforeEach
+    void setUp() {
+        batches = new ArrayList<>();
+        maxAttempts = new ArrayList<>();
+        failingJobs = new HashSet<>();
+        failedRequests = new ArrayList<>();
+        batcher = new JobRequestBatcher((requests, attempts, failureHandler) -> {
+            batches.add(requests);
+            maxAttempts.add(attempts);
+            requests.stream().filter(request -> failingJobs.contains(request.getJobId()))
+                    .forEach(request -> failureHandler.onFailure(request, new JobsServiceException("failed " + request.getJobId())));
+        }, (request, error) -> failedRequests.add(request), 5);
+    }
+
+    @Test
+    void testRequestsOutsideUnitOfWorkAreSentImmediately() {
+        batcher.create(description(1));
+        batcher.cancel("2");
+
+        assertThat(batches).hasSize(2);
+        assertThat(batches.get(0)).extracting(JobRequest::getType).containsExactly(JobRequest.Type.CREATE);
+        assertThat(batches.get(1)).extracting(JobRequest::getJobId).containsExactly("2");
+        assertThat(maxAttempts).containsOnly(1);
+    }
+
+    @Test
+    void testRequestsAreSentWhenUnitOfWorkEnds() {
+        TestUnitOfWork uow = start();
+        batcher.create(description(1));
+        batcher.create(description(2));
+        batcher.cancel("3");
+        assertThat(batches).isEmpty();
+
+        end(uow);
+
+        assertThat(batches).hasSize(1);
+        assertThat(ids(batches.get(0))).containsExactly(description(1).id(), description(2).id(), "3");
+        assertThat(maxAttempts).containsExactly(5);
+        assertThat(batcher.priority()).isEqualTo(UnitOfWorkEventListener.LOW_PRIORITY);
+    }
+
+    @Test
+    void testRequestsAreNotSentBeforeUnitOfWorkEndEvent() {
+        TestUnitOfWork uow = start();
+        batcher.create(description(1));
+        uow.end();
+
+        assertThat(batches).isEmpty();
+
+        batcher.onAfterEndEvent(new UnitOfWorkEndEvent(uow));
+        assertThat(batches).hasSize(1);
+    }
+
+    @Test
+    void testFailuresOutsideUnitOfWorkAreThrown() {
+        failingJobs.add(description(1).id());
+        failingJobs.add("2");
+
+        assertThatThrownBy(() -> batcher.create(description(1))).isInstanceOf(JobsServiceException.class);
+        assertThatThrownBy(() -> batcher.cancel("2")).isInstanceOf(JobsServiceException.class);
+        assertThat(failedRequests).isEmpty();
+    }
+
+    @Test
+    void testFailuresAfterUnitOfWorkAreReportedAndDoNotStopTheBatch() {
+        failingJobs.add(description(1).id());
+        TestUnitOfWork uow = start();
+        batcher.create(description(1));
+        batcher.create(description(2));
+        batcher.cancel("3");
+        end(uow);
+
+        assertThat(batches).hasSize(1);
+        assertThat(ids(batches.get(0))).containsExactly(description(1).id(), description(2).id(), "3");
+        assertThat(ids(failedRequests)).containsExactly(description(1).id());
+    }
+
+    @Test
+    void testCreateThenCancelIsCoalesced() {
+        TestUnitOfWork uow = start();
+        batcher.create(description(1));
+        batcher.create(description(2));
+        batcher.cancel(description(1).id());
+        end(uow);
+
+        assertThat(batches).hasSize(1);
+        assertThat(ids(batches.get(0))).containsExactly(description(2).id());
+    }
+
+    @Test
+    void testAllRequestsCoalescedSendsNothing() {
+        TestUnitOfWork uow = start();
+        batcher.create(description(1));
+        batcher.cancel(description(1).id());
+        end(uow);
+
+        assertThat(batches).isEmpty();
+    }
+
+    @Test
+    void testCancelThenCreateKeepsBoth() {
+        TestUnitOfWork uow = start();
+        batcher.cancel(description(1).id());
+        batcher.create(description(1));
+        end(uow);
+
+        assertThat(batches).hasSize(1);
+        assertThat(batches.get(0)).extracting(JobRequest::getType).containsExactly(JobRequest.Type.CANCEL, JobRequest.Type.CREATE);
+    }
+
+    @Test
+    void testCancelCreateCancelKeepsFirstCancel() {
+        TestUnitOfWork uow = start();
+        batcher.cancel(description(1).id());
+        batcher.create(description(1));
+        batcher.cancel(description(1).id());
+        end(uow);
+
+        assertThat(batches).hasSize(1);
+        assertThat(batches.get(0)).extracting(JobRequest::getType).containsExactly(JobRequest.Type.CANCEL);
+    }
+
+    @Test
+    void testRepeatedRequestsKeepTheLatest() {
+        TestUnitOfWork uow = start();
+        batcher.create(description(1));
+        batcher.cancel(description(2).id());
+        batcher.create(description(2));
+        batcher.create(description(1));
+        batcher.cancel("3");
+        batcher.cancel("3");
+        end(uow);
+
+        assertThat(batches).hasSize(1);
+        assertThat(ids(batches.get(0))).containsExactly(description(2).id(), description(2).id(), description(1).id(), "3");
+        assertThat(batches.get(0)).extracting(JobRequest::getType)
+                .containsExactly(JobRequest.Type.CANCEL, JobRequest.Type.CREATE, JobRequest.Type.CREATE, JobRequest.Type.CANCEL);
+    }
+
+    @Test
+    void testRequestsAreDiscardedWhenUnitOfWorkAborts() {
+        TestUnitOfWork uow = start();
+        batcher.create(description(1));
+        uow.abort();
+        batcher.onAfterAbortEvent(new UnitOfWorkAbortEvent(uow));
+
+        assertThat(batches).isEmpty();
+
+        batcher.create(description(2));
+        assertThat(batches).hasSize(1);
+    }
+
+    @Test
+    void testNestedUnitsOfWork() {
+        TestUnitOfWork outer = start();
+        batcher.create(description(1));
+        TestUnitOfWork inner = start();
+        batcher.create(description(2));
+        end(inner);
+
+        assertThat(batches).hasSize(1);
+        assertThat(ids(batches.get(0))).containsExactly(description(2).id());
+
+        batcher.create(description(3));
+        end(outer);
+
+        assertThat(batches).hasSize(2);
+        assertThat(ids(batches.get(1))).containsExactly(description(1).id(), description(3).id());
+    }
+
+    @Test
+    void testInvalidMaxAttempts() {
+        assertThatThrownBy(() -> new JobRequestBatcher((requests, attempts, failureHandler) -> {
+        }, (request, error) -> {
+        }, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private TestUnitOfWork start() {
+        TestUnitOfWork uow = new TestUnitOfWork();
+        batcher.onBeforeStartEvent(new UnitOfWorkStartEvent(uow));
+        uow.start();
+        return uow;
+    }
+
+    private void end(TestUnitOfWork uow) {
+        uow.end();
+        batcher.onAfterEndEvent(new UnitOfWorkEndEvent(uow));
+    }
+
+    private static List<String> ids(List<JobRequest> requests) {
+        return requests.stream().map(JobRequest::getJobId).collect(Collectors.toList());
+    }
+
+    private static ProcessInstanceJobDescription description(long id) {
+        return ProcessInstanceJobDescription.of(new TimerJobId("job-" + id), ExactExpirationTime.now(), "processInstanceId", "processId");
+    }
+
+    private static class TestUnitOfWork implements UnitOfWork {
+
+        @Override
+        public void start() {
+        }
+
+        @Override
+        public void end() {
+        }
+
+        @Override
+        public void abort() {
+        }
+
+        @Override
+        public void intercept(WorkUnit work) {
+        }
+    }
+}
@@ -16,17 +16,36 @@
 package org.kie.kogito.jobs.management;
 
 import java.net.URI;
+import java.util.List;
 import java.util.Objects;
 
 import org.kie.kogito.jobs.JobsService;
 import org.kie.kogito.jobs.ProcessInstanceJobDescription;
 import org.kie.kogito.jobs.api.Job;
+import org.kie.kogito.jobs.api.JobRequestBatcher;
+import org.kie.kogito.jobs.api.JobRequestBatcher.FailureHandler;
+import org.kie.kogito.jobs.api.JobRequestBatcher.JobRequest;
 import org.kie.kogito.jobs.api.URIBuilder;
+import org.kie.kogito.uow.events.UnitOfWorkAbortEvent;
+import org.kie.kogito.uow.events.UnitOfWorkEndEvent;
+import org.kie.kogito.uow.events.UnitOfWorkEventListener;
+import org.kie.kogito.uow.events.UnitOfWorkStartEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import static org.kie.kogito.jobs.api.JobCallbackResourceDef.buildCallbackPatternJob;
 import static org.kie.kogito.jobs.api.JobCallbackResourceDef.buildCallbackURI;
 
-public abstract class RestJobsService implements JobsService {
+/**
+ * Base class for the jobs services talking to the Jobs Service REST API.
+ * <p>
+ * Job creations and cancellations are not sent right away but collected by a {@link JobRequestBatcher} and sent
+ * together once the unit of work they belong to has been committed, see {@link #flush(List, int, FailureHandler)}.
+ * Requests that still fail after the last attempt are logged and passed to {@link #onFailedJobRequest(JobRequest, Exception)}.
+ */
+public abstract class RestJobsService implements JobsService, UnitOfWorkEventListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RestJobsService.class);
 
     @SuppressWarnings("squid:S1075")
     public static final String JOBS_PATH = "/jobs";
@@ -34,6 +53,8 @@ public abstract class RestJobsService implements JobsService {
     private URI jobsServiceUri;
     private String callbackEndpoint;
 
+    private final JobRequestBatcher batcher = new JobRequestBatcher(this::flush, this::onFailedJobRequest);
+
     public RestJobsService(String jobServiceUrl, String callbackEndpoint) {
         this.jobsServiceUri = Objects.nonNull(jobServiceUrl) ? buildJobsServiceURI(jobServiceUrl) : null;
         this.callbackEndpoint = callbackEndpoint;
@@ -54,4 +75,58 @@ public abstract class RestJobsService implements JobsService {
     public Job buildJob(ProcessInstanceJobDescription description, String callback) {
         return buildCallbackPatternJob(description, callback);
     }
+
+    @Override
+    public String scheduleProcessInstanceJob(ProcessInstanceJobDescription description) {
+        batcher.create(description);
+        return description.id();
+    }
+
+    @Override
+    public boolean cancelJob(String id) {
+        try {
+            batcher.cancel(id);
+            return true;
+        } catch (RuntimeException e) {
+            LOGGER.warn("Cancellation of job {} failed", id, e);
+            return false;
+        }
+    }
+
+    /**
+     * Sends the given job requests to the Jobs Service, reporting the ones given up on to the failure handler
+     * instead of throwing.
+     *
+     * @param requests requests to be sent, in the order they were made
+     * @param maxAttempts number of times a failing request can be sent before giving up
+     * @param failureHandler receives the requests given up on
+     */
+    protected abstract void flush(List<JobRequest> requests, int maxAttempts, FailureHandler failureHandler);
+
+    /**
+     * Invoked for each job request given up on after its unit of work was committed, does nothing by default.
+     */
+    protected void onFailedJobRequest(JobRequest request, Exception error) {
+        // NO-OP
+    }
+
+    @Override
+    public void onBeforeStartEvent(UnitOfWorkStartEvent event) {
+        batcher.onBeforeStartEvent(event);
+    }
+
+    @Override
+    public void onAfterEndEvent(UnitOfWorkEndEvent event) {
+        batcher.onAfterEndEvent(event);
+    }
+
+    @Override
+    public void onAfterAbortEvent(UnitOfWorkAbortEvent event) {
+        batcher.onAfterAbortEvent(event);
+    }
+
+    @Override
+    public int priority() {
+        return batcher.priority();
+    }
 }
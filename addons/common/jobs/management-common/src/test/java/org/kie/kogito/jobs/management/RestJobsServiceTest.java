@@ -16,12 +16,15 @@
 package org.kie.kogito.jobs.management;
 
 import java.net.URI;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 import org.kie.kogito.jobs.ExactExpirationTime;
 import org.kie.kogito.jobs.ProcessInstanceJobDescription;
 import org.kie.kogito.jobs.ProcessJobDescription;
 import org.kie.kogito.jobs.TimerJobId;
+import org.kie.kogito.jobs.api.JobRequestBatcher.FailureHandler;
+import org.kie.kogito.jobs.api.JobRequestBatcher.JobRequest;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -47,6 +50,10 @@ public class RestJobsServiceTest {
             public boolean cancelJob(String id) {
                 return false;
             }
+
+            @Override
+            protected void flush(List<JobRequest> requests, int maxAttempts, FailureHandler failureHandler) {
+            }
         };
     }
 
@@ -21,4 +21,5 @@ public class Constants {
     public static final String MONITORING_RULE_USE_DEFAULT = "kogito.monitoring.rule.useDefault";
     public static final String MONITORING_PROCESS_USE_DEFAULT = "kogito.monitoring.process.useDefault";
     public static final String HTTP_INTERCEPTOR_USE_DEFAULT = "kogito.monitoring.interceptor.useDefault";
+    public static final String MONITORING_TAGS_MAX_VALUES = "kogito.monitoring.tags.maxValues";
 }
@@ -46,22 +46,27 @@ public class SystemMetricsCollector {
 
     private final KogitoGAV gav;
 
+    private final TagCardinalityLimiter tagLimiter;
+
     public SystemMetricsCollector(KogitoGAV gav, MeterRegistry meterRegistry) {
         this.gav = gav;
         this.registry = meterRegistry;
+        this.tagLimiter = TagCardinalityLimiter.of(meterRegistry);
     }
 
     private Counter getRequestStatusCodeCounter(String endpoint, String identifier) {
         return Counter.builder(STATUS_CODE_NAME)
                 .description(STATUS_CODE_HELP)
-                .tags(Arrays.asList(Tag.of("endpoint", endpoint), Tag.of("identifier", identifier), Tag.of("artifactId", gav.getArtifactId()), Tag.of("version", gav.getVersion())))
+                .tags(Arrays.asList(Tag.of("endpoint", tagLimiter.limit(STATUS_CODE_NAME, "endpoint", endpoint)), Tag.of("identifier", identifier), Tag.of("artifactId", gav.getArtifactId()),
+                        Tag.of("version", gav.getVersion())))
                 .register(registry);
     }
 
     private Counter getExceptionsCounter(String endpoint, String identifier) {
         return Counter.builder(EXCEPTIONS_NAME)
                 .description(EXCEPTIONS_HELP)
-                .tags(Arrays.asList(Tag.of("endpoint", endpoint), Tag.of("identifier", identifier), Tag.of("artifactId", gav.getArtifactId()), Tag.of("version", gav.getVersion())))
+                .tags(Arrays.asList(Tag.of("endpoint", tagLimiter.limit(EXCEPTIONS_NAME, "endpoint", endpoint)), Tag.of("identifier", tagLimiter.limit(EXCEPTIONS_NAME, "identifier", identifier)),
+                        Tag.of("artifactId", gav.getArtifactId()), Tag.of("version", gav.getVersion())))
                 .register(registry);
     }
 
@@ -70,7 +75,7 @@ public class SystemMetricsCollector {
                 .description(ELAPSED_TIME_HELP)
                 .publishPercentiles(ELAPSED_TIME_PERCENTILES)
                 .distributionStatisticExpiry(Duration.ofMinutes(3))
-                .tags(Arrays.asList(Tag.of("endpoint", endpoint), Tag.of("artifactId", gav.getArtifactId()), Tag.of("version", gav.getVersion())))
+                .tags(Arrays.asList(Tag.of("endpoint", tagLimiter.limit(ELAPSED_TIME_NAME, "endpoint", endpoint)), Tag.of("artifactId", gav.getArtifactId()), Tag.of("version", gav.getVersion())))
                 .register(registry);
     }
 
@@ -85,4 +90,12 @@ public class SystemMetricsCollector {
     public void registerException(String endpoint, String stackTrace) {
         getExceptionsCounter(endpoint, stackTrace).increment();
     }
+
+    public void registerException(String endpoint, Throwable throwable) {
+        registerException(endpoint, TagCardinalityLimiter.fingerprint(throwable));
+    }
+
+    public TagCardinalityLimiter getTagLimiter() {
+        return tagLimiter;
+    }
 }
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.monitoring.core.common.system.metrics;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+
+/**
+ * Bounds the number of distinct values a tag key can take for a given meter, so that unbounded inputs
+ * (exception details, string decision outputs, ...) cannot create an unbounded number of time series.
+ * Values beyond the limit are collapsed into {@link #OTHER_TAG_VALUE} and counted in {@link #DROPPED_SERIES_NAME}.
+ * <p>
+ * One limiter is shared per {@link MeterRegistry}, see {@link #of(MeterRegistry)}.
+ */
+public class TagCardinalityLimiter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TagCardinalityLimiter.class);
+
+    public static final int DEFAULT_MAX_VALUES_PER_TAG = 100;
+
+    public static final String OTHER_TAG_VALUE = "other";
+
+    public static final String DROPPED_SERIES_NAME = "kogito_monitoring_dropped_series";
+
+    private static final String DROPPED_SERIES_HELP = "Number of samples whose tag value was replaced because the tag reached its maximum cardinality.";
+
+    private static final Map<MeterRegistry, TagCardinalityLimiter> LIMITERS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final MeterRegistry registry;
+
+    private final Map<String, Set<String>> valuesByTag = new ConcurrentHashMap<>();
+
+    private volatile int maxValuesPerTag;
+
+    public static TagCardinalityLimiter of(MeterRegistry registry) {
+        return LIMITERS.computeIfAbsent(registry, r -> new TagCardinalityLimiter(r, DEFAULT_MAX_VALUES_PER_TAG));
+    }
+
+    public TagCardinalityLimiter(MeterRegistry registry, int maxValuesPerTag) {
+        this.registry = registry;
+        setMaxValuesPerTag(maxValuesPerTag);
+    }
+
+    public int getMaxValuesPerTag() {
+        return maxValuesPerTag;
+    }
+
+    public void setMaxValuesPerTag(int maxValuesPerTag) {
+        if (maxValuesPerTag < 1) {
+            throw new IllegalArgumentException("Maximum number of values per tag must be positive, was " + maxValuesPerTag);
+        }
+        this.maxValuesPerTag = maxValuesPerTag;
+    }
+
+    /**
+     * Returns the value to be used for the given tag: the value itself if it was already seen or if there is still room
+     * for a new one, {@link #OTHER_TAG_VALUE} otherwise.
+     */
+    public String limit(String meterName, String tagKey, String value) {
+        if (value == null) {
+            return OTHER_TAG_VALUE;
+        }
+        Set<String> values = valuesByTag.computeIfAbsent(meterName + '/' + tagKey, k -> ConcurrentHashMap.newKeySet());
+        if (values.contains(value)) {
+            return value;
+        }
+        // check and add are not atomic, so the limit could be exceeded by the number of concurrent writers at most
+        if (values.size() < maxValuesPerTag) {
+            values.add(value);
+            return value;
+        }
+        if (getDroppedSeriesCounter(meterName, tagKey).count() == 0) {
+            LOGGER.warn("Tag {} of meter {} reached its maximum of {} distinct values, further values are recorded as '{}'",
+                    tagKey, meterName, maxValuesPerTag, OTHER_TAG_VALUE);
+        }
+        getDroppedSeriesCounter(meterName, tagKey).increment();
+        return OTHER_TAG_VALUE;
+    }
+
+    private Counter getDroppedSeriesCounter(String meterName, String tagKey) {
+        return Counter.builder(DROPPED_SERIES_NAME)
+                .description(DROPPED_SERIES_HELP)
+                .tags(Arrays.asList(Tag.of("meter", meterName), Tag.of("tag", tagKey)))
+                .register(registry);
+    }
+
+    /**
+     * Reduces an exception to a low cardinality identifier made of its type and its top stack frame.
+     */
+    public static String fingerprint(Throwable throwable) {
+        if (throwable == null) {
+            return OTHER_TAG_VALUE;
+        }
+        StackTraceElement[] stackTrace = throwable.getStackTrace();
+        if (stackTrace == null || stackTrace.length == 0) {
+            return throwable.getClass().getName();
+        }
+        StackTraceElement top = stackTrace[0];
+        return throwable.getClass().getName() + "@" + top.getClassName() + "." + top.getMethodName() + ":" + top.getLineNumber();
+    }
+}
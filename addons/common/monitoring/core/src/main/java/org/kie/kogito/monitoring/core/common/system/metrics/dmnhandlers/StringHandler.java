@@ -18,6 +18,7 @@ package org.kie.kogito.monitoring.core.common.system.metrics.dmnhandlers;
 import java.util.Arrays;
 
 import org.kie.kogito.KogitoGAV;
+import org.kie.kogito.monitoring.core.common.system.metrics.TagCardinalityLimiter;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
@@ -28,11 +29,13 @@ public class StringHandler implements TypeHandler<String> {
     private final String dmnType;
     private final KogitoGAV gav;
     private final MeterRegistry meterRegistry;
+    private final TagCardinalityLimiter tagLimiter;
 
     public StringHandler(String dmnType, KogitoGAV gav, MeterRegistry meterRegistry) {
         this.dmnType = dmnType;
         this.gav = gav;
         this.meterRegistry = meterRegistry;
+        this.tagLimiter = TagCardinalityLimiter.of(meterRegistry);
     }
 
     @Override
@@ -46,11 +49,12 @@ public class StringHandler implements TypeHandler<String> {
     }
 
     private Counter getCounter(String decision, String endpoint, String identifier) {
+        String name = dmnType + DecisionConstants.DECISIONS_NAME_SUFFIX;
         return Counter
-                .builder(dmnType + DecisionConstants.DECISIONS_NAME_SUFFIX)
+                .builder(name)
                 .description(DecisionConstants.DECISIONS_HELP)
                 .tags(Arrays.asList(Tag.of("decision", decision), Tag.of("endpoint", endpoint),
-                        Tag.of("identifier", identifier), Tag.of("artifactId", gav.getArtifactId()),
+                        Tag.of("identifier", tagLimiter.limit(name, "identifier", identifier)), Tag.of("artifactId", gav.getArtifactId()),
                         Tag.of("version", gav.getVersion())))
                 .register(meterRegistry);
     }
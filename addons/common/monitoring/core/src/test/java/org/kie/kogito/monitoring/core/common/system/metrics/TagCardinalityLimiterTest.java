@@ -0,0 +1,92 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.monitoring.core.common.system.metrics;
+
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.KogitoGAV;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TagCardinalityLimiterTest {
+
+    private static final String METER = "meter";
+
+    MeterRegistry registry;
+    TagCardinalityLimiter limiter;
+
+    @BeforeEach
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        limiter = new TagCardinalityLimiter(registry, 3);
+    }
+
+    @Test
+    public void valuesBeyondTheLimitAreCollapsed() {
+        assertThat(limiter.limit(METER, "identifier", "a")).isEqualTo("a");
+        assertThat(limiter.limit(METER, "identifier", "b")).isEqualTo("b");
+        assertThat(limiter.limit(METER, "identifier", "c")).isEqualTo("c");
+        assertThat(limiter.limit(METER, "identifier", "d")).isEqualTo(TagCardinalityLimiter.OTHER_TAG_VALUE);
+        assertThat(limiter.limit(METER, "identifier", "e")).isEqualTo(TagCardinalityLimiter.OTHER_TAG_VALUE);
+        // already known values are still accepted
+        assertThat(limiter.limit(METER, "identifier", "a")).isEqualTo("a");
+
+        assertThat(registry.find(TagCardinalityLimiter.DROPPED_SERIES_NAME)
+                .tag("meter", METER)
+                .tag("tag", "identifier")
+                .counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    public void limitIsPerMeterAndTag() {
+        IntStream.range(0, 3).forEach(i -> limiter.limit(METER, "identifier", "value" + i));
+
+        assertThat(limiter.limit(METER, "endpoint", "value4")).isEqualTo("value4");
+        assertThat(limiter.limit("anotherMeter", "identifier", "value4")).isEqualTo("value4");
+    }
+
+    @Test
+    public void invalidLimit() {
+        assertThatThrownBy(() -> limiter.setMaxValuesPerTag(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void exceptionFingerprint() {
+        IllegalStateException exception = new IllegalStateException("message with a unique id " + System.nanoTime());
+        exception.setStackTrace(new StackTraceElement[] { new StackTraceElement("org.acme.Service", "call", "Service.java", 42) });
+
+        assertThat(TagCardinalityLimiter.fingerprint(exception)).isEqualTo("java.lang.IllegalStateException@org.acme.Service.call:42");
+    }
+
+    @Test
+    public void exceptionsAreLimitedInSystemMetricsCollector() {
+        SystemMetricsCollector collector = new SystemMetricsCollector(KogitoGAV.EMPTY_GAV, registry);
+        collector.getTagLimiter().setMaxValuesPerTag(2);
+
+        IntStream.range(0, 10).forEach(i -> collector.registerException("hello", "stacktrace" + i));
+
+        assertThat(registry.find("api_http_stacktrace_exceptions").counters()).hasSize(3);
+        assertThat(registry.find("api_http_stacktrace_exceptions")
+                .tag("identifier", TagCardinalityLimiter.OTHER_TAG_VALUE)
+                .counter().count()).isEqualTo(8);
+    }
+}
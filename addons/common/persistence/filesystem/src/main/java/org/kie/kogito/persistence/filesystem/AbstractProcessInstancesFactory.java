@@ -16,20 +16,149 @@
 package org.kie.kogito.persistence.filesystem;
 
 import java.nio.file.Paths;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.kie.kogito.process.MutableProcessInstances;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessInstancesFactory;
+import org.kie.kogito.serialization.process.ProcessInstanceMarshallerService;
+import org.kie.kogito.serialization.process.compression.PayloadCompression;
+import org.kie.kogito.uow.events.UnitOfWorkAbortEvent;
+import org.kie.kogito.uow.events.UnitOfWorkEndEvent;
+import org.kie.kogito.uow.events.UnitOfWorkEventListener;
+import org.kie.kogito.uow.events.UnitOfWorkStartEvent;
 
-public abstract class AbstractProcessInstancesFactory implements ProcessInstancesFactory {
+/**
+ * Creates the file system process instance stores. The storage engine is selected with
+ * <code>kogito.persistence.filesystem.storage</code>: <code>file</code>, the default, keeps one file per process
+ * instance while <code>log</code> appends the instances of each process to a {@link SegmentLog}.
+ */
+public abstract class AbstractProcessInstancesFactory implements ProcessInstancesFactory, UnitOfWorkEventListener {
+
+    public static final String STORAGE_FILE = "file";
+    public static final String STORAGE_LOG = "log";
 
     private final String path;
+    private final String storage;
+    private final FsyncPolicy fsyncPolicy;
+    private final long fsyncInterval;
+    private final long segmentSize;
+    private final double compactionThreshold;
+    private final long compactionInterval;
+    private final PayloadCompression compression;
+
+    private final Map<String, SegmentLog> logs = new ConcurrentHashMap<>();
+    private final ThreadLocal<PendingSync> pendingSync = new ThreadLocal<>();
 
     public AbstractProcessInstancesFactory(String path) {
+        this(path, STORAGE_FILE, FsyncPolicy.UNIT_OF_WORK.name(), SegmentLog.DEFAULT_FSYNC_INTERVAL, SegmentLog.DEFAULT_SEGMENT_SIZE, SegmentLog.DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * @param path root directory of the storage
+     * @param storage storage engine, either {@value #STORAGE_FILE} or {@value #STORAGE_LOG}
+     * @param fsyncPolicy name of the {@link FsyncPolicy} of the log storage
+     * @param fsyncInterval milliseconds between syncs of the log storage with the interval fsync policy
+     * @param segmentSize size in bytes of the segments of the log storage
+     * @param compactionThreshold ratio of obsolete data from which a segment of the log storage is compacted
+     */
+    public AbstractProcessInstancesFactory(String path, String storage, String fsyncPolicy, long fsyncInterval, long segmentSize, double compactionThreshold) {
+        this(path, storage, fsyncPolicy, fsyncInterval, segmentSize, compactionThreshold, PayloadCompression.NONE, PayloadCompression.DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * @param compression codec compressing the marshalled process instances, see {@link PayloadCompression}
+     * @param compressionThreshold minimum size in bytes of the marshalled process instances to compress
+     */
+    public AbstractProcessInstancesFactory(String path, String storage, String fsyncPolicy, long fsyncInterval, long segmentSize, double compactionThreshold, String compression,
+            Integer compressionThreshold) {
+        this(path, storage, fsyncPolicy, fsyncInterval, segmentSize, compactionThreshold, SegmentLog.DEFAULT_COMPACTION_INTERVAL, compression, compressionThreshold);
+    }
+
+    /**
+     * @param compactionInterval milliseconds between background compactions of the log storage, disabled when not
+     *        positive
+     */
+    public AbstractProcessInstancesFactory(String path, String storage, String fsyncPolicy, long fsyncInterval, long segmentSize, double compactionThreshold, long compactionInterval,
+            String compression, Integer compressionThreshold) {
         this.path = path;
+        this.storage = storage;
+        this.fsyncPolicy = fsyncPolicy == null ? FsyncPolicy.UNIT_OF_WORK : FsyncPolicy.from(fsyncPolicy);
+        this.fsyncInterval = fsyncInterval;
+        this.segmentSize = segmentSize;
+        this.compactionThreshold = compactionThreshold;
+        this.compactionInterval = compactionInterval;
+        this.compression = PayloadCompression.of(compression, compressionThreshold);
+    }
+
+    public MutableProcessInstances createProcessInstances(Process<?> process) {
+        if (STORAGE_LOG.equalsIgnoreCase(storage)) {
+            SegmentLog log = logs.computeIfAbsent(process.id(),
+                    id -> new SegmentLog(Paths.get(path, id + "-log"), segmentSize, compactionThreshold, fsyncPolicy, fsyncInterval, compactionInterval));
+            return new LogStructuredProcessInstances(process, log, marshaller(), this::written);
+        }
+        return new FileSystemProcessInstances(process, Paths.get(path), marshaller());
+    }
+
+    /**
+     * Closes the logs of the log storage, syncing any pending write.
+     */
+    public void close() {
+        logs.values().forEach(SegmentLog::close);
+        logs.clear();
     }
 
-    public FileSystemProcessInstances createProcessInstances(Process<?> process) {
-        return new FileSystemProcessInstances(process, Paths.get(path));
+    @Override
+    public void onBeforeStartEvent(UnitOfWorkStartEvent event) {
+        PendingSync pending = pendingSync.get();
+        if (pending == null) {
+            pending = new PendingSync();
+            pendingSync.set(pending);
+        }
+        pending.depth++;
     }
 
+    @Override
+    public void onAfterEndEvent(UnitOfWorkEndEvent event) {
+        release();
+    }
+
+    @Override
+    public void onAfterAbortEvent(UnitOfWorkAbortEvent event) {
+        release();
+    }
+
+    private void written(SegmentLog log) {
+        if (log.getFsyncPolicy() != FsyncPolicy.UNIT_OF_WORK) {
+            return;
+        }
+        PendingSync pending = pendingSync.get();
+        if (pending == null) {
+            log.sync();
+        } else {
+            pending.logs.add(log);
+        }
+    }
+
+    private void release() {
+        PendingSync pending = pendingSync.get();
+        if (pending != null && --pending.depth == 0) {
+            // the writes of nested units of work are synced together with the outermost one
+            pendingSync.remove();
+            pending.logs.forEach(SegmentLog::sync);
+        }
+    }
+
+    private ProcessInstanceMarshallerService marshaller() {
+        return ProcessInstanceMarshallerService.newBuilder().withDefaultObjectMarshallerStrategies().withCompression(compression).build();
+    }
+
+    private static class PendingSync {
+
+        private int depth;
+        private final Set<SegmentLog> logs = new LinkedHashSet<>();
+    }
 }
@@ -32,6 +32,7 @@ import org.kie.kogito.process.MutableProcessInstances;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessInstance;
 import org.kie.kogito.process.ProcessInstanceDuplicatedException;
+import org.kie.kogito.process.ProcessInstanceHeader;
 import org.kie.kogito.process.ProcessInstanceReadMode;
 import org.kie.kogito.process.impl.AbstractProcessInstance;
 import org.kie.kogito.serialization.process.ProcessInstanceMarshallerService;
@@ -103,6 +104,34 @@ public class FileSystemProcessInstances implements MutableProcessInstances {
         }
     }
 
+    @Override
+    public Optional findVariablesById(String id) {
+        return read(id).map(data -> marshaller.unmarshallProcessInstanceVariables(data, process));
+    }
+
+    @Override
+    public Optional<ProcessInstanceHeader> findHeaderById(String id) {
+        return read(id).map(data -> marshaller.unmarshallProcessInstanceHeader(data, process));
+    }
+
+    @Override
+    public Stream streamVariables() {
+        try {
+            // closing the returned stream closes the directory walk
+            return Files.walk(storage)
+                    .filter(file -> !Files.isDirectory(file))
+                    .map(this::readBytesFromFile)
+                    .map(b -> marshaller.unmarshallProcessInstanceVariables(b, process));
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to read process instances ", e);
+        }
+    }
+
+    private Optional<byte[]> read(String id) {
+        Path processInstanceStorage = Paths.get(storage.toString(), id);
+        return Files.notExists(processInstanceStorage) ? Optional.empty() : Optional.of(readBytesFromFile(processInstanceStorage));
+    }
+
     @Override
     public boolean exists(String id) {
         return Files.exists(Paths.get(storage.toString(), id));
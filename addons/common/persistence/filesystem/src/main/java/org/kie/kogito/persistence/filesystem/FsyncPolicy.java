@@ -0,0 +1,39 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.persistence.filesystem;
+
+/**
+ * Defines when the records appended to a {@link SegmentLog} are forced to disk.
+ */
+public enum FsyncPolicy {
+
+    /**
+     * Records are synced once the unit of work that wrote them ends, or right away when written outside of one.
+     */
+    UNIT_OF_WORK,
+    /**
+     * Records are synced at most once per configured interval; a crash might lose the writes of the last interval.
+     */
+    INTERVAL,
+    /**
+     * Records are left to the operating system, which flushes them at its own pace.
+     */
+    NONE;
+
+    public static FsyncPolicy from(String value) {
+        return valueOf(value.trim().toUpperCase().replace('-', '_'));
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.persistence.filesystem;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.kie.kogito.process.MutableProcessInstances;
+import org.kie.kogito.process.Process;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceDuplicatedException;
+import org.kie.kogito.process.ProcessInstanceHeader;
+import org.kie.kogito.process.ProcessInstanceReadMode;
+import org.kie.kogito.process.impl.AbstractProcessInstance;
+import org.kie.kogito.serialization.process.ProcessInstanceMarshallerService;
+
+import static org.kie.kogito.process.ProcessInstanceReadMode.MUTABLE;
+
+/**
+ * File system storage of process instances backed by a {@link SegmentLog}: instances are appended to segment files
+ * and located through an in-memory index, so that counting and listing them does not need to walk the file system.
+ */
+@SuppressWarnings({ "rawtypes" })
+public class LogStructuredProcessInstances implements MutableProcessInstances {
+
+    private final Process<?> process;
+    private final SegmentLog log;
+    private final ProcessInstanceMarshallerService marshaller;
+    private final Consumer<SegmentLog> writeListener;
+
+    public LogStructuredProcessInstances(Process<?> process, SegmentLog log) {
+        this(process, log, ProcessInstanceMarshallerService.newBuilder().withDefaultObjectMarshallerStrategies().build(), SegmentLog::sync);
+    }
+
+    /**
+     * @param process process whose instances are stored
+     * @param log log holding the instances of the process
+     * @param marshaller marshaller of the process instances
+     * @param writeListener notified after each write, in charge of syncing the log when required by its fsync policy
+     */
+    public LogStructuredProcessInstances(Process<?> process, SegmentLog log, ProcessInstanceMarshallerService marshaller, Consumer<SegmentLog> writeListener) {
+        this.process = process;
+        this.log = log;
+        this.marshaller = marshaller;
+        this.writeListener = writeListener;
+    }
+
+    @Override
+    public Integer size() {
+        return log.size();
+    }
+
+    @Override
+    public Optional findById(String id, ProcessInstanceReadMode mode) {
+        return log.get(id).map(data -> unmarshall(data, mode));
+    }
+
+    @Override
+    public Collection values(ProcessInstanceReadMode mode) {
+        return log.values().stream().map(data -> unmarshall(data, mode)).collect(Collectors.toList());
+    }
+
+    @Override
+    public Optional findVariablesById(String id) {
+        return log.get(id).map(data -> marshaller.unmarshallProcessInstanceVariables(data, process));
+    }
+
+    @Override
+    public Optional<ProcessInstanceHeader> findHeaderById(String id) {
+        return log.get(id).map(data -> marshaller.unmarshallProcessInstanceHeader(data, process));
+    }
+
+    @Override
+    public Stream streamVariables() {
+        return log.values().stream().map(data -> marshaller.unmarshallProcessInstanceVariables(data, process));
+    }
+
+    @Override
+    public boolean exists(String id) {
+        return log.contains(id);
+    }
+
+    @Override
+    public void create(String id, ProcessInstance instance) {
+        if (isActive(instance)) {
+            if (log.contains(id)) {
+                throw new ProcessInstanceDuplicatedException(id);
+            }
+            store(id, instance);
+        }
+    }
+
+    @Override
+    public void update(String id, ProcessInstance instance) {
+        if (isActive(instance) && log.contains(id)) {
+            store(id, instance);
+            disconnect(id, instance);
+        }
+    }
+
+    @Override
+    public void remove(String id) {
+        log.remove(id);
+        writeListener.accept(log);
+    }
+
+    protected void store(String id, ProcessInstance<?> instance) {
+        log.put(id, marshaller.marshallProcessInstance(instance));
+        writeListener.accept(log);
+    }
+
+    protected void disconnect(String id, ProcessInstance instance) {
+        Supplier<byte[]> supplier = () -> log.get(id).orElseThrow(() -> new IllegalStateException("Process instance with id " + id + " is no longer stored"));
+        ((AbstractProcessInstance<?>) instance).internalRemoveProcessInstance(marshaller.createdReloadFunction(supplier));
+    }
+
+    private ProcessInstance unmarshall(byte[] data, ProcessInstanceReadMode mode) {
+        return mode == MUTABLE ? marshaller.unmarshallProcessInstance(data, process) : marshaller.unmarshallReadOnlyProcessInstance(data, process);
+    }
+}
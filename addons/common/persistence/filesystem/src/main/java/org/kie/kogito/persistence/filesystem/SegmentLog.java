@@ -0,0 +1,578 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.persistence.filesystem;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only key value log stored as a sequence of segment files within a directory, with an in-memory index from
+ * each key to the location of its latest value.
+ * <p>
+ * Every write appends a record to the active segment; once it reaches the configured size a new segment is started.
+ * Records are laid out as
+ * <code>crc (int) | type (byte) | key length (int) | value length (int) | key | value</code>, the checksum covering
+ * everything that follows it, and removals are recorded as tombstones. Sealed segments whose share of overwritten or
+ * removed data reaches the compaction threshold are compacted by a background task run at a fixed interval, see
+ * {@link #compact()}: their live records are copied to the active segment and the file is deleted. A tombstone is live
+ * only while an older segment still holds a value of its key, so each segment keeps the set of keys it holds values of;
+ * once those segments are compacted the tombstone is dropped.
+ * <p>
+ * When opened, the index is rebuilt by scanning the segments in order. A record that is incomplete or fails its
+ * checksum, as left by a crash in the middle of a write, marks the end of the valid data of its segment and the
+ * segment is truncated there.
+ * <p>
+ * Segments are forced to disk according to the {@link FsyncPolicy}: with {@link FsyncPolicy#INTERVAL} the log syncs
+ * on the first write once the interval has elapsed, while with {@link FsyncPolicy#UNIT_OF_WORK} the caller is
+ * expected to invoke {@link #sync()}. Segments are always synced before a compacted segment is deleted and when the
+ * log is closed.
+ */
+public class SegmentLog implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SegmentLog.class);
+
+    public static final long DEFAULT_SEGMENT_SIZE = 64L * 1024 * 1024;
+    public static final double DEFAULT_COMPACTION_THRESHOLD = 0.5;
+    public static final long DEFAULT_FSYNC_INTERVAL = 1000L;
+    public static final long DEFAULT_COMPACTION_INTERVAL = 10000L;
+
+    static final int HEADER_SIZE = Integer.BYTES + Byte.BYTES + Integer.BYTES + Integer.BYTES;
+
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d+)\\.log");
+
+    private final Path directory;
+    private final long segmentSize;
+    private final double compactionThreshold;
+    private final FsyncPolicy fsyncPolicy;
+    private final long fsyncInterval;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private final Map<String, Location> index = new HashMap<>();
+    // tombstones still hiding a value of their key in an older segment
+    private final Map<String, Location> tombstones = new HashMap<>();
+    // serializes compactions and closing the log
+    private final Object compactionLock = new Object();
+    private final ScheduledFuture<?> compactionTask;
+
+    private Segment active;
+    private boolean dirty;
+    private long lastSync = System.currentTimeMillis();
+    private boolean closed;
+
+    public SegmentLog(Path directory) {
+        this(directory, DEFAULT_SEGMENT_SIZE, DEFAULT_COMPACTION_THRESHOLD, FsyncPolicy.UNIT_OF_WORK, DEFAULT_FSYNC_INTERVAL);
+    }
+
+    public SegmentLog(Path directory, long segmentSize, double compactionThreshold, FsyncPolicy fsyncPolicy, long fsyncInterval) {
+        this(directory, segmentSize, compactionThreshold, fsyncPolicy, fsyncInterval, DEFAULT_COMPACTION_INTERVAL);
+    }
+
+    /**
+     * @param directory directory holding the segment files, created if missing
+     * @param segmentSize size in bytes after which the active segment is sealed and a new one is started
+     * @param compactionThreshold ratio of obsolete data, between 0 and 1, from which a sealed segment is compacted
+     * @param fsyncPolicy when segments are forced to disk
+     * @param fsyncInterval interval in milliseconds between syncs, used by {@link FsyncPolicy#INTERVAL}
+     * @param compactionInterval interval in milliseconds between background compactions, none are run when not
+     *        positive
+     */
+    public SegmentLog(Path directory, long segmentSize, double compactionThreshold, FsyncPolicy fsyncPolicy, long fsyncInterval, long compactionInterval) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.compactionThreshold = compactionThreshold;
+        this.fsyncPolicy = fsyncPolicy;
+        this.fsyncInterval = fsyncInterval;
+        try {
+            Files.createDirectories(directory);
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open segment log in " + directory, e);
+        }
+        this.compactionTask = compactionInterval > 0
+                ? CompactionScheduler.EXECUTOR.scheduleWithFixedDelay(this::compactInBackground, compactionInterval, compactionInterval, TimeUnit.MILLISECONDS)
+                : null;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public FsyncPolicy getFsyncPolicy() {
+        return fsyncPolicy;
+    }
+
+    public Optional<byte[]> get(String key) {
+        lock.readLock().lock();
+        try {
+            Location location = index.get(key);
+            return location == null ? Optional.empty() : Optional.of(read(location));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read " + key + " from segment log in " + directory, e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(String key) {
+        lock.readLock().lock();
+        try {
+            return index.containsKey(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the latest value of every key, read in the order they are laid out on disk.
+     */
+    public Collection<byte[]> values() {
+        lock.readLock().lock();
+        try {
+            List<Location> locations = new ArrayList<>(index.values());
+            locations.sort((l1, l2) -> l1.segment.id == l2.segment.id ? Long.compare(l1.offset, l2.offset) : Long.compare(l1.segment.id, l2.segment.id));
+            List<byte[]> values = new ArrayList<>(locations.size());
+            for (Location location : locations) {
+                values.add(read(location));
+            }
+            return values;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read values from segment log in " + directory, e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void put(String key, byte[] value) {
+        write(PUT, key, value);
+    }
+
+    public void remove(String key) {
+        write(DELETE, key, new byte[0]);
+    }
+
+    /**
+     * Forces the records appended since the last sync to disk.
+     */
+    public void sync() {
+        lock.writeLock().lock();
+        try {
+            syncActive();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to sync segment log in " + directory, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Compacts every sealed segment whose ratio of obsolete data reaches the compaction threshold. Sealed segments are
+     * read without holding the lock, which is only taken to copy each live record, so reads and writes go on while
+     * compacting.
+     */
+    public void compact() {
+        synchronized (compactionLock) {
+            if (closed) {
+                return;
+            }
+            try {
+                for (Segment segment : compactionCandidates()) {
+                    compact(segment);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to compact segment log in " + directory, e);
+            }
+        }
+    }
+
+    int segmentCount() {
+        lock.readLock().lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (compactionTask != null) {
+            compactionTask.cancel(false);
+        }
+        // waits for a running compaction to complete
+        synchronized (compactionLock) {
+            closed = true;
+            lock.writeLock().lock();
+            try {
+                syncActive();
+                for (Segment segment : segments.values()) {
+                    segment.channel.close();
+                }
+                segments.clear();
+                index.clear();
+                tombstones.clear();
+                active = null;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to close segment log in " + directory, e);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private void write(byte type, String key, byte[] value) {
+        lock.writeLock().lock();
+        try {
+            if (type == DELETE && !index.containsKey(key)) {
+                return;
+            }
+            append(type, key.getBytes(StandardCharsets.UTF_8), value);
+            if (fsyncPolicy == FsyncPolicy.INTERVAL && System.currentTimeMillis() - lastSync >= fsyncInterval) {
+                syncActive();
+            }
+            rollIfFull();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write " + key + " to segment log in " + directory, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void append(byte type, byte[] key, byte[] value) throws IOException {
+        int length = HEADER_SIZE + key.length + value.length;
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        buffer.putInt(0).put(type).putInt(key.length).putInt(value.length).put(key).put(value);
+        buffer.putInt(0, checksum(buffer.array(), Integer.BYTES, length - Integer.BYTES));
+        buffer.flip();
+
+        long offset = active.size;
+        while (buffer.hasRemaining()) {
+            active.channel.write(buffer, offset + buffer.position());
+        }
+        active.size += length;
+        dirty = true;
+        index(type, new String(key, StandardCharsets.UTF_8), new Location(active, offset, length, key.length, value.length));
+    }
+
+    private void index(byte type, String key, Location location) {
+        Location previous = type == PUT ? index.put(key, location) : index.remove(key);
+        if (previous != null) {
+            previous.segment.liveBytes -= previous.length;
+        }
+        Location tombstone = tombstones.remove(key);
+        if (tombstone != null) {
+            tombstone.segment.liveBytes -= tombstone.length;
+        }
+        if (type == PUT) {
+            location.segment.liveBytes += location.length;
+            location.segment.keys.add(key);
+        } else if (heldBefore(key, location.segment.id)) {
+            tombstones.put(key, location);
+            location.segment.liveBytes += location.length;
+        }
+    }
+
+    /**
+     * Returns whether a segment older than the given one holds a value of the key.
+     */
+    private boolean heldBefore(String key, long segmentId) {
+        for (Segment segment : segments.headMap(segmentId).values()) {
+            if (segment.keys.contains(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private byte[] read(Location location) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(location.valueLength);
+        long position = location.offset + HEADER_SIZE + location.keyLength;
+        while (buffer.hasRemaining()) {
+            if (location.segment.channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of segment " + location.segment.path);
+            }
+        }
+        return buffer.array();
+    }
+
+    private void syncActive() throws IOException {
+        if (dirty && active != null) {
+            active.channel.force(false);
+            dirty = false;
+        }
+        lastSync = System.currentTimeMillis();
+    }
+
+    private void rollIfFull() throws IOException {
+        if (active.size >= segmentSize) {
+            roll();
+        }
+    }
+
+    private void roll() throws IOException {
+        if (fsyncPolicy != FsyncPolicy.NONE) {
+            syncActive();
+        }
+        active = openSegment(active.id + 1);
+        dirty = false;
+    }
+
+    private void compactInBackground() {
+        try {
+            compact();
+        } catch (RuntimeException e) {
+            // a failing run must not cancel the next ones
+            LOGGER.warn("Unable to compact segment log in {}", directory, e);
+        }
+    }
+
+    private List<Segment> compactionCandidates() {
+        lock.readLock().lock();
+        try {
+            List<Segment> candidates = new ArrayList<>();
+            for (Segment segment : segments.values()) {
+                if (segment != active && segment.size > 0 && segment.size - segment.liveBytes >= compactionThreshold * segment.size) {
+                    candidates.add(segment);
+                }
+            }
+            return candidates;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void compact(Segment segment) throws IOException {
+        LOGGER.debug("Compacting segment {} of {} bytes", segment.path, segment.size);
+        Set<Segment> targets = new HashSet<>();
+        // the segment is sealed, so it is read without the lock and each record is checked against the index under it
+        scan(segment, (type, key, value, location) -> {
+            lock.writeLock().lock();
+            try {
+                if (isLive(type, key, location)) {
+                    append(type, key.getBytes(StandardCharsets.UTF_8), value);
+                    targets.add(active);
+                    rollIfFull();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+        lock.writeLock().lock();
+        try {
+            for (Segment target : targets) {
+                if (target == active) {
+                    syncActive();
+                } else {
+                    target.channel.force(false);
+                }
+            }
+            segments.remove(segment.id);
+            segment.channel.close();
+            Files.delete(segment.path);
+            releaseTombstones(segment);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean isLive(byte type, String key, Location location) {
+        Location current = type == PUT ? index.get(key) : tombstones.get(key);
+        return current != null && current.segment == location.segment && current.offset == location.offset;
+    }
+
+    /**
+     * Drops the tombstones that no longer hide any value once the given segment is deleted.
+     */
+    private void releaseTombstones(Segment segment) {
+        for (String key : segment.keys) {
+            Location tombstone = tombstones.get(key);
+            if (tombstone != null && !heldBefore(key, tombstone.segment.id)) {
+                tombstones.remove(key);
+                tombstone.segment.liveBytes -= tombstone.length;
+            }
+        }
+    }
+
+    private void recover() throws IOException {
+        List<Long> ids = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    ids.add(Long.parseLong(matcher.group(1)));
+                }
+            });
+        }
+        ids.sort(Long::compare);
+        for (Long id : ids) {
+            Segment segment = openSegment(id);
+            segment.size = scan(segment, (type, key, value, location) -> index(type, key, location));
+            if (segment.size < segment.channel.size()) {
+                LOGGER.warn("Truncating segment {} at offset {} after an incomplete or corrupted record", segment.path, segment.size);
+                segment.channel.truncate(segment.size);
+                segment.channel.force(true);
+            }
+        }
+        if (segments.isEmpty()) {
+            active = openSegment(1);
+        } else {
+            active = segments.lastEntry().getValue();
+        }
+        LOGGER.debug("Recovered {} entries from {} segments in {}", index.size(), segments.size(), directory);
+    }
+
+    /**
+     * Reads the records of a segment in order, returning the offset following the last valid record.
+     */
+    private long scan(Segment segment, RecordConsumer consumer) throws IOException {
+        long fileSize = segment.channel.size();
+        long offset = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (offset + HEADER_SIZE <= fileSize) {
+            header.clear();
+            readFully(segment.channel, header, offset);
+            int crc = header.getInt(0);
+            byte type = header.get(Integer.BYTES);
+            int keyLength = header.getInt(Integer.BYTES + Byte.BYTES);
+            int valueLength = header.getInt(Integer.BYTES + Byte.BYTES + Integer.BYTES);
+            if ((type != PUT && type != DELETE) || keyLength < 0 || valueLength < 0 || offset + HEADER_SIZE + keyLength + valueLength > fileSize) {
+                break;
+            }
+            int length = HEADER_SIZE + keyLength + valueLength;
+            ByteBuffer record = ByteBuffer.allocate(length);
+            readFully(segment.channel, record, offset);
+            if (checksum(record.array(), Integer.BYTES, length - Integer.BYTES) != crc) {
+                break;
+            }
+            String key = new String(record.array(), HEADER_SIZE, keyLength, StandardCharsets.UTF_8);
+            byte[] value = new byte[valueLength];
+            System.arraycopy(record.array(), HEADER_SIZE + keyLength, value, 0, valueLength);
+            consumer.accept(type, key, value, new Location(segment, offset, length, keyLength, valueLength));
+            offset += length;
+        }
+        return offset;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of file");
+            }
+        }
+    }
+
+    private static int checksum(byte[] data, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(data, offset, length);
+        return (int) crc.getValue();
+    }
+
+    private Segment openSegment(long id) throws IOException {
+        Path path = directory.resolve(String.format("segment-%010d.log", id));
+        Segment segment = new Segment(id, path, FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE));
+        segments.put(id, segment);
+        return segment;
+    }
+
+    @FunctionalInterface
+    private interface RecordConsumer {
+        void accept(byte type, String key, byte[] value, Location location) throws IOException;
+    }
+
+    private static class Segment {
+
+        private final long id;
+        private final Path path;
+        private final FileChannel channel;
+        // keys this segment holds a value of, even overwritten
+        private final Set<String> keys = new HashSet<>();
+        private long size;
+        private long liveBytes;
+
+        private Segment(long id, Path path, FileChannel channel) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+        }
+    }
+
+    private static class CompactionScheduler {
+
+        private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "kogito-segment-log-compaction");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static class Location {
+
+        private final Segment segment;
+        private final long offset;
+        private final int length;
+        private final int keyLength;
+        private final int valueLength;
+
+        private Location(Segment segment, long offset, int length, int keyLength, int valueLength) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+            this.keyLength = keyLength;
+            this.valueLength = valueLength;
+        }
+    }
+}
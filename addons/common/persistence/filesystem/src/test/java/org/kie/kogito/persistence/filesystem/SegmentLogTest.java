@@ -0,0 +1,229 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.persistence.filesystem;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SegmentLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testPutGetRemove() {
+        try (SegmentLog log = new SegmentLog(directory)) {
+            log.put("a", bytes("first"));
+            log.put("b", bytes("second"));
+            log.put("a", bytes("first updated"));
+            log.remove("b");
+
+            assertThat(log.size()).isOne();
+            assertThat(log.contains("b")).isFalse();
+            assertThat(log.get("a")).hasValueSatisfying(value -> assertThat(string(value)).isEqualTo("first updated"));
+            assertThat(log.get("b")).isEmpty();
+            assertThat(log.values()).extracting(SegmentLogTest::string).containsExactly("first updated");
+        }
+    }
+
+    @Test
+    void testRecoveryRebuildsIndex() {
+        try (SegmentLog log = log(128, FsyncPolicy.NONE)) {
+            for (int i = 0; i < 20; i++) {
+                log.put("key" + i, bytes("value" + i));
+            }
+            log.remove("key3");
+            log.put("key5", bytes("value5 updated"));
+        }
+
+        try (SegmentLog log = log(128, FsyncPolicy.NONE)) {
+            assertThat(log.size()).isEqualTo(19);
+            assertThat(log.contains("key3")).isFalse();
+            assertThat(log.get("key5")).hasValueSatisfying(value -> assertThat(string(value)).isEqualTo("value5 updated"));
+            assertThat(log.get("key19")).hasValueSatisfying(value -> assertThat(string(value)).isEqualTo("value19"));
+        }
+    }
+
+    @Test
+    void testRecoveryTruncatesIncompleteRecord() throws IOException {
+        try (SegmentLog log = new SegmentLog(directory)) {
+            log.put("a", bytes("first"));
+            log.put("b", bytes("second"));
+        }
+        Path segment = segments().get(0);
+        long validSize = Files.size(segment);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            // simulates a crash in the middle of a write
+            channel.truncate(validSize - 3);
+        }
+
+        try (SegmentLog log = new SegmentLog(directory)) {
+            assertThat(log.size()).isOne();
+            assertThat(log.get("a")).hasValueSatisfying(value -> assertThat(string(value)).isEqualTo("first"));
+            log.put("c", bytes("third"));
+        }
+
+        try (SegmentLog log = new SegmentLog(directory)) {
+            assertThat(log.values()).extracting(SegmentLogTest::string).containsExactly("first", "third");
+        }
+    }
+
+    @Test
+    void testRecoveryIgnoresCorruptedRecord() throws IOException {
+        try (SegmentLog log = new SegmentLog(directory)) {
+            log.put("a", bytes("first"));
+            log.put("b", bytes("second"));
+        }
+        Path segment = segments().get(0);
+        byte[] data = Files.readAllBytes(segment);
+        data[data.length - 1] ^= 0xFF;
+        Files.write(segment, data);
+
+        try (SegmentLog log = new SegmentLog(directory)) {
+            assertThat(log.size()).isOne();
+            assertThat(log.contains("b")).isFalse();
+        }
+    }
+
+    @Test
+    void testCompaction() throws IOException {
+        try (SegmentLog log = log(256, FsyncPolicy.NONE)) {
+            for (int round = 0; round < 50; round++) {
+                for (int i = 0; i < 5; i++) {
+                    log.put("key" + i, bytes("value" + i + "-" + round));
+                }
+            }
+            log.put("removed", bytes("removed"));
+            log.remove("removed");
+            log.compact();
+
+            assertThat(log.size()).isEqualTo(5);
+            assertThat(log.segmentCount()).isLessThan(5);
+            assertThat(segments()).hasSize(log.segmentCount());
+            assertThat(log.get("key4")).hasValueSatisfying(value -> assertThat(string(value)).isEqualTo("value4-49"));
+        }
+
+        try (SegmentLog log = log(256, FsyncPolicy.NONE)) {
+            assertThat(log.size()).isEqualTo(5);
+            assertThat(log.contains("removed")).isFalse();
+            assertThat(log.values()).extracting(SegmentLogTest::string).containsExactlyInAnyOrder("value0-49", "value1-49", "value2-49", "value3-49", "value4-49");
+        }
+    }
+
+    @Test
+    void testCompactionKeepsTombstonesOfOlderSegments() {
+        try (SegmentLog log = log(64, FsyncPolicy.NONE)) {
+            log.put("removed", bytes("removed"));
+            for (int i = 0; i < 10; i++) {
+                log.put("key" + i, bytes("value" + i));
+            }
+            log.remove("removed");
+            for (int i = 10; i < 20; i++) {
+                log.put("key" + i, bytes("value" + i));
+            }
+            log.compact();
+        }
+
+        try (SegmentLog log = log(64, FsyncPolicy.NONE)) {
+            assertThat(log.contains("removed")).isFalse();
+            assertThat(log.size()).isEqualTo(20);
+        }
+    }
+
+    @Test
+    void testNeededTombstonesAreNotCompacted() throws IOException {
+        try (SegmentLog log = log(100, FsyncPolicy.NONE)) {
+            for (int i = 0; i < 5; i++) {
+                log.put("r" + i, bytes("v"));
+            }
+            log.put("keep", bytes(repeat('k', 90)));
+            for (int i = 0; i < 5; i++) {
+                log.remove("r" + i);
+            }
+            log.put("filler", bytes(repeat('f', 20)));
+            log.put("filler", bytes("overwritten"));
+            List<Path> segments = segments();
+
+            // the segment of the tombstones is mostly live as they hide the values of the first one
+            log.compact();
+            assertThat(segments()).isEqualTo(segments);
+
+            log.put("keep", bytes("overwritten"));
+            log.compact();
+            log.compact();
+            assertThat(segments()).hasSize(1);
+            assertThat(string(Files.readAllBytes(segments().get(0)))).doesNotContain("r0");
+        }
+
+        try (SegmentLog log = log(100, FsyncPolicy.NONE)) {
+            assertThat(log.size()).isEqualTo(2);
+            assertThat(log.contains("r0")).isFalse();
+            assertThat(log.get("keep")).hasValueSatisfying(value -> assertThat(string(value)).isEqualTo("overwritten"));
+        }
+    }
+
+    @Test
+    void testBackgroundCompaction() throws Exception {
+        try (SegmentLog log = new SegmentLog(directory, 64, SegmentLog.DEFAULT_COMPACTION_THRESHOLD, FsyncPolicy.NONE, SegmentLog.DEFAULT_FSYNC_INTERVAL, 10)) {
+            for (int round = 0; round < 20; round++) {
+                log.put("key", bytes("value" + round));
+            }
+            long deadline = System.currentTimeMillis() + 5000;
+            while (log.segmentCount() > 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(log.segmentCount()).isLessThanOrEqualTo(2);
+            assertThat(log.get("key")).hasValueSatisfying(value -> assertThat(string(value)).isEqualTo("value19"));
+        }
+    }
+
+    private SegmentLog log(long segmentSize, FsyncPolicy fsyncPolicy) {
+        return new SegmentLog(directory, segmentSize, SegmentLog.DEFAULT_COMPACTION_THRESHOLD, fsyncPolicy, SegmentLog.DEFAULT_FSYNC_INTERVAL, 0);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static String repeat(char character, int count) {
+        char[] characters = new char[count];
+        Arrays.fill(characters, character);
+        return new String(characters);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(UTF_8);
+    }
+
+    private static String string(byte[] value) {
+        return new String(value, UTF_8);
+    }
+}
@@ -16,6 +16,7 @@
 package org.kie.persistence.filesystem;
 
 import java.util.Collections;
+import java.util.stream.Stream;
 
 import org.drools.io.ClassPathResource;
 import org.jbpm.process.instance.impl.Action;
@@ -29,6 +30,7 @@ import org.kie.kogito.persistence.filesystem.AbstractProcessInstancesFactory;
 import org.kie.kogito.persistence.filesystem.FileSystemProcessInstances;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceHeader;
 import org.kie.kogito.process.ProcessInstanceReadMode;
 import org.kie.kogito.process.ProcessInstances;
 import org.kie.kogito.process.WorkItem;
@@ -118,6 +120,30 @@ class FileSystemProcessInstancesTest {
         assertThat(instances.size()).isZero();
     }
 
+    @Test
+    void testFindVariablesAndHeaderById() {
+        BpmnProcess process = createProcess("BPMN2-UserTask.bpmn2");
+        ProcessInstance<BpmnVariables> processInstance = process.createInstance("business-key", BpmnVariables.create(Collections.singletonMap("test", "value")));
+        processInstance.start();
+
+        ProcessInstances<BpmnVariables> instances = process.instances();
+        ProcessInstance<BpmnVariables> readOnlyPi = instances.findById(processInstance.id(), ProcessInstanceReadMode.READ_ONLY).get();
+
+        assertThat(instances.findVariablesById(processInstance.id())).hasValueSatisfying(variables -> assertThat(variables.toMap()).isEqualTo(readOnlyPi.variables().toMap()));
+        assertThat(instances.findHeaderById(processInstance.id())).hasValueSatisfying(header -> {
+            assertThat(header).isEqualTo(ProcessInstanceHeader.of(readOnlyPi));
+            assertThat(header.businessKey()).isEqualTo("business-key");
+            assertThat(header.status()).isEqualTo(STATE_ACTIVE);
+        });
+        try (Stream<BpmnVariables> variables = instances.streamVariables()) {
+            assertThat(variables).singleElement().satisfies(v -> assertThat(v.get("test")).isEqualTo("value"));
+        }
+        assertThat(instances.findVariablesById("unknown")).isEmpty();
+        assertThat(instances.findHeaderById("unknown")).isEmpty();
+
+        processInstance.abort();
+    }
+
     @Test
     void testBasicFlow() {
         BpmnProcess process = createProcess("BPMN2-UserTask.bpmn2");
@@ -233,7 +259,7 @@ class FileSystemProcessInstancesTest {
 
         @Override
         public FileSystemProcessInstances createProcessInstances(Process<?> process) {
-            FileSystemProcessInstances instances = spy(super.createProcessInstances(process));
+            FileSystemProcessInstances instances = spy((FileSystemProcessInstances) super.createProcessInstances(process));
             return instances;
         }
 
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.persistence.filesystem;
+
+import java.nio.file.Path;
+import java.util.Collections;
+
+import org.drools.io.ClassPathResource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.kie.kogito.auth.SecurityPolicy;
+import org.kie.kogito.persistence.filesystem.AbstractProcessInstancesFactory;
+import org.kie.kogito.persistence.filesystem.FsyncPolicy;
+import org.kie.kogito.persistence.filesystem.LogStructuredProcessInstances;
+import org.kie.kogito.persistence.filesystem.SegmentLog;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceHeader;
+import org.kie.kogito.process.ProcessInstanceReadMode;
+import org.kie.kogito.process.ProcessInstances;
+import org.kie.kogito.process.WorkItem;
+import org.kie.kogito.process.bpmn2.BpmnProcess;
+import org.kie.kogito.process.bpmn2.BpmnVariables;
+import org.kie.kogito.services.identity.StaticIdentityProvider;
+import org.kie.kogito.uow.UnitOfWork;
+import org.kie.kogito.uow.UnitOfWorkManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.kie.kogito.internal.process.runtime.KogitoProcessInstance.STATE_ACTIVE;
+import static org.kie.kogito.internal.process.runtime.KogitoProcessInstance.STATE_COMPLETED;
+
+class LogStructuredProcessInstancesTest {
+
+    private SecurityPolicy securityPolicy = SecurityPolicy.of(new StaticIdentityProvider("john"));
+
+    @TempDir
+    Path storage;
+
+    private LogProcessInstancesFactory factory;
+
+    @AfterEach
+    void close() {
+        if (factory != null) {
+            factory.close();
+        }
+    }
+
+    private BpmnProcess createProcess(String fileName) {
+        factory = new LogProcessInstancesFactory(storage);
+        BpmnProcess process = BpmnProcess.from(new ClassPathResource(fileName)).get(0);
+        process.setProcessInstancesFactory(factory);
+        process.configure();
+        return process;
+    }
+
+    @Test
+    void testBasicFlow() {
+        BpmnProcess process = createProcess("BPMN2-UserTask.bpmn2");
+        ProcessInstance<BpmnVariables> processInstance = process.createInstance(BpmnVariables.create(Collections.singletonMap("test", "test")));
+        processInstance.start();
+
+        assertThat(processInstance.status()).isEqualTo(STATE_ACTIVE);
+        ProcessInstances<BpmnVariables> instances = process.instances();
+        assertThat(instances).isInstanceOf(LogStructuredProcessInstances.class);
+        assertThat(instances.size()).isOne();
+        assertThat(instances.findById(processInstance.id())).isPresent();
+
+        ProcessInstance<BpmnVariables> readOnlyPi = instances.findById(processInstance.id(), ProcessInstanceReadMode.READ_ONLY).get();
+        assertThat(readOnlyPi.variables().get("test")).isEqualTo("test");
+        assertThatExceptionOfType(UnsupportedOperationException.class).isThrownBy(readOnlyPi::abort);
+        assertThat(instances.values()).hasSize(1);
+        assertThat(instances.findVariablesById(processInstance.id())).hasValueSatisfying(variables -> assertThat(variables.get("test")).isEqualTo("test"));
+        assertThat(instances.findHeaderById(processInstance.id())).hasValue(ProcessInstanceHeader.of(readOnlyPi));
+
+        WorkItem workItem = processInstance.workItems(securityPolicy).get(0);
+        assertThat(workItem.getParameters().get("ActorId")).isEqualTo("john");
+        processInstance.completeWorkItem(workItem.getId(), null, securityPolicy);
+        assertThat(processInstance.status()).isEqualTo(STATE_COMPLETED);
+
+        assertThat(instances.size()).isZero();
+        assertThat(instances.findById(processInstance.id())).isEmpty();
+    }
+
+    @Test
+    void testInstancesAreRecoveredOnRestart() {
+        BpmnProcess process = createProcess("BPMN2-UserTask.bpmn2");
+        UnitOfWorkManager uowManager = process.getApplication().unitOfWorkManager();
+        UnitOfWork uow = uowManager.newUnitOfWork();
+        uow.start();
+        ProcessInstance<BpmnVariables> processInstance = process.createInstance(BpmnVariables.create(Collections.singletonMap("test", "test")));
+        processInstance.start();
+        uow.end();
+
+        factory.close();
+        process = createProcess("BPMN2-UserTask.bpmn2");
+
+        ProcessInstances<BpmnVariables> instances = process.instances();
+        assertThat(instances.size()).isOne();
+        ProcessInstance<BpmnVariables> recovered = instances.findById(processInstance.id()).get();
+        assertThat(recovered.status()).isEqualTo(STATE_ACTIVE);
+        assertThat(recovered.variables().get("test")).isEqualTo("test");
+
+        WorkItem workItem = recovered.workItems(securityPolicy).get(0);
+        recovered.completeWorkItem(workItem.getId(), null, securityPolicy);
+        assertThat(instances.size()).isZero();
+    }
+
+    private static class LogProcessInstancesFactory extends AbstractProcessInstancesFactory {
+
+        LogProcessInstancesFactory(Path storage) {
+            super(storage.toString(), STORAGE_LOG, FsyncPolicy.UNIT_OF_WORK.name(), SegmentLog.DEFAULT_FSYNC_INTERVAL, 4096, SegmentLog.DEFAULT_COMPACTION_THRESHOLD);
+        }
+    }
+}
@@ -18,22 +18,29 @@ package org.kie.kogito.infinispan;
 import org.infinispan.client.hotrod.RemoteCacheManager;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessInstancesFactory;
+import org.kie.kogito.serialization.process.compression.PayloadCompression;
 
 public abstract class AbstractProcessInstancesFactory implements ProcessInstancesFactory {
 
     private final RemoteCacheManager cacheManager;
     private final Boolean lock;
     private final String template;
+    private final PayloadCompression compression;
 
     public AbstractProcessInstancesFactory(RemoteCacheManager cacheManager, Boolean lock, String template) {
+        this(cacheManager, lock, template, PayloadCompression.NONE, PayloadCompression.DEFAULT_THRESHOLD);
+    }
+
+    public AbstractProcessInstancesFactory(RemoteCacheManager cacheManager, Boolean lock, String template, String compression, Integer compressionThreshold) {
         this.cacheManager = cacheManager;
         this.lock = lock;
         this.template = template;
+        this.compression = PayloadCompression.of(compression, compressionThreshold);
     }
 
     @Override
     public CacheProcessInstances createProcessInstances(Process<?> process) {
-        return new CacheProcessInstances(process, cacheManager, template, lock);
+        return new CacheProcessInstances(process, cacheManager, template, lock, compression);
     }
 
 }
@@ -19,6 +19,7 @@ import java.util.Collection;
 import java.util.Optional;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.infinispan.client.hotrod.DefaultTemplate;
 import org.infinispan.client.hotrod.MetadataValue;
@@ -28,10 +29,12 @@ import org.kie.kogito.process.MutableProcessInstances;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessInstance;
 import org.kie.kogito.process.ProcessInstanceDuplicatedException;
+import org.kie.kogito.process.ProcessInstanceHeader;
 import org.kie.kogito.process.ProcessInstanceOptimisticLockingException;
 import org.kie.kogito.process.ProcessInstanceReadMode;
 import org.kie.kogito.process.impl.AbstractProcessInstance;
 import org.kie.kogito.serialization.process.ProcessInstanceMarshallerService;
+import org.kie.kogito.serialization.process.compression.PayloadCompression;
 
 import static com.google.common.base.Strings.isNullOrEmpty;
 import static org.kie.kogito.process.ProcessInstanceReadMode.MUTABLE;
@@ -45,6 +48,15 @@ public class CacheProcessInstances implements MutableProcessInstances {
     private final boolean lock;
 
     public CacheProcessInstances(Process<?> process, RemoteCacheManager cacheManager, String templateName, boolean lock) {
+        this(process, cacheManager, templateName, lock, PayloadCompression.none());
+    }
+
+    /**
+     * Process instances are always read from the server: the client cannot read the version of an entry without its
+     * value, so a near cache of the store could not check its entries cheaply. Use the near cache of the Infinispan
+     * client instead, invalidated by the server.
+     */
+    public CacheProcessInstances(Process<?> process, RemoteCacheManager cacheManager, String templateName, boolean lock, PayloadCompression compression) {
         this.process = process;
         String cacheName = process.id() + "_store";
         if (isNullOrEmpty(templateName)) {
@@ -52,7 +64,7 @@ public class CacheProcessInstances implements MutableProcessInstances {
         } else {
             this.cache = cacheManager.administration().getOrCreateCache(cacheName, templateName);
         }
-        this.marshaller = ProcessInstanceMarshallerService.newBuilder().withDefaultObjectMarshallerStrategies().build();
+        this.marshaller = ProcessInstanceMarshallerService.newBuilder().withDefaultObjectMarshallerStrategies().withCompression(compression).build();
         this.lock = lock;
     }
 
@@ -75,14 +87,29 @@ public class CacheProcessInstances implements MutableProcessInstances {
     }
 
     private Optional<? extends ProcessInstance> findWithLock(String id, ProcessInstanceReadMode mode) {
-        MetadataValue<byte[]> versionedCache = cache.getWithMetadata(id);
-        if (versionedCache != null) {
+        return getWithVersion(id).map(entry -> {
             ProcessInstance<?> instance =
-                    mode == MUTABLE ? marshaller.unmarshallProcessInstance(versionedCache.getValue(), process) : marshaller.unmarshallReadOnlyProcessInstance(versionedCache.getValue(), process);
-            ((AbstractProcessInstance) instance).setVersion(versionedCache.getVersion());
-            return Optional.of(instance);
+                    mode == MUTABLE ? marshaller.unmarshallProcessInstance(entry.getValue(), process) : marshaller.unmarshallReadOnlyProcessInstance(entry.getValue(), process);
+            ((AbstractProcessInstance) instance).setVersion(entry.getVersion());
+            return instance;
+        });
+    }
+
+    @Override
+    public Optional findVariablesById(String id) {
+        return Optional.ofNullable(cache.get(id)).map(data -> marshaller.unmarshallProcessInstanceVariables(data, process));
+    }
+
+    @Override
+    public Optional<ProcessInstanceHeader> findHeaderById(String id) {
+        if (this.lock) {
+            return getWithVersion(id).map(entry -> marshaller.unmarshallProcessInstanceHeader(entry.getValue(), process).withVersion(entry.getVersion()));
         }
-        return Optional.empty();
+        return Optional.ofNullable(cache.get(id)).map(data -> marshaller.unmarshallProcessInstanceHeader(data, process));
+    }
+
+    private Optional<MetadataValue<byte[]>> getWithVersion(String id) {
+        return Optional.ofNullable(cache.getWithMetadata(id));
     }
 
     @Override
@@ -93,6 +120,13 @@ public class CacheProcessInstances implements MutableProcessInstances {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public Stream streamVariables() {
+        return cache.values()
+                .stream()
+                .map(data -> marshaller.unmarshallProcessInstanceVariables(data, process));
+    }
+
     @Override
     public void update(String id, ProcessInstance instance) {
         try {
@@ -146,9 +180,9 @@ public class CacheProcessInstances implements MutableProcessInstances {
 
     private void reloadWithLock(String id, ProcessInstance instance) {
         Supplier<byte[]> supplier = () -> {
-            MetadataValue<byte[]> versionedCache = cache.getWithMetadata(id);
-            ((AbstractProcessInstance) instance).setVersion(versionedCache.getVersion());
-            return versionedCache.getValue();
+            MetadataValue<byte[]> entry = getWithVersion(id).get();
+            ((AbstractProcessInstance) instance).setVersion(entry.getVersion());
+            return entry.getValue();
         };
         ((AbstractProcessInstance<?>) instance).internalRemoveProcessInstance(marshaller.createdReloadFunction(supplier));
     }
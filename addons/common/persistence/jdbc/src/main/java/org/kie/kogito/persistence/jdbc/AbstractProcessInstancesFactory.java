@@ -17,27 +17,63 @@ package org.kie.kogito.persistence.jdbc;
 
 import javax.sql.DataSource;
 
+import org.kie.kogito.persistence.jdbc.transaction.AbstractTransactionManager;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessInstancesFactory;
+import org.kie.kogito.process.impl.ProcessInstanceNearCache;
+import org.kie.kogito.serialization.process.compression.PayloadCompression;
 
 public abstract class AbstractProcessInstancesFactory implements ProcessInstancesFactory {
 
     private final boolean autoDDL;
     private final DataSource dataSource;
     private final Boolean lock;
+    private final Integer nearCacheSize;
+    private final PayloadCompression compression;
+    private final String indexedVariable;
+    private final AbstractTransactionManager transactionManager;
 
     protected AbstractProcessInstancesFactory() {
         this(null, true, false);
     }
 
     public AbstractProcessInstancesFactory(DataSource dataSource, Boolean autoDDL, Boolean lock) {
+        this(dataSource, autoDDL, lock, ProcessInstanceNearCache.DISABLED);
+    }
+
+    public AbstractProcessInstancesFactory(DataSource dataSource, Boolean autoDDL, Boolean lock, Integer nearCacheSize) {
+        this(dataSource, autoDDL, lock, nearCacheSize, PayloadCompression.NONE, PayloadCompression.DEFAULT_THRESHOLD);
+    }
+
+    public AbstractProcessInstancesFactory(DataSource dataSource, Boolean autoDDL, Boolean lock, Integer nearCacheSize, String compression, Integer compressionThreshold) {
+        this(dataSource, autoDDL, lock, nearCacheSize, compression, compressionThreshold, null);
+    }
+
+    /**
+     * @param indexedVariable dot separated path of the process variable indexed for queries, null for none
+     */
+    public AbstractProcessInstancesFactory(DataSource dataSource, Boolean autoDDL, Boolean lock, Integer nearCacheSize, String compression, Integer compressionThreshold,
+            String indexedVariable) {
+        this(dataSource, autoDDL, lock, nearCacheSize, compression, compressionThreshold, indexedVariable, null);
+    }
+
+    /**
+     * @param transactionManager manager of the transactions bound to the units of work, null to commit every
+     *        statement on its own
+     */
+    public AbstractProcessInstancesFactory(DataSource dataSource, Boolean autoDDL, Boolean lock, Integer nearCacheSize, String compression, Integer compressionThreshold,
+            String indexedVariable, AbstractTransactionManager transactionManager) {
         this.dataSource = dataSource;
         this.autoDDL = autoDDL;
         this.lock = lock;
+        this.nearCacheSize = nearCacheSize;
+        this.compression = PayloadCompression.of(compression, compressionThreshold);
+        this.indexedVariable = indexedVariable;
+        this.transactionManager = transactionManager;
     }
 
     @Override
     public JDBCProcessInstances createProcessInstances(Process<?> process) {
-        return new JDBCProcessInstances(process, dataSource, autoDDL, lock);
+        return new JDBCProcessInstances(process, dataSource, autoDDL, lock, ProcessInstanceNearCache.of(nearCacheSize), compression, indexedVariable, transactionManager);
     }
 }
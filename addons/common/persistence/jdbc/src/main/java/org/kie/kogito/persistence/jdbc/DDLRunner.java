@@ -31,6 +31,9 @@ public class DDLRunner {
             if (!repository.tableExists()) {
                 LOGGER.info("Dynamically creating process_instances table");
                 repository.createTable();
+            } else if (!repository.indexedColumnsExist()) {
+                LOGGER.info("Dynamically adding indexed columns to process_instances table");
+                repository.addIndexedColumns();
             }
         } catch (Exception e) {
             // not break the execution flow in case of any missing permission for db application user, for instance.
@@ -20,6 +20,7 @@ import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -29,6 +30,9 @@ import java.util.UUID;
 
 import javax.sql.DataSource;
 
+import org.kie.kogito.persistence.jdbc.transaction.AbstractTransactionManager;
+import org.kie.kogito.persistence.jdbc.transaction.JDBCTransaction;
+import org.kie.kogito.process.ProcessInstanceQuery;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -41,9 +45,20 @@ public class GenericRepository extends Repository {
     private static final Logger LOGGER = LoggerFactory.getLogger(GenericRepository.class);
 
     private final DataSource dataSource;
+    private final AbstractTransactionManager transactionManager;
+    private volatile Boolean limitPaging;
 
     public GenericRepository(DataSource dataSource) {
+        this(dataSource, null);
+    }
+
+    /**
+     * @param transactionManager manager of the transactions bound to the units of work, null to run every statement
+     *        on its own connection
+     */
+    public GenericRepository(DataSource dataSource, AbstractTransactionManager transactionManager) {
         this.dataSource = dataSource;
+        this.transactionManager = transactionManager;
     }
 
     @Override
@@ -83,49 +98,88 @@ public class GenericRepository extends Repository {
     }
 
     @Override
-    void insertInternal(String processId, String processVersion, UUID id, byte[] payload) {
+    boolean indexedColumnsExist() {
         try (Connection connection = dataSource.getConnection();
-                PreparedStatement statement = connection.prepareStatement(INSERT)) {
-            statement.setString(1, id.toString());
-            statement.setBytes(2, payload);
-            statement.setString(3, processId);
-            statement.setString(4, processVersion);
-            statement.setLong(5, 0L);
-            statement.executeUpdate();
+                PreparedStatement statement = connection.prepareStatement(CHECK_INDEXED_COLUMNS)) {
+            statement.executeQuery().close();
+            return true;
         } catch (Exception e) {
-            throw uncheckedException(e, "Error inserting process instance %s", id);
+            LOGGER.warn("Indexed columns not found in process_instances table, queries will scan the process instances");
+            return false;
         }
     }
 
     @Override
-    void updateInternal(String processId, String processVersion, UUID id, byte[] payload) {
-        try (Connection connection = dataSource.getConnection();
-                PreparedStatement statement = connection.prepareStatement(sqlIncludingVersion(UPDATE, processVersion))) {
-            statement.setBytes(1, payload);
-            statement.setString(2, processId);
-            statement.setString(3, id.toString());
-            if (processVersion != null) {
-                statement.setString(4, processVersion);
+    void addIndexedColumns() {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseType databaseType = getDataBaseType(connection);
+            for (String s : FileLoader.getQueryFromFile(databaseType.getDbIdentifier(), "add_indexed_columns")) {
+                try (PreparedStatement prepareStatement = connection.prepareStatement(s.trim())) {
+                    prepareStatement.execute();
+                }
             }
-            statement.executeUpdate();
+            LOGGER.info("Indexed columns successfully added to process_instances table");
+        } catch (SQLException e) {
+            throw uncheckedException(e, "Error adding indexed columns to process_instances table");
+        }
+    }
+
+    @Override
+    void insertInternal(String processId, String processVersion, UUID id, byte[] payload, IndexedValues indexed) {
+        try {
+            executeBatched(indexed == null ? INSERT : INSERT_INDEXED, statement -> {
+                statement.setString(1, id.toString());
+                statement.setBytes(2, payload);
+                statement.setString(3, processId);
+                statement.setString(4, processVersion);
+                statement.setLong(5, 0L);
+                if (indexed != null) {
+                    setIndexedValues(statement, 6, indexed);
+                }
+            });
+        } catch (Exception e) {
+            throw uncheckedException(e, "Error inserting process instance %s", id);
+        }
+    }
+
+    @Override
+    void updateInternal(String processId, String processVersion, UUID id, byte[] payload, IndexedValues indexed) {
+        try {
+            executeBatched(sqlIncludingVersion(indexed == null ? UPDATE : UPDATE_INDEXED, processVersion), statement -> {
+                int index = 1;
+                statement.setBytes(index++, payload);
+                if (indexed != null) {
+                    index = setIndexedValues(statement, index, indexed);
+                }
+                statement.setString(index++, processId);
+                statement.setString(index++, id.toString());
+                if (processVersion != null) {
+                    statement.setString(index, processVersion);
+                }
+            });
         } catch (Exception e) {
             throw uncheckedException(e, "Error updating process instance %s", id);
         }
     }
 
     @Override
-    boolean updateWithLock(String processId, String processVersion, UUID id, byte[] payload, long version) {
-        try (Connection connection = dataSource.getConnection();
-                PreparedStatement statement = connection.prepareStatement(sqlIncludingVersion(UPDATE_WITH_LOCK, processVersion))) {
-            statement.setBytes(1, payload);
-            statement.setLong(2, version + 1);
-            statement.setString(3, processId);
-            statement.setString(4, id.toString());
-            statement.setLong(5, version);
-            if (processVersion != null) {
-                statement.setString(6, processVersion);
-            }
-            int count = statement.executeUpdate();
+    boolean updateWithLock(String processId, String processVersion, UUID id, byte[] payload, long version, IndexedValues indexed) {
+        try {
+            // not batched, the row count tells whether the version matched
+            int count = executeUpdate(sqlIncludingVersion(indexed == null ? UPDATE_WITH_LOCK : UPDATE_WITH_LOCK_INDEXED, processVersion), statement -> {
+                int index = 1;
+                statement.setBytes(index++, payload);
+                statement.setLong(index++, version + 1);
+                if (indexed != null) {
+                    index = setIndexedValues(statement, index, indexed);
+                }
+                statement.setString(index++, processId);
+                statement.setString(index++, id.toString());
+                statement.setLong(index++, version);
+                if (processVersion != null) {
+                    statement.setString(index, processVersion);
+                }
+            });
             return count == 1;
         } catch (Exception e) {
             throw uncheckedException(e, "Error updating with lock process instance %s", id);
@@ -134,14 +188,15 @@ public class GenericRepository extends Repository {
 
     @Override
     boolean deleteInternal(String processId, String processVersion, UUID id) {
-        try (Connection connection = dataSource.getConnection();
-                PreparedStatement statement = connection.prepareStatement(sqlIncludingVersion(DELETE, processVersion))) {
-            statement.setString(1, processId);
-            statement.setString(2, id.toString());
-            if (processVersion != null) {
-                statement.setString(3, processVersion);
-            }
-            int count = statement.executeUpdate();
+        try {
+            // not batched, the row count tells whether it existed and a failure is raised by the removal itself
+            int count = executeUpdate(sqlIncludingVersion(DELETE, processVersion), statement -> {
+                statement.setString(1, processId);
+                statement.setString(2, id.toString());
+                if (processVersion != null) {
+                    statement.setString(3, processVersion);
+                }
+            });
             return count == 1;
         } catch (Exception e) {
             throw uncheckedException(e, "Error deleting process instance %s", id);
@@ -150,70 +205,291 @@ public class GenericRepository extends Repository {
 
     @Override
     Map<String, Object> findByIdInternal(String processId, String processVersion, UUID id) {
-        Map<String, Object> result = new HashMap<>();
-        try (Connection connection = dataSource.getConnection();
-                PreparedStatement statement = connection.prepareStatement(sqlIncludingVersion(FIND_BY_ID, processVersion))) {
-            statement.setString(1, processId);
-            statement.setString(2, id.toString());
-            if (processVersion != null) {
-                statement.setString(3, processVersion);
-            }
-            try (ResultSet resultSet = statement.executeQuery()) {
+        try {
+            return executeQuery(sqlIncludingVersion(FIND_BY_ID, processVersion), statement -> {
+                statement.setString(1, processId);
+                statement.setString(2, id.toString());
+                if (processVersion != null) {
+                    statement.setString(3, processVersion);
+                }
+            }, resultSet -> {
+                Map<String, Object> result = new HashMap<>();
                 if (resultSet.next()) {
                     Optional<byte[]> b = Optional.ofNullable(resultSet.getBytes(PAYLOAD));
                     if (b.isPresent()) {
                         result.put(PAYLOAD, b.get());
                     }
                     result.put(VERSION, resultSet.getLong(VERSION));
-                    return result;
                 }
-            }
+                return result;
+            });
         } catch (Exception e) {
             throw uncheckedException(e, "Error finding process instance %s", id);
         }
-        return result;
+    }
+
+    @Override
+    Long findVersionInternal(String processId, String processVersion, UUID id) {
+        try {
+            return executeQuery(sqlIncludingVersion(FIND_VERSION_BY_ID, processVersion), statement -> {
+                statement.setString(1, processId);
+                statement.setString(2, id.toString());
+                if (processVersion != null) {
+                    statement.setString(3, processVersion);
+                }
+            }, resultSet -> resultSet.next() ? resultSet.getLong(VERSION) : null);
+        } catch (Exception e) {
+            throw uncheckedException(e, "Error finding version of process instance %s", id);
+        }
     }
 
     @Override
     List<byte[]> findAllInternal(String processId, String processVersion) {
-        List<byte[]> result = new ArrayList<>();
-        try (Connection connection = dataSource.getConnection();
-                PreparedStatement statement = connection.prepareStatement(sqlIncludingVersion(FIND_ALL, processVersion))) {
-            statement.setString(1, processId);
-            if (processVersion != null) {
-                statement.setString(2, processVersion);
-            }
-            try (ResultSet resultSet = statement.executeQuery()) {
+        try {
+            return executeQuery(sqlIncludingVersion(FIND_ALL, processVersion), statement -> {
+                statement.setString(1, processId);
+                if (processVersion != null) {
+                    statement.setString(2, processVersion);
+                }
+            }, resultSet -> {
+                List<byte[]> result = new ArrayList<>();
                 while (resultSet.next()) {
                     result.add(resultSet.getBytes(PAYLOAD));
                 }
-            }
-            return result;
+                return result;
+            });
         } catch (Exception e) {
             throw uncheckedException(e, "Error finding all process instances, for processId %s", processId);
         }
     }
 
+    @Override
+    List<Map<String, Object>> findInternal(String processId, String processVersion, ProcessInstanceQuery query) {
+        StringBuilder sql = new StringBuilder(FIND);
+        List<Object> parameters = new ArrayList<>();
+        parameters.add(processId);
+        if (query.status() != null) {
+            sql.append(STATE_EQUALS_TO);
+            parameters.add(query.status());
+        }
+        if (query.businessKey() != null) {
+            sql.append(BUSINESS_KEY_EQUALS_TO);
+            parameters.add(query.businessKey());
+        }
+        if (query.hasVariable()) {
+            sql.append(INDEXED_VARIABLE_EQUALS_TO);
+            parameters.add(query.variableValue());
+        }
+        sql.append(' ').append(processVersion == null ? PROCESS_VERSION_IS_NULL : PROCESS_VERSION_EQUALS_TO);
+        if (processVersion != null) {
+            parameters.add(processVersion);
+        }
+        sql.append(ORDER_BY_ID);
+        appendPage(sql, parameters, query.offset(), query.limit());
+        try {
+            return executeQuery(sql.toString(), statement -> {
+                for (int i = 0; i < parameters.size(); i++) {
+                    statement.setObject(i + 1, parameters.get(i));
+                }
+            }, resultSet -> {
+                List<Map<String, Object>> result = new ArrayList<>();
+                while (resultSet.next()) {
+                    Map<String, Object> row = new HashMap<>();
+                    row.put(PAYLOAD, resultSet.getBytes(PAYLOAD));
+                    row.put(VERSION, resultSet.getLong(VERSION));
+                    result.add(row);
+                }
+                return result;
+            });
+        } catch (Exception e) {
+            throw uncheckedException(e, "Error querying process instances, for processId %s", processId);
+        }
+    }
+
     @Override
     Long countInternal(String processId, String processVersion) {
+        try {
+            return executeQuery(sqlIncludingVersion(COUNT, processVersion), statement -> {
+                statement.setString(1, processId);
+                if (processVersion != null) {
+                    statement.setString(2, processVersion);
+                }
+            }, resultSet -> resultSet.next() ? resultSet.getLong("count") : 0L);
+        } catch (Exception e) {
+            throw uncheckedException(e, "Error counting process instances, for processId %s", processId);
+        }
+    }
+
+    @Override
+    List<String> findNotIndexedInternal(String processId, String processVersion, String variablePath, String afterId, int limit) {
+        StringBuilder sql = new StringBuilder(sqlIncludingVersion(FIND_NOT_INDEXED + " ", processVersion)).append(variablePath == null ? NOT_INDEXED : NOT_INDEXED_ON_PATH);
+        List<Object> parameters = new ArrayList<>();
+        parameters.add(processId);
+        if (processVersion != null) {
+            parameters.add(processVersion);
+        }
+        if (variablePath != null) {
+            parameters.add(variablePath);
+        }
+        // pages are read after the last id of the previous one, which does not skip rows as an offset would
+        if (afterId != null) {
+            sql.append(ID_AFTER);
+            parameters.add(afterId);
+        }
+        sql.append(ORDER_BY_ID);
+        appendPage(sql, parameters, 0, limit);
+        try {
+            return executeQuery(sql.toString(), statement -> {
+                for (int i = 0; i < parameters.size(); i++) {
+                    statement.setObject(i + 1, parameters.get(i));
+                }
+            }, resultSet -> {
+                List<String> result = new ArrayList<>();
+                while (resultSet.next()) {
+                    result.add(resultSet.getString("id").trim());
+                }
+                return result;
+            });
+        } catch (Exception e) {
+            throw uncheckedException(e, "Error finding not indexed process instances, for processId %s", processId);
+        }
+    }
+
+    @Override
+    void reindexInternal(String processId, String processVersion, UUID id, long version, IndexedValues indexed) {
+        String variablePath = indexed.getVariablePath();
+        try {
+            // only rows still not indexed, a concurrent update has already indexed the others
+            executeUpdate(sqlIncludingVersion(REINDEX, processVersion) + (variablePath == null ? NOT_INDEXED : NOT_INDEXED_ON_PATH), statement -> {
+                int index = setIndexedValues(statement, 1, indexed);
+                statement.setString(index++, processId);
+                statement.setString(index++, id.toString());
+                statement.setLong(index++, version);
+                if (processVersion != null) {
+                    statement.setString(index++, processVersion);
+                }
+                if (variablePath != null) {
+                    statement.setString(index, variablePath);
+                }
+            });
+        } catch (Exception e) {
+            throw uncheckedException(e, "Error indexing process instance %s", id);
+        }
+    }
+
+    @Override
+    void afterCommit(Runnable action) {
+        JDBCTransaction transaction = transaction();
+        if (transaction == null) {
+            action.run();
+        } else {
+            transaction.onCommit(action);
+        }
+    }
+
+    private void appendPage(StringBuilder sql, List<Object> parameters, int offset, int limit) {
+        if (limitPaging()) {
+            sql.append(LIMIT_OFFSET);
+            parameters.add(limit == ProcessInstanceQuery.NO_LIMIT ? Long.MAX_VALUE : limit);
+            parameters.add(offset);
+        } else {
+            sql.append(OFFSET);
+            parameters.add(offset);
+            if (limit != ProcessInstanceQuery.NO_LIMIT) {
+                sql.append(FETCH_NEXT);
+                parameters.add(limit);
+            }
+        }
+    }
+
+    /**
+     * Returns whether the database pages with LIMIT, as MySQL and MariaDB do, which are detected as ANSI but do not
+     * support OFFSET and FETCH.
+     */
+    private boolean limitPaging() {
+        if (limitPaging == null) {
+            try (Connection connection = dataSource.getConnection()) {
+                String productName = connection.getMetaData().getDatabaseProductName();
+                limitPaging = "MySQL".equalsIgnoreCase(productName) || "MariaDB".equalsIgnoreCase(productName);
+            } catch (SQLException e) {
+                throw uncheckedException(e, "Error reading the type of the database");
+            }
+        }
+        return limitPaging;
+    }
+
+    private JDBCTransaction transaction() {
+        return transactionManager == null ? null : transactionManager.getTransaction();
+    }
+
+    private int executeUpdate(String sql, StatementBinder binder) throws SQLException {
+        JDBCTransaction transaction = transaction();
+        if (transaction != null) {
+            PreparedStatement statement = transaction.statement(sql);
+            binder.bind(statement);
+            return statement.executeUpdate();
+        }
         try (Connection connection = dataSource.getConnection();
-                PreparedStatement statement = connection.prepareStatement(sqlIncludingVersion(COUNT, processVersion))) {
-            statement.setString(1, processId);
-            if (processVersion != null) {
-                statement.setString(2, processVersion);
+                PreparedStatement statement = connection.prepareStatement(sql)) {
+            binder.bind(statement);
+            return statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Adds the statement to the batch of the transaction bound to the unit of work, returning
+     * {@link Statement#SUCCESS_NO_INFO} as the row count is only known once the batch is executed. Without transaction
+     * the statement is executed immediately.
+     */
+    private int executeBatched(String sql, StatementBinder binder) throws SQLException {
+        JDBCTransaction transaction = transaction();
+        if (transaction == null) {
+            return executeUpdate(sql, binder);
+        }
+        binder.bind(transaction.batchStatement(sql));
+        transaction.addBatch();
+        return Statement.SUCCESS_NO_INFO;
+    }
+
+    private <R> R executeQuery(String sql, StatementBinder binder, ResultSetReader<R> reader) throws SQLException {
+        JDBCTransaction transaction = transaction();
+        if (transaction != null) {
+            PreparedStatement statement = transaction.statement(sql);
+            binder.bind(statement);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return reader.read(resultSet);
             }
+        }
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement statement = connection.prepareStatement(sql)) {
+            binder.bind(statement);
             try (ResultSet resultSet = statement.executeQuery()) {
-                if (resultSet.next()) {
-                    return resultSet.getLong("count");
-                }
+                return reader.read(resultSet);
             }
-        } catch (Exception e) {
-            throw uncheckedException(e, "Error counting process instances, for processId %s", processId);
         }
-        return 0l;
+    }
+
+    private static int setIndexedValues(PreparedStatement statement, int index, IndexedValues indexed) throws SQLException {
+        statement.setInt(index++, indexed.getState());
+        statement.setString(index++, indexed.getBusinessKey());
+        statement.setString(index++, indexed.getVariable());
+        statement.setString(index++, indexed.getVariablePath());
+        return index;
     }
 
     private static String sqlIncludingVersion(String statement, String processVersion) {
         return statement + (processVersion == null ? PROCESS_VERSION_IS_NULL : PROCESS_VERSION_EQUALS_TO);
     }
+
+    @FunctionalInterface
+    private interface StatementBinder {
+
+        void bind(PreparedStatement statement) throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface ResultSetReader<R> {
+
+        R read(ResultSet resultSet) throws SQLException;
+    }
 }
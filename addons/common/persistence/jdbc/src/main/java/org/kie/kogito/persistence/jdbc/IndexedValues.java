@@ -0,0 +1,63 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.persistence.jdbc;
+
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceQuery;
+
+/**
+ * Values of the indexed columns of a process instance row.
+ */
+class IndexedValues {
+
+    private final int state;
+    private final String businessKey;
+    private final String variable;
+    private final String variablePath;
+
+    private IndexedValues(int state, String businessKey, String variable, String variablePath) {
+        this.state = state;
+        this.businessKey = businessKey;
+        this.variable = variable;
+        this.variablePath = variablePath;
+    }
+
+    static IndexedValues of(ProcessInstance<?> instance, String variablePath) {
+        String variable = variablePath == null ? null : ProcessInstanceQuery.variableValue(instance.variables(), variablePath);
+        return new IndexedValues(instance.status(), ProcessInstanceQuery.indexedValue(instance.businessKey()), ProcessInstanceQuery.indexedValue(variable),
+                variablePath);
+    }
+
+    int getState() {
+        return state;
+    }
+
+    String getBusinessKey() {
+        return businessKey;
+    }
+
+    String getVariable() {
+        return variable;
+    }
+
+    /**
+     * @return path of the variable stored in the indexed_variable column, so that rows indexed on another one are
+     *         known
+     */
+    String getVariablePath() {
+        return variablePath;
+    }
+}
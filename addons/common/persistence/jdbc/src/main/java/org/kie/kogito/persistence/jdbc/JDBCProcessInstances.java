@@ -16,44 +16,130 @@
 package org.kie.kogito.persistence.jdbc;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import javax.sql.DataSource;
 
+import org.kie.kogito.persistence.jdbc.transaction.AbstractTransactionManager;
 import org.kie.kogito.process.MutableProcessInstances;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceHeader;
 import org.kie.kogito.process.ProcessInstanceOptimisticLockingException;
+import org.kie.kogito.process.ProcessInstanceQuery;
 import org.kie.kogito.process.ProcessInstanceReadMode;
 import org.kie.kogito.process.impl.AbstractProcessInstance;
+import org.kie.kogito.process.impl.NearCachedProcessInstances;
+import org.kie.kogito.process.impl.ProcessInstanceNearCache;
 import org.kie.kogito.serialization.process.ProcessInstanceMarshallerService;
+import org.kie.kogito.serialization.process.compression.PayloadCompression;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import static org.kie.kogito.process.ProcessInstanceReadMode.MUTABLE;
 
-public class JDBCProcessInstances implements MutableProcessInstances {
+public class JDBCProcessInstances implements MutableProcessInstances, NearCachedProcessInstances {
 
     static final String PAYLOAD = "payload";
     static final String VERSION = "version";
 
     private static final Logger LOGGER = LoggerFactory.getLogger(JDBCProcessInstances.class);
+    private static final int REINDEX_PAGE_SIZE = 100;
 
     private final Process<?> process;
     private final ProcessInstanceMarshallerService marshaller;
     private final boolean lock;
     private final Repository repository;
+    private final ProcessInstanceNearCache nearCache;
+    private final String indexedVariable;
+    private final boolean indexedColumns;
+    // completed with whether every row is indexed on the configured variable, queries scan the process instances till then
+    private final CompletableFuture<Boolean> indexing = new CompletableFuture<>();
 
     public JDBCProcessInstances(Process<?> process, DataSource dataSource, boolean autoDDL, boolean lock) {
+        this(process, dataSource, autoDDL, lock, ProcessInstanceNearCache.disabled());
+    }
+
+    public JDBCProcessInstances(Process<?> process, DataSource dataSource, boolean autoDDL, boolean lock, ProcessInstanceNearCache nearCache) {
+        this(process, dataSource, autoDDL, lock, nearCache, PayloadCompression.none());
+    }
+
+    public JDBCProcessInstances(Process<?> process, DataSource dataSource, boolean autoDDL, boolean lock, ProcessInstanceNearCache nearCache, PayloadCompression compression) {
+        this(process, dataSource, autoDDL, lock, nearCache, compression, null);
+    }
+
+    /**
+     * @param indexedVariable dot separated path of the process variable stored in the indexed_variable column, null
+     *        for none
+     */
+    public JDBCProcessInstances(Process<?> process, DataSource dataSource, boolean autoDDL, boolean lock, ProcessInstanceNearCache nearCache, PayloadCompression compression,
+            String indexedVariable) {
+        this(process, dataSource, autoDDL, lock, nearCache, compression, indexedVariable, null);
+    }
+
+    /**
+     * @param transactionManager manager of the transactions bound to the units of work, null to commit every
+     *        statement on its own
+     */
+    public JDBCProcessInstances(Process<?> process, DataSource dataSource, boolean autoDDL, boolean lock, ProcessInstanceNearCache nearCache, PayloadCompression compression,
+            String indexedVariable, AbstractTransactionManager transactionManager) {
         this.process = process;
         this.lock = lock;
-        this.marshaller = ProcessInstanceMarshallerService.newBuilder().withDefaultObjectMarshallerStrategies().build();
-        this.repository = new GenericRepository(dataSource);
+        this.nearCache = nearCache;
+        this.indexedVariable = indexedVariable;
+        this.marshaller = ProcessInstanceMarshallerService.newBuilder().withDefaultObjectMarshallerStrategies().withCompression(compression).build();
+        this.repository = new GenericRepository(dataSource, transactionManager);
         DDLRunner.init(repository, autoDDL);
+        this.indexedColumns = repository.indexedColumnsExist();
+        if (indexedColumns) {
+            // the existing rows may be many, they are indexed in the background not to delay the startup
+            Thread reindexer = new Thread(this::reindex, "kogito-jdbc-reindex-" + process.id());
+            reindexer.setDaemon(true);
+            reindexer.start();
+        } else {
+            indexing.complete(false);
+        }
+    }
+
+    /**
+     * Sets the indexed columns of the rows written before they were added, or indexed on another variable path, a page
+     * at a time. Rows written meanwhile are indexed by the writes themselves.
+     */
+    private void reindex() {
+        try {
+            int count = 0;
+            List<String> ids = repository.findNotIndexedInternal(process.id(), process.version(), indexedVariable, null, REINDEX_PAGE_SIZE);
+            while (!ids.isEmpty()) {
+                for (String id : ids) {
+                    Map<String, Object> row = repository.findByIdInternal(process.id(), process.version(), UUID.fromString(id));
+                    if (row.containsKey(PAYLOAD)) {
+                        ProcessInstance<?> instance = marshaller.unmarshallReadOnlyProcessInstance((byte[]) row.get(PAYLOAD), process);
+                        repository.reindexInternal(process.id(), process.version(), UUID.fromString(id), (Long) row.get(VERSION), IndexedValues.of(instance, indexedVariable));
+                    }
+                }
+                count += ids.size();
+                ids = repository.findNotIndexedInternal(process.id(), process.version(), indexedVariable, ids.get(ids.size() - 1), REINDEX_PAGE_SIZE);
+            }
+            if (count > 0) {
+                LOGGER.info("Indexed {} process instances of process {}", count, process.id());
+            }
+            indexing.complete(true);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Unable to index the process instances of process {}, queries will scan the process instances", process.id(), e);
+            indexing.complete(false);
+        }
+    }
+
+    private boolean indexed() {
+        return indexing.getNow(false);
     }
 
     @Override
@@ -66,7 +152,9 @@ public class JDBCProcessInstances implements MutableProcessInstances {
     public void create(String id, ProcessInstance instance) {
         LOGGER.debug("Creating process instance id: {}, processId: {}, processVersion: {}", id, process.id(), process.version());
         if (isActive(instance)) {
-            repository.insertInternal(process.id(), process.version(), UUID.fromString(id), marshaller.marshallProcessInstance(instance));
+            byte[] payload = marshaller.marshallProcessInstance(instance);
+            repository.insertInternal(process.id(), process.version(), UUID.fromString(id), payload, indexedValues(instance));
+            cache(id, payload, 0L);
         } else {
             LOGGER.warn("Skipping create of process instance id: {}, state: {}", id, instance.status());
         }
@@ -78,15 +166,20 @@ public class JDBCProcessInstances implements MutableProcessInstances {
         LOGGER.debug("Updating process instance id: {}, processId: {}, processVersion: {}", id, process.id(), process.version());
         try {
             if (isActive(instance)) {
+                byte[] payload = marshaller.marshallProcessInstance(instance);
                 if (lock) {
-                    boolean isUpdated = repository.updateWithLock(process.id(), process.version(), UUID.fromString(id), marshaller.marshallProcessInstance(instance), instance.version());
+                    boolean isUpdated = repository.updateWithLock(process.id(), process.version(), UUID.fromString(id), payload, instance.version(), indexedValues(instance));
                     if (!isUpdated) {
+                        nearCache.invalidate(id);
                         throw new ProcessInstanceOptimisticLockingException(id);
                     }
+                    cache(id, payload, instance.version() + 1);
                 } else {
-                    repository.updateInternal(process.id(), process.version(), UUID.fromString(id), marshaller.marshallProcessInstance(instance));
+                    repository.updateInternal(process.id(), process.version(), UUID.fromString(id), payload, indexedValues(instance));
+                    cache(id, payload, instance.version());
                 }
             } else {
+                nearCache.invalidate(id);
                 LOGGER.warn("Process instance id: {}, state: {} is not active, skipping update", id, instance.status());
             }
         } finally {
@@ -97,20 +190,52 @@ public class JDBCProcessInstances implements MutableProcessInstances {
     @Override
     public void remove(String id) {
         LOGGER.debug("Removing process instance id: {}, processId: {}", id, process.id());
+        nearCache.invalidate(id);
         boolean isDeleted = repository.deleteInternal(process.id(), process.version(), UUID.fromString(id));
+        // discards the entry published by an earlier read of the same unit of work
+        repository.afterCommit(() -> nearCache.invalidate(id));
         LOGGER.debug("Deleted: {}", isDeleted);
     }
 
     @Override
     public Optional<ProcessInstance> findById(String id, ProcessInstanceReadMode mode) {
         LOGGER.debug("Find process instance id: {}, mode: {}", id, mode);
+        return load(id).map(entry -> {
+            ProcessInstance<?> instance = mode == MUTABLE ? marshaller.unmarshallProcessInstance(entry.payload(), process)
+                    : marshaller.unmarshallReadOnlyProcessInstance(entry.payload(), process);
+            ((AbstractProcessInstance<?>) instance).setVersion(entry.version());
+            return instance;
+        });
+    }
+
+    @Override
+    public Optional findVariablesById(String id) {
+        return load(id).map(entry -> marshaller.unmarshallProcessInstanceVariables(entry.payload(), process));
+    }
+
+    @Override
+    public Optional<ProcessInstanceHeader> findHeaderById(String id) {
+        return load(id).map(entry -> marshaller.unmarshallProcessInstanceHeader(entry.payload(), process).withVersion(entry.version()));
+    }
+
+    private Optional<ProcessInstanceNearCache.Entry> load(String id) {
+        Optional<ProcessInstanceNearCache.Entry> cached = nearCache.get(id);
+        if (cached.isPresent()) {
+            // another application instance may have updated or removed it since, the version is read without the payload
+            Long version = repository.findVersionInternal(process.id(), process.version(), UUID.fromString(id));
+            if (version != null && version == cached.get().version()) {
+                LOGGER.debug("Process instance id: {} found in near cache", id);
+                return cached;
+            }
+            LOGGER.debug("Process instance id: {} in near cache is stale", id);
+            nearCache.invalidate(id);
+        }
         Map<String, Object> map = repository.findByIdInternal(process.id(), process.version(), UUID.fromString(id));
         if (map.containsKey(PAYLOAD)) {
-            byte[] b = (byte[]) map.get(PAYLOAD);
-            ProcessInstance<?> instance = mode == MUTABLE ? marshaller.unmarshallProcessInstance(b, process)
-                    : marshaller.unmarshallReadOnlyProcessInstance(b, process);
-            ((AbstractProcessInstance<?>) instance).setVersion((Long) map.get(VERSION));
-            return Optional.of(instance);
+            byte[] payload = (byte[]) map.get(PAYLOAD);
+            long version = (Long) map.get(VERSION);
+            cache(id, payload, version);
+            return Optional.of(new ProcessInstanceNearCache.Entry(payload, version));
         }
         return Optional.empty();
     }
@@ -123,6 +248,31 @@ public class JDBCProcessInstances implements MutableProcessInstances {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List find(ProcessInstanceQuery query, ProcessInstanceReadMode mode) {
+        if (!query.matchesProcessVersion(process.version())) {
+            return Collections.emptyList();
+        }
+        if (!indexed() || !query.isIndexed(indexedVariable)) {
+            LOGGER.debug("Query {} is not indexed, scanning process instances", query);
+            return MutableProcessInstances.super.find(query, mode);
+        }
+        return repository.findInternal(process.id(), process.version(), query).stream().map(row -> {
+            byte[] payload = (byte[]) row.get(PAYLOAD);
+            long version = (Long) row.get(VERSION);
+            ProcessInstance<?> instance = mode == MUTABLE ? marshaller.unmarshallProcessInstance(payload, process) : marshaller.unmarshallReadOnlyProcessInstance(payload, process);
+            ((AbstractProcessInstance<?>) instance).setVersion(version);
+            cache(instance.id(), payload, version);
+            return instance;
+        }).collect(Collectors.toList());
+    }
+
+    @Override
+    public Stream streamVariables() {
+        return repository.findAllInternal(process.id(), process.version()).stream()
+                .map(b -> marshaller.unmarshallProcessInstanceVariables(b, process));
+    }
+
     @Override
     public Integer size() {
         return repository.countInternal(process.id(), process.version()).intValue();
@@ -133,12 +283,36 @@ public class JDBCProcessInstances implements MutableProcessInstances {
         return this.lock;
     }
 
+    @Override
+    public ProcessInstanceNearCache nearCache() {
+        return nearCache;
+    }
+
+    @Override
+    public boolean isPagedFind() {
+        // queries are only run by the database once every row is indexed
+        return indexed();
+    }
+
+    private void cache(String id, byte[] payload, long version) {
+        if (nearCache.isEnabled()) {
+            // the payload may come from writes of the unit of work that are not committed yet, which other units of
+            // work must not read, till then the unit of work reads its own writes from the database
+            nearCache.invalidate(id);
+            repository.afterCommit(() -> nearCache.put(id, payload, version));
+        }
+    }
+
+    private IndexedValues indexedValues(ProcessInstance<?> instance) {
+        // rows are indexed as soon as the columns exist, including while the existing ones are indexed
+        return indexedColumns ? IndexedValues.of(instance, indexedVariable) : null;
+    }
+
     private void disconnect(ProcessInstance instance) {
-        Supplier<byte[]> supplier = () -> {
-            Map<String, Object> map = repository.findByIdInternal(process.id(), process.version(), UUID.fromString(instance.id()));
-            ((AbstractProcessInstance<?>) instance).setVersion((Long) map.get(VERSION));
-            return (byte[]) map.get(PAYLOAD);
-        };
+        Supplier<byte[]> supplier = () -> load(instance.id()).map(entry -> {
+            ((AbstractProcessInstance<?>) instance).setVersion(entry.version());
+            return entry.payload();
+        }).orElse(null);
         ((AbstractProcessInstance<?>) instance).internalRemoveProcessInstance(marshaller.createdReloadFunction(supplier));
     }
 }
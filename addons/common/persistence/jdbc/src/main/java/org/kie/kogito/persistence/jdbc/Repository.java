@@ -19,36 +19,99 @@ import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
+import org.kie.kogito.process.ProcessInstanceQuery;
+
 abstract class Repository {
 
     static final String INSERT = "INSERT INTO process_instances (id, payload, process_id, process_version, version) VALUES (?, ?, ?, ?, ?)";
+    static final String INSERT_INDEXED =
+            "INSERT INTO process_instances (id, payload, process_id, process_version, version, state, business_key, indexed_variable, indexed_variable_path) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
     static final String FIND_ALL = "SELECT payload FROM process_instances WHERE process_id = ?";
     static final String FIND_BY_ID = "SELECT payload, version FROM process_instances WHERE process_id = ? and id = ?";
+    static final String FIND_VERSION_BY_ID = "SELECT version FROM process_instances WHERE process_id = ? and id = ?";
     static final String UPDATE = "UPDATE process_instances SET payload = ? WHERE process_id = ? and id = ?";
     static final String UPDATE_WITH_LOCK = "UPDATE process_instances SET payload = ?, version = ? WHERE process_id = ? and id = ? and version = ?";
+    static final String UPDATE_INDEXED =
+            "UPDATE process_instances SET payload = ?, state = ?, business_key = ?, indexed_variable = ?, indexed_variable_path = ? WHERE process_id = ? and id = ?";
+    static final String UPDATE_WITH_LOCK_INDEXED =
+            "UPDATE process_instances SET payload = ?, version = ?, state = ?, business_key = ?, indexed_variable = ?, indexed_variable_path = ? WHERE process_id = ? and id = ? and version = ?";
+    static final String FIND_NOT_INDEXED = "SELECT id FROM process_instances WHERE process_id = ?";
+    static final String REINDEX =
+            "UPDATE process_instances SET state = ?, business_key = ?, indexed_variable = ?, indexed_variable_path = ? WHERE process_id = ? and id = ? and version = ?";
+    // rows written before the indexed columns were added, or indexed on another variable path
+    static final String NOT_INDEXED = " and (state is null or indexed_variable_path is not null) ";
+    static final String NOT_INDEXED_ON_PATH = " and (state is null or indexed_variable_path is null or indexed_variable_path <> ?) ";
+    static final String FIND = "SELECT payload, version FROM process_instances WHERE process_id = ?";
+    static final String STATE_EQUALS_TO = " and state = ?";
+    static final String BUSINESS_KEY_EQUALS_TO = " and business_key = ?";
+    static final String INDEXED_VARIABLE_EQUALS_TO = " and indexed_variable = ?";
+    static final String ORDER_BY_ID = " ORDER BY id";
+    static final String OFFSET = " OFFSET ? ROWS";
+    static final String FETCH_NEXT = " FETCH NEXT ? ROWS ONLY";
+    static final String LIMIT_OFFSET = " LIMIT ? OFFSET ?";
+    static final String ID_AFTER = " and id > ?";
     static final String DELETE = "DELETE FROM process_instances WHERE process_id = ? and id = ?";
     static final String COUNT = "SELECT COUNT(id) as count FROM process_instances WHERE process_id = ?";
     static final String PROCESS_VERSION_EQUALS_TO = "and process_version = ?";
     static final String PROCESS_VERSION_IS_NULL = "and process_version is null";
+    static final String CHECK_INDEXED_COLUMNS = "SELECT state, business_key, indexed_variable, indexed_variable_path FROM process_instances WHERE 1 = 0";
 
     abstract boolean tableExists();
 
     abstract void createTable();
 
-    abstract void insertInternal(String processId, String processVersion, UUID id, byte[] payload);
+    abstract boolean indexedColumnsExist();
+
+    abstract void addIndexedColumns();
 
-    abstract void updateInternal(String processId, String processVersion, UUID id, byte[] payload);
+    /**
+     * @param indexed values of the indexed columns, null when the table has none
+     */
+    abstract void insertInternal(String processId, String processVersion, UUID id, byte[] payload, IndexedValues indexed);
 
-    abstract boolean updateWithLock(String processId, String processVersion, UUID id, byte[] payload, long version);
+    abstract void updateInternal(String processId, String processVersion, UUID id, byte[] payload, IndexedValues indexed);
+
+    abstract boolean updateWithLock(String processId, String processVersion, UUID id, byte[] payload, long version, IndexedValues indexed);
 
     abstract boolean deleteInternal(String processId, String processVersion, UUID id);
 
     abstract Map<String, Object> findByIdInternal(String processId, String processVersion, UUID id);
 
+    /**
+     * Returns the version of the process instance without reading its payload, null when it does not exist.
+     */
+    abstract Long findVersionInternal(String processId, String processVersion, UUID id);
+
     abstract List<byte[]> findAllInternal(String processId, String processVersion);
 
+    /**
+     * Looks the query up in the indexed columns, returning the payload and version of each matching process instance.
+     * Rows are paged in the database.
+     */
+    abstract List<Map<String, Object>> findInternal(String processId, String processVersion, ProcessInstanceQuery query);
+
     abstract Long countInternal(String processId, String processVersion);
 
+    /**
+     * Returns, ordered by id, the ids of the process instances whose indexed columns are not set, or set for another
+     * variable path.
+     *
+     * @param afterId id after which the page starts, null for the first one
+     * @param limit maximum number of ids returned
+     */
+    abstract List<String> findNotIndexedInternal(String processId, String processVersion, String variablePath, String afterId, int limit);
+
+    /**
+     * Sets the indexed columns of the process instance, unless it has been updated in the meantime.
+     */
+    abstract void reindexInternal(String processId, String processVersion, UUID id, long version, IndexedValues indexed);
+
+    /**
+     * Runs the action once the transaction bound to the current unit of work is committed, immediately when there is
+     * none as every statement is then committed on its own.
+     */
+    abstract void afterCommit(Runnable action);
+
     protected RuntimeException uncheckedException(Exception ex, String message, Object... param) {
         return new RuntimeException(String.format(message, param), ex);
     }
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.persistence.jdbc.transaction;
+
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.kie.kogito.uow.UnitOfWork;
+import org.kie.kogito.uow.events.UnitOfWorkAbortEvent;
+import org.kie.kogito.uow.events.UnitOfWorkEndEvent;
+import org.kie.kogito.uow.events.UnitOfWorkEventListener;
+import org.kie.kogito.uow.events.UnitOfWorkStartEvent;
+
+/**
+ * Binds a {@link JDBCTransaction} to each unit of work when enabled, committed when the unit of work ends and rolled
+ * back when it is aborted. Units of work started while another one is running in the same thread join its transaction.
+ */
+public abstract class AbstractTransactionManager implements UnitOfWorkEventListener {
+
+    private final DataSource dataSource;
+    private final Boolean enabled;
+
+    private final ThreadLocal<BoundTransaction> transactionLocal = new ThreadLocal<>();
+
+    public AbstractTransactionManager(DataSource dataSource, Boolean enabled) {
+        this.dataSource = dataSource;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void onBeforeStartEvent(UnitOfWorkStartEvent event) {
+        if (!enabled() || transactionLocal.get() != null) {
+            return;
+        }
+        transactionLocal.set(new BoundTransaction(event.getUnitOfWork(), new JDBCTransaction(dataSource)));
+    }
+
+    @Override
+    public void onAfterEndEvent(UnitOfWorkEndEvent event) {
+        JDBCTransaction transaction = release(event.getUnitOfWork());
+        if (transaction == null) {
+            return;
+        }
+        try {
+            transaction.commit();
+        } catch (SQLException e) {
+            transaction.rollback();
+            throw new RuntimeException("Error committing process instances transaction", e);
+        } finally {
+            transaction.close();
+        }
+    }
+
+    @Override
+    public void onAfterAbortEvent(UnitOfWorkAbortEvent event) {
+        JDBCTransaction transaction = release(event.getUnitOfWork());
+        if (transaction != null) {
+            try {
+                transaction.rollback();
+            } finally {
+                transaction.close();
+            }
+        }
+    }
+
+    /**
+     * @return the transaction of the unit of work running in the current thread, null if there is none
+     */
+    public JDBCTransaction getTransaction() {
+        BoundTransaction bound = transactionLocal.get();
+        return bound == null ? null : bound.transaction;
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    private JDBCTransaction release(UnitOfWork unitOfWork) {
+        BoundTransaction bound = transactionLocal.get();
+        if (bound == null || bound.unitOfWork != unitOfWork) {
+            return null;
+        }
+        transactionLocal.remove();
+        return bound.transaction;
+    }
+
+    private static class BoundTransaction {
+
+        private final UnitOfWork unitOfWork;
+        private final JDBCTransaction transaction;
+
+        private BoundTransaction(UnitOfWork unitOfWork, JDBCTransaction transaction) {
+            this.unitOfWork = unitOfWork;
+            this.transaction = transaction;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.persistence.jdbc.transaction;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Database transaction bound to a unit of work. The connection is taken from the data source on first use and kept
+ * until the unit of work ends, its prepared statements being reused by every operation of the unit of work.
+ * <p>
+ * Writes whose row count is not needed are added to a JDBC batch of the statement, consecutive writes of the same
+ * statement being sent in a single round trip. The pending batch is executed before any other statement runs, so
+ * writes reach the database in the order they were made and reads within the unit of work see them.
+ */
+public class JDBCTransaction {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JDBCTransaction.class);
+
+    private final DataSource dataSource;
+    private final Map<String, PreparedStatement> statements = new HashMap<>();
+    private final List<Runnable> commitActions = new ArrayList<>();
+    private final List<Runnable> rollbackActions = new ArrayList<>();
+
+    private Connection connection;
+    private PreparedStatement batchStatement;
+    private int batchSize;
+
+    public JDBCTransaction(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Returns the prepared statement of the given SQL, executing first the pending batch.
+     */
+    public PreparedStatement statement(String sql) throws SQLException {
+        flush();
+        return prepare(sql);
+    }
+
+    /**
+     * Returns the prepared statement of the given SQL whose parameters must be set and then added with
+     * {@link #addBatch()}. The pending batch of any other statement is executed first.
+     */
+    public PreparedStatement batchStatement(String sql) throws SQLException {
+        PreparedStatement statement = prepare(sql);
+        if (statement != batchStatement) {
+            flush();
+            batchStatement = statement;
+        }
+        return statement;
+    }
+
+    public void addBatch() throws SQLException {
+        batchStatement.addBatch();
+        batchSize++;
+    }
+
+    /**
+     * Executes the pending batch, if any.
+     */
+    public void flush() throws SQLException {
+        if (batchSize > 0) {
+            LOGGER.debug("Executing batch of {} statements", batchSize);
+            batchSize = 0;
+            batchStatement.executeBatch();
+        }
+        batchStatement = null;
+    }
+
+    /**
+     * Registers an action run once the transaction is committed, to publish state derived from its writes only when
+     * other units of work can read them.
+     */
+    public void onCommit(Runnable action) {
+        commitActions.add(action);
+    }
+
+    /**
+     * Registers an action run when the transaction is rolled back, to discard state derived from its writes.
+     */
+    public void onRollback(Runnable action) {
+        rollbackActions.add(action);
+    }
+
+    void commit() throws SQLException {
+        if (connection != null) {
+            flush();
+            connection.commit();
+        }
+        commitActions.forEach(Runnable::run);
+    }
+
+    void rollback() {
+        try {
+            if (connection != null) {
+                connection.rollback();
+            }
+        } catch (SQLException e) {
+            LOGGER.warn("Error rolling back transaction", e);
+        } finally {
+            rollbackActions.forEach(Runnable::run);
+        }
+    }
+
+    void close() {
+        if (connection == null) {
+            return;
+        }
+        for (PreparedStatement statement : statements.values()) {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                LOGGER.debug("Error closing statement", e);
+            }
+        }
+        statements.clear();
+        try {
+            connection.setAutoCommit(true);
+            connection.close();
+        } catch (SQLException e) {
+            LOGGER.warn("Error closing connection", e);
+        } finally {
+            connection = null;
+        }
+    }
+
+    private PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement statement = statements.get(sql);
+        if (statement == null) {
+            statement = connection().prepareStatement(sql);
+            statements.put(sql, statement);
+        }
+        return statement;
+    }
+
+    private Connection connection() throws SQLException {
+        if (connection == null) {
+            Connection newConnection = dataSource.getConnection();
+            try {
+                newConnection.setAutoCommit(false);
+            } catch (SQLException e) {
+                newConnection.close();
+                throw e;
+            }
+            connection = newConnection;
+        }
+        return connection;
+    }
+}
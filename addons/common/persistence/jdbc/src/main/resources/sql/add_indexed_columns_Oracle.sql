@@ -0,0 +1,4 @@
+ALTER TABLE process_instances ADD (state number(10), business_key varchar2(255), indexed_variable varchar2(255), indexed_variable_path varchar2(255));
+CREATE INDEX idx_process_instances_state ON process_instances (process_id, process_version, state);
+CREATE INDEX idx_process_instances_bkey ON process_instances (process_id, business_key);
+CREATE INDEX idx_process_instances_var ON process_instances (process_id, indexed_variable);
\ No newline at end of file
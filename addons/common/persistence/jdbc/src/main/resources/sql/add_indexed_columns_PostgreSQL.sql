@@ -0,0 +1,7 @@
+ALTER TABLE process_instances ADD COLUMN IF NOT EXISTS state integer;
+ALTER TABLE process_instances ADD COLUMN IF NOT EXISTS business_key character varying(255);
+ALTER TABLE process_instances ADD COLUMN IF NOT EXISTS indexed_variable character varying(255);
+ALTER TABLE process_instances ADD COLUMN IF NOT EXISTS indexed_variable_path character varying(255);
+CREATE INDEX IF NOT EXISTS idx_process_instances_state ON process_instances (process_id, process_version, state);
+CREATE INDEX IF NOT EXISTS idx_process_instances_bkey ON process_instances (process_id, business_key);
+CREATE INDEX IF NOT EXISTS idx_process_instances_var ON process_instances (process_id, indexed_variable);
\ No newline at end of file
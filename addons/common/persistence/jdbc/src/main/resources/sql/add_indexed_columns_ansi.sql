@@ -0,0 +1,7 @@
+ALTER TABLE process_instances ADD COLUMN state INT;
+ALTER TABLE process_instances ADD COLUMN business_key VARCHAR(255);
+ALTER TABLE process_instances ADD COLUMN indexed_variable VARCHAR(255);
+ALTER TABLE process_instances ADD COLUMN indexed_variable_path VARCHAR(255);
+CREATE INDEX idx_process_instances_state ON process_instances (process_id, process_version, state);
+CREATE INDEX idx_process_instances_bkey ON process_instances (process_id, business_key);
+CREATE INDEX idx_process_instances_var ON process_instances (process_id, indexed_variable);
\ No newline at end of file
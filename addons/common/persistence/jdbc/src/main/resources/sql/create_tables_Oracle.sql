@@ -5,6 +5,13 @@ CREATE TABLE process_instances
     process_id      varchar2(4000) NOT NULL,
     version         number(19),
     process_version varchar2(4000),
+    state           number(10),
+    business_key    varchar2(255),
+    indexed_variable varchar2(255),
+    indexed_variable_path varchar2(255),
     CONSTRAINT process_instances_pkey PRIMARY KEY (id)
 );
-CREATE INDEX idx_process_instances_proc_id ON process_instances (process_id, id, process_version);
\ No newline at end of file
+CREATE INDEX idx_process_instances_proc_id ON process_instances (process_id, id, process_version);
+CREATE INDEX idx_process_instances_state ON process_instances (process_id, process_version, state);
+CREATE INDEX idx_process_instances_bkey ON process_instances (process_id, business_key);
+CREATE INDEX idx_process_instances_var ON process_instances (process_id, indexed_variable);
\ No newline at end of file
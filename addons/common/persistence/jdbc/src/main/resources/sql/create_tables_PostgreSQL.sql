@@ -6,9 +6,16 @@ CREATE TABLE process_instances
     process_id      character varying NOT NULL,
     version         bigint,
     process_version character varying,
+    state           integer,
+    business_key    character varying(255),
+    indexed_variable character varying(255),
+    indexed_variable_path character varying(255),
     CONSTRAINT process_instances_pkey PRIMARY KEY (id)
 );
 CREATE INDEX idx_process_instances_process_id ON process_instances (process_id, id, process_version);
+CREATE INDEX idx_process_instances_state ON process_instances (process_id, process_version, state);
+CREATE INDEX idx_process_instances_bkey ON process_instances (process_id, business_key);
+CREATE INDEX idx_process_instances_var ON process_instances (process_id, indexed_variable);
 
 CREATE TABLE correlation_instances
 (
@@ -5,6 +5,13 @@ CREATE TABLE process_instances
     process_id      VARCHAR(4000) NOT NULL,
     version         BIGINT(19),
     process_version VARCHAR(4000),
+    state           INT,
+    business_key    VARCHAR(255),
+    indexed_variable VARCHAR(255),
+    indexed_variable_path VARCHAR(255),
     CONSTRAINT process_instances_pkey PRIMARY KEY (id)
 );
-CREATE INDEX idx_process_instances_process_id ON process_instances (process_id, id, process_version);
\ No newline at end of file
+CREATE INDEX idx_process_instances_process_id ON process_instances (process_id, id, process_version);
+CREATE INDEX idx_process_instances_state ON process_instances (process_id, process_version, state);
+CREATE INDEX idx_process_instances_bkey ON process_instances (process_id, business_key);
+CREATE INDEX idx_process_instances_var ON process_instances (process_id, indexed_variable);
\ No newline at end of file
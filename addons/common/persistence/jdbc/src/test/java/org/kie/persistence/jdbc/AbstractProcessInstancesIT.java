@@ -15,7 +15,13 @@
  */
 package org.kie.persistence.jdbc;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import javax.sql.DataSource;
 
@@ -24,12 +30,20 @@ import org.junit.jupiter.api.Test;
 import org.kie.kogito.auth.IdentityProviders;
 import org.kie.kogito.auth.SecurityPolicy;
 import org.kie.kogito.persistence.jdbc.JDBCProcessInstances;
+import org.kie.kogito.persistence.jdbc.transaction.AbstractTransactionManager;
 import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceOptimisticLockingException;
+import org.kie.kogito.process.ProcessInstanceQuery;
 import org.kie.kogito.process.ProcessInstanceReadMode;
+import org.kie.kogito.process.ProcessInstances;
 import org.kie.kogito.process.WorkItem;
 import org.kie.kogito.process.bpmn2.BpmnProcess;
 import org.kie.kogito.process.bpmn2.BpmnProcessInstance;
 import org.kie.kogito.process.bpmn2.BpmnVariables;
+import org.kie.kogito.uow.UnitOfWork;
+import org.kie.kogito.uow.events.UnitOfWorkAbortEvent;
+import org.kie.kogito.uow.events.UnitOfWorkEndEvent;
+import org.kie.kogito.uow.events.UnitOfWorkStartEvent;
 
 import static java.util.Collections.singletonMap;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -38,7 +52,10 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.kie.kogito.internal.process.runtime.KogitoProcessInstance.STATE_ACTIVE;
 import static org.kie.kogito.internal.process.runtime.KogitoProcessInstance.STATE_COMPLETED;
+import static org.kie.kogito.process.ProcessInstanceReadMode.READ_ONLY;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -206,6 +223,56 @@ abstract class AbstractProcessInstancesIT {
         assertThat(process.instances().values()).isEmpty();
     }
 
+    @Test
+    void testConcurrentUpdateWithNearCache() {
+        BpmnProcess process = createProcess(new TestProcessInstancesFactory(getDataSource(), lock(), 10), "BPMN2-UserTask.bpmn2");
+        // another application instance sharing the same database, with its own near cache
+        BpmnProcess otherProcess = createProcess(new TestProcessInstancesFactory(getDataSource(), lock(), 10), "BPMN2-UserTask.bpmn2");
+        ProcessInstance<BpmnVariables> processInstance = process.createInstance(BpmnVariables.create(singletonMap("test", "test")));
+        processInstance.start();
+
+        JDBCProcessInstances processInstances = (JDBCProcessInstances) process.instances();
+        JDBCProcessInstances otherProcessInstances = (JDBCProcessInstances) otherProcess.instances();
+        BpmnProcessInstance instanceOne = (BpmnProcessInstance) processInstances.findById(processInstance.id()).get();
+        BpmnProcessInstance instanceTwo = (BpmnProcessInstance) otherProcessInstances.findById(processInstance.id()).get();
+        assertEquals(lock() ? 1L : 0, instanceOne.version());
+        assertEquals(lock() ? 1L : 0, instanceTwo.version());
+
+        instanceTwo.updateVariables(BpmnVariables.create(singletonMap("s", "other")));
+        assertEquals(lock() ? 2L : 0, ((BpmnProcessInstance) otherProcessInstances.findById(processInstance.id()).get()).version());
+
+        if (lock()) {
+            // the entry in the near cache of the first application instance is stale, it is read again
+            BpmnProcessInstance current = (BpmnProcessInstance) processInstances.findById(processInstance.id()).get();
+            assertEquals(2L, current.version());
+            assertThat(current.variables().toMap()).containsEntry("s", "other");
+            // and an update based on the version read before is rejected
+            BpmnProcessInstance stale = instanceOne;
+            assertThatExceptionOfType(ProcessInstanceOptimisticLockingException.class)
+                    .isThrownBy(() -> stale.updateVariables(BpmnVariables.create(singletonMap("s", "test"))));
+        }
+
+        processInstances.remove(processInstance.id());
+        assertThat(processInstances.size()).isZero();
+    }
+
+    @Test
+    void testRemoveWithNearCache() {
+        BpmnProcess process = createProcess(new TestProcessInstancesFactory(getDataSource(), lock(), 10), "BPMN2-UserTask.bpmn2");
+        // another application instance sharing the same database, with its own near cache
+        BpmnProcess otherProcess = createProcess(new TestProcessInstancesFactory(getDataSource(), lock(), 10), "BPMN2-UserTask.bpmn2");
+        ProcessInstance<BpmnVariables> processInstance = process.createInstance(BpmnVariables.create(singletonMap("test", "test")));
+        processInstance.start();
+
+        JDBCProcessInstances processInstances = (JDBCProcessInstances) process.instances();
+        assertThat(processInstances.findById(processInstance.id())).isPresent();
+        assertThat(processInstances.nearCache().get(processInstance.id())).isPresent();
+
+        otherProcess.instances().findById(processInstance.id()).get().abort();
+        assertThat(processInstances.findById(processInstance.id())).isEmpty();
+        assertThat(processInstances.nearCache().get(processInstance.id())).isEmpty();
+    }
+
     @Test
     public void testRemove() {
         var factory = new TestProcessInstancesFactory(getDataSource(), lock());
@@ -260,4 +327,165 @@ abstract class AbstractProcessInstancesIT {
         processInstancesV2.remove(processInstanceV2.id());
         assertThat(processInstancesV2.size()).isZero();
     }
+
+    @Test
+    void testFind() {
+        BpmnProcess process = createProcess(new TestProcessInstancesFactory(getDataSource(), lock(), "test"), "BPMN2-UserTask.bpmn2");
+        List<String> created = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ProcessInstance<BpmnVariables> processInstance = process.createInstance("key-" + i % 2, BpmnVariables.create(singletonMap("test", "value-" + i % 3)));
+            processInstance.start();
+            created.add(processInstance.id());
+        }
+        ProcessInstances<BpmnVariables> processInstances = process.instances();
+        awaitIndexed(processInstances);
+
+        List<String> active = sorted(created, 0, 1, 2, 3, 4);
+        assertThat(find(processInstances, ProcessInstanceQuery.builder().status(STATE_ACTIVE))).isEqualTo(active);
+        // pages follow the id order
+        assertThat(find(processInstances, ProcessInstanceQuery.builder().status(STATE_ACTIVE).limit(2))).isEqualTo(active.subList(0, 2));
+        assertThat(find(processInstances, ProcessInstanceQuery.builder().status(STATE_ACTIVE).offset(2).limit(2))).isEqualTo(active.subList(2, 4));
+        assertThat(find(processInstances, ProcessInstanceQuery.builder().status(STATE_ACTIVE).offset(4).limit(2))).isEqualTo(active.subList(4, 5));
+        assertThat(find(processInstances, ProcessInstanceQuery.builder().businessKey("key-0"))).isEqualTo(sorted(created, 0, 2, 4));
+        assertThat(find(processInstances, ProcessInstanceQuery.builder().variable("test", "value-1"))).isEqualTo(sorted(created, 1, 4));
+        assertThat(find(processInstances, ProcessInstanceQuery.builder().businessKey("key-0").variable("test", "value-1"))).isEqualTo(sorted(created, 4));
+        assertThat(find(processInstances, ProcessInstanceQuery.builder().status(STATE_COMPLETED))).isEmpty();
+        assertThat(find(processInstances, ProcessInstanceQuery.builder().processVersion("2.0"))).isEmpty();
+        assertThat(find(processInstances, ProcessInstanceQuery.builder().processVersion("1.0").businessKey("key-1"))).isEqualTo(sorted(created, 1, 3));
+        verify(processInstances, never()).stream(any());
+
+        // the variable path is not indexed, the instances are scanned
+        assertThat(find(processInstances, ProcessInstanceQuery.builder().variable("other", "value-1"))).isEmpty();
+        verify(processInstances).stream(READ_ONLY);
+
+        processInstances.findById(created.get(0)).get().abort();
+        assertThat(find(processInstances, ProcessInstanceQuery.builder().businessKey("key-0"))).isEqualTo(sorted(created, 2, 4));
+        created.forEach(id -> processInstances.findById(id).ifPresent(ProcessInstance::abort));
+    }
+
+    @Test
+    void testFindAfterReindex() throws SQLException {
+        // instances written without indexed variable, some of them before the indexed columns were added
+        BpmnProcess process = createProcess(new TestProcessInstancesFactory(getDataSource(), lock()), "BPMN2-UserTask.bpmn2");
+        List<String> created = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ProcessInstance<BpmnVariables> processInstance = process.createInstance("key-" + i, BpmnVariables.create(singletonMap("test", "value-" + i)));
+            processInstance.start();
+            created.add(processInstance.id());
+        }
+        try (Connection connection = getDataSource().getConnection();
+                PreparedStatement statement = connection.prepareStatement("UPDATE process_instances SET state = NULL, business_key = NULL WHERE id = ?")) {
+            statement.setString(1, created.get(0));
+            statement.executeUpdate();
+        }
+
+        // the indexed variable is now configured, the existing rows are indexed in the background on startup
+        BpmnProcess reconfigured = BpmnProcess.from(new ClassPathResource("BPMN2-UserTask.bpmn2")).get(0);
+        reconfigured.setProcessInstancesFactory(new TestProcessInstancesFactory(getDataSource(), lock(), "test"));
+        reconfigured.configure();
+        ProcessInstances<BpmnVariables> processInstances = reconfigured.instances();
+        awaitIndexed(processInstances);
+
+        assertThat(find(processInstances, ProcessInstanceQuery.builder().businessKey("key-0"))).containsExactly(created.get(0));
+        assertThat(find(processInstances, ProcessInstanceQuery.builder().status(STATE_ACTIVE))).isEqualTo(sorted(created, 0, 1, 2));
+        assertThat(find(processInstances, ProcessInstanceQuery.builder().variable("test", "value-1"))).containsExactly(created.get(1));
+        verify(processInstances, never()).stream(any());
+
+        created.forEach(id -> processInstances.findById(id).ifPresent(ProcessInstance::abort));
+    }
+
+    @Test
+    void testTransaction() {
+        AbstractTransactionManager transactionManager = new AbstractTransactionManager(getDataSource(), true) {
+        };
+        BpmnProcess process = createProcess(new TestProcessInstancesFactory(getDataSource(), lock(), transactionManager), "BPMN2-UserTask.bpmn2");
+        // another application instance, committing every statement on its own
+        BpmnProcess otherProcess = createProcess(new TestProcessInstancesFactory(getDataSource(), lock()), "BPMN2-UserTask.bpmn2");
+        JDBCProcessInstances processInstances = (JDBCProcessInstances) process.instances();
+
+        UnitOfWork unitOfWork = mock(UnitOfWork.class);
+        transactionManager.onBeforeStartEvent(new UnitOfWorkStartEvent(unitOfWork));
+        List<String> created = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ProcessInstance<BpmnVariables> processInstance = process.createInstance(BpmnVariables.create(singletonMap("test", "test" + i)));
+            processInstance.start();
+            created.add(processInstance.id());
+        }
+        // the unit of work reads its own writes, others do not until it ends
+        assertThat(processInstances.size()).isEqualTo(3);
+        assertThat(processInstances.findById(created.get(0))).isPresent();
+        assertThat(otherProcess.instances().size()).isZero();
+        transactionManager.onAfterEndEvent(new UnitOfWorkEndEvent(unitOfWork));
+        assertThat(otherProcess.instances().size()).isEqualTo(3);
+
+        unitOfWork = mock(UnitOfWork.class);
+        transactionManager.onBeforeStartEvent(new UnitOfWorkStartEvent(unitOfWork));
+        created.forEach(processInstances::remove);
+        assertThat(processInstances.size()).isZero();
+        transactionManager.onAfterAbortEvent(new UnitOfWorkAbortEvent(unitOfWork));
+        assertThat(processInstances.size()).isEqualTo(3);
+        assertThat(processInstances.findById(created.get(0))).isPresent();
+
+        created.forEach(processInstances::remove);
+        assertThat(otherProcess.instances().size()).isZero();
+    }
+
+    @Test
+    void testTransactionWithNearCache() {
+        AbstractTransactionManager transactionManager = new AbstractTransactionManager(getDataSource(), true) {
+        };
+        BpmnProcess process = createProcess(new TestProcessInstancesFactory(getDataSource(), lock(), 10, transactionManager), "BPMN2-UserTask.bpmn2");
+        JDBCProcessInstances processInstances = (JDBCProcessInstances) process.instances();
+
+        UnitOfWork unitOfWork = mock(UnitOfWork.class);
+        transactionManager.onBeforeStartEvent(new UnitOfWorkStartEvent(unitOfWork));
+        ProcessInstance<BpmnVariables> processInstance = process.createInstance(BpmnVariables.create(singletonMap("test", "test")));
+        processInstance.start();
+        // not committed yet, other units of work must not read it from the near cache
+        assertThat(processInstances.nearCache().get(processInstance.id())).isEmpty();
+        assertThat(processInstances.findById(processInstance.id())).isPresent();
+        transactionManager.onAfterEndEvent(new UnitOfWorkEndEvent(unitOfWork));
+        assertThat(processInstances.nearCache().get(processInstance.id())).isPresent();
+        long version = ((BpmnProcessInstance) processInstances.findById(processInstance.id()).get()).version();
+
+        unitOfWork = mock(UnitOfWork.class);
+        transactionManager.onBeforeStartEvent(new UnitOfWorkStartEvent(unitOfWork));
+        ((BpmnProcessInstance) processInstances.findById(processInstance.id()).get()).updateVariables(BpmnVariables.create(singletonMap("s", "rolled back")));
+        transactionManager.onAfterAbortEvent(new UnitOfWorkAbortEvent(unitOfWork));
+        assertThat(processInstances.nearCache().get(processInstance.id())).isEmpty();
+        BpmnProcessInstance found = (BpmnProcessInstance) processInstances.findById(processInstance.id()).get();
+        assertEquals(version, found.version());
+        assertThat(found.variables().toMap()).doesNotContainKey("s");
+
+        processInstances.remove(processInstance.id());
+        assertThat(processInstances.size()).isZero();
+    }
+
+    private static void awaitIndexed(ProcessInstances<?> processInstances) {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!((JDBCProcessInstances) processInstances).isPagedFind()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Process instances not indexed");
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail("Interrupted while waiting for the process instances to be indexed");
+            }
+        }
+    }
+
+    private static List<String> find(ProcessInstances<BpmnVariables> processInstances, ProcessInstanceQuery.Builder query) {
+        return processInstances.find(query.build(), READ_ONLY).stream().map(ProcessInstance::id).collect(Collectors.toList());
+    }
+
+    private static List<String> sorted(List<String> ids, int... indexes) {
+        List<String> result = new ArrayList<>();
+        for (int index : indexes) {
+            result.add(ids.get(index));
+        }
+        result.sort(null);
+        return result;
+    }
 }
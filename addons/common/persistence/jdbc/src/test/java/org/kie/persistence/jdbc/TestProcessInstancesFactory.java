@@ -19,7 +19,10 @@ import javax.sql.DataSource;
 
 import org.kie.kogito.persistence.jdbc.AbstractProcessInstancesFactory;
 import org.kie.kogito.persistence.jdbc.JDBCProcessInstances;
+import org.kie.kogito.persistence.jdbc.transaction.AbstractTransactionManager;
 import org.kie.kogito.process.Process;
+import org.kie.kogito.process.impl.ProcessInstanceNearCache;
+import org.kie.kogito.serialization.process.compression.PayloadCompression;
 
 import static org.mockito.Mockito.spy;
 
@@ -29,6 +32,22 @@ public class TestProcessInstancesFactory extends AbstractProcessInstancesFactory
         super(dataSource, true, lock);
     }
 
+    public TestProcessInstancesFactory(DataSource dataSource, boolean lock, int nearCacheSize) {
+        super(dataSource, true, lock, nearCacheSize);
+    }
+
+    public TestProcessInstancesFactory(DataSource dataSource, boolean lock, String indexedVariable) {
+        super(dataSource, true, lock, ProcessInstanceNearCache.DISABLED, PayloadCompression.NONE, PayloadCompression.DEFAULT_THRESHOLD, indexedVariable);
+    }
+
+    public TestProcessInstancesFactory(DataSource dataSource, boolean lock, AbstractTransactionManager transactionManager) {
+        super(dataSource, true, lock, ProcessInstanceNearCache.DISABLED, PayloadCompression.NONE, PayloadCompression.DEFAULT_THRESHOLD, null, transactionManager);
+    }
+
+    public TestProcessInstancesFactory(DataSource dataSource, boolean lock, int nearCacheSize, AbstractTransactionManager transactionManager) {
+        super(dataSource, true, lock, nearCacheSize, PayloadCompression.NONE, PayloadCompression.DEFAULT_THRESHOLD, null, transactionManager);
+    }
+
     @Override
     public JDBCProcessInstances createProcessInstances(Process<?> process) {
         return spy(super.createProcessInstances(process));
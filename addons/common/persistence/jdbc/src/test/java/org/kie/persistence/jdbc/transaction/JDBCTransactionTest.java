@@ -0,0 +1,205 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.persistence.jdbc.transaction;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.persistence.jdbc.transaction.AbstractTransactionManager;
+import org.kie.kogito.persistence.jdbc.transaction.JDBCTransaction;
+import org.kie.kogito.uow.UnitOfWork;
+import org.kie.kogito.uow.events.UnitOfWorkAbortEvent;
+import org.kie.kogito.uow.events.UnitOfWorkEndEvent;
+import org.kie.kogito.uow.events.UnitOfWorkStartEvent;
+import org.mockito.InOrder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class JDBCTransactionTest {
+
+    private static final String INSERT = "INSERT";
+    private static final String DELETE = "DELETE";
+
+    private DataSource dataSource;
+    private Connection connection;
+    private PreparedStatement insert;
+    private PreparedStatement delete;
+    private AbstractTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = mock(DataSource.class);
+        connection = mock(Connection.class);
+        insert = mock(PreparedStatement.class);
+        delete = mock(PreparedStatement.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(INSERT)).thenReturn(insert);
+        when(connection.prepareStatement(DELETE)).thenReturn(delete);
+        transactionManager = new AbstractTransactionManager(dataSource, true) {
+        };
+    }
+
+    @Test
+    void testBatchesAndStatementsReused() throws SQLException {
+        UnitOfWork unitOfWork = mock(UnitOfWork.class);
+        transactionManager.onBeforeStartEvent(new UnitOfWorkStartEvent(unitOfWork));
+        JDBCTransaction transaction = transactionManager.getTransaction();
+
+        for (int i = 0; i < 3; i++) {
+            transaction.batchStatement(INSERT).setInt(1, i);
+            transaction.addBatch();
+        }
+        // switching statement sends the pending batch first, keeping the writes in order
+        transaction.batchStatement(DELETE);
+        transaction.addBatch();
+        transaction.batchStatement(INSERT);
+        transaction.addBatch();
+        transactionManager.onAfterEndEvent(new UnitOfWorkEndEvent(unitOfWork));
+
+        verify(dataSource, times(1)).getConnection();
+        verify(connection, times(1)).prepareStatement(INSERT);
+        verify(connection, times(1)).prepareStatement(DELETE);
+        verify(insert, times(4)).addBatch();
+        InOrder order = inOrder(connection, insert, delete);
+        order.verify(connection).setAutoCommit(false);
+        order.verify(insert).executeBatch();
+        order.verify(delete).executeBatch();
+        order.verify(insert).executeBatch();
+        order.verify(connection).commit();
+        order.verify(insert).close();
+        order.verify(connection).close();
+        assertThat(transactionManager.getTransaction()).isNull();
+    }
+
+    @Test
+    void testStatementExecutesPendingBatch() throws SQLException {
+        UnitOfWork unitOfWork = mock(UnitOfWork.class);
+        transactionManager.onBeforeStartEvent(new UnitOfWorkStartEvent(unitOfWork));
+        JDBCTransaction transaction = transactionManager.getTransaction();
+
+        transaction.batchStatement(INSERT);
+        transaction.addBatch();
+        assertThat(transaction.statement(DELETE)).isSameAs(delete);
+        verify(insert).executeBatch();
+
+        transaction.flush();
+        verify(insert, times(1)).executeBatch();
+        transactionManager.onAfterEndEvent(new UnitOfWorkEndEvent(unitOfWork));
+    }
+
+    @Test
+    void testAbortRollsBack() throws SQLException {
+        UnitOfWork unitOfWork = mock(UnitOfWork.class);
+        transactionManager.onBeforeStartEvent(new UnitOfWorkStartEvent(unitOfWork));
+        JDBCTransaction transaction = transactionManager.getTransaction();
+        Runnable rollbackAction = mock(Runnable.class);
+        transaction.onRollback(rollbackAction);
+        transaction.batchStatement(INSERT);
+        transaction.addBatch();
+
+        transactionManager.onAfterAbortEvent(new UnitOfWorkAbortEvent(unitOfWork));
+
+        verify(insert, never()).executeBatch();
+        verify(connection, never()).commit();
+        verify(connection).rollback();
+        verify(connection).close();
+        verify(rollbackAction).run();
+    }
+
+    @Test
+    void testCommitActionsRunAfterCommit() throws SQLException {
+        UnitOfWork unitOfWork = mock(UnitOfWork.class);
+        transactionManager.onBeforeStartEvent(new UnitOfWorkStartEvent(unitOfWork));
+        JDBCTransaction transaction = transactionManager.getTransaction();
+        Runnable commitAction = mock(Runnable.class);
+        transaction.onCommit(commitAction);
+        transaction.batchStatement(INSERT);
+        transaction.addBatch();
+        verify(commitAction, never()).run();
+
+        transactionManager.onAfterEndEvent(new UnitOfWorkEndEvent(unitOfWork));
+
+        InOrder order = inOrder(connection, commitAction);
+        order.verify(connection).commit();
+        order.verify(commitAction).run();
+    }
+
+    @Test
+    void testFailedCommitRollsBack() throws SQLException {
+        doThrow(new SQLException("commit failed")).when(connection).commit();
+        UnitOfWork unitOfWork = mock(UnitOfWork.class);
+        transactionManager.onBeforeStartEvent(new UnitOfWorkStartEvent(unitOfWork));
+        Runnable commitAction = mock(Runnable.class);
+        transactionManager.getTransaction().onCommit(commitAction);
+        transactionManager.getTransaction().batchStatement(INSERT);
+        transactionManager.getTransaction().addBatch();
+
+        assertThatExceptionOfType(RuntimeException.class).isThrownBy(() -> transactionManager.onAfterEndEvent(new UnitOfWorkEndEvent(unitOfWork)));
+        verify(connection).rollback();
+        verify(connection).close();
+        verify(commitAction, never()).run();
+        assertThat(transactionManager.getTransaction()).isNull();
+    }
+
+    @Test
+    void testNestedUnitOfWorkJoinsTransaction() throws SQLException {
+        UnitOfWork unitOfWork = mock(UnitOfWork.class);
+        UnitOfWork nested = mock(UnitOfWork.class);
+        transactionManager.onBeforeStartEvent(new UnitOfWorkStartEvent(unitOfWork));
+        JDBCTransaction transaction = transactionManager.getTransaction();
+        transaction.statement(INSERT);
+
+        transactionManager.onBeforeStartEvent(new UnitOfWorkStartEvent(nested));
+        assertThat(transactionManager.getTransaction()).isSameAs(transaction);
+        transactionManager.onAfterEndEvent(new UnitOfWorkEndEvent(nested));
+        verify(connection, never()).commit();
+
+        transactionManager.onAfterEndEvent(new UnitOfWorkEndEvent(unitOfWork));
+        verify(connection).commit();
+    }
+
+    @Test
+    void testUnitOfWorkWithoutStatementsDoesNotConnect() throws SQLException {
+        UnitOfWork unitOfWork = mock(UnitOfWork.class);
+        transactionManager.onBeforeStartEvent(new UnitOfWorkStartEvent(unitOfWork));
+        transactionManager.onAfterEndEvent(new UnitOfWorkEndEvent(unitOfWork));
+        verifyNoInteractions(dataSource);
+    }
+
+    @Test
+    void testDisabled() throws SQLException {
+        AbstractTransactionManager disabled = new AbstractTransactionManager(dataSource, false) {
+        };
+        disabled.onBeforeStartEvent(new UnitOfWorkStartEvent(mock(UnitOfWork.class)));
+        assertThat(disabled.getTransaction()).isNull();
+        verify(connection, never()).prepareStatement(anyString());
+    }
+}
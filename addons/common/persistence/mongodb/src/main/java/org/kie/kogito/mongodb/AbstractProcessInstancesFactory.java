@@ -27,17 +27,26 @@ public abstract class AbstractProcessInstancesFactory implements ProcessInstance
     private final String dbName;
     private final Boolean lock;
     private final AbstractTransactionManager transactionManager;
+    private final String indexedVariable;
 
     public AbstractProcessInstancesFactory(MongoClient mongoClient, String dbName, Boolean lock, AbstractTransactionManager transactionManager) {
+        this(mongoClient, dbName, lock, transactionManager, null);
+    }
+
+    /**
+     * @param indexedVariable dot separated path of the process variable indexed for queries, null for none
+     */
+    public AbstractProcessInstancesFactory(MongoClient mongoClient, String dbName, Boolean lock, AbstractTransactionManager transactionManager, String indexedVariable) {
         this.mongoClient = mongoClient;
         this.dbName = dbName;
         this.lock = lock;
         this.transactionManager = transactionManager;
+        this.indexedVariable = indexedVariable;
     }
 
     @Override
     public MongoDBProcessInstances<?> createProcessInstances(Process<?> process) {
-        return new MongoDBProcessInstances<>(mongoClient, process, dbName, transactionManager, lock);
+        return new MongoDBProcessInstances<>(mongoClient, process, dbName, transactionManager, lock, indexedVariable);
     }
 
 }
\ No newline at end of file
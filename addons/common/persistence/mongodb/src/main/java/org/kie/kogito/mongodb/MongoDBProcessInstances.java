@@ -15,26 +15,39 @@
  */
 package org.kie.kogito.mongodb;
 
+import java.util.AbstractCollection;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.bson.Document;
 import org.bson.codecs.configuration.CodecRegistries;
 import org.bson.codecs.configuration.CodecRegistry;
 import org.bson.conversions.Bson;
 import org.kie.kogito.Model;
+import org.kie.kogito.mongodb.codec.ProcessInstanceDocument;
+import org.kie.kogito.mongodb.codec.ProcessInstanceMongoDBCodecProvider;
 import org.kie.kogito.mongodb.transaction.AbstractTransactionManager;
 import org.kie.kogito.process.MutableProcessInstances;
 import org.kie.kogito.process.ProcessInstance;
 import org.kie.kogito.process.ProcessInstanceDuplicatedException;
+import org.kie.kogito.process.ProcessInstanceHeader;
 import org.kie.kogito.process.ProcessInstanceOptimisticLockingException;
+import org.kie.kogito.process.ProcessInstanceQuery;
 import org.kie.kogito.process.ProcessInstanceReadMode;
 import org.kie.kogito.process.impl.AbstractProcessInstance;
-import org.kie.kogito.serialization.process.MarshallerContextName;
 import org.kie.kogito.serialization.process.ProcessInstanceMarshallerService;
+import org.kie.kogito.serialization.process.protobuf.KogitoProcessInstanceProtobuf;
 
+import com.google.protobuf.InvalidProtocolBufferException;
 import com.mongodb.MongoClientSettings;
 import com.mongodb.client.ClientSession;
 import com.mongodb.client.FindIterable;
@@ -45,39 +58,65 @@ import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.model.Filters;
 import com.mongodb.client.model.IndexOptions;
 import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
 import com.mongodb.client.result.UpdateResult;
 
-import static java.util.Collections.singletonMap;
+import static org.kie.kogito.mongodb.utils.DocumentConstants.BUSINESS_KEY;
+import static org.kie.kogito.mongodb.utils.DocumentConstants.BUSINESS_KEY_INDEX;
+import static org.kie.kogito.mongodb.utils.DocumentConstants.CONTEXT_VARIABLES;
+import static org.kie.kogito.mongodb.utils.DocumentConstants.DOCUMENT_MARSHALLING_ERROR_MSG;
+import static org.kie.kogito.mongodb.utils.DocumentConstants.INDEXED_VARIABLE;
+import static org.kie.kogito.mongodb.utils.DocumentConstants.INDEXED_VARIABLE_INDEX;
+import static org.kie.kogito.mongodb.utils.DocumentConstants.PROCESS_ID;
 import static org.kie.kogito.mongodb.utils.DocumentConstants.PROCESS_INSTANCE_ID;
 import static org.kie.kogito.mongodb.utils.DocumentConstants.PROCESS_INSTANCE_ID_INDEX;
+import static org.kie.kogito.mongodb.utils.DocumentConstants.STATE;
+import static org.kie.kogito.mongodb.utils.DocumentConstants.STATE_INDEX;
+import static org.kie.kogito.mongodb.utils.DocumentConstants.START_DATE;
 import static org.kie.kogito.process.ProcessInstanceReadMode.MUTABLE;
 
 public class MongoDBProcessInstances<T extends Model> implements MutableProcessInstances<T> {
 
     private static final String VERSION = "version";
+    // documents keep the protobuf layout, so read only endpoints can fetch just the fields they need
+    private static final Bson HEADER_PROJECTION = Projections.include(PROCESS_INSTANCE_ID, PROCESS_ID, BUSINESS_KEY, STATE, START_DATE, VERSION);
+    private static final Bson VARIABLES_PROJECTION = Projections.include(PROCESS_INSTANCE_ID, CONTEXT_VARIABLES);
     private org.kie.kogito.process.Process<?> process;
     private ProcessInstanceMarshallerService marshaller;
     private final MongoCollection<Document> collection;
+    private final MongoCollection<ProcessInstanceDocument> instancesCollection;
     private AbstractTransactionManager transactionManager;
     private final boolean lock;
+    private final String indexedVariable;
 
     public MongoDBProcessInstances(MongoClient mongoClient, org.kie.kogito.process.Process<?> process, String dbName, AbstractTransactionManager transactionManager, boolean lock) {
+        this(mongoClient, process, dbName, transactionManager, lock, null);
+    }
+
+    /**
+     * @param indexedVariable dot separated path of the process variable stored in the indexed field of the documents,
+     *        null for none
+     */
+    public MongoDBProcessInstances(MongoClient mongoClient, org.kie.kogito.process.Process<?> process, String dbName, AbstractTransactionManager transactionManager, boolean lock,
+            String indexedVariable) {
         this.process = process;
         this.collection = getCollection(mongoClient, process.id(), dbName);
+        this.instancesCollection = getInstancesCollection(collection);
         this.marshaller = ProcessInstanceMarshallerService.newBuilder()
                 .withDefaultObjectMarshallerStrategies()
-                .withContextEntries(singletonMap(MarshallerContextName.MARSHALLER_FORMAT, MarshallerContextName.MARSHALLER_FORMAT_JSON))
                 .build();
         this.transactionManager = transactionManager;
         this.lock = lock;
+        this.indexedVariable = indexedVariable;
     }
 
     @Override
     public Optional<ProcessInstance<T>> findById(String id, ProcessInstanceReadMode mode) {
-        Document piDoc = find(id);
+        ProcessInstanceDocument piDoc = find(id);
         if (piDoc != null) {
             ProcessInstance<T> instance = unmarshall(piDoc, mode);
-            setVersion(instance, piDoc.getLong(VERSION));
+            setVersion(instance, piDoc.getVersion());
             return Optional.of(instance);
         }
         return Optional.empty();
@@ -85,20 +124,92 @@ public class MongoDBProcessInstances<T extends Model> implements MutableProcessI
 
     @Override
     public Collection<ProcessInstance<T>> values(ProcessInstanceReadMode mode) {
-        FindIterable<Document> docs = Optional.ofNullable(transactionManager.getClientSession())
-                .map(collection::find)
-                .orElseGet(collection::find);
-        List<ProcessInstance<T>> list = new ArrayList<>();
-        try (MongoCursor<Document> cursor = docs.iterator()) {
-            while (cursor.hasNext()) {
-                list.add(unmarshall(cursor.next(), mode));
+        return new AbstractCollection<ProcessInstance<T>>() {
+            @Override
+            public Iterator<ProcessInstance<T>> iterator() {
+                return new ProcessInstanceIterator(findAll().iterator(), mode);
+            }
+
+            @Override
+            public int size() {
+                return MongoDBProcessInstances.this.size();
             }
+        };
+    }
+
+    @Override
+    public Stream<ProcessInstance<T>> stream(ProcessInstanceReadMode mode) {
+        ProcessInstanceIterator iterator = new ProcessInstanceIterator(findAll().iterator(), mode);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(iterator::close);
+    }
+
+    @Override
+    public Optional<T> findVariablesById(String id) {
+        return Optional.ofNullable(find(id, VARIABLES_PROJECTION)).map(this::unmarshallVariables);
+    }
+
+    @Override
+    public Optional<ProcessInstanceHeader> findHeaderById(String id) {
+        return Optional.ofNullable(find(id, HEADER_PROJECTION))
+                .map(document -> marshaller.unmarshallProcessInstanceHeader(document.getProcessInstance().toByteArray(), process)
+                        .withVersion(document.getVersion() == null ? 0L : document.getVersion()));
+    }
+
+    @Override
+    public Stream<T> streamVariables() {
+        MongoCursor<ProcessInstanceDocument> cursor = findAll().projection(VARIABLES_PROJECTION).iterator();
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(cursor, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .map(this::unmarshallVariables)
+                .onClose(cursor::close);
+    }
+
+    @Override
+    public List<ProcessInstance<T>> find(ProcessInstanceQuery query, ProcessInstanceReadMode mode) {
+        if (!query.matchesProcessVersion(process.version())) {
+            return Collections.emptyList();
+        }
+        if (!query.isIndexed(indexedVariable)) {
+            return MutableProcessInstances.super.find(query, mode);
+        }
+        List<Bson> filters = new ArrayList<>();
+        if (query.status() != null) {
+            filters.add(Filters.eq(STATE, query.status()));
         }
-        return list;
+        if (query.businessKey() != null) {
+            filters.add(Filters.eq(BUSINESS_KEY, query.businessKey()));
+        }
+        if (query.hasVariable()) {
+            filters.add(Filters.eq(INDEXED_VARIABLE, query.variableValue()));
+        }
+        Bson filter = filters.isEmpty() ? new Document() : Filters.and(filters);
+        FindIterable<ProcessInstanceDocument> documents = Optional.ofNullable(transactionManager.getClientSession())
+                .map(r -> instancesCollection.find(r, filter))
+                .orElseGet(() -> instancesCollection.find(filter))
+                .sort(Sorts.ascending(PROCESS_INSTANCE_ID))
+                .skip(query.offset());
+        if (query.limit() != ProcessInstanceQuery.NO_LIMIT) {
+            documents = documents.limit(query.limit());
+        }
+        List<ProcessInstance<T>> result = new ArrayList<>();
+        try (ProcessInstanceIterator iterator = new ProcessInstanceIterator(documents.iterator(), mode)) {
+            iterator.forEachRemaining(result::add);
+        }
+        return result;
+    }
+
+    private T unmarshallVariables(ProcessInstanceDocument document) {
+        return (T) marshaller.unmarshallProcessInstanceVariables(document.getProcessInstance().toByteArray(), process);
     }
 
-    private ProcessInstance<T> unmarshall(Document document, ProcessInstanceReadMode mode) {
-        byte[] content = document.toJson().getBytes();
+    private FindIterable<ProcessInstanceDocument> findAll() {
+        return Optional.ofNullable(transactionManager.getClientSession())
+                .map(instancesCollection::find)
+                .orElseGet(instancesCollection::find);
+    }
+
+    private ProcessInstance<T> unmarshall(ProcessInstanceDocument document, ProcessInstanceReadMode mode) {
+        byte[] content = document.getProcessInstance().toByteArray();
         return mode == MUTABLE ? (ProcessInstance<T>) marshaller.unmarshallProcessInstance(content, process) : (ProcessInstance<T>) marshaller.unmarshallReadOnlyProcessInstance(content, process);
     }
 
@@ -117,7 +228,7 @@ public class MongoDBProcessInstances<T extends Model> implements MutableProcessI
 
     protected void updateStorage(String id, ProcessInstance<T> instance, boolean checkDuplicates) {
         ClientSession clientSession = transactionManager.getClientSession();
-        Document doc = Document.parse(new String(marshaller.marshallProcessInstance(instance)));
+        ProcessInstanceDocument doc = marshall(id, instance);
         if (checkDuplicates) {
             createInternal(id, clientSession, doc);
         } else {
@@ -125,49 +236,68 @@ public class MongoDBProcessInstances<T extends Model> implements MutableProcessI
         }
     }
 
-    private void createInternal(String id, ClientSession clientSession, Document doc) {
+    private ProcessInstanceDocument marshall(String id, ProcessInstance<T> instance) {
+        try {
+            ProcessInstanceDocument document = new ProcessInstanceDocument(KogitoProcessInstanceProtobuf.ProcessInstance.parseFrom(marshaller.marshallProcessInstance(instance)), null);
+            if (indexedVariable != null) {
+                document.setIndexedVariable(ProcessInstanceQuery.indexedValue(ProcessInstanceQuery.variableValue(instance.variables(), indexedVariable)));
+            }
+            return document;
+        } catch (InvalidProtocolBufferException e) {
+            throw new DocumentMarshallingException(id, e, DOCUMENT_MARSHALLING_ERROR_MSG);
+        }
+    }
+
+    private void createInternal(String id, ClientSession clientSession, ProcessInstanceDocument doc) {
         if (exists(id)) {
             throw new ProcessInstanceDuplicatedException(id);
         } else {
-            doc.put(VERSION, 0L);
+            doc.setVersion(0L);
             if (clientSession != null) {
-                collection.insertOne(clientSession, doc);
+                instancesCollection.insertOne(clientSession, doc);
             } else {
-                collection.insertOne(doc);
+                instancesCollection.insertOne(doc);
             }
         }
     }
 
-    private void updateInternal(String id, ProcessInstance<T> instance, ClientSession clientSession, Document doc) {
+    private void updateInternal(String id, ProcessInstance<T> instance, ClientSession clientSession, ProcessInstanceDocument doc) {
         Bson filters = Filters.eq(PROCESS_INSTANCE_ID, id);
         UpdateResult result;
         if (lock) {
-            doc.put(VERSION, instance.version() + 1);
+            doc.setVersion(instance.version() + 1);
             filters = Filters.and(Filters.eq(PROCESS_INSTANCE_ID, id), Filters.eq(VERSION, instance.version()));
         }
         if (clientSession != null) {
-            result = collection.replaceOne(clientSession, filters, doc);
+            result = instancesCollection.replaceOne(clientSession, filters, doc);
         } else {
-            result = collection.replaceOne(filters, doc);
+            result = instancesCollection.replaceOne(filters, doc);
         }
         if (lock && result.getModifiedCount() != 1) {
             throw new ProcessInstanceOptimisticLockingException(id);
         }
     }
 
-    private Document find(String id) {
+    private ProcessInstanceDocument find(String id) {
+        return find(id, null);
+    }
+
+    private ProcessInstanceDocument find(String id, Bson projection) {
         if (transactionManager == null || collection == null) {
             throw new IllegalArgumentException("Transaction manager is null");
         }
 
         return Optional.ofNullable(transactionManager.getClientSession())
-                .map(r -> collection.find(r, Filters.eq(PROCESS_INSTANCE_ID, id)).first())
-                .orElseGet(() -> collection.find(Filters.eq(PROCESS_INSTANCE_ID, id)).first());
+                .map(r -> instancesCollection.find(r, Filters.eq(PROCESS_INSTANCE_ID, id)).projection(projection).first())
+                .orElseGet(() -> instancesCollection.find(Filters.eq(PROCESS_INSTANCE_ID, id)).projection(projection).first());
     }
 
     @Override
     public boolean exists(String id) {
-        return find(id) != null;
+        Bson projection = Projections.include(PROCESS_INSTANCE_ID);
+        return Optional.ofNullable(transactionManager.getClientSession())
+                .map(r -> collection.find(r, Filters.eq(PROCESS_INSTANCE_ID, id)).projection(projection).first())
+                .orElseGet(() -> collection.find(Filters.eq(PROCESS_INSTANCE_ID, id)).projection(projection).first()) != null;
     }
 
     @Override
@@ -182,10 +312,10 @@ public class MongoDBProcessInstances<T extends Model> implements MutableProcessI
 
     private void reloadProcessInstance(ProcessInstance<T> instance, String id) {
         ((AbstractProcessInstance<?>) instance).internalRemoveProcessInstance(marshaller.createdReloadFunction(() -> {
-            Document reloaded = find(id);
+            ProcessInstanceDocument reloaded = find(id);
             if (reloaded != null) {
-                setVersion(instance, reloaded.getLong(VERSION));
-                return reloaded.toJson().getBytes();
+                setVersion(instance, reloaded.getVersion());
+                return reloaded.getProcessInstance().toByteArray();
             } else {
                 throw new IllegalArgumentException("process instance id " + id + " does not exists in mongodb");
             }
@@ -219,6 +349,57 @@ public class MongoDBProcessInstances<T extends Model> implements MutableProcessI
         //Index creation (if the index already exists it is a no-op)
         collection.createIndex(Indexes.ascending(PROCESS_INSTANCE_ID),
                 new IndexOptions().unique(true).name(PROCESS_INSTANCE_ID_INDEX).background(true));
+        // secondary indexes of the queries, ending with the id the results are sorted by
+        collection.createIndex(Indexes.ascending(STATE, PROCESS_INSTANCE_ID), new IndexOptions().name(STATE_INDEX).background(true));
+        collection.createIndex(Indexes.ascending(BUSINESS_KEY, PROCESS_INSTANCE_ID), new IndexOptions().name(BUSINESS_KEY_INDEX).background(true));
+        collection.createIndex(Indexes.ascending(INDEXED_VARIABLE, PROCESS_INSTANCE_ID), new IndexOptions().name(INDEXED_VARIABLE_INDEX).background(true));
         return collection;
     }
+
+    private static MongoCollection<ProcessInstanceDocument> getInstancesCollection(MongoCollection<Document> collection) {
+        CodecRegistry registry = CodecRegistries.fromRegistries(CodecRegistries.fromProviders(new ProcessInstanceMongoDBCodecProvider()), collection.getCodecRegistry());
+        return collection.withDocumentClass(ProcessInstanceDocument.class).withCodecRegistry(registry);
+    }
+
+    /**
+     * Unmarshalls the process instances while the cursor is iterated, closing the cursor once exhausted.
+     */
+    private class ProcessInstanceIterator implements Iterator<ProcessInstance<T>>, AutoCloseable {
+
+        private final MongoCursor<ProcessInstanceDocument> cursor;
+        private final ProcessInstanceReadMode mode;
+        private boolean open = true;
+
+        private ProcessInstanceIterator(MongoCursor<ProcessInstanceDocument> cursor, ProcessInstanceReadMode mode) {
+            this.cursor = cursor;
+            this.mode = mode;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (open && !cursor.hasNext()) {
+                close();
+            }
+            return open;
+        }
+
+        @Override
+        public ProcessInstance<T> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ProcessInstanceDocument document = cursor.next();
+            ProcessInstance<T> instance = unmarshall(document, mode);
+            setVersion(instance, document.getVersion());
+            return instance;
+        }
+
+        @Override
+        public void close() {
+            if (open) {
+                open = false;
+                cursor.close();
+            }
+        }
+    }
 }
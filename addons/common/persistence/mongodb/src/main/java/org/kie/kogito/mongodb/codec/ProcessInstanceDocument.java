@@ -0,0 +1,56 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.mongodb.codec;
+
+import org.kie.kogito.serialization.process.protobuf.KogitoProcessInstanceProtobuf;
+
+/**
+ * Process instance as stored in MongoDB: the protobuf representation of the process instance, whose fields are
+ * the fields of the document, plus the version used for optimistic locking and the value of the indexed variable.
+ */
+public class ProcessInstanceDocument {
+
+    private final KogitoProcessInstanceProtobuf.ProcessInstance processInstance;
+
+    private Long version;
+
+    private String indexedVariable;
+
+    public ProcessInstanceDocument(KogitoProcessInstanceProtobuf.ProcessInstance processInstance, Long version) {
+        this.processInstance = processInstance;
+        this.version = version;
+    }
+
+    public KogitoProcessInstanceProtobuf.ProcessInstance getProcessInstance() {
+        return processInstance;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public String getIndexedVariable() {
+        return indexedVariable;
+    }
+
+    public void setIndexedVariable(String indexedVariable) {
+        this.indexedVariable = indexedVariable;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.mongodb.codec;
+
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.kie.kogito.serialization.process.protobuf.KogitoProcessInstanceProtobuf;
+
+import static org.kie.kogito.mongodb.utils.DocumentConstants.DOCUMENT_ID;
+import static org.kie.kogito.mongodb.utils.DocumentConstants.INDEXED_VARIABLE;
+import static org.kie.kogito.serialization.process.protobuf.ProtobufTypeRegistryFactory.protobufTypeRegistryFactoryInstance;
+
+/**
+ * Writes and reads {@link ProcessInstanceDocument}s straight from BSON, without going through JSON text.
+ * The layout of the document is the one of the protobuf JSON mapping, so documents stored as parsed JSON
+ * by previous versions are still readable.
+ */
+public class ProcessInstanceDocumentCodec implements Codec<ProcessInstanceDocument> {
+
+    public static final String VERSION = "version";
+
+    private final ProtobufBsonMapper mapper = new ProtobufBsonMapper(protobufTypeRegistryFactoryInstance().create());
+
+    @Override
+    public void encode(BsonWriter writer, ProcessInstanceDocument document, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        mapper.writeFields(writer, document.getProcessInstance());
+        if (document.getVersion() != null) {
+            writer.writeInt64(VERSION, document.getVersion());
+        }
+        if (document.getIndexedVariable() != null) {
+            writer.writeString(INDEXED_VARIABLE, document.getIndexedVariable());
+        }
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public ProcessInstanceDocument decode(BsonReader reader, DecoderContext decoderContext) {
+        KogitoProcessInstanceProtobuf.ProcessInstance.Builder builder = KogitoProcessInstanceProtobuf.ProcessInstance.newBuilder();
+        Long version = null;
+        String indexedVariable = null;
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            String name = reader.readName();
+            if (VERSION.equals(name)) {
+                version = ProtobufBsonMapper.readLong(reader);
+            } else if (INDEXED_VARIABLE.equals(name)) {
+                indexedVariable = reader.readString();
+            } else if (DOCUMENT_ID.equals(name)) {
+                reader.skipValue();
+            } else {
+                mapper.readField(reader, builder, name);
+            }
+        }
+        reader.readEndDocument();
+        ProcessInstanceDocument document = new ProcessInstanceDocument(builder.build(), version);
+        document.setIndexedVariable(indexedVariable);
+        return document;
+    }
+
+    @Override
+    public Class<ProcessInstanceDocument> getEncoderClass() {
+        return ProcessInstanceDocument.class;
+    }
+}
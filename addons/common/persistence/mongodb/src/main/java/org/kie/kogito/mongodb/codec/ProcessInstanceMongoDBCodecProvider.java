@@ -0,0 +1,34 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.mongodb.codec;
+
+import org.bson.codecs.Codec;
+import org.bson.codecs.configuration.CodecProvider;
+import org.bson.codecs.configuration.CodecRegistry;
+
+public class ProcessInstanceMongoDBCodecProvider implements CodecProvider {
+
+    private static final ProcessInstanceDocumentCodec PROCESS_INSTANCE_DOCUMENT_CODEC = new ProcessInstanceDocumentCodec();
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> Codec<T> get(Class<T> aClass, CodecRegistry codecRegistry) {
+        if (aClass == ProcessInstanceDocument.class) {
+            return (Codec<T>) PROCESS_INSTANCE_DOCUMENT_CODEC;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,547 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.mongodb.codec;
+
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bson.BsonBinary;
+import org.bson.BsonInvalidOperationException;
+import org.bson.BsonReader;
+import org.bson.BsonReaderMark;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.EnumValueDescriptor;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.Duration;
+import com.google.protobuf.DynamicMessage;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import com.google.protobuf.MessageOrBuilder;
+import com.google.protobuf.Timestamp;
+import com.google.protobuf.TypeRegistry;
+import com.google.protobuf.util.Durations;
+import com.google.protobuf.util.Timestamps;
+
+/**
+ * Maps protobuf messages to BSON and back, following the protobuf JSON mapping used by
+ * {@link com.google.protobuf.util.JsonFormat}: fields are named after their JSON name, enums are written by name,
+ * <code>Any</code> is written as the packed message plus an <code>@type</code> field and well known types use their
+ * special representation.
+ * <p>
+ * Numbers, binary data and timestamps keep their BSON type when written, while the JSON representation
+ * (64 bits integers and base64 data as strings) is accepted as well when reading.
+ */
+class ProtobufBsonMapper {
+
+    static final String TYPE_URL = "@type";
+
+    private static final String VALUE = "value";
+
+    private static final String ANY = "google.protobuf.Any";
+    private static final String TIMESTAMP = "google.protobuf.Timestamp";
+    private static final String DURATION = "google.protobuf.Duration";
+    private static final String STRUCT = "google.protobuf.Struct";
+    private static final String VALUE_TYPE = "google.protobuf.Value";
+    private static final String LIST_VALUE = "google.protobuf.ListValue";
+
+    private static final Set<String> WRAPPERS = new HashSet<>(Arrays.asList(
+            "google.protobuf.DoubleValue",
+            "google.protobuf.FloatValue",
+            "google.protobuf.Int64Value",
+            "google.protobuf.UInt64Value",
+            "google.protobuf.Int32Value",
+            "google.protobuf.UInt32Value",
+            "google.protobuf.BoolValue",
+            "google.protobuf.StringValue",
+            "google.protobuf.BytesValue"));
+
+    private static final Set<String> WELL_KNOWN_TYPES = new HashSet<>(Arrays.asList(ANY, TIMESTAMP, DURATION, STRUCT, VALUE_TYPE, LIST_VALUE, "google.protobuf.FieldMask"));
+
+    static {
+        WELL_KNOWN_TYPES.addAll(WRAPPERS);
+    }
+
+    private final TypeRegistry registry;
+
+    private final Map<Descriptor, Map<String, FieldDescriptor>> fieldsByName = new ConcurrentHashMap<>();
+
+    ProtobufBsonMapper(TypeRegistry registry) {
+        this.registry = registry;
+    }
+
+    void write(BsonWriter writer, MessageOrBuilder message) {
+        writer.writeStartDocument();
+        writeFields(writer, message);
+        writer.writeEndDocument();
+    }
+
+    void writeFields(BsonWriter writer, MessageOrBuilder message) {
+        for (Map.Entry<FieldDescriptor, Object> entry : message.getAllFields().entrySet()) {
+            writer.writeName(entry.getKey().getJsonName());
+            writeField(writer, entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void writeField(BsonWriter writer, FieldDescriptor field, Object value) {
+        if (field.isMapField()) {
+            FieldDescriptor keyField = field.getMessageType().findFieldByName("key");
+            FieldDescriptor valueField = field.getMessageType().findFieldByName(VALUE);
+            writer.writeStartDocument();
+            for (Object entry : (List<?>) value) {
+                Message entryMessage = (Message) entry;
+                writer.writeName(String.valueOf(entryMessage.getField(keyField)));
+                writeValue(writer, valueField, entryMessage.getField(valueField));
+            }
+            writer.writeEndDocument();
+        } else if (field.isRepeated()) {
+            writer.writeStartArray();
+            for (Object item : (List<?>) value) {
+                writeValue(writer, field, item);
+            }
+            writer.writeEndArray();
+        } else {
+            writeValue(writer, field, value);
+        }
+    }
+
+    private void writeValue(BsonWriter writer, FieldDescriptor field, Object value) {
+        switch (field.getType()) {
+            case INT32:
+            case SINT32:
+            case SFIXED32:
+                writer.writeInt32((Integer) value);
+                break;
+            case UINT32:
+            case FIXED32:
+                writer.writeInt64(Integer.toUnsignedLong((Integer) value));
+                break;
+            case INT64:
+            case SINT64:
+            case SFIXED64:
+                writer.writeInt64((Long) value);
+                break;
+            case UINT64:
+            case FIXED64:
+                writeUnsignedLong(writer, (Long) value);
+                break;
+            case FLOAT:
+                writer.writeDouble((Float) value);
+                break;
+            case DOUBLE:
+                writer.writeDouble((Double) value);
+                break;
+            case BOOL:
+                writer.writeBoolean((Boolean) value);
+                break;
+            case STRING:
+                writer.writeString((String) value);
+                break;
+            case BYTES:
+                writer.writeBinaryData(new BsonBinary(((ByteString) value).toByteArray()));
+                break;
+            case ENUM:
+                writer.writeString(((EnumValueDescriptor) value).getName());
+                break;
+            case MESSAGE:
+            case GROUP:
+                writeMessage(writer, (Message) value);
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported field type " + field.getType() + " for field " + field.getFullName());
+        }
+    }
+
+    private static void writeUnsignedLong(BsonWriter writer, long value) {
+        if (value >= 0) {
+            writer.writeInt64(value);
+        } else {
+            writer.writeString(Long.toUnsignedString(value));
+        }
+    }
+
+    private void writeMessage(BsonWriter writer, Message message) {
+        Descriptor descriptor = message.getDescriptorForType();
+        String typeName = descriptor.getFullName();
+        if (ANY.equals(typeName)) {
+            writeAny(writer, message);
+        } else if (WRAPPERS.contains(typeName)) {
+            FieldDescriptor valueField = descriptor.findFieldByName(VALUE);
+            writeValue(writer, valueField, message.getField(valueField));
+        } else if (TIMESTAMP.equals(typeName)) {
+            writer.writeString(Timestamps.toString(convert(message, Timestamp.newBuilder()).build()));
+        } else if (DURATION.equals(typeName)) {
+            writer.writeString(Durations.toString(convert(message, Duration.newBuilder()).build()));
+        } else if (STRUCT.equals(typeName)) {
+            writeField(writer, descriptor.findFieldByName("fields"), message.getField(descriptor.findFieldByName("fields")));
+        } else if (LIST_VALUE.equals(typeName)) {
+            writeField(writer, descriptor.findFieldByName("values"), message.getField(descriptor.findFieldByName("values")));
+        } else if (VALUE_TYPE.equals(typeName)) {
+            writeStructValue(writer, message);
+        } else {
+            write(writer, message);
+        }
+    }
+
+    private void writeStructValue(BsonWriter writer, Message message) {
+        Map<FieldDescriptor, Object> fields = message.getAllFields();
+        if (fields.isEmpty()) {
+            writer.writeNull();
+            return;
+        }
+        Map.Entry<FieldDescriptor, Object> kind = fields.entrySet().iterator().next();
+        if (kind.getKey().getType() == FieldDescriptor.Type.ENUM) {
+            writer.writeNull();
+        } else {
+            writeValue(writer, kind.getKey(), kind.getValue());
+        }
+    }
+
+    private void writeAny(BsonWriter writer, Message any) {
+        Descriptor anyDescriptor = any.getDescriptorForType();
+        String typeUrl = (String) any.getField(anyDescriptor.findFieldByName("type_url"));
+        writer.writeStartDocument();
+        if (!typeUrl.isEmpty()) {
+            Descriptor contentDescriptor = findDescriptor(typeUrl);
+            DynamicMessage content;
+            try {
+                content = DynamicMessage.parseFrom(contentDescriptor, (ByteString) any.getField(anyDescriptor.findFieldByName(VALUE)));
+            } catch (InvalidProtocolBufferException e) {
+                throw new IllegalArgumentException("Cannot parse content of type " + typeUrl, e);
+            }
+            writer.writeString(TYPE_URL, typeUrl);
+            if (WELL_KNOWN_TYPES.contains(contentDescriptor.getFullName())) {
+                writer.writeName(VALUE);
+                writeMessage(writer, content);
+            } else {
+                writeFields(writer, content);
+            }
+        }
+        writer.writeEndDocument();
+    }
+
+    void read(BsonReader reader, Message.Builder builder) {
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            readField(reader, builder, reader.readName());
+        }
+        reader.readEndDocument();
+    }
+
+    /**
+     * Reads the value of the field with the given JSON or protobuf name into the builder. Unknown fields are skipped.
+     */
+    void readField(BsonReader reader, Message.Builder builder, String name) {
+        FieldDescriptor field = findField(builder.getDescriptorForType(), name);
+        if (field == null) {
+            reader.skipValue();
+        } else if (reader.getCurrentBsonType() == BsonType.NULL && !isStructValue(field)) {
+            reader.readNull();
+            builder.clearField(field);
+        } else if (field.isMapField()) {
+            readMap(reader, builder, field);
+        } else if (field.isRepeated()) {
+            reader.readStartArray();
+            while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                builder.addRepeatedField(field, readValue(reader, builder, field));
+            }
+            reader.readEndArray();
+        } else {
+            builder.setField(field, readValue(reader, builder, field));
+        }
+    }
+
+    private void readMap(BsonReader reader, Message.Builder builder, FieldDescriptor field) {
+        FieldDescriptor keyField = field.getMessageType().findFieldByName("key");
+        FieldDescriptor valueField = field.getMessageType().findFieldByName(VALUE);
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            Message.Builder entry = builder.newBuilderForField(field);
+            entry.setField(keyField, parseKey(keyField, reader.readName()));
+            entry.setField(valueField, readValue(reader, entry, valueField));
+            builder.addRepeatedField(field, entry.build());
+        }
+        reader.readEndDocument();
+    }
+
+    private static Object parseKey(FieldDescriptor keyField, String key) {
+        switch (keyField.getJavaType()) {
+            case INT:
+                return Integer.parseInt(key);
+            case LONG:
+                return Long.parseLong(key);
+            case BOOLEAN:
+                return Boolean.parseBoolean(key);
+            default:
+                return key;
+        }
+    }
+
+    private Object readValue(BsonReader reader, Message.Builder parent, FieldDescriptor field) {
+        switch (field.getType()) {
+            case INT32:
+            case SINT32:
+            case SFIXED32:
+                return readInt(reader);
+            case UINT32:
+            case FIXED32:
+                return (int) readLong(reader);
+            case INT64:
+            case SINT64:
+            case SFIXED64:
+                return readLong(reader);
+            case UINT64:
+            case FIXED64:
+                return reader.getCurrentBsonType() == BsonType.STRING ? Long.parseUnsignedLong(reader.readString()) : readLong(reader);
+            case FLOAT:
+                return (float) readDouble(reader);
+            case DOUBLE:
+                return readDouble(reader);
+            case BOOL:
+                return reader.getCurrentBsonType() == BsonType.STRING ? Boolean.parseBoolean(reader.readString()) : reader.readBoolean();
+            case STRING:
+                return reader.readString();
+            case BYTES:
+                return reader.getCurrentBsonType() == BsonType.STRING ? ByteString.copyFrom(decodeBase64(reader.readString()))
+                        : ByteString.copyFrom(reader.readBinaryData().getData());
+            case ENUM:
+                return readEnum(reader, field);
+            case MESSAGE:
+            case GROUP:
+                Message.Builder builder = parent.newBuilderForField(field);
+                readMessage(reader, builder);
+                return builder.build();
+            default:
+                throw new IllegalArgumentException("Unsupported field type " + field.getType() + " for field " + field.getFullName());
+        }
+    }
+
+    private static EnumValueDescriptor readEnum(BsonReader reader, FieldDescriptor field) {
+        EnumValueDescriptor value;
+        if (reader.getCurrentBsonType() == BsonType.STRING) {
+            String name = reader.readString();
+            value = field.getEnumType().findValueByName(name);
+            if (value == null) {
+                throw new IllegalArgumentException("Invalid value " + name + " for enum " + field.getEnumType().getFullName());
+            }
+        } else {
+            value = field.getEnumType().findValueByNumberCreatingIfUnknown(readInt(reader));
+        }
+        return value;
+    }
+
+    private void readMessage(BsonReader reader, Message.Builder builder) {
+        Descriptor descriptor = builder.getDescriptorForType();
+        String typeName = descriptor.getFullName();
+        if (ANY.equals(typeName)) {
+            readAny(reader, builder);
+        } else if (WRAPPERS.contains(typeName)) {
+            FieldDescriptor valueField = descriptor.findFieldByName(VALUE);
+            builder.setField(valueField, readValue(reader, builder, valueField));
+        } else if (TIMESTAMP.equals(typeName)) {
+            try {
+                builder.mergeFrom(Timestamps.parse(reader.readString()).toByteString());
+            } catch (ParseException | InvalidProtocolBufferException e) {
+                throw new IllegalArgumentException("Invalid timestamp", e);
+            }
+        } else if (DURATION.equals(typeName)) {
+            try {
+                builder.mergeFrom(Durations.parse(reader.readString()).toByteString());
+            } catch (ParseException | InvalidProtocolBufferException e) {
+                throw new IllegalArgumentException("Invalid duration", e);
+            }
+        } else if (STRUCT.equals(typeName)) {
+            readMap(reader, builder, descriptor.findFieldByName("fields"));
+        } else if (LIST_VALUE.equals(typeName)) {
+            FieldDescriptor valuesField = descriptor.findFieldByName("values");
+            reader.readStartArray();
+            while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                builder.addRepeatedField(valuesField, readValue(reader, builder, valuesField));
+            }
+            reader.readEndArray();
+        } else if (VALUE_TYPE.equals(typeName)) {
+            readStructValue(reader, builder);
+        } else {
+            read(reader, builder);
+        }
+    }
+
+    private void readStructValue(BsonReader reader, Message.Builder builder) {
+        Descriptor descriptor = builder.getDescriptorForType();
+        switch (reader.getCurrentBsonType()) {
+            case NULL:
+                reader.readNull();
+                FieldDescriptor nullField = descriptor.findFieldByName("null_value");
+                builder.setField(nullField, nullField.getEnumType().findValueByNumber(0));
+                break;
+            case BOOLEAN:
+                builder.setField(descriptor.findFieldByName("bool_value"), reader.readBoolean());
+                break;
+            case STRING:
+                builder.setField(descriptor.findFieldByName("string_value"), reader.readString());
+                break;
+            case DOCUMENT:
+                setMessageField(reader, builder, descriptor.findFieldByName("struct_value"));
+                break;
+            case ARRAY:
+                setMessageField(reader, builder, descriptor.findFieldByName("list_value"));
+                break;
+            default:
+                builder.setField(descriptor.findFieldByName("number_value"), readDouble(reader));
+                break;
+        }
+    }
+
+    private void setMessageField(BsonReader reader, Message.Builder builder, FieldDescriptor field) {
+        Message.Builder fieldBuilder = builder.newBuilderForField(field);
+        readMessage(reader, fieldBuilder);
+        builder.setField(field, fieldBuilder.build());
+    }
+
+    private void readAny(BsonReader reader, Message.Builder builder) {
+        // the type must be known before reading the content, it is the first field unless the document was modified
+        BsonReaderMark mark = reader.getMark();
+        String typeUrl = null;
+        reader.readStartDocument();
+        while (typeUrl == null && reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            if (TYPE_URL.equals(reader.readName())) {
+                typeUrl = reader.readString();
+            } else {
+                reader.skipValue();
+            }
+        }
+        mark.reset();
+        if (typeUrl == null) {
+            reader.skipValue();
+            return;
+        }
+
+        Descriptor contentDescriptor = findDescriptor(typeUrl);
+        DynamicMessage.Builder content = DynamicMessage.newBuilder(contentDescriptor);
+        boolean wellKnown = WELL_KNOWN_TYPES.contains(contentDescriptor.getFullName());
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            String name = reader.readName();
+            if (TYPE_URL.equals(name)) {
+                reader.skipValue();
+            } else if (wellKnown) {
+                if (VALUE.equals(name)) {
+                    readMessage(reader, content);
+                } else {
+                    reader.skipValue();
+                }
+            } else {
+                readField(reader, content, name);
+            }
+        }
+        reader.readEndDocument();
+
+        Descriptor anyDescriptor = builder.getDescriptorForType();
+        builder.setField(anyDescriptor.findFieldByName("type_url"), typeUrl);
+        builder.setField(anyDescriptor.findFieldByName(VALUE), content.build().toByteString());
+    }
+
+    private Descriptor findDescriptor(String typeUrl) {
+        Descriptor descriptor;
+        try {
+            descriptor = registry.getDescriptorForTypeUrl(typeUrl);
+        } catch (InvalidProtocolBufferException e) {
+            throw new IllegalArgumentException("Invalid type url " + typeUrl, e);
+        }
+        if (descriptor == null) {
+            throw new IllegalArgumentException("Cannot find type for url " + typeUrl);
+        }
+        return descriptor;
+    }
+
+    private FieldDescriptor findField(Descriptor descriptor, String name) {
+        return fieldsByName.computeIfAbsent(descriptor, d -> {
+            Map<String, FieldDescriptor> fields = new HashMap<>();
+            for (FieldDescriptor field : d.getFields()) {
+                fields.put(field.getName(), field);
+                fields.put(field.getJsonName(), field);
+            }
+            return fields;
+        }).get(name);
+    }
+
+    private static boolean isStructValue(FieldDescriptor field) {
+        return field.getJavaType() == FieldDescriptor.JavaType.MESSAGE && VALUE_TYPE.equals(field.getMessageType().getFullName());
+    }
+
+    private static <B extends Message.Builder> B convert(Message message, B builder) {
+        try {
+            builder.mergeFrom(message.toByteString());
+            return builder;
+        } catch (InvalidProtocolBufferException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private static byte[] decodeBase64(String value) {
+        try {
+            return Base64.getDecoder().decode(value);
+        } catch (IllegalArgumentException e) {
+            return Base64.getUrlDecoder().decode(value);
+        }
+    }
+
+    private static int readInt(BsonReader reader) {
+        return (int) readLong(reader);
+    }
+
+    static long readLong(BsonReader reader) {
+        switch (reader.getCurrentBsonType()) {
+            case INT32:
+                return reader.readInt32();
+            case INT64:
+                return reader.readInt64();
+            case DOUBLE:
+                return (long) reader.readDouble();
+            case DECIMAL128:
+                return reader.readDecimal128().longValue();
+            case STRING:
+                return Long.parseLong(reader.readString());
+            default:
+                throw new BsonInvalidOperationException("Cannot read an integer from " + reader.getCurrentBsonType());
+        }
+    }
+
+    private static double readDouble(BsonReader reader) {
+        switch (reader.getCurrentBsonType()) {
+            case INT32:
+                return reader.readInt32();
+            case INT64:
+                return reader.readInt64();
+            case DECIMAL128:
+                return reader.readDecimal128().doubleValue();
+            case STRING:
+                return Double.parseDouble(reader.readString());
+            default:
+                return reader.readDouble();
+        }
+    }
+}
@@ -25,6 +25,7 @@ import org.drools.io.ClassPathResource;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceHeader;
 import org.kie.kogito.process.bpmn2.BpmnProcess;
 import org.kie.kogito.process.bpmn2.BpmnVariables;
 import org.kie.kogito.serialization.process.MarshallerContextName;
@@ -78,6 +79,21 @@ class DocumentProcessInstanceMarshallerTest {
         assertThat(testVar).isEqualTo("testValue");
     }
 
+    @Test
+    void testUnmarshalVariablesAndHeader() {
+        ProcessInstance<BpmnVariables> processInstance = process.createInstance("business-key", BpmnVariables.create(Collections.singletonMap("test", "testValue")));
+        processInstance.start();
+        byte[] data = marshaller.marshallProcessInstance(processInstance);
+
+        BpmnVariables variables = marshaller.unmarshallProcessInstanceVariables(data, process);
+        assertThat(variables.get("test")).isEqualTo("testValue");
+
+        ProcessInstanceHeader header = marshaller.unmarshallProcessInstanceHeader(data, process);
+        assertThat(header).isEqualTo(ProcessInstanceHeader.of(marshaller.unmarshallReadOnlyProcessInstance(data, process)));
+        assertThat(header.id()).isEqualTo(processInstance.id());
+        assertThat(header.businessKey()).isEqualTo("business-key");
+    }
+
     @Test
     void testProcessInstanceReadOnly() {
         ProcessInstance<BpmnVariables> processInstance = process.createInstance(BpmnVariables.create(Collections.singletonMap("test", "testValue")));
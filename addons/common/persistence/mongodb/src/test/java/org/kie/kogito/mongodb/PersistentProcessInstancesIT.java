@@ -105,12 +105,14 @@ class PersistentProcessInstancesIT extends TestHelper {
         when(mongoDatabase.withCodecRegistry(any())).thenReturn(mongoDatabase);
         when(mongoDatabase.getCollection(anyString(), eq(Document.class))).thenReturn(mongoCollection);
         when(mongoCollection.withCodecRegistry(any())).thenReturn(mongoCollection);
+        when(mongoCollection.withDocumentClass(any())).thenReturn((MongoCollection) mongoCollection);
 
         MongoCursor<Document> cursor = mock(MongoCursor.class);
         when(cursor.hasNext()).thenReturn(false);
         FindIterable<Document> results = mock(FindIterable.class);
         when(results.first()).thenReturn(null);
         when(results.iterator()).thenReturn(cursor);
+        when(results.projection(any())).thenReturn(results);
         when(mongoCollection.find(eq(clientSession), any(Bson.class))).thenReturn(results);
         when(mongoCollection.find(eq(clientSession))).thenReturn(results);
         when(mongoCollection.find(any(Bson.class))).thenReturn(results);
@@ -133,7 +135,7 @@ class PersistentProcessInstancesIT extends TestHelper {
         mongodbInstance.exists(id);
         verify(mongoCollection, times(2)).find(eq(clientSession), eq(Filters.eq(PROCESS_INSTANCE_ID, id)));
 
-        mongodbInstance.values(ProcessInstanceReadMode.READ_ONLY);
+        mongodbInstance.values(ProcessInstanceReadMode.READ_ONLY).iterator();
         verify(mongoCollection, times(1)).find(eq(clientSession));
 
         mongodbInstance.remove(id);
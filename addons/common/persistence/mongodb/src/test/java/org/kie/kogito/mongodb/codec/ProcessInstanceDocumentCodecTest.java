@@ -0,0 +1,121 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.mongodb.codec;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonDocumentWriter;
+import org.bson.BsonInt64;
+import org.bson.BsonObjectId;
+import org.bson.Document;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.drools.io.ClassPathResource;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.bpmn2.BpmnProcess;
+import org.kie.kogito.process.bpmn2.BpmnVariables;
+import org.kie.kogito.serialization.process.MarshallerContextName;
+import org.kie.kogito.serialization.process.ProcessInstanceMarshallerService;
+import org.kie.kogito.serialization.process.protobuf.KogitoProcessInstanceProtobuf;
+
+import com.mongodb.MongoClientSettings;
+
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProcessInstanceDocumentCodecTest {
+
+    static BpmnProcess process;
+
+    ProcessInstanceMarshallerService marshaller = ProcessInstanceMarshallerService.newBuilder().withDefaultObjectMarshallerStrategies().build();
+
+    ProcessInstanceMarshallerService jsonMarshaller = ProcessInstanceMarshallerService.newBuilder().withDefaultObjectMarshallerStrategies()
+            .withContextEntries(singletonMap(MarshallerContextName.MARSHALLER_FORMAT, MarshallerContextName.MARSHALLER_FORMAT_JSON)).build();
+
+    ProcessInstanceDocumentCodec codec = new ProcessInstanceDocumentCodec();
+
+    @BeforeAll
+    static void setup() {
+        process = BpmnProcess.from(new ClassPathResource("BPMN2-UserTask.bpmn2")).get(0);
+        process.configure();
+    }
+
+    @Test
+    void testEncodeDecode() throws Exception {
+        ProcessInstance<BpmnVariables> processInstance = startProcessInstance();
+        KogitoProcessInstanceProtobuf.ProcessInstance message = KogitoProcessInstanceProtobuf.ProcessInstance.parseFrom(marshaller.marshallProcessInstance(processInstance));
+
+        BsonDocument encoded = encode(new ProcessInstanceDocument(message, 3L));
+        assertThat(encoded.getInt64(ProcessInstanceDocumentCodec.VERSION)).isEqualTo(new BsonInt64(3L));
+        assertThat(encoded.getString("id").getValue()).isEqualTo(processInstance.id());
+
+        ProcessInstanceDocument decoded = decode(encoded);
+        assertThat(decoded.getVersion()).isEqualTo(3L);
+        assertThat(decoded.getProcessInstance()).isEqualTo(message);
+
+        ProcessInstance<BpmnVariables> unmarshalled =
+                (ProcessInstance<BpmnVariables>) marshaller.unmarshallProcessInstance(decoded.getProcessInstance().toByteArray(), process);
+        assertThat(unmarshalled.id()).isEqualTo(processInstance.id());
+        assertThat(unmarshalled.variables().get("test")).isEqualTo("testValue");
+    }
+
+    @Test
+    void testLayoutMatchesJsonDocument() throws Exception {
+        ProcessInstance<BpmnVariables> processInstance = startProcessInstance();
+        BsonDocument json = BsonDocument.parse(new String(jsonMarshaller.marshallProcessInstance(processInstance)));
+        BsonDocument encoded = encode(new ProcessInstanceDocument(KogitoProcessInstanceProtobuf.ProcessInstance.parseFrom(marshaller.marshallProcessInstance(processInstance)), null));
+
+        assertThat(encoded.keySet()).isEqualTo(json.keySet());
+        assertThat(encoded.getDocument("context").getArray("variable")).isEqualTo(json.getDocument("context").getArray("variable"));
+        assertThat(encoded.getString("processId")).isEqualTo(json.getString("processId"));
+    }
+
+    @Test
+    void testDecodeJsonDocument() throws Exception {
+        ProcessInstance<BpmnVariables> processInstance = startProcessInstance();
+        Document json = Document.parse(new String(jsonMarshaller.marshallProcessInstance(processInstance)));
+        json.put("_id", new BsonObjectId());
+        json.put(ProcessInstanceDocumentCodec.VERSION, 1L);
+
+        ProcessInstanceDocument decoded = decode(json.toBsonDocument(Document.class, MongoClientSettings.getDefaultCodecRegistry()));
+
+        assertThat(decoded.getVersion()).isEqualTo(1L);
+        assertThat(decoded.getProcessInstance()).isEqualTo(KogitoProcessInstanceProtobuf.ProcessInstance.parseFrom(marshaller.marshallProcessInstance(processInstance)));
+    }
+
+    private ProcessInstance<BpmnVariables> startProcessInstance() {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("test", "testValue");
+        ProcessInstance<BpmnVariables> processInstance = process.createInstance(BpmnVariables.create(variables));
+        processInstance.start();
+        return processInstance;
+    }
+
+    private BsonDocument encode(ProcessInstanceDocument document) {
+        BsonDocument bson = new BsonDocument();
+        codec.encode(new BsonDocumentWriter(bson), document, EncoderContext.builder().build());
+        return bson;
+    }
+
+    private ProcessInstanceDocument decode(BsonDocument bson) {
+        return codec.decode(new BsonDocumentReader(bson), DecoderContext.builder().build());
+    }
+}
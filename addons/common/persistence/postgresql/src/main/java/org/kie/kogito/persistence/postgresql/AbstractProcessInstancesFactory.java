@@ -17,6 +17,8 @@ package org.kie.kogito.persistence.postgresql;
 
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessInstancesFactory;
+import org.kie.kogito.process.impl.ProcessInstanceNearCache;
+import org.kie.kogito.serialization.process.compression.PayloadCompression;
 
 import io.vertx.pgclient.PgPool;
 
@@ -26,6 +28,9 @@ public abstract class AbstractProcessInstancesFactory implements ProcessInstance
     private final PgPool client;
     private final Boolean autoDDL;
     private final Boolean lock;
+    private final Integer nearCacheSize;
+    private final PayloadCompression compression;
+    private final String indexedVariable;
 
     // Constructor for DI
     protected AbstractProcessInstancesFactory() {
@@ -33,10 +38,29 @@ public abstract class AbstractProcessInstancesFactory implements ProcessInstance
     }
 
     public AbstractProcessInstancesFactory(PgPool client, Boolean autoDDL, Long queryTimeout, Boolean lock) {
+        this(client, autoDDL, queryTimeout, lock, ProcessInstanceNearCache.DISABLED);
+    }
+
+    public AbstractProcessInstancesFactory(PgPool client, Boolean autoDDL, Long queryTimeout, Boolean lock, Integer nearCacheSize) {
+        this(client, autoDDL, queryTimeout, lock, nearCacheSize, PayloadCompression.NONE, PayloadCompression.DEFAULT_THRESHOLD);
+    }
+
+    public AbstractProcessInstancesFactory(PgPool client, Boolean autoDDL, Long queryTimeout, Boolean lock, Integer nearCacheSize, String compression, Integer compressionThreshold) {
+        this(client, autoDDL, queryTimeout, lock, nearCacheSize, compression, compressionThreshold, null);
+    }
+
+    /**
+     * @param indexedVariable dot separated path of the process variable indexed for queries, null for none
+     */
+    public AbstractProcessInstancesFactory(PgPool client, Boolean autoDDL, Long queryTimeout, Boolean lock, Integer nearCacheSize, String compression, Integer compressionThreshold,
+            String indexedVariable) {
         this.client = client;
         this.autoDDL = autoDDL;
         this.queryTimeout = queryTimeout;
         this.lock = lock;
+        this.nearCacheSize = nearCacheSize;
+        this.compression = PayloadCompression.of(compression, compressionThreshold);
+        this.indexedVariable = indexedVariable;
     }
 
     public PgPool client() {
@@ -49,6 +73,6 @@ public abstract class AbstractProcessInstancesFactory implements ProcessInstance
 
     @Override
     public PostgresqlProcessInstances createProcessInstances(Process<?> process) {
-        return new PostgresqlProcessInstances(process, client(), autoDDL, queryTimeout, lock());
+        return new PostgresqlProcessInstances(process, client(), autoDDL, queryTimeout, lock(), ProcessInstanceNearCache.of(nearCacheSize), compression, indexedVariable);
     }
 }
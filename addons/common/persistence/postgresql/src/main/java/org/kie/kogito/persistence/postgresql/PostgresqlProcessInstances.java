@@ -16,26 +16,34 @@
 package org.kie.kogito.persistence.postgresql;
 
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 import org.kie.kogito.process.MutableProcessInstances;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceHeader;
 import org.kie.kogito.process.ProcessInstanceOptimisticLockingException;
+import org.kie.kogito.process.ProcessInstanceQuery;
 import org.kie.kogito.process.ProcessInstanceReadMode;
 import org.kie.kogito.process.impl.AbstractProcessInstance;
+import org.kie.kogito.process.impl.NearCachedProcessInstances;
+import org.kie.kogito.process.impl.ProcessInstanceNearCache;
 import org.kie.kogito.serialization.process.ProcessInstanceMarshallerService;
+import org.kie.kogito.serialization.process.compression.PayloadCompression;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -50,21 +58,33 @@ import io.vertx.sqlclient.Tuple;
 import static org.kie.kogito.process.ProcessInstanceReadMode.MUTABLE;
 
 @SuppressWarnings({ "rawtypes" })
-public class PostgresqlProcessInstances implements MutableProcessInstances {
+public class PostgresqlProcessInstances implements MutableProcessInstances, NearCachedProcessInstances {
 
     private static final String VERSION = "version";
 
     private static final String PAYLOAD = "payload";
 
     private static final Logger LOGGER = LoggerFactory.getLogger(PostgresqlProcessInstances.class);
+    private static final int REINDEX_PAGE_SIZE = 100;
     private static final String IS_NULL = "is null";
     private static final String INSERT = "INSERT INTO process_instances (id, payload, process_id, process_version, version) VALUES ($1, $2, $3, $4, $5)";
     private static final String UPDATE = "UPDATE process_instances SET payload = $1 WHERE process_id = $2 and id = $3 and process_version ";
     private static final String DELETE = "DELETE FROM process_instances WHERE process_id = $1 and id = $2 and process_version ";
     private static final String FIND_BY_ID = "SELECT payload, version FROM process_instances WHERE process_id = $1 and id = $2 and process_version ";
+    private static final String FIND_VERSION_BY_ID = "SELECT version FROM process_instances WHERE process_id = $1 and id = $2 and process_version ";
     private static final String FIND_ALL = "SELECT payload FROM process_instances WHERE process_id = $1 and process_version ";
     private static final String COUNT = "SELECT COUNT(id) FROM process_instances WHERE process_id = $1 and process_version ";
     private static final String UPDATE_WITH_LOCK = "UPDATE process_instances SET payload = $1, version = $2 WHERE process_id = $3 and id = $4 and version = $5 and process_version ";
+    private static final String INSERT_INDEXED =
+            "INSERT INTO process_instances (id, payload, process_id, process_version, version, state, business_key, indexed_variable, indexed_variable_path) VALUES ($1, $2, $3, $4, $5, $6, $7, $8, $9)";
+    private static final String UPDATE_INDEXED =
+            "UPDATE process_instances SET payload = $1, state = $2, business_key = $3, indexed_variable = $4, indexed_variable_path = $5 WHERE process_id = $6 and id = $7 and process_version ";
+    private static final String UPDATE_WITH_LOCK_INDEXED =
+            "UPDATE process_instances SET payload = $1, version = $2, state = $3, business_key = $4, indexed_variable = $5, indexed_variable_path = $6 WHERE process_id = $7 and id = $8 and version = $9 and process_version ";
+    private static final String FIND = "SELECT payload, version FROM process_instances WHERE process_id = $1";
+    private static final String FIND_NOT_INDEXED = "SELECT id FROM process_instances WHERE process_id = $1";
+    private static final String REINDEX =
+            "UPDATE process_instances SET state = $1, business_key = $2, indexed_variable = $3, indexed_variable_path = $4 WHERE process_id = $5 and id = $6 and version = $7";
 
     private final Process<?> process;
     private final PgPool client;
@@ -72,15 +92,49 @@ public class PostgresqlProcessInstances implements MutableProcessInstances {
     private final boolean autoDDL;
     private final Long queryTimeoutMillis;
     private final boolean lock;
+    private final ProcessInstanceNearCache nearCache;
+    private final String indexedVariable;
+    private final boolean indexedColumns;
+    // completed with whether every row is indexed on the configured variable, queries scan the process instances till then
+    private final CompletableFuture<Boolean> indexing = new CompletableFuture<>();
 
     public PostgresqlProcessInstances(Process<?> process, PgPool client, boolean autoDDL, Long queryTimeoutMillis, boolean lock) {
+        this(process, client, autoDDL, queryTimeoutMillis, lock, ProcessInstanceNearCache.disabled());
+    }
+
+    public PostgresqlProcessInstances(Process<?> process, PgPool client, boolean autoDDL, Long queryTimeoutMillis, boolean lock, ProcessInstanceNearCache nearCache) {
+        this(process, client, autoDDL, queryTimeoutMillis, lock, nearCache, PayloadCompression.none());
+    }
+
+    public PostgresqlProcessInstances(Process<?> process, PgPool client, boolean autoDDL, Long queryTimeoutMillis, boolean lock, ProcessInstanceNearCache nearCache,
+            PayloadCompression compression) {
+        this(process, client, autoDDL, queryTimeoutMillis, lock, nearCache, compression, null);
+    }
+
+    /**
+     * @param indexedVariable dot separated path of the process variable stored in the indexed_variable column, null
+     *        for none
+     */
+    public PostgresqlProcessInstances(Process<?> process, PgPool client, boolean autoDDL, Long queryTimeoutMillis, boolean lock, ProcessInstanceNearCache nearCache,
+            PayloadCompression compression, String indexedVariable) {
         this.process = process;
         this.client = client;
         this.autoDDL = autoDDL;
         this.queryTimeoutMillis = queryTimeoutMillis;
-        this.marshaller = ProcessInstanceMarshallerService.newBuilder().withDefaultObjectMarshallerStrategies().build();
+        this.marshaller = ProcessInstanceMarshallerService.newBuilder().withDefaultObjectMarshallerStrategies().withCompression(compression).build();
         this.lock = lock;
+        this.nearCache = nearCache;
+        this.indexedVariable = indexedVariable;
         init();
+        this.indexedColumns = indexedColumnsExist();
+        if (indexedColumns) {
+            // the existing rows may be many, they are indexed in the background not to delay the startup
+            Thread reindexer = new Thread(this::reindex, "kogito-postgresql-reindex-" + process.id());
+            reindexer.setDaemon(true);
+            reindexer.start();
+        } else {
+            indexing.complete(false);
+        }
     }
 
     @Override
@@ -95,22 +149,38 @@ public class PostgresqlProcessInstances implements MutableProcessInstances {
             disconnect(instance);
             return;
         }
-        insertInternal(UUID.fromString(id), marshaller.marshallProcessInstance(instance));
+        byte[] payload = marshaller.marshallProcessInstance(instance);
+        insertInternal(UUID.fromString(id), payload, instance);
+        // every statement is committed on its own, entries are only put once the write is visible to others
+        nearCache.put(id, payload, 0L);
     }
 
     @SuppressWarnings("unchecked")
     @Override
     public void update(String id, ProcessInstance instance) {
         if (!isActive(instance)) {
+            nearCache.invalidate(id);
             disconnect(instance);
             return;
         }
         try {
+            byte[] payload = marshaller.marshallProcessInstance(instance);
+            long version = instance.version();
+            boolean updated;
             if (lock) {
-                updateWithLock(UUID.fromString(id), marshaller.marshallProcessInstance(instance), instance.version());
+                updated = updateWithLock(UUID.fromString(id), payload, version, instance);
+                version++;
+            } else {
+                updated = updateInternal(UUID.fromString(id), payload, instance);
+            }
+            if (updated) {
+                nearCache.put(id, payload, version);
             } else {
-                updateInternal(UUID.fromString(id), marshaller.marshallProcessInstance(instance));
+                nearCache.invalidate(id);
             }
+        } catch (RuntimeException e) {
+            nearCache.invalidate(id);
+            throw e;
         } finally {
             disconnect(instance);
         }
@@ -118,20 +188,46 @@ public class PostgresqlProcessInstances implements MutableProcessInstances {
 
     @Override
     public void remove(String id) {
+        nearCache.invalidate(id);
         deleteInternal(UUID.fromString(id));
     }
 
     @Override
     public Optional<ProcessInstance> findById(String id, ProcessInstanceReadMode mode) {
-        Optional<Row> row = findByIdInternal(UUID.fromString(id));
+        return load(id).map(entry -> {
+            ProcessInstance<?> instance = mode == MUTABLE ? marshaller.unmarshallProcessInstance(entry.payload(), process)
+                    : marshaller.unmarshallReadOnlyProcessInstance(entry.payload(), process);
+            ((AbstractProcessInstance) instance).setVersion(entry.version());
+            return instance;
+        });
+    }
+
+    @Override
+    public Optional findVariablesById(String id) {
+        return load(id).map(entry -> marshaller.unmarshallProcessInstanceVariables(entry.payload(), process));
+    }
+
+    @Override
+    public Optional<ProcessInstanceHeader> findHeaderById(String id) {
+        return load(id).map(entry -> marshaller.unmarshallProcessInstanceHeader(entry.payload(), process).withVersion(entry.version()));
+    }
 
-        if (row.isPresent()) {
-            Optional<byte[]> payload = row.map(r -> r.getBuffer(PAYLOAD)).map(Buffer::getBytes);
-            if (payload.isPresent()) {
-                ProcessInstance<?> instance = mode == MUTABLE ? marshaller.unmarshallProcessInstance(payload.get(), process) : marshaller.unmarshallReadOnlyProcessInstance(payload.get(), process);
-                ((AbstractProcessInstance) instance).setVersion(row.get().getLong(VERSION));
-                return Optional.of(instance);
+    private Optional<ProcessInstanceNearCache.Entry> load(String id) {
+        Optional<ProcessInstanceNearCache.Entry> cached = nearCache.get(id);
+        if (cached.isPresent()) {
+            // another application instance may have updated or removed it since, the version is read without the payload
+            Optional<Long> version = findVersionInternal(UUID.fromString(id));
+            if (version.isPresent() && version.get() == cached.get().version()) {
+                return cached;
             }
+            nearCache.invalidate(id);
+        }
+        Optional<Row> row = findByIdInternal(UUID.fromString(id));
+        Optional<byte[]> payload = row.map(r -> r.getBuffer(PAYLOAD)).map(Buffer::getBytes);
+        if (payload.isPresent()) {
+            long version = row.get().getLong(VERSION);
+            nearCache.put(id, payload.get(), version);
+            return Optional.of(new ProcessInstanceNearCache.Entry(payload.get(), version));
         }
         return Optional.empty();
     }
@@ -142,6 +238,30 @@ public class PostgresqlProcessInstances implements MutableProcessInstances {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List find(ProcessInstanceQuery query, ProcessInstanceReadMode mode) {
+        if (!query.matchesProcessVersion(process.version())) {
+            return Collections.emptyList();
+        }
+        if (!indexed() || !query.isIndexed(indexedVariable)) {
+            LOGGER.debug("Query {} is not indexed, scanning process instances", query);
+            return MutableProcessInstances.super.find(query, mode);
+        }
+        return findInternal(query).stream().map(row -> {
+            byte[] payload = row.getBuffer(PAYLOAD).getBytes();
+            long version = row.getLong(VERSION);
+            ProcessInstance<?> instance = mode == MUTABLE ? marshaller.unmarshallProcessInstance(payload, process) : marshaller.unmarshallReadOnlyProcessInstance(payload, process);
+            ((AbstractProcessInstance) instance).setVersion(version);
+            nearCache.put(instance.id(), payload, version);
+            return instance;
+        }).collect(Collectors.toList());
+    }
+
+    @Override
+    public Stream streamVariables() {
+        return findAllInternal().stream().map(b -> marshaller.unmarshallProcessInstanceVariables(b, process));
+    }
+
     @Override
     public Integer size() {
         return countInternal().intValue();
@@ -152,19 +272,36 @@ public class PostgresqlProcessInstances implements MutableProcessInstances {
         return this.lock;
     }
 
+    @Override
+    public ProcessInstanceNearCache nearCache() {
+        return nearCache;
+    }
+
+    @Override
+    public boolean isPagedFind() {
+        // queries are only run by the database once every row is indexed
+        return indexed();
+    }
+
+    private boolean indexed() {
+        return indexing.getNow(false);
+    }
+
     private void disconnect(ProcessInstance instance) {
         Supplier<byte[]> supplier = () -> {
-            Optional<Row> row = findByIdInternal(UUID.fromString(instance.id()));
-            ((AbstractProcessInstance) instance).setVersion(row.get().getLong(VERSION));
-            return row.map(r -> r.getBuffer(PAYLOAD)).map(Buffer::getBytes).get();
+            ProcessInstanceNearCache.Entry entry = load(instance.id()).get();
+            ((AbstractProcessInstance) instance).setVersion(entry.version());
+            return entry.payload();
         };
         ((AbstractProcessInstance<?>) instance).internalRemoveProcessInstance(marshaller.createdReloadFunction(supplier));
     }
 
-    private boolean insertInternal(UUID id, byte[] payload) {
+    private boolean insertInternal(UUID id, byte[] payload, ProcessInstance<?> instance) {
         try {
-            Future<RowSet<Row>> future = client.preparedQuery(INSERT)
-                    .execute(Tuple.of(id, Buffer.buffer(payload), process.id(), process.version(), 0L));
+            Future<RowSet<Row>> future = indexedColumns
+                    ? client.preparedQuery(INSERT_INDEXED).execute(Tuple.of(id, Buffer.buffer(payload), process.id(), process.version(), 0L,
+                            instance.status(), indexedBusinessKey(instance), indexedVariableValue(instance), indexedVariable))
+                    : client.preparedQuery(INSERT).execute(Tuple.of(id, Buffer.buffer(payload), process.id(), process.version(), 0L));
             return getExecutedResult(future);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -178,10 +315,12 @@ public class PostgresqlProcessInstances implements MutableProcessInstances {
         return new RuntimeException(String.format(message, param), ex);
     }
 
-    private boolean updateInternal(UUID id, byte[] payload) {
+    private boolean updateInternal(UUID id, byte[] payload, ProcessInstance<?> instance) {
         try {
-            Future<RowSet<Row>> future =
-                    client.preparedQuery(UPDATE + (process.version() == null ? IS_NULL : "= $4"))
+            Future<RowSet<Row>> future = indexedColumns
+                    ? client.preparedQuery(UPDATE_INDEXED + (process.version() == null ? IS_NULL : "= $8"))
+                            .execute(tuple(Buffer.buffer(payload), instance.status(), indexedBusinessKey(instance), indexedVariableValue(instance), indexedVariable, process.id(), id))
+                    : client.preparedQuery(UPDATE + (process.version() == null ? IS_NULL : "= $4"))
                             .execute(tuple(Buffer.buffer(payload), process.id(), id));
             return getExecutedResult(future);
         } catch (InterruptedException e) {
@@ -237,6 +376,20 @@ public class PostgresqlProcessInstances implements MutableProcessInstances {
         }
     }
 
+    private Optional<Long> findVersionInternal(UUID id) {
+        try {
+            Future<RowSet<Row>> future =
+                    client.preparedQuery(FIND_VERSION_BY_ID + (process.version() == null ? IS_NULL : "= $3"))
+                            .execute(tuple(process.id(), id));
+            return getResultFromFuture(future).map(RowSet::iterator).filter(Iterator::hasNext).map(Iterator::next).map(row -> row.getLong(VERSION));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw uncheckedException(e, "Error finding version of process instance %s", id);
+        } catch (Exception e) {
+            throw uncheckedException(e, "Error finding version of process instance %s", id);
+        }
+    }
+
     private List<byte[]> findAllInternal() {
         try {
             Future<RowSet<Row>> future = client.preparedQuery(FIND_ALL + (process.version() == null ? IS_NULL : "= $2"))
@@ -251,6 +404,148 @@ public class PostgresqlProcessInstances implements MutableProcessInstances {
         }
     }
 
+    private List<Row> findInternal(ProcessInstanceQuery query) {
+        StringBuilder sql = new StringBuilder(FIND);
+        List<Object> parameters = new ArrayList<>();
+        parameters.add(process.id());
+        if (query.status() != null) {
+            parameters.add(query.status());
+            sql.append(" and state = $").append(parameters.size());
+        }
+        if (query.businessKey() != null) {
+            parameters.add(query.businessKey());
+            sql.append(" and business_key = $").append(parameters.size());
+        }
+        if (query.hasVariable()) {
+            parameters.add(query.variableValue());
+            sql.append(" and indexed_variable = $").append(parameters.size());
+        }
+        sql.append(" and process_version ");
+        if (process.version() == null) {
+            sql.append(IS_NULL);
+        } else {
+            parameters.add(process.version());
+            sql.append("= $").append(parameters.size());
+        }
+        parameters.add((long) query.offset());
+        sql.append(" ORDER BY id OFFSET $").append(parameters.size());
+        if (query.limit() != ProcessInstanceQuery.NO_LIMIT) {
+            parameters.add((long) query.limit());
+            sql.append(" LIMIT $").append(parameters.size());
+        }
+        try {
+            Future<RowSet<Row>> future = client.preparedQuery(sql.toString()).execute(Tuple.from(parameters));
+            return getResultFromFuture(future).map(r -> StreamSupport.stream(r.spliterator(), false).collect(Collectors.toList())).orElseGet(Collections::emptyList);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw uncheckedException(e, "Error querying process instances, for processId %s", process.id());
+        } catch (Exception e) {
+            throw uncheckedException(e, "Error querying process instances, for processId %s", process.id());
+        }
+    }
+
+    /**
+     * Sets the indexed columns of the rows written before they were added, or indexed on another variable path, a page
+     * at a time. Rows written meanwhile are indexed by the writes themselves.
+     */
+    private void reindex() {
+        try {
+            int count = 0;
+            List<UUID> ids = findNotIndexedInternal(null);
+            while (!ids.isEmpty()) {
+                for (UUID id : ids) {
+                    Optional<Row> row = findByIdInternal(id);
+                    if (row.isPresent()) {
+                        ProcessInstance<?> instance = marshaller.unmarshallReadOnlyProcessInstance(row.get().getBuffer(PAYLOAD).getBytes(), process);
+                        reindexInternal(id, row.get().getLong(VERSION), instance);
+                    }
+                }
+                count += ids.size();
+                ids = findNotIndexedInternal(ids.get(ids.size() - 1));
+            }
+            if (count > 0) {
+                LOGGER.info("Indexed {} process instances of process {}", count, process.id());
+            }
+            indexing.complete(true);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Unable to index the process instances of process {}, queries will scan the process instances", process.id(), e);
+            indexing.complete(false);
+        }
+    }
+
+    /**
+     * @param afterId id after which the page starts, null for the first one
+     */
+    private List<UUID> findNotIndexedInternal(UUID afterId) {
+        StringBuilder sql = new StringBuilder(FIND_NOT_INDEXED);
+        List<Object> parameters = new ArrayList<>();
+        parameters.add(process.id());
+        appendNotIndexed(sql, parameters);
+        // pages are read after the last id of the previous one, which does not skip rows as an offset would
+        if (afterId != null) {
+            parameters.add(afterId);
+            sql.append(" and id > $").append(parameters.size());
+        }
+        parameters.add((long) REINDEX_PAGE_SIZE);
+        sql.append(" ORDER BY id LIMIT $").append(parameters.size());
+        try {
+            Future<RowSet<Row>> future = client.preparedQuery(sql.toString()).execute(Tuple.from(parameters));
+            return getResultFromFuture(future).map(r -> StreamSupport.stream(r.spliterator(), false).map(row -> row.getUUID("id")).collect(Collectors.toList()))
+                    .orElseGet(Collections::emptyList);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw uncheckedException(e, "Error finding not indexed process instances, for processId %s", process.id());
+        } catch (Exception e) {
+            throw uncheckedException(e, "Error finding not indexed process instances, for processId %s", process.id());
+        }
+    }
+
+    private void reindexInternal(UUID id, long version, ProcessInstance<?> instance) {
+        StringBuilder sql = new StringBuilder(REINDEX);
+        List<Object> parameters = new ArrayList<>();
+        parameters.add(instance.status());
+        parameters.add(indexedBusinessKey(instance));
+        parameters.add(indexedVariableValue(instance));
+        parameters.add(indexedVariable);
+        parameters.add(process.id());
+        parameters.add(id);
+        parameters.add(version);
+        // only rows still not indexed, a concurrent update has already indexed the others
+        appendNotIndexed(sql, parameters);
+        try {
+            getExecutedResult(client.preparedQuery(sql.toString()).execute(Tuple.from(parameters)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw uncheckedException(e, "Error indexing process instance %s", id);
+        } catch (Exception e) {
+            throw uncheckedException(e, "Error indexing process instance %s", id);
+        }
+    }
+
+    private void appendNotIndexed(StringBuilder sql, List<Object> parameters) {
+        sql.append(" and process_version ");
+        if (process.version() == null) {
+            sql.append(IS_NULL);
+        } else {
+            parameters.add(process.version());
+            sql.append("= $").append(parameters.size());
+        }
+        if (indexedVariable == null) {
+            sql.append(" and (state is null or indexed_variable_path is not null)");
+        } else {
+            parameters.add(indexedVariable);
+            sql.append(" and (state is null or indexed_variable_path is null or indexed_variable_path <> $").append(parameters.size()).append(")");
+        }
+    }
+
+    private String indexedBusinessKey(ProcessInstance<?> instance) {
+        return ProcessInstanceQuery.indexedValue(instance.businessKey());
+    }
+
+    private String indexedVariableValue(ProcessInstance<?> instance) {
+        return indexedVariable == null ? null : ProcessInstanceQuery.indexedValue(ProcessInstanceQuery.variableValue(instance.variables(), indexedVariable));
+    }
+
     private Tuple tuple(Object... parameters) {
         Tuple tuple = Tuple.from(parameters);
         if (process.version() != null) {
@@ -295,8 +590,8 @@ public class PostgresqlProcessInstances implements MutableProcessInstances {
                                 LOGGER.info("Creating process_instances table.");
                                 return q.execute();
                             }).orElseGet(() -> {
-                                LOGGER.info("Table process_instances already exists.");
-                                return Future.succeededFuture(null);
+                                LOGGER.info("Table process_instances already exists, adding missing indexed columns.");
+                                return client.query(getQueryFromFile("runtime_add_indexed_columns")).execute();
                             }));
             getResultFromFuture(futureCompose).map(RowSet::rowCount).ifPresent(count -> {
                 if (count > 0) {
@@ -314,6 +609,19 @@ public class PostgresqlProcessInstances implements MutableProcessInstances {
         }
     }
 
+    private boolean indexedColumnsExist() {
+        try {
+            Future<RowSet<Row>> future = client.query(getQueryFromFile("exists_indexed_columns")).execute();
+            return getResultFromFuture(future).map(RowSet::iterator).filter(Iterator::hasNext).map(Iterator::next).map(row -> row.getBoolean("exists")).orElse(false);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            LOGGER.warn("Unable to check the indexed columns of process_instances table, queries will scan the process instances", e);
+            return false;
+        }
+    }
+
     private String getQueryFromFile(String scriptName) {
         try (InputStream stream = Thread.currentThread().getContextClassLoader().getResourceAsStream(String.format("sql/%s.sql", scriptName))) {
             byte[] buffer = stream.readAllBytes();
@@ -323,10 +631,14 @@ public class PostgresqlProcessInstances implements MutableProcessInstances {
         }
     }
 
-    private boolean updateWithLock(UUID id, byte[] payload, long version) {
+    private boolean updateWithLock(UUID id, byte[] payload, long version, ProcessInstance<?> instance) {
         try {
-            Future<RowSet<Row>> future = client.preparedQuery(UPDATE_WITH_LOCK + (process.version() == null ? IS_NULL : "= $6"))
-                    .execute(tuple(Buffer.buffer(payload), version + 1, process.id(), id, version));
+            Future<RowSet<Row>> future = indexedColumns
+                    ? client.preparedQuery(UPDATE_WITH_LOCK_INDEXED + (process.version() == null ? IS_NULL : "= $10"))
+                            .execute(tuple(Buffer.buffer(payload), version + 1, instance.status(), indexedBusinessKey(instance), indexedVariableValue(instance), indexedVariable, process.id(),
+                                    id, version))
+                    : client.preparedQuery(UPDATE_WITH_LOCK + (process.version() == null ? IS_NULL : "= $6"))
+                            .execute(tuple(Buffer.buffer(payload), version + 1, process.id(), id, version));
             boolean result = getExecutedResult(future);
             if (!result) {
                 throw new ProcessInstanceOptimisticLockingException(id.toString());
@@ -0,0 +1 @@
+SELECT COUNT(*) = 4 AS exists FROM information_schema.columns WHERE table_name = 'process_instances' AND column_name IN ('state', 'business_key', 'indexed_variable', 'indexed_variable_path');
\ No newline at end of file
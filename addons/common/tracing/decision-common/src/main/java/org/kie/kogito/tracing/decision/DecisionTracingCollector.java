@@ -15,40 +15,57 @@
  */
 package org.kie.kogito.tracing.decision;
 
+import java.time.Duration;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.function.LongSupplier;
 import java.util.function.Supplier;
 
 import org.kie.dmn.api.core.DMNModel;
 import org.kie.kogito.conf.ConfigBean;
 import org.kie.kogito.event.cloudevents.utils.CloudEventUtils;
 import org.kie.kogito.tracing.decision.aggregator.Aggregator;
-import org.kie.kogito.tracing.decision.aggregator.DefaultAggregator;
+import org.kie.kogito.tracing.decision.aggregator.StreamingAggregator;
 import org.kie.kogito.tracing.decision.event.evaluate.EvaluateEvent;
+import org.kie.kogito.tracing.decision.event.evaluate.EvaluateEventType;
 import org.kie.kogito.tracing.decision.terminationdetector.CounterTerminationDetector;
 import org.kie.kogito.tracing.decision.terminationdetector.TerminationDetector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.cloudevents.CloudEvent;
+
 public class DecisionTracingCollector {
 
     private static final Logger LOG = LoggerFactory.getLogger(DecisionTracingCollector.class);
 
-    private final Map<String, List<EvaluateEvent>> cacheMap;
-    private final Map<String, TerminationDetector> terminationDetectorMap;
+    public static final Duration DEFAULT_EXECUTION_TTL = Duration.ofMinutes(5);
+    public static final int DEFAULT_MAX_EXECUTIONS = 10000;
+
+    private final Map<String, TracedExecution> executions;
+    // evaluations in the order they started, trimmed by a single thread at a time when evaluations start
+    private final Queue<TracedExecution> started;
+    private final ReentrantLock evictionLock;
     private final Aggregator aggregator;
     private final Consumer<String> payloadConsumer;
     private final BiFunction<String, String, DMNModel> modelSupplier;
     private final Supplier<TerminationDetector> terminationDetectorSupplier;
     private final ConfigBean configBean;
+    private final long executionTtlNanos;
+    private final int maxExecutions;
+    private final LongSupplier nanoClock;
+    private volatile long lastExpiration;
 
     public DecisionTracingCollector(Consumer<String> payloadConsumer, BiFunction<String, String, DMNModel> modelSupplier, ConfigBean configBean) {
-        this(new DefaultAggregator(), payloadConsumer, modelSupplier, CounterTerminationDetector::new, configBean);
+        this(new StreamingAggregator(), payloadConsumer, modelSupplier, CounterTerminationDetector::new, configBean);
     }
 
     public DecisionTracingCollector(
@@ -57,32 +74,69 @@ public class DecisionTracingCollector {
             BiFunction<String, String, DMNModel> modelSupplier,
             Supplier<TerminationDetector> terminationDetectorSupplier,
             ConfigBean configBean) {
-        this.cacheMap = new ConcurrentHashMap<>();
-        this.terminationDetectorMap = new ConcurrentHashMap<>();
+        this(aggregator, payloadConsumer, modelSupplier, terminationDetectorSupplier, configBean, DEFAULT_EXECUTION_TTL, DEFAULT_MAX_EXECUTIONS);
+    }
+
+    public DecisionTracingCollector(
+            Aggregator aggregator,
+            Consumer<String> payloadConsumer,
+            BiFunction<String, String, DMNModel> modelSupplier,
+            Supplier<TerminationDetector> terminationDetectorSupplier,
+            ConfigBean configBean,
+            Duration executionTtl,
+            int maxExecutions) {
+        this(aggregator, payloadConsumer, modelSupplier, terminationDetectorSupplier, configBean, executionTtl, maxExecutions, System::nanoTime);
+    }
+
+    DecisionTracingCollector(
+            Aggregator aggregator,
+            Consumer<String> payloadConsumer,
+            BiFunction<String, String, DMNModel> modelSupplier,
+            Supplier<TerminationDetector> terminationDetectorSupplier,
+            ConfigBean configBean,
+            Duration executionTtl,
+            int maxExecutions,
+            LongSupplier nanoClock) {
+        this.executions = new ConcurrentHashMap<>();
+        this.started = new ConcurrentLinkedQueue<>();
+        this.evictionLock = new ReentrantLock();
         this.aggregator = aggregator;
         this.payloadConsumer = payloadConsumer;
         this.modelSupplier = modelSupplier;
         this.terminationDetectorSupplier = terminationDetectorSupplier;
         this.configBean = configBean;
+        this.executionTtlNanos = executionTtl.toNanos();
+        this.maxExecutions = maxExecutions;
+        this.nanoClock = nanoClock;
+        this.lastExpiration = nanoClock.getAsLong();
     }
 
     public void addEvent(EvaluateEvent event) {
         LOG.trace("Received {}(executionId: {}, modelName: {}, modelNamespace: {})", event.getType(), event.getExecutionId(), event.getModelName(), event.getModelNamespace());
 
+        long now = nanoClock.getAsLong();
         String executionId = event.getExecutionId();
-        if (!cacheMap.containsKey(executionId)) {
-            cacheMap.put(executionId, new LinkedList<>());
-            terminationDetectorMap.put(executionId, terminationDetectorSupplier.get());
-            LOG.trace("Added evaluation {} to cache (current size: {})", executionId, cacheMap.size());
+        TracedExecution execution = executions.get(executionId);
+        if (execution == null) {
+            if (!isFirstEvent(event)) {
+                // the evaluation has been evicted, tracing the rest of it would produce a partial trace
+                LOG.debug("Evaluation {} is not traced, discarding its {} event", executionId, event.getType());
+                return;
+            }
+            execution = new TracedExecution(event, now);
+            executions.put(executionId, execution);
+            started.add(execution);
+            LOG.trace("Added evaluation {} to cache (current size: {})", executionId, executions.size());
+            evict(now);
         }
 
-        cacheMap.get(executionId).add(event);
-        terminationDetectorMap.get(executionId).add(event);
+        execution.add(event, now);
 
-        if (terminationDetectorMap.get(executionId).isTerminated()) {
-            DMNModel dmnModel = modelSupplier.apply(event.getModelNamespace(), event.getModelName());
-            Optional<String> optPayload = aggregate(dmnModel, executionId, cacheMap.get(executionId));
+        // an evaluation evicted while running is not removed here, its trace is discarded
+        if (execution.terminationDetector.isTerminated() && executions.remove(executionId, execution)) {
+            LOG.trace("Removed evaluation {} from cache (current size: {})", executionId, executions.size());
 
+            Optional<String> optPayload = execution.aggregate().flatMap(CloudEventUtils::encode);
             if (optPayload.isPresent()) {
                 String payload = optPayload.get();
                 payloadConsumer.accept(payload);
@@ -90,14 +144,93 @@ public class DecisionTracingCollector {
             } else {
                 LOG.error("Failed aggregating data for evaluation {}", executionId);
             }
+        }
+    }
 
-            cacheMap.remove(executionId);
-            terminationDetectorMap.remove(executionId);
-            LOG.trace("Removed evaluation {} from cache (current size: {})", executionId, cacheMap.size());
+    int size() {
+        return executions.size();
+    }
+
+    private static boolean isFirstEvent(EvaluateEvent event) {
+        return event.getType() == EvaluateEventType.BEFORE_EVALUATE_ALL || event.getType() == EvaluateEventType.BEFORE_EVALUATE_DECISION_SERVICE;
+    }
+
+    private void evict(long now) {
+        if (!evictionLock.tryLock()) {
+            // another thread is already evicting
+            return;
+        }
+        try {
+            evictExpired(now);
+            // evaluations mostly terminate in the order they started, so only the head of the queue is inspected
+            for (TracedExecution oldest = started.peek(); oldest != null; oldest = started.peek()) {
+                boolean running = executions.get(oldest.executionId) == oldest;
+                if (running && executions.size() <= maxExecutions) {
+                    return;
+                }
+                started.poll();
+                if (running && executions.remove(oldest.executionId, oldest)) {
+                    LOG.warn("Too many evaluations in progress (max {}), decision trace of evaluation {} is discarded", maxExecutions, oldest.executionId);
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private void evictExpired(long now) {
+        // a full scan is done at most once per TTL, expired evaluations live at most twice the TTL
+        if (now - lastExpiration < executionTtlNanos) {
+            return;
+        }
+        lastExpiration = now;
+        for (TracedExecution execution : executions.values()) {
+            if (now - execution.lastUpdate >= executionTtlNanos && executions.remove(execution.executionId, execution)) {
+                LOG.warn("Evaluation {} did not terminate within {} ms, its decision trace is discarded", execution.executionId, executionTtlNanos / 1000000);
+            }
         }
     }
 
-    private Optional<String> aggregate(DMNModel model, String executionId, List<EvaluateEvent> events) {
-        return aggregator.aggregate(model, executionId, events, configBean).flatMap(CloudEventUtils::encode);
+    private class TracedExecution {
+
+        private final String executionId;
+        private final TerminationDetector terminationDetector;
+        private final StreamingAggregator.Execution streamingExecution;
+        private final List<EvaluateEvent> events;
+        private final EvaluateEvent firstEvent;
+        private volatile long lastUpdate;
+
+        private TracedExecution(EvaluateEvent firstEvent, long now) {
+            this.executionId = firstEvent.getExecutionId();
+            this.firstEvent = firstEvent;
+            this.terminationDetector = terminationDetectorSupplier.get();
+            if (aggregator instanceof StreamingAggregator) {
+                DMNModel dmnModel = modelSupplier.apply(firstEvent.getModelNamespace(), firstEvent.getModelName());
+                this.streamingExecution = ((StreamingAggregator) aggregator).start(dmnModel, firstEvent.getExecutionId());
+                this.events = null;
+            } else {
+                this.streamingExecution = null;
+                this.events = new LinkedList<>();
+            }
+            this.lastUpdate = now;
+        }
+
+        private void add(EvaluateEvent event, long now) {
+            if (streamingExecution != null) {
+                streamingExecution.add(event);
+            } else {
+                events.add(event);
+            }
+            terminationDetector.add(event);
+            lastUpdate = now;
+        }
+
+        private Optional<CloudEvent> aggregate() {
+            if (streamingExecution != null) {
+                return streamingExecution.build(configBean);
+            }
+            DMNModel dmnModel = modelSupplier.apply(firstEvent.getModelNamespace(), firstEvent.getModelName());
+            return aggregator.aggregate(dmnModel, firstEvent.getExecutionId(), events, configBean);
+        }
     }
 }
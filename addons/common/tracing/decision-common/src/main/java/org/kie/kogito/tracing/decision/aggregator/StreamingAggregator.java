@@ -0,0 +1,189 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.tracing.decision.aggregator;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+import org.kie.dmn.api.core.DMNModel;
+import org.kie.dmn.feel.util.Pair;
+import org.kie.kogito.conf.ConfigBean;
+import org.kie.kogito.tracing.decision.event.EventUtils;
+import org.kie.kogito.tracing.decision.event.evaluate.EvaluateEvent;
+import org.kie.kogito.tracing.decision.message.InternalMessageType;
+import org.kie.kogito.tracing.event.message.Message;
+import org.kie.kogito.tracing.event.trace.TraceExecutionStep;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.cloudevents.CloudEvent;
+
+/**
+ * {@link Aggregator} that folds {@link EvaluateEvent}s into the trace structure as soon as they are received,
+ * instead of buffering the whole list of events of an evaluation like {@link DefaultAggregator}.
+ * <p>
+ * Only the first event, the latest received one and the stack of still open "before" events are retained,
+ * so the memory used by an execution is bounded by the depth of the evaluation and not by its length.
+ * The produced trace is the same as the one of {@link DefaultAggregator}.
+ */
+public class StreamingAggregator implements Aggregator {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StreamingAggregator.class);
+
+    public Execution start(DMNModel model, String executionId) {
+        return new Execution(model, executionId);
+    }
+
+    @Override
+    public Optional<CloudEvent> aggregate(DMNModel model, String executionId, List<EvaluateEvent> events, ConfigBean configBean) {
+        Execution execution = start(model, executionId);
+        if (events != null) {
+            events.forEach(execution::add);
+        }
+        return execution.build(configBean);
+    }
+
+    /**
+     * Aggregation state of a single evaluation. Not thread safe: events of an evaluation are expected to be
+     * received sequentially, as they are emitted by the thread running the evaluation.
+     */
+    public static class Execution {
+
+        private final DMNModel model;
+        private final String executionId;
+
+        private final Deque<DefaultAggregatorStackEntry> stack = new ArrayDeque<>();
+        private final List<TraceExecutionStep> executionSteps = new ArrayList<>();
+
+        private EvaluateEvent firstEvent;
+        // events are processed with a delay of one, so that the last event is never part of the hierarchy
+        private EvaluateEvent pendingEvent;
+        private int eventCount;
+        private IllegalStateException hierarchyError;
+
+        private Execution(DMNModel model, String executionId) {
+            this.model = model;
+            this.executionId = executionId;
+        }
+
+        public String getExecutionId() {
+            return executionId;
+        }
+
+        public int getEventCount() {
+            return eventCount;
+        }
+
+        public void add(EvaluateEvent event) {
+            eventCount++;
+            if (firstEvent == null) {
+                firstEvent = event;
+                return;
+            }
+            if (pendingEvent != null) {
+                process(pendingEvent);
+            }
+            pendingEvent = event;
+        }
+
+        public Optional<CloudEvent> build(ConfigBean configBean) {
+            if (firstEvent == null) {
+                return DefaultAggregator.buildNotEnoughDataCloudEvent(model, executionId, configBean);
+            }
+            EvaluateEvent lastEvent = pendingEvent == null ? firstEvent : pendingEvent;
+            if (hierarchyError == null && !stack.isEmpty()) {
+                switchToList(new IllegalStateException("Can't match all after events with corresponding before events"));
+            }
+            if (hierarchyError == null) {
+                return DefaultAggregator.buildDefaultCloudEvent(model, executionId, firstEvent, lastEvent,
+                        new Pair<>(executionSteps, Collections.emptyList()), configBean);
+            }
+            if (pendingEvent != null) {
+                addListStep(pendingEvent);
+            }
+            List<Message> messages = Collections.singletonList(EventUtils.messageFrom(InternalMessageType.NO_EXECUTION_STEP_HIERARCHY, hierarchyError));
+            return DefaultAggregator.buildDefaultCloudEvent(model, executionId, firstEvent, lastEvent, new Pair<>(executionSteps, messages), configBean);
+        }
+
+        private void process(EvaluateEvent event) {
+            if (hierarchyError != null) {
+                addListStep(event);
+                return;
+            }
+            if (event.getType().isBefore()) {
+                stack.push(new DefaultAggregatorStackEntry(event));
+                return;
+            }
+            if (stack.isEmpty() || !stack.peek().isValidAfterEvent(event)) {
+                switchToList(new IllegalStateException(String.format("Can't match %s after event with corresponding before event", event.getType())));
+                addListStep(event);
+                return;
+            }
+            DefaultAggregatorStackEntry stackEntry = stack.pop();
+            TraceExecutionStep step = DefaultAggregator.buildTraceExecutionStep(model, stackEntry, event);
+            if (step == null) {
+                stack.push(stackEntry);
+                switchToList(new IllegalStateException(String.format("Can't build TraceExecutionStep for a %s event", event.getType())));
+                return;
+            }
+            if (stack.isEmpty()) {
+                executionSteps.add(step);
+            } else {
+                stack.peek().addChild(step);
+            }
+        }
+
+        /**
+         * Falls back to a flat list of steps, as {@link DefaultAggregator} does when the hierarchy can't be built.
+         * The steps completed so far are flattened in the order their "after" event was received.
+         */
+        private void switchToList(IllegalStateException error) {
+            LOG.error(String.format("IllegalStateException during aggregation of evaluation %s", executionId), error);
+            hierarchyError = error;
+
+            List<TraceExecutionStep> completedSteps = new ArrayList<>(executionSteps);
+            for (Iterator<DefaultAggregatorStackEntry> it = stack.descendingIterator(); it.hasNext();) {
+                completedSteps.addAll(it.next().getChildren());
+            }
+            stack.clear();
+            executionSteps.clear();
+
+            if (firstEvent.getType().isAfter()) {
+                addListStep(firstEvent);
+            }
+            completedSteps.forEach(this::flatten);
+        }
+
+        private void flatten(TraceExecutionStep step) {
+            step.getChildren().forEach(this::flatten);
+            executionSteps.add(new TraceExecutionStep(step.getType(), 0L, step.getName(), step.getResult(), step.getMessages(), step.getAdditionalData(), Collections.emptyList()));
+        }
+
+        private void addListStep(EvaluateEvent event) {
+            if (event.getType().isAfter()) {
+                TraceExecutionStep step = DefaultAggregator.buildTraceExecutionStep(model, null, event);
+                if (step != null) {
+                    executionSteps.add(step);
+                }
+            }
+        }
+    }
+}
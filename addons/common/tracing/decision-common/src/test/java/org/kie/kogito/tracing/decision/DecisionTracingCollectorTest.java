@@ -16,9 +16,11 @@
 package org.kie.kogito.tracing.decision;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -29,6 +31,7 @@ import org.kie.dmn.feel.util.Pair;
 import org.kie.kogito.conf.ConfigBean;
 import org.kie.kogito.conf.StaticConfigBean;
 import org.kie.kogito.event.cloudevents.utils.CloudEventUtils;
+import org.kie.kogito.tracing.decision.aggregator.StreamingAggregator;
 import org.kie.kogito.tracing.decision.event.evaluate.EvaluateEvent;
 import org.kie.kogito.tracing.decision.mock.MockDefaultAggregator;
 import org.kie.kogito.tracing.decision.terminationdetector.BoundariesTerminationDetector;
@@ -46,7 +49,9 @@ import static org.kie.kogito.dmn.DecisionTestUtils.createDMNModel;
 import static org.kie.kogito.tracing.decision.DecisionTracingTestUtils.EVALUATE_ALL_JSON_RESOURCE;
 import static org.kie.kogito.tracing.decision.DecisionTracingTestUtils.EVALUATE_DECISION_SERVICE_JSON_RESOURCE;
 import static org.kie.kogito.tracing.decision.DecisionTracingTestUtils.readEvaluateEventsFromJsonResource;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -116,6 +121,88 @@ class DecisionTracingCollectorTest {
         assertEquals(expectedEvaluateDecisionService, payloads.get(evaluateDecisionServiceIndex));
     }
 
+    @Test
+    void testCollectorWithStreamingAggregatorIsWorking() throws IOException {
+        Consumer<String> payloadConsumer = mock(Consumer.class);
+        DecisionTracingCollector collector = new DecisionTracingCollector(payloadConsumer, (namespace, name) -> model, configBean);
+
+        List<EvaluateEvent> evaluateAllEvents = readEvaluateEventsFromJsonResource(EVALUATE_ALL_JSON_RESOURCE);
+        List<EvaluateEvent> evaluateDecisionServiceEvents = readEvaluateEventsFromJsonResource(EVALUATE_DECISION_SERVICE_JSON_RESOURCE);
+        evaluateAllEvents.forEach(collector::addEvent);
+        evaluateDecisionServiceEvents.forEach(collector::addEvent);
+
+        verify(payloadConsumer, times(2)).accept(any());
+        assertEquals(0, collector.size());
+    }
+
+    @Test
+    void testCollectorEvictsExpiredEvaluations() throws IOException {
+        Consumer<String> payloadConsumer = mock(Consumer.class);
+        AtomicLong clock = new AtomicLong();
+        DecisionTracingCollector collector = new DecisionTracingCollector(new StreamingAggregator(), payloadConsumer, (namespace, name) -> model,
+                CounterTerminationDetector::new, configBean, Duration.ofSeconds(10), 100, clock::get);
+
+        List<EvaluateEvent> evaluateAllEvents = readEvaluateEventsFromJsonResource(EVALUATE_ALL_JSON_RESOURCE);
+        List<EvaluateEvent> evaluateDecisionServiceEvents = readEvaluateEventsFromJsonResource(EVALUATE_DECISION_SERVICE_JSON_RESOURCE);
+
+        // evaluation that never terminates
+        collector.addEvent(evaluateAllEvents.get(0));
+        assertEquals(1, collector.size());
+
+        clock.addAndGet(Duration.ofSeconds(11).toNanos());
+        collector.addEvent(evaluateDecisionServiceEvents.get(0));
+        assertEquals(1, collector.size());
+
+        evaluateDecisionServiceEvents.stream().skip(1).forEach(collector::addEvent);
+        assertEquals(0, collector.size());
+        verify(payloadConsumer, times(1)).accept(any());
+    }
+
+    @Test
+    void testCollectorEvictsOldestEvaluationWhenFull() throws IOException {
+        Consumer<String> payloadConsumer = mock(Consumer.class);
+        AtomicLong clock = new AtomicLong();
+        DecisionTracingCollector collector = new DecisionTracingCollector(new StreamingAggregator(), payloadConsumer, (namespace, name) -> model,
+                CounterTerminationDetector::new, configBean, Duration.ofMinutes(1), 1, clock::get);
+
+        List<EvaluateEvent> evaluateAllEvents = readEvaluateEventsFromJsonResource(EVALUATE_ALL_JSON_RESOURCE);
+        List<EvaluateEvent> evaluateDecisionServiceEvents = readEvaluateEventsFromJsonResource(EVALUATE_DECISION_SERVICE_JSON_RESOURCE);
+
+        collector.addEvent(evaluateAllEvents.get(0));
+        clock.incrementAndGet();
+        collector.addEvent(evaluateDecisionServiceEvents.get(0));
+        assertEquals(1, collector.size());
+
+        // the oldest evaluation has been evicted, the most recent one is still traced
+        evaluateDecisionServiceEvents.stream().skip(1).forEach(collector::addEvent);
+        assertEquals(0, collector.size());
+        verify(payloadConsumer, times(1)).accept(any());
+    }
+
+    @Test
+    void testEventsOfEvictedEvaluationAreDiscarded() throws IOException {
+        Consumer<String> payloadConsumer = mock(Consumer.class);
+        AtomicLong clock = new AtomicLong();
+        DecisionTracingCollector collector = new DecisionTracingCollector(new StreamingAggregator(), payloadConsumer, (namespace, name) -> model,
+                CounterTerminationDetector::new, configBean, Duration.ofMinutes(1), 1, clock::get);
+
+        List<EvaluateEvent> evaluateAllEvents = readEvaluateEventsFromJsonResource(EVALUATE_ALL_JSON_RESOURCE);
+        List<EvaluateEvent> evaluateDecisionServiceEvents = readEvaluateEventsFromJsonResource(EVALUATE_DECISION_SERVICE_JSON_RESOURCE);
+
+        collector.addEvent(evaluateAllEvents.get(0));
+        clock.incrementAndGet();
+        collector.addEvent(evaluateDecisionServiceEvents.get(0));
+
+        // the evicted evaluation keeps running, its events do not start a new trace
+        evaluateAllEvents.stream().skip(1).forEach(collector::addEvent);
+        assertEquals(1, collector.size());
+        verify(payloadConsumer, never()).accept(any());
+
+        evaluateDecisionServiceEvents.stream().skip(1).forEach(collector::addEvent);
+        assertEquals(0, collector.size());
+        verify(payloadConsumer, times(1)).accept(any());
+    }
+
     private static String encodeFromCall(Map<String, Pair<List<EvaluateEvent>, CloudEvent>> aggregatorCalls, String key) {
         return Optional.ofNullable(aggregatorCalls.get(key))
                 .map(Pair::getRight)
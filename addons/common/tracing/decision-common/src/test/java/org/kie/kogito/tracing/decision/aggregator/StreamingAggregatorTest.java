@@ -0,0 +1,117 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.tracing.decision.aggregator;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.kie.dmn.api.core.DMNModel;
+import org.kie.kogito.conf.StaticConfigBean;
+import org.kie.kogito.tracing.decision.DecisionTracingTestUtils;
+import org.kie.kogito.tracing.decision.event.evaluate.EvaluateEvent;
+import org.kie.kogito.tracing.decision.event.evaluate.EvaluateEventType;
+
+import io.cloudevents.CloudEvent;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.kie.kogito.dmn.DecisionTestUtils.DECISION_SERVICE_DECISION_ID;
+import static org.kie.kogito.dmn.DecisionTestUtils.EVALUATE_ALL_EXECUTION_ID;
+import static org.kie.kogito.dmn.DecisionTestUtils.EVALUATE_DECISION_SERVICE_EXECUTION_ID;
+import static org.kie.kogito.dmn.DecisionTestUtils.FIRST_DECISION_NODE_ID;
+import static org.kie.kogito.dmn.DecisionTestUtils.LAST_DECISION_NODE_ID;
+import static org.kie.kogito.dmn.DecisionTestUtils.createDMNModel;
+import static org.kie.kogito.tracing.decision.DecisionTracingTestUtils.EVALUATE_ALL_JSON_RESOURCE;
+import static org.kie.kogito.tracing.decision.DecisionTracingTestUtils.EVALUATE_DECISION_SERVICE_JSON_RESOURCE;
+
+class StreamingAggregatorTest {
+
+    private static DMNModel model;
+    private static StaticConfigBean configBean;
+
+    @BeforeAll
+    static void initModel() {
+        model = createDMNModel();
+        configBean = new StaticConfigBean();
+    }
+
+    static Stream<Arguments> scenarios() {
+        return Stream.of(
+                Arguments.of(EVALUATE_ALL_JSON_RESOURCE, EVALUATE_ALL_EXECUTION_ID, none()),
+                Arguments.of(EVALUATE_ALL_JSON_RESOURCE, EVALUATE_ALL_EXECUTION_ID, without(EvaluateEventType.BEFORE_EVALUATE_DECISION, FIRST_DECISION_NODE_ID)),
+                Arguments.of(EVALUATE_ALL_JSON_RESOURCE, EVALUATE_ALL_EXECUTION_ID, without(EvaluateEventType.AFTER_EVALUATE_DECISION, FIRST_DECISION_NODE_ID)),
+                Arguments.of(EVALUATE_ALL_JSON_RESOURCE, EVALUATE_ALL_EXECUTION_ID, without(EvaluateEventType.BEFORE_EVALUATE_DECISION, LAST_DECISION_NODE_ID)),
+                Arguments.of(EVALUATE_ALL_JSON_RESOURCE, EVALUATE_ALL_EXECUTION_ID, without(EvaluateEventType.AFTER_EVALUATE_DECISION, LAST_DECISION_NODE_ID)),
+                Arguments.of(EVALUATE_DECISION_SERVICE_JSON_RESOURCE, EVALUATE_DECISION_SERVICE_EXECUTION_ID, none()),
+                Arguments.of(EVALUATE_DECISION_SERVICE_JSON_RESOURCE, EVALUATE_DECISION_SERVICE_EXECUTION_ID, without(EvaluateEventType.BEFORE_EVALUATE_DECISION, DECISION_SERVICE_DECISION_ID)),
+                Arguments.of(EVALUATE_DECISION_SERVICE_JSON_RESOURCE, EVALUATE_DECISION_SERVICE_EXECUTION_ID, without(EvaluateEventType.AFTER_EVALUATE_DECISION, DECISION_SERVICE_DECISION_ID)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("scenarios")
+    void testAggregateIsEquivalentToDefaultAggregator(String resource, String executionId, Predicate<EvaluateEvent> filter) throws IOException {
+        List<EvaluateEvent> events = DecisionTracingTestUtils.readEvaluateEventsFromJsonResource(resource).stream()
+                .filter(filter)
+                .collect(Collectors.toList());
+
+        for (int size = 0; size <= events.size(); size++) {
+            List<EvaluateEvent> subList = events.subList(0, size);
+            assertSameData(new DefaultAggregator().aggregate(model, executionId, subList, configBean).orElseThrow(IllegalStateException::new),
+                    new StreamingAggregator().aggregate(model, executionId, subList, configBean).orElseThrow(IllegalStateException::new));
+            assertSameData(new DefaultAggregator().aggregate(null, executionId, subList, configBean).orElseThrow(IllegalStateException::new),
+                    new StreamingAggregator().aggregate(null, executionId, subList, configBean).orElseThrow(IllegalStateException::new));
+        }
+    }
+
+    @Test
+    void testExecutionCountsEvents() throws IOException {
+        List<EvaluateEvent> events = DecisionTracingTestUtils.readEvaluateEventsFromJsonResource(EVALUATE_ALL_JSON_RESOURCE);
+        StreamingAggregator.Execution execution = new StreamingAggregator().start(model, EVALUATE_ALL_EXECUTION_ID);
+        events.forEach(execution::add);
+
+        assertEquals(EVALUATE_ALL_EXECUTION_ID, execution.getExecutionId());
+        assertEquals(events.size(), execution.getEventCount());
+    }
+
+    @Test
+    void testAggregateWithNullListReturnsNotEnoughData() {
+        assertSameData(new DefaultAggregator().aggregate(model, EVALUATE_ALL_EXECUTION_ID, Collections.emptyList(), configBean).orElseThrow(IllegalStateException::new),
+                new StreamingAggregator().aggregate(model, EVALUATE_ALL_EXECUTION_ID, null, configBean).orElseThrow(IllegalStateException::new));
+    }
+
+    private static Predicate<EvaluateEvent> none() {
+        return e -> true;
+    }
+
+    private static Predicate<EvaluateEvent> without(EvaluateEventType type, String nodeId) {
+        return e -> !(e.getType() == type && nodeId.equals(e.getNodeId()));
+    }
+
+    private static void assertSameData(CloudEvent expected, CloudEvent actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getSource(), actual.getSource());
+        assertArrayEquals(expected.getData().toBytes(), actual.getData().toBytes());
+    }
+}
@@ -41,10 +41,11 @@ public interface JobsService {
     String scheduleProcessInstanceJob(ProcessInstanceJobDescription description);
 
     /**
-     * Cancels given job
+     * Cancels given job. Implementations may defer the cancellation till the running unit of work completes,
+     * in which case it can only be reported as queued and its failure is handled asynchronously.
      * 
      * @param id unique id of the job
-     * @return returns true if the cancellation was successful, otherwise false
+     * @return returns true if the cancellation was successful or has been queued, otherwise false
      */
     boolean cancelJob(String id);
 }
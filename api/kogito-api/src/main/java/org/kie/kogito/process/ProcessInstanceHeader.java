@@ -0,0 +1,103 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.process;
+
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * Read only view of the identifying data of a process instance, without its variables nor its node instances.
+ *
+ * @see ProcessInstances#findHeaderById(String)
+ */
+public final class ProcessInstanceHeader {
+
+    private final String id;
+    private final String processId;
+    private final String businessKey;
+    private final int status;
+    private final Date startDate;
+    private final long version;
+
+    public ProcessInstanceHeader(String id, String processId, String businessKey, int status, Date startDate, long version) {
+        this.id = id;
+        this.processId = processId;
+        this.businessKey = businessKey;
+        this.status = status;
+        this.startDate = startDate;
+        this.version = version;
+    }
+
+    public static ProcessInstanceHeader of(ProcessInstance<?> processInstance) {
+        return new ProcessInstanceHeader(processInstance.id(), processInstance.process().id(), processInstance.businessKey(), processInstance.status(), processInstance.startDate(),
+                processInstance.version());
+    }
+
+    public ProcessInstanceHeader withVersion(long version) {
+        return new ProcessInstanceHeader(id, processId, businessKey, status, startDate, version);
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public String processId() {
+        return processId;
+    }
+
+    public String businessKey() {
+        return businessKey;
+    }
+
+    /**
+     * @return one of the <code>ProcessInstance.STATE_*</code> constants
+     */
+    public int status() {
+        return status;
+    }
+
+    public Date startDate() {
+        return startDate;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ProcessInstanceHeader)) {
+            return false;
+        }
+        ProcessInstanceHeader other = (ProcessInstanceHeader) o;
+        return status == other.status && version == other.version && Objects.equals(id, other.id) && Objects.equals(processId, other.processId)
+                && Objects.equals(businessKey, other.businessKey) && Objects.equals(startDate, other.startDate);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, processId, businessKey, status, startDate, version);
+    }
+
+    @Override
+    public String toString() {
+        return "ProcessInstanceHeader [id=" + id + ", processId=" + processId + ", businessKey=" + businessKey + ", status=" + status + ", startDate=" + startDate + ", version=" + version
+                + "]";
+    }
+}
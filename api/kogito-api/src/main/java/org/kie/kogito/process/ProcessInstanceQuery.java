@@ -0,0 +1,264 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.process;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.kie.kogito.MapOutput;
+import org.kie.kogito.ReflectiveModelAccessException;
+
+/**
+ * Criteria of {@link ProcessInstances#find(ProcessInstanceQuery, ProcessInstanceReadMode)}. All the criteria set
+ * must match; the variable criterion takes a dot separated path into the process variables, e.g.
+ * <code>order.customer.id</code>, and compares the string form of the value found there.
+ * <p>
+ * Results are ordered by process instance id, <code>offset</code> and <code>limit</code> applying to the matching
+ * instances so that pages can be walked by increasing the offset.
+ */
+public final class ProcessInstanceQuery {
+
+    public static final int NO_LIMIT = Integer.MAX_VALUE;
+
+    /**
+     * Longest business key or variable value stores keep in their secondary indexes, longer values are not indexed
+     * and queries on them fall back to scanning the instances.
+     */
+    public static final int MAX_INDEXED_VALUE_LENGTH = 255;
+
+    private final Integer status;
+    private final String businessKey;
+    private final String processVersion;
+    private final String variablePath;
+    private final String variableValue;
+    private final int offset;
+    private final int limit;
+
+    private ProcessInstanceQuery(Builder builder) {
+        this.status = builder.status;
+        this.businessKey = builder.businessKey;
+        this.processVersion = builder.processVersion;
+        this.variablePath = builder.variablePath;
+        this.variableValue = builder.variableValue;
+        this.offset = builder.offset;
+        this.limit = builder.limit;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return one of the <code>ProcessInstance.STATE_*</code> constants, or null to match any status
+     */
+    public Integer status() {
+        return status;
+    }
+
+    public String businessKey() {
+        return businessKey;
+    }
+
+    public String processVersion() {
+        return processVersion;
+    }
+
+    public String variablePath() {
+        return variablePath;
+    }
+
+    public String variableValue() {
+        return variableValue;
+    }
+
+    public int offset() {
+        return offset;
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public boolean hasVariable() {
+        return variablePath != null;
+    }
+
+    /**
+     * Whether the criteria can be looked up in the secondary indexes of a store, given the variable path it indexes.
+     */
+    public boolean isIndexed(String indexedVariablePath) {
+        return (businessKey == null || isIndexable(businessKey))
+                && (variablePath == null || (variablePath.equals(indexedVariablePath) && isIndexable(variableValue)));
+    }
+
+    /**
+     * Whether the instances of a store restricted to the given process version can match the query at all.
+     */
+    public boolean matchesProcessVersion(String version) {
+        return processVersion == null || processVersion.equals(version);
+    }
+
+    public boolean matches(ProcessInstance<?> processInstance) {
+        return (status == null || status == processInstance.status())
+                && (businessKey == null || businessKey.equals(processInstance.businessKey()))
+                && matchesProcessVersion(processInstance.process().version())
+                && (variablePath == null || variableValue.equals(variableValue(processInstance.variables(), variablePath)));
+    }
+
+    /**
+     * Filters, orders and pages the given instances, for stores that cannot evaluate the query themselves.
+     */
+    public <T> List<ProcessInstance<T>> apply(Stream<ProcessInstance<T>> processInstances) {
+        return processInstances.filter(this::matches)
+                .sorted(Comparator.comparing(ProcessInstance::id))
+                .skip(offset)
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the string form of the value found at the given dot separated path of the process variables, or null
+     * if there is none. Stores use it to extract the value of the indexed variable.
+     */
+    public static String variableValue(Object variables, String path) {
+        Object value = variables;
+        for (String name : path.split("\\.")) {
+            if (value == null) {
+                return null;
+            }
+            value = property(value, name);
+        }
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * Returns the value stores keep in their secondary indexes for the given business key or variable value, null
+     * when it is not indexed.
+     */
+    public static String indexedValue(String value) {
+        return isIndexable(value) ? value : null;
+    }
+
+    private static boolean isIndexable(String value) {
+        return value != null && value.length() <= MAX_INDEXED_VALUE_LENGTH;
+    }
+
+    private static Object property(Object object, String name) {
+        if (object instanceof Map) {
+            return ((Map<?, ?>) object).get(name);
+        }
+        if (object instanceof MapOutput) {
+            return ((MapOutput) object).toMap().get(name);
+        }
+        try {
+            for (PropertyDescriptor descriptor : Introspector.getBeanInfo(object.getClass()).getPropertyDescriptors()) {
+                if (descriptor.getName().equals(name) && descriptor.getReadMethod() != null) {
+                    return descriptor.getReadMethod().invoke(object);
+                }
+            }
+            return null;
+        } catch (IntrospectionException | ReflectiveOperationException e) {
+            throw new ReflectiveModelAccessException(e);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ProcessInstanceQuery)) {
+            return false;
+        }
+        ProcessInstanceQuery other = (ProcessInstanceQuery) o;
+        return offset == other.offset && limit == other.limit && Objects.equals(status, other.status) && Objects.equals(businessKey, other.businessKey)
+                && Objects.equals(processVersion, other.processVersion) && Objects.equals(variablePath, other.variablePath)
+                && Objects.equals(variableValue, other.variableValue);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(status, businessKey, processVersion, variablePath, variableValue, offset, limit);
+    }
+
+    @Override
+    public String toString() {
+        return "ProcessInstanceQuery [status=" + status + ", businessKey=" + businessKey + ", processVersion=" + processVersion + ", variablePath=" + variablePath
+                + ", variableValue=" + variableValue + ", offset=" + offset + ", limit=" + limit + "]";
+    }
+
+    public static class Builder {
+
+        private Integer status;
+        private String businessKey;
+        private String processVersion;
+        private String variablePath;
+        private String variableValue;
+        private int offset;
+        private int limit = NO_LIMIT;
+
+        private Builder() {
+        }
+
+        public Builder status(int status) {
+            this.status = status;
+            return this;
+        }
+
+        public Builder businessKey(String businessKey) {
+            this.businessKey = businessKey;
+            return this;
+        }
+
+        public Builder processVersion(String processVersion) {
+            this.processVersion = processVersion;
+            return this;
+        }
+
+        public Builder variable(String path, Object value) {
+            this.variablePath = Objects.requireNonNull(path, "variable path");
+            this.variableValue = Objects.requireNonNull(value, "variable value").toString();
+            return this;
+        }
+
+        public Builder offset(int offset) {
+            if (offset < 0) {
+                throw new IllegalArgumentException("Offset must not be negative: " + offset);
+            }
+            this.offset = offset;
+            return this;
+        }
+
+        public Builder limit(int limit) {
+            if (limit <= 0) {
+                throw new IllegalArgumentException("Limit must be positive: " + limit);
+            }
+            this.limit = limit;
+            return this;
+        }
+
+        public ProcessInstanceQuery build() {
+            return new ProcessInstanceQuery(this);
+        }
+    }
+}
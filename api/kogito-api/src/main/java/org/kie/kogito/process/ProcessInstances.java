@@ -16,7 +16,9 @@
 package org.kie.kogito.process;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ProcessInstances<T> {
 
@@ -32,5 +34,48 @@ public interface ProcessInstances<T> {
 
     Collection<ProcessInstance<T>> values(ProcessInstanceReadMode mode);
 
+    /**
+     * Streams the process instances, implementations backed by a store may fetch and unmarshall them lazily
+     * so that the whole set of instances is never held in memory. The stream must be closed once consumed.
+     */
+    default Stream<ProcessInstance<T>> stream(ProcessInstanceReadMode mode) {
+        return values(mode).stream();
+    }
+
+    /**
+     * Returns the variables of the process instance, stores may read them without unmarshalling the rest of
+     * the process instance state. The returned model must be treated as read only.
+     */
+    default Optional<T> findVariablesById(String id) {
+        return findById(id, ProcessInstanceReadMode.READ_ONLY).map(ProcessInstance::variables);
+    }
+
+    /**
+     * Returns the identifying data of the process instance, stores may read it without unmarshalling the
+     * variables nor the node instances.
+     */
+    default Optional<ProcessInstanceHeader> findHeaderById(String id) {
+        return findById(id, ProcessInstanceReadMode.READ_ONLY).map(ProcessInstanceHeader::of);
+    }
+
+    /**
+     * Streams the variables of the process instances, see {@link #findVariablesById(String)}. The stream must be
+     * closed once consumed.
+     */
+    default Stream<T> streamVariables() {
+        return stream(ProcessInstanceReadMode.READ_ONLY).map(ProcessInstance::variables);
+    }
+
+    /**
+     * Returns the process instances matching the query, ordered by id and paged as described by
+     * {@link ProcessInstanceQuery}. Stores keeping secondary indexes evaluate the query on them, others scan the
+     * instances.
+     */
+    default List<ProcessInstance<T>> find(ProcessInstanceQuery query, ProcessInstanceReadMode mode) {
+        try (Stream<ProcessInstance<T>> instances = stream(mode)) {
+            return query.apply(instances);
+        }
+    }
+
     Integer size();
 }
@@ -18,6 +18,10 @@ package org.kie.kogito.uow.events;
 
 public interface UnitOfWorkEventListener {
 
+    int HIGH_PRIORITY = 10;
+    int DEFAULT_PRIORITY = 100;
+    int LOW_PRIORITY = 1000;
+
     default void onBeforeStartEvent(UnitOfWorkStartEvent event) {
         //NO-OP
     }
@@ -29,4 +33,15 @@ public interface UnitOfWorkEventListener {
     default void onAfterAbortEvent(UnitOfWorkAbortEvent event) {
         //NO-OP
     }
+
+    /**
+     * Returns desired priority for the notification order of the listeners, listeners with lower values
+     * are notified first. Listeners acting on the outcome of the unit of work, such as sending messages once
+     * it has been committed, should be notified after the ones completing it.
+     * 
+     * @return priority as positive number
+     */
+    default int priority() {
+        return DEFAULT_PRIORITY;
+    }
 }
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.process;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.MapOutput;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class ProcessInstanceQueryTest {
+
+    @Test
+    void testVariableValue() {
+        Order order = new Order(new Customer("acme", 42));
+        Map<String, Object> variables = Map.of("order", order, "total", 10);
+
+        assertThat(ProcessInstanceQuery.variableValue(variables, "order.customer.name")).isEqualTo("acme");
+        assertThat(ProcessInstanceQuery.variableValue(variables, "order.customer.rank")).isEqualTo("42");
+        assertThat(ProcessInstanceQuery.variableValue(variables, "total")).isEqualTo("10");
+        assertThat(ProcessInstanceQuery.variableValue(variables, "order.missing.name")).isNull();
+        assertThat(ProcessInstanceQuery.variableValue(variables, "missing")).isNull();
+        MapOutput model = new MapOutput() {
+            @Override
+            public Map<String, Object> toMap() {
+                return Map.of("order", order);
+            }
+        };
+        assertThat(ProcessInstanceQuery.variableValue(model, "order.customer.name")).isEqualTo("acme");
+    }
+
+    @Test
+    void testIsIndexed() {
+        assertThat(ProcessInstanceQuery.builder().status(1).businessKey("key").build().isIndexed(null)).isTrue();
+        assertThat(ProcessInstanceQuery.builder().variable("order.id", "1").build().isIndexed("order.id")).isTrue();
+        assertThat(ProcessInstanceQuery.builder().variable("order.id", "1").build().isIndexed("customer.id")).isFalse();
+        assertThat(ProcessInstanceQuery.builder().variable("order.id", "1").build().isIndexed(null)).isFalse();
+
+        String tooLong = "x".repeat(ProcessInstanceQuery.MAX_INDEXED_VALUE_LENGTH + 1);
+        assertThat(ProcessInstanceQuery.builder().businessKey(tooLong).build().isIndexed(null)).isFalse();
+        assertThat(ProcessInstanceQuery.indexedValue(tooLong)).isNull();
+        assertThat(ProcessInstanceQuery.indexedValue("key")).isEqualTo("key");
+    }
+
+    @Test
+    void testPaging() {
+        ProcessInstanceQuery query = ProcessInstanceQuery.builder().build();
+        assertThat(query.offset()).isZero();
+        assertThat(query.limit()).isEqualTo(ProcessInstanceQuery.NO_LIMIT);
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> ProcessInstanceQuery.builder().offset(-1));
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> ProcessInstanceQuery.builder().limit(0));
+    }
+
+    public static class Order {
+
+        private final Customer customer;
+
+        public Order(Customer customer) {
+            this.customer = customer;
+        }
+
+        public Customer getCustomer() {
+            return customer;
+        }
+    }
+
+    public static class Customer {
+
+        private final String name;
+        private final int rank;
+
+        public Customer(String name, int rank) {
+            this.name = name;
+            this.rank = rank;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getRank() {
+            return rank;
+        }
+    }
+}
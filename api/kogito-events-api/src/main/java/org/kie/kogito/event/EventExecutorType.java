@@ -0,0 +1,55 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.event;
+
+import java.util.Locale;
+
+/**
+ * Kinds of executors handling the incoming events of a channel, selected through
+ * {@link KogitoEventStreams#EXECUTOR_TYPE_PROPERTY}
+ */
+public enum EventExecutorType {
+
+    /**
+     * Pool of at most {@link KogitoEventStreams#MAX_THREADS_PROPERTY} threads with a queue of
+     * {@link KogitoEventStreams#QUEUE_SIZE_PROPERTY} events, the default
+     */
+    BOUNDED,
+    /**
+     * Work stealing pool of {@link KogitoEventStreams#MAX_THREADS_PROPERTY} threads. Once
+     * {@link KogitoEventStreams#QUEUE_SIZE_PROPERTY} events are waiting, further events are handled by the thread
+     * receiving them.
+     */
+    WORK_STEALING,
+    /**
+     * New virtual thread for every event, for handlers blocking on I/O, with at most the sum of
+     * {@link KogitoEventStreams#MAX_THREADS_PROPERTY} and {@link KogitoEventStreams#QUEUE_SIZE_PROPERTY} events
+     * handled at once, further events being handled by the thread receiving them. Requires a JVM supporting virtual
+     * threads, otherwise the work stealing pool is used.
+     */
+    VIRTUAL;
+
+    public static EventExecutorType fromValue(String value) {
+        if (value == null || value.isBlank()) {
+            return BOUNDED;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid value " + value + " for property " + KogitoEventStreams.EXECUTOR_TYPE_PROPERTY + ", expected one of bounded, work-stealing, virtual", e);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.event;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Creates the executors for the {@link EventExecutorType} that do not depend on the platform. Bounded pools are
+ * created by each platform, since they handle overflowing events in their own way.
+ * <p>
+ * The executors created by {@link #create(EventExecutorType, int, int)} accept at most <code>numThreads</code> plus
+ * <code>queueSize</code> events not handled yet, further events are handled by the thread submitting them.
+ */
+public final class EventExecutors {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventExecutors.class);
+
+    // looked up reflectively, virtual threads are not available in the JDK version the project is compiled with
+    private static final Method NEW_VIRTUAL_THREAD_EXECUTOR = virtualThreadExecutorFactory();
+
+    private EventExecutors() {
+    }
+
+    /**
+     * @return executor for the given type, or null if the type is {@link EventExecutorType#BOUNDED}
+     */
+    public static ExecutorService create(EventExecutorType type, int numThreads, int queueSize) {
+        switch (type) {
+            case VIRTUAL:
+                return new CallerRunsExecutorService(virtual(numThreads), numThreads + queueSize);
+            case WORK_STEALING:
+                return new CallerRunsExecutorService(workStealing(numThreads), numThreads + queueSize);
+            default:
+                return null;
+        }
+    }
+
+    public static ExecutorService workStealing(int parallelism) {
+        AtomicInteger counter = new AtomicInteger(1);
+        return new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName(KogitoEventStreams.THREAD_NAME + "-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }, null, true);
+    }
+
+    /**
+     * Creates an executor starting a virtual thread for each task, falling back to a work stealing pool of
+     * <code>parallelism</code> threads when the JVM does not support virtual threads
+     */
+    public static ExecutorService virtual(int parallelism) {
+        if (NEW_VIRTUAL_THREAD_EXECUTOR != null) {
+            try {
+                return (ExecutorService) NEW_VIRTUAL_THREAD_EXECUTOR.invoke(null);
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                // virtual threads are a preview feature not enabled in this JVM
+                LOGGER.warn("Virtual threads are not enabled, using a work stealing pool to handle events", e);
+            }
+        } else {
+            LOGGER.warn("Virtual threads are not supported by this JVM, using a work stealing pool to handle events");
+        }
+        return workStealing(parallelism);
+    }
+
+    private static Method virtualThreadExecutorFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
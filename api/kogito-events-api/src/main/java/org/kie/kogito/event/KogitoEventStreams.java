@@ -22,6 +22,8 @@ public class KogitoEventStreams {
     public static final String QUEUE_SIZE_PROPERTY = "kogito.quarkus.events.threads.queueSize";
     public static final String DEFAULT_MAX_THREADS = "10";
     public static final String DEFAULT_QUEUE_SIZE = "1";
+    public static final String EXECUTOR_TYPE_PROPERTY = "kogito.quarkus.events.threads.type";
+    public static final String DEFAULT_EXECUTOR_TYPE = "bounded";
     public static final String THREAD_NAME = "kogito-event-executor";
 
     private KogitoEventStreams() {
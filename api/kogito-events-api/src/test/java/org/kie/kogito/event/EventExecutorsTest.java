@@ -0,0 +1,102 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.event;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class EventExecutorsTest {
+
+    @Test
+    void testExecutorType() {
+        assertThat(EventExecutorType.fromValue(null)).isEqualTo(EventExecutorType.BOUNDED);
+        assertThat(EventExecutorType.fromValue(KogitoEventStreams.DEFAULT_EXECUTOR_TYPE)).isEqualTo(EventExecutorType.BOUNDED);
+        assertThat(EventExecutorType.fromValue("work-stealing")).isEqualTo(EventExecutorType.WORK_STEALING);
+        assertThat(EventExecutorType.fromValue(" Virtual ")).isEqualTo(EventExecutorType.VIRTUAL);
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> EventExecutorType.fromValue("cached"));
+    }
+
+    @Test
+    void testBoundedIsCreatedByPlatform() {
+        assertThat(EventExecutors.create(EventExecutorType.BOUNDED, 10, 1)).isNull();
+    }
+
+    @Test
+    void testWorkStealing() throws InterruptedException {
+        assertThat(EventExecutors.workStealing(4)).isInstanceOfSatisfying(ForkJoinPool.class, pool -> assertThat(pool.getParallelism()).isEqualTo(4));
+        assertBlockingTasksComplete(EventExecutors.create(EventExecutorType.WORK_STEALING, 4, 1), 4);
+    }
+
+    @Test
+    void testVirtual() throws InterruptedException {
+        // falls back to work stealing pool when virtual threads are not available
+        ExecutorService executor = EventExecutors.create(EventExecutorType.VIRTUAL, 4, 1);
+        assertThat(executor).isNotNull();
+        assertBlockingTasksComplete(executor, 4);
+    }
+
+    @Test
+    void testCallerRunsOnceBoundReached() throws InterruptedException {
+        ExecutorService executor = EventExecutors.create(EventExecutorType.WORK_STEALING, 1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < 2; i++) {
+            executor.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        AtomicReference<Thread> handler = new AtomicReference<>();
+        executor.execute(() -> handler.set(Thread.currentThread()));
+        assertThat(handler).hasValue(Thread.currentThread());
+
+        release.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        assertThatExceptionOfType(RejectedExecutionException.class).isThrownBy(() -> executor.execute(() -> {
+        }));
+    }
+
+    private static void assertBlockingTasksComplete(ExecutorService executor, int tasks) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(tasks);
+        CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < tasks; i++) {
+            executor.execute(() -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        release.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+    }
+}
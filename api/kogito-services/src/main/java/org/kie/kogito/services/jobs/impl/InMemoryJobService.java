@@ -32,6 +32,7 @@ import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessInstanceOptimisticLockingException;
 import org.kie.kogito.process.Processes;
 import org.kie.kogito.services.uow.UnitOfWorkExecutor;
+import org.kie.kogito.timer.impl.TimingWheelTimerService;
 import org.kie.kogito.uow.UnitOfWorkManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,10 +40,19 @@ import org.slf4j.LoggerFactory;
 public class InMemoryJobService implements JobsService, AutoCloseable {
 
     public static final String IN_MEMORY_JOB_SERVICE_POOL_SIZE_PROPERTY = "kogito.in-memory.job-service.pool-size";
+    /**
+     * Timer keeping the scheduled jobs: <code>executor</code>, the default, for a scheduled thread pool whose queue is a
+     * heap, or <code>timing-wheel</code> for a {@link TimingWheelTimerService}, which schedules and cancels jobs in
+     * constant time when there are many of them
+     */
+    public static final String IN_MEMORY_JOB_SERVICE_TIMER_PROPERTY = "kogito.in-memory.job-service.timer";
+    public static final String TIMING_WHEEL_TIMER = "timing-wheel";
     private static final Logger LOGGER = LoggerFactory.getLogger(InMemoryJobService.class);
     protected static final String TRIGGER = "timer";
 
     protected final ScheduledThreadPoolExecutor scheduler;
+    // used instead of the scheduler when the timing wheel timer is selected
+    private final TimingWheelTimerService timingWheel;
     protected final UnitOfWorkManager unitOfWorkManager;
 
     protected ConcurrentHashMap<String, ScheduledFuture<?>> scheduledJobs = new ConcurrentHashMap<>();
@@ -53,7 +63,16 @@ public class InMemoryJobService implements JobsService, AutoCloseable {
     protected InMemoryJobService(Processes processes, UnitOfWorkManager unitOfWorkManager) {
         this.processes = processes;
         this.unitOfWorkManager = unitOfWorkManager;
-        this.scheduler = new ScheduledThreadPoolExecutor(Integer.parseInt(System.getProperty(IN_MEMORY_JOB_SERVICE_POOL_SIZE_PROPERTY, "10")));
+        int poolSize = Integer.parseInt(System.getProperty(IN_MEMORY_JOB_SERVICE_POOL_SIZE_PROPERTY, "10"));
+        if (TIMING_WHEEL_TIMER.equalsIgnoreCase(System.getProperty(IN_MEMORY_JOB_SERVICE_TIMER_PROPERTY))) {
+            this.scheduler = null;
+            this.timingWheel = new TimingWheelTimerService(poolSize);
+        } else {
+            this.scheduler = new ScheduledThreadPoolExecutor(poolSize);
+            // cancelled timers, such as the ones of completed boundary events, are dropped from the queue right away
+            this.scheduler.setRemoveOnCancelPolicy(true);
+            this.timingWheel = null;
+        }
     }
 
     public static InMemoryJobService get(final Processes processes, final UnitOfWorkManager unitOfWorkManager) {
@@ -67,9 +86,9 @@ public class InMemoryJobService implements JobsService, AutoCloseable {
         LOGGER.debug("ScheduleProcessJob: {}", description);
         ScheduledFuture<?> future;
         if (description.expirationTime().repeatInterval() != null) {
-            future = scheduler.scheduleAtFixedRate(repeatableProcessJobByDescription(description), calculateDelay(description), description.expirationTime().repeatInterval(), TimeUnit.MILLISECONDS);
+            future = scheduleAtFixedRate(repeatableProcessJobByDescription(description), calculateDelay(description), description.expirationTime().repeatInterval());
         } else {
-            future = scheduler.schedule(processJobByDescription(description), calculateDelay(description), TimeUnit.MILLISECONDS);
+            future = schedule(processJobByDescription(description), calculateDelay(description));
         }
         scheduledJobs.put(description.id(), future);
         return description.id();
@@ -79,12 +98,11 @@ public class InMemoryJobService implements JobsService, AutoCloseable {
     public String scheduleProcessInstanceJob(ProcessInstanceJobDescription description) {
         ScheduledFuture<?> future;
         if (description.expirationTime().repeatInterval() != null) {
-            future = scheduler.scheduleAtFixedRate(
+            future = scheduleAtFixedRate(
                     getSignalProcessInstanceCommand(description, false, description.expirationTime().repeatLimit()),
-                    calculateDelay(description), description.expirationTime().repeatInterval(), TimeUnit.MILLISECONDS);
+                    calculateDelay(description), description.expirationTime().repeatInterval());
         } else {
-            future = scheduler.schedule(getSignalProcessInstanceCommand(description, true, 1), calculateDelay(description),
-                    TimeUnit.MILLISECONDS);
+            future = schedule(getSignalProcessInstanceCommand(description, true, 1), calculateDelay(description));
         }
         scheduledJobs.put(description.id(), future);
         return description.id();
@@ -108,6 +126,20 @@ public class InMemoryJobService implements JobsService, AutoCloseable {
         return false;
     }
 
+    private ScheduledFuture<?> schedule(Runnable command, long delay) {
+        if (timingWheel != null) {
+            return TimerServiceScheduledJob.schedule(timingWheel, command, delay);
+        }
+        return scheduler.schedule(command, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long delay, long period) {
+        if (timingWheel != null) {
+            return TimerServiceScheduledJob.scheduleAtFixedRate(timingWheel, command, delay, period);
+        }
+        return scheduler.scheduleAtFixedRate(command, delay, period, TimeUnit.MILLISECONDS);
+    }
+
     protected long calculateDelay(JobDescription description) {
         long delay = Duration.between(ZonedDateTime.now(), description.expirationTime().get()).toMillis();
         if (delay <= 0) {
@@ -208,6 +240,10 @@ public class InMemoryJobService implements JobsService, AutoCloseable {
     @Override
     public void close() throws Exception {
         scheduledJobs.clear();
-        scheduler.shutdown();
+        if (timingWheel != null) {
+            timingWheel.shutdown();
+        } else {
+            scheduler.shutdown();
+        }
     }
 }
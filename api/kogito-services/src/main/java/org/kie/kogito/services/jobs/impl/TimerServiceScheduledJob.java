@@ -0,0 +1,136 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.services.jobs.impl;
+
+import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.kie.kogito.timer.Job;
+import org.kie.kogito.timer.JobContext;
+import org.kie.kogito.timer.JobHandle;
+import org.kie.kogito.timer.Trigger;
+import org.kie.kogito.timer.impl.IntervalTrigger;
+import org.kie.kogito.timer.impl.PointInTimeTrigger;
+import org.kie.kogito.timer.impl.TimingWheelTimerService;
+
+/**
+ * Command scheduled in a {@link TimingWheelTimerService}, exposed as the {@link ScheduledFuture} the in-memory job service
+ * keeps for each job.
+ */
+class TimerServiceScheduledJob implements ScheduledFuture<Void>, Job<TimerServiceScheduledJob>, JobContext {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient TimingWheelTimerService timerService;
+    private final transient Runnable command;
+    private final boolean periodic;
+    private final transient CompletableFuture<Void> completion = new CompletableFuture<>();
+    private transient Trigger trigger;
+    private transient JobHandle jobHandle;
+
+    private TimerServiceScheduledJob(TimingWheelTimerService timerService, Runnable command, boolean periodic) {
+        this.timerService = timerService;
+        this.command = command;
+        this.periodic = periodic;
+    }
+
+    static TimerServiceScheduledJob schedule(TimingWheelTimerService timerService, Runnable command, long delay) {
+        TimerServiceScheduledJob job = new TimerServiceScheduledJob(timerService, command, false);
+        job.schedule(new PointInTimeTrigger(timerService.getCurrentTime() + delay, null, null));
+        return job;
+    }
+
+    static TimerServiceScheduledJob scheduleAtFixedRate(TimingWheelTimerService timerService, Runnable command, long delay, long period) {
+        TimerServiceScheduledJob job = new TimerServiceScheduledJob(timerService, command, true);
+        job.schedule(new IntervalTrigger(timerService.getCurrentTime(), null, null, -1, delay, period, null, null));
+        return job;
+    }
+
+    private void schedule(Trigger trigger) {
+        this.trigger = trigger;
+        timerService.scheduleJob(this, this, trigger);
+    }
+
+    @Override
+    public void execute(TimerServiceScheduledJob ctx) {
+        try {
+            command.run();
+        } catch (RuntimeException e) {
+            // as with a scheduled executor, a failing periodic job is not executed again
+            jobHandle.setCancel(true);
+            completion.completeExceptionally(e);
+            throw e;
+        }
+        if (!periodic) {
+            completion.complete(null);
+        }
+    }
+
+    @Override
+    public void setJobHandle(JobHandle jobHandle) {
+        this.jobHandle = jobHandle;
+    }
+
+    @Override
+    public JobHandle getJobHandle() {
+        return jobHandle;
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        if (completion.isDone()) {
+            return false;
+        }
+        timerService.removeJob(jobHandle);
+        return completion.cancel(mayInterruptIfRunning);
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return completion.isCancelled();
+    }
+
+    @Override
+    public boolean isDone() {
+        return completion.isDone();
+    }
+
+    @Override
+    public Void get() throws InterruptedException, ExecutionException {
+        return completion.get();
+    }
+
+    @Override
+    public Void get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        return completion.get(timeout, unit);
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+        Date nextFireTime = trigger.hasNextFireTime();
+        return nextFireTime == null ? 0 : unit.convert(nextFireTime.getTime() - timerService.getCurrentTime(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+        return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
+    }
+}
@@ -53,7 +53,7 @@ public class TriggerJobCommand {
         });
     }
 
-    private class JobSignal implements Signal<Object> {
+    static class JobSignal implements Signal<Object> {
         private String signal;
         private Object payload;
 
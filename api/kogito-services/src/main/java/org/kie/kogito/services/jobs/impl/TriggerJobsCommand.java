@@ -0,0 +1,164 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.services.jobs.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+
+import org.kie.kogito.jobs.ExpiredJob;
+import org.kie.kogito.jobs.JobId;
+import org.kie.kogito.jobs.JobIdResolver;
+import org.kie.kogito.process.Process;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.Processes;
+import org.kie.kogito.services.uow.UnitOfWorkExecutor;
+import org.kie.kogito.uow.UnitOfWorkManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bulk counterpart of {@link TriggerJobCommand}: triggers many expired jobs at once.
+ * <p>
+ * Jobs are grouped by process instance, so that each process instance is loaded, signaled for all its expired jobs
+ * and saved only once, within its own unit of work. Groups are processed concurrently, by at most
+ * <code>maxParallelism</code> threads, the calling one included.
+ */
+public class TriggerJobsCommand {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TriggerJobsCommand.class);
+
+    public static final int DEFAULT_MAX_PARALLELISM = 4;
+
+    public enum Status {
+        TRIGGERED,
+        NOT_FOUND,
+        FAILED
+    }
+
+    private final List<ExpiredJob> jobs;
+    private final Processes processes;
+    private final UnitOfWorkManager uom;
+    private final Executor executor;
+    private final int maxParallelism;
+
+    public TriggerJobsCommand(Collection<ExpiredJob> jobs, Processes processes, UnitOfWorkManager uom, Executor executor, int maxParallelism) {
+        if (maxParallelism < 1) {
+            throw new IllegalArgumentException("Maximum parallelism must be positive, was " + maxParallelism);
+        }
+        this.jobs = new ArrayList<>(jobs);
+        this.processes = processes;
+        this.uom = uom;
+        this.executor = executor;
+        this.maxParallelism = maxParallelism;
+    }
+
+    /**
+     * @return the outcome of each job, in the order the jobs were given
+     */
+    public List<Result> execute() {
+        Result[] results = new Result[jobs.size()];
+        Map<List<String>, List<Integer>> indexesByInstance = new LinkedHashMap<>();
+        for (int i = 0; i < jobs.size(); i++) {
+            ExpiredJob job = jobs.get(i);
+            indexesByInstance.computeIfAbsent(Arrays.asList(job.getProcessId(), job.getProcessInstanceId()), k -> new ArrayList<>()).add(i);
+        }
+
+        Queue<List<Integer>> groups = new ConcurrentLinkedQueue<>(indexesByInstance.values());
+        int workers = executor == null ? 1 : Math.min(maxParallelism, groups.size());
+        List<CompletableFuture<Void>> futures = new ArrayList<>(workers);
+        for (int i = 1; i < workers; i++) {
+            futures.add(CompletableFuture.runAsync(() -> drain(groups, results), executor));
+        }
+        drain(groups, results);
+        futures.forEach(CompletableFuture::join);
+        return Arrays.asList(results);
+    }
+
+    private void drain(Queue<List<Integer>> groups, Result[] results) {
+        List<Integer> group;
+        while ((group = groups.poll()) != null) {
+            trigger(group, results);
+        }
+    }
+
+    private void trigger(List<Integer> group, Result[] results) {
+        ExpiredJob first = jobs.get(group.get(0));
+        Process<?> process = first.getProcessId() == null ? null : processes.processById(first.getProcessId());
+        if (process == null || first.getProcessInstanceId() == null) {
+            group.forEach(i -> results[i] = new Result(jobs.get(i), Status.NOT_FOUND));
+            return;
+        }
+        try {
+            Status[] statuses = UnitOfWorkExecutor.executeInUnitOfWork(uom, () -> {
+                Status[] triggered = new Status[group.size()];
+                Optional<? extends ProcessInstance<?>> processInstanceFound = process.instances().findById(first.getProcessInstanceId());
+                for (int i = 0; i < group.size(); i++) {
+                    triggered[i] = processInstanceFound.isPresent() ? trigger(processInstanceFound.get(), jobs.get(group.get(i))) : Status.NOT_FOUND;
+                }
+                return triggered;
+            });
+            for (int i = 0; i < group.size(); i++) {
+                results[group.get(i)] = new Result(jobs.get(group.get(i)), statuses[i]);
+            }
+        } catch (RuntimeException e) {
+            LOGGER.warn("Error triggering {} expired jobs of process instance {}", group.size(), first.getProcessInstanceId(), e);
+            group.forEach(i -> results[i] = new Result(jobs.get(i), Status.FAILED));
+        }
+    }
+
+    private static Status trigger(ProcessInstance<?> processInstance, ExpiredJob job) {
+        // an earlier job of the same batch might have ended the process instance
+        if (processInstance.status() == ProcessInstance.STATE_COMPLETED || processInstance.status() == ProcessInstance.STATE_ABORTED) {
+            return Status.NOT_FOUND;
+        }
+        JobId jobId = JobIdResolver.resolve(job.getTimerId());
+        processInstance.send(new TriggerJobCommand.JobSignal(jobId.signal(), jobId.payload(job.getLimit() == null ? 0 : job.getLimit())));
+        return Status.TRIGGERED;
+    }
+
+    public static class Result {
+
+        private final ExpiredJob job;
+        private final Status status;
+
+        public Result(ExpiredJob job, Status status) {
+            this.job = job;
+            this.status = status;
+        }
+
+        public ExpiredJob getJob() {
+            return job;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        @Override
+        public String toString() {
+            return "Result{job=" + job + ", status=" + status + "}";
+        }
+    }
+}
@@ -16,9 +16,8 @@
 package org.kie.kogito.services.signal;
 
 import java.util.Collections;
-import java.util.Set;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArraySet;
 
 import org.kie.api.runtime.process.ProcessInstance;
 import org.kie.kogito.signal.SignalManager;
@@ -26,19 +25,16 @@ import org.kie.kogito.signal.SignalManagerHub;
 
 public class DefaultSignalManagerHub implements SignalManagerHub {
 
-    private ConcurrentHashMap<String, Set<SignalManager>> signalManagers = new ConcurrentHashMap<>();
+    private ConcurrentHashMap<String, SubscriptionSet<SignalManager>> signalManagers = new ConcurrentHashMap<>();
 
     @Override
     public void publish(String type, Object signalData) {
-        Set<SignalManager> list = signalManagers.getOrDefault(type, Collections.emptySet());
-        for (SignalManager sm : list) {
+        for (SignalManager sm : subscribers(type)) {
             sm.signalEvent(type, signalData);
         }
 
         if (signalData instanceof ProcessInstance) {
-            list = signalManagers.getOrDefault(((ProcessInstance) signalData).getProcessId(), Collections.emptySet());
-
-            for (SignalManager sm : list) {
+            for (SignalManager sm : subscribers(((ProcessInstance) signalData).getProcessId())) {
                 sm.signalEvent(type, signalData);
             }
         }
@@ -46,15 +42,14 @@ public class DefaultSignalManagerHub implements SignalManagerHub {
 
     @Override
     public void publishTargeting(String id, String type, Object signalData) {
-        signalManagers.getOrDefault(type, Collections.emptySet())
-                .forEach(e -> e.signalEvent(id, type, signalData));
+        subscribers(type).forEach(e -> e.signalEvent(id, type, signalData));
     }
 
     @Override
     public void subscribe(String type, SignalManager signalManager) {
         this.signalManagers.compute(type, (k, v) -> {
             if (v == null) {
-                v = new CopyOnWriteArraySet<>();
+                v = new SubscriptionSet<>();
             }
             v.add(signalManager);
             return v;
@@ -65,11 +60,13 @@ public class DefaultSignalManagerHub implements SignalManagerHub {
     public void unsubscribe(String type, SignalManager signalManager) {
         this.signalManagers.computeIfPresent(type, (k, v) -> {
             v.remove(signalManager);
-            if (v.isEmpty()) {
-                signalManagers.remove(type);
-            }
-            return v;
+            return v.isEmpty() ? null : v;
         });
     }
 
+    private List<SignalManager> subscribers(String type) {
+        SubscriptionSet<SignalManager> subscribers = signalManagers.get(type);
+        return subscribers == null ? Collections.emptyList() : subscribers.snapshot();
+    }
+
 }
@@ -18,7 +18,6 @@ package org.kie.kogito.services.signal;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.kie.api.runtime.process.EventListener;
 import org.kie.api.runtime.process.ProcessInstance;
@@ -29,7 +28,7 @@ public class LightSignalManager implements SignalManager {
 
     private SignalManagerHub signalManagerHub;
     private final EventListenerResolver instanceResolver;
-    private ConcurrentHashMap<String, List<EventListener>> listeners = new ConcurrentHashMap<>();
+    private ConcurrentHashMap<String, SubscriptionSet<EventListener>> listeners = new ConcurrentHashMap<>();
 
     public LightSignalManager(EventListenerResolver instanceResolver, SignalManagerHub signalManagerHub) {
         this.instanceResolver = instanceResolver;
@@ -39,36 +38,36 @@ public class LightSignalManager implements SignalManager {
     public void addEventListener(String type, EventListener eventListener) {
         listeners.compute(type, (k, v) -> {
             if (v == null) {
-                v = new CopyOnWriteArrayList<>();
+                v = new SubscriptionSet<>();
+                // the hub is only told about the first listener of the type and the removal of the last one
+                signalManagerHub.subscribe(type, this);
             }
             v.add(eventListener);
             return v;
         });
-        signalManagerHub.subscribe(type, this);
     }
 
     public void removeEventListener(String type, EventListener eventListener) {
         listeners.computeIfPresent(type, (k, v) -> {
             v.remove(eventListener);
             if (v.isEmpty()) {
-                listeners.remove(type);
+                signalManagerHub.unsubscribe(type, this);
+                return null;
             }
             return v;
         });
-        signalManagerHub.unsubscribe(type, this);
     }
 
     public void signalEvent(String type, Object event) {
         if (!listeners.containsKey(type)) {
             if (event instanceof ProcessInstance && listeners.containsKey(((ProcessInstance) event).getProcessId())) {
-                listeners.getOrDefault(((ProcessInstance) event).getProcessId(), Collections.emptyList())
+                listeners(((ProcessInstance) event).getProcessId())
                         .forEach(e -> e.signalEvent(type, event));
                 return;
             }
             signalManagerHub.publish(type, event);
         }
-        listeners.getOrDefault(type, Collections.emptyList())
-                .forEach(e -> e.signalEvent(type, event));
+        listeners(type).forEach(e -> e.signalEvent(type, event));
     }
 
     public void signalEvent(String processInstanceId, String type, Object event) {
@@ -85,4 +84,9 @@ public class LightSignalManager implements SignalManager {
         return event instanceof ProcessInstance &&
                 listeners.containsKey(((ProcessInstance) event).getProcessId());
     }
+
+    private List<EventListener> listeners(String type) {
+        SubscriptionSet<EventListener> eventListeners = listeners.get(type);
+        return eventListeners == null ? Collections.emptyList() : eventListeners.snapshot();
+    }
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.services.signal;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Thread safe set of the subscribers of a signal type, kept in subscription order.
+ * <p>
+ * Subscribing and unsubscribing take constant time, unlike copy on write collections which copy all the subscribers
+ * on every change. Signals are delivered to a {@link #snapshot()} of the subscribers, so that subscribers added or
+ * removed while a signal is delivered do not affect its delivery. The snapshot is built on the first delivery after a
+ * change and shared by the following ones.
+ */
+public class SubscriptionSet<T> {
+
+    private final Set<T> subscribers = new LinkedHashSet<>();
+
+    private volatile List<T> snapshot = Collections.emptyList();
+
+    /**
+     * @return true if the subscriber was not already in the set
+     */
+    public synchronized boolean add(T subscriber) {
+        boolean added = subscribers.add(subscriber);
+        if (added) {
+            snapshot = null;
+        }
+        return added;
+    }
+
+    /**
+     * @return true if the subscriber was in the set
+     */
+    public synchronized boolean remove(T subscriber) {
+        boolean removed = subscribers.remove(subscriber);
+        if (removed) {
+            snapshot = null;
+        }
+        return removed;
+    }
+
+    public synchronized boolean isEmpty() {
+        return subscribers.isEmpty();
+    }
+
+    public synchronized int size() {
+        return subscribers.size();
+    }
+
+    /**
+     * Returns the subscribers at the time of the call, in subscription order.
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> snapshot() {
+        List<T> current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    current = (List<T>) Collections.unmodifiableList(Arrays.asList(subscribers.toArray()));
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+}
@@ -15,8 +15,9 @@
  */
 package org.kie.kogito.services.uow;
 
-import java.util.LinkedHashSet;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 
 import org.kie.kogito.event.EventManager;
 import org.kie.kogito.services.event.impl.BaseEventManager;
@@ -43,7 +44,8 @@ public class DefaultUnitOfWorkManager implements UnitOfWorkManager {
 
     private EventManager eventManager = new BaseEventManager();
 
-    private Set<UnitOfWorkEventListener> listeners = new LinkedHashSet<>();
+    // kept sorted by priority, listeners with the same priority are notified in registration order
+    private List<UnitOfWorkEventListener> listeners = new ArrayList<>();
 
     public DefaultUnitOfWorkManager(UnitOfWorkFactory factory) {
         super();
@@ -78,7 +80,15 @@ public class DefaultUnitOfWorkManager implements UnitOfWorkManager {
 
     protected void onEnd(UnitOfWork unit) {
         this.dissociate(unit);
-        listeners.forEach(l -> l.onAfterEndEvent(new UnitOfWorkEndEvent(unit)));
+        for (int i = 0; i < listeners.size(); i++) {
+            try {
+                listeners.get(i).onAfterEndEvent(new UnitOfWorkEndEvent(unit));
+            } catch (RuntimeException e) {
+                // unit of work could not be completed (e.g. commit failed), remaining listeners must not act on it
+                listeners.subList(i + 1, listeners.size()).forEach(l -> l.onAfterAbortEvent(new UnitOfWorkAbortEvent(unit)));
+                throw e;
+            }
+        }
     }
 
     protected void onAbort(UnitOfWork unit) {
@@ -101,6 +111,9 @@ public class DefaultUnitOfWorkManager implements UnitOfWorkManager {
 
     @Override
     public void register(UnitOfWorkEventListener listener) {
-        listeners.add(listener);
+        if (!listeners.contains(listener)) {
+            listeners.add(listener);
+            listeners.sort(Comparator.comparingInt(UnitOfWorkEventListener::priority));
+        }
     }
 }
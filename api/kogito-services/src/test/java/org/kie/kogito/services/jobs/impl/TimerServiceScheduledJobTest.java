@@ -0,0 +1,88 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.services.jobs.impl;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.timer.impl.TimingWheelTimerService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TimerServiceScheduledJobTest {
+
+    private TimingWheelTimerService timerService;
+
+    @BeforeEach
+    void setUp() {
+        timerService = new TimingWheelTimerService(2, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        timerService.shutdown();
+    }
+
+    @Test
+    void testScheduledJobCompletes() throws Exception {
+        AtomicInteger count = new AtomicInteger();
+        ScheduledFuture<?> future = TimerServiceScheduledJob.schedule(timerService, count::incrementAndGet, 20);
+
+        future.get(5, TimeUnit.SECONDS);
+        assertThat(future.isDone()).isTrue();
+        assertThat(future.isCancelled()).isFalse();
+        assertThat(future.cancel(true)).isFalse();
+        assertThat(count).hasValue(1);
+    }
+
+    @Test
+    void testCancelledJobDoesNotRun() throws InterruptedException {
+        AtomicInteger count = new AtomicInteger();
+        ScheduledFuture<?> future = TimerServiceScheduledJob.schedule(timerService, count::incrementAndGet, 50);
+
+        assertThat(future.getDelay(TimeUnit.MILLISECONDS)).isPositive();
+        assertThat(future.cancel(false)).isTrue();
+        assertThat(future.isCancelled()).isTrue();
+        Thread.sleep(100);
+        assertThat(count).hasValue(0);
+    }
+
+    @Test
+    void testJobAtFixedRateRepeatsUntilCancelled() throws InterruptedException {
+        CountDownLatch fired = new CountDownLatch(3);
+        ScheduledFuture<?> future = TimerServiceScheduledJob.scheduleAtFixedRate(timerService, fired::countDown, 10, 10);
+
+        assertThat(fired.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(future.isDone()).isFalse();
+        assertThat(future.cancel(false)).isTrue();
+    }
+
+    @Test
+    void testFailedJobCompletesExceptionally() {
+        ScheduledFuture<?> future = TimerServiceScheduledJob.scheduleAtFixedRate(timerService, () -> {
+            throw new IllegalStateException("failed");
+        }, 10, 10);
+
+        assertThatThrownBy(() -> future.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class).hasCauseInstanceOf(IllegalStateException.class);
+    }
+}
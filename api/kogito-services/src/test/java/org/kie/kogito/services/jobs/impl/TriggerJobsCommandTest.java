@@ -0,0 +1,171 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.services.jobs.impl;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.kie.kogito.jobs.ExpiredJob;
+import org.kie.kogito.process.Process;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstances;
+import org.kie.kogito.process.Processes;
+import org.kie.kogito.services.jobs.impl.TriggerJobsCommand.Result;
+import org.kie.kogito.services.jobs.impl.TriggerJobsCommand.Status;
+import org.kie.kogito.uow.UnitOfWork;
+import org.kie.kogito.uow.UnitOfWorkManager;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class TriggerJobsCommandTest {
+
+    private static final String PROCESS_ID = "PROCESS_ID";
+    private static final String TIMER_ID = "TIMER:1:8be48533-beed-4c7b-ad85-bd7b543e7925";
+
+    @Mock
+    private Processes processes;
+
+    @Mock
+    private UnitOfWorkManager unitOfWorkManager;
+
+    @Mock
+    private UnitOfWork unitOfWork;
+
+    @Mock
+    private Process<?> process;
+
+    @Mock
+    private ProcessInstances<?> instances;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        doReturn(unitOfWork).when(unitOfWorkManager).newUnitOfWork();
+        doReturn(process).when(processes).processById(PROCESS_ID);
+        doReturn(instances).when(process).instances();
+        doReturn(Optional.empty()).when(instances).findById(anyString());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void executeGroupsJobsByProcessInstance() {
+        ProcessInstance<?> first = activeProcessInstance("first");
+        ProcessInstance<?> second = activeProcessInstance("second");
+
+        List<Result> results = execute(Arrays.asList(job("first"), job("second"), job("first"), job("missing")), 1);
+
+        assertThat(results).extracting(Result::getStatus).containsExactly(Status.TRIGGERED, Status.TRIGGERED, Status.TRIGGERED, Status.NOT_FOUND);
+        assertThat(results).extracting(r -> r.getJob().getProcessInstanceId()).containsExactly("first", "second", "first", "missing");
+        verify(first, times(2)).send(any());
+        verify(second).send(any());
+        verify(instances).findById("first");
+        // one unit of work per process instance
+        verify(unitOfWorkManager, times(3)).newUnitOfWork();
+        verify(unitOfWork, times(3)).end();
+    }
+
+    @Test
+    void executeInParallel() {
+        List<ExpiredJob> jobs = IntStream.range(0, 50).mapToObj(i -> job("instance" + (i % 10))).collect(Collectors.toList());
+        List<ProcessInstance<?>> processInstances = IntStream.range(0, 10).mapToObj(i -> activeProcessInstance("instance" + i)).collect(Collectors.toList());
+
+        List<Result> results = execute(jobs, 4);
+
+        assertThat(results).hasSize(50).extracting(Result::getStatus).containsOnly(Status.TRIGGERED);
+        processInstances.forEach(pi -> verify(pi, times(5)).send(any()));
+    }
+
+    @Test
+    void executeWhenProcessNotFound() {
+        ExpiredJob job = new ExpiredJob("unknown", "first", TIMER_ID, 0);
+
+        assertThat(execute(Collections.singletonList(job), 1)).extracting(Result::getStatus).containsExactly(Status.NOT_FOUND);
+    }
+
+    @Test
+    void executeWhenProcessInstanceEndedByPreviousJob() {
+        ProcessInstance<?> processInstance = activeProcessInstance("first");
+        doReturn(ProcessInstance.STATE_ACTIVE, ProcessInstance.STATE_COMPLETED).when(processInstance).status();
+
+        List<Result> results = execute(Arrays.asList(job("first"), job("first")), 1);
+
+        assertThat(results).extracting(Result::getStatus).containsExactly(Status.TRIGGERED, Status.NOT_FOUND);
+        verify(processInstance).send(any());
+    }
+
+    @Test
+    void executeWhenSignalFails() {
+        ProcessInstance<?> failing = activeProcessInstance("failing");
+        doThrow(new IllegalStateException("failure")).when(failing).send(any());
+        activeProcessInstance("second");
+
+        List<Result> results = execute(Arrays.asList(job("failing"), job("second"), job("failing")), 2);
+
+        assertThat(results).extracting(Result::getStatus).containsExactly(Status.FAILED, Status.TRIGGERED, Status.FAILED);
+        verify(unitOfWork).abort();
+    }
+
+    @Test
+    void invalidParallelism() {
+        assertThatThrownBy(() -> new TriggerJobsCommand(Collections.emptyList(), processes, unitOfWorkManager, executor, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private List<Result> execute(List<ExpiredJob> jobs, int maxParallelism) {
+        return new TriggerJobsCommand(jobs, processes, unitOfWorkManager, executor, maxParallelism).execute();
+    }
+
+    private ProcessInstance<?> activeProcessInstance(String id) {
+        ProcessInstance<?> processInstance = mock(ProcessInstance.class);
+        doReturn(ProcessInstance.STATE_ACTIVE).when(processInstance).status();
+        doReturn(Optional.of(processInstance)).when(instances).findById(id);
+        return processInstance;
+    }
+
+    private static ExpiredJob job(String processInstanceId) {
+        return new ExpiredJob(PROCESS_ID, processInstanceId, TIMER_ID, 0);
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.services.signal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.api.runtime.process.EventListener;
+import org.kie.kogito.signal.SignalManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class LightSignalManagerTest {
+
+    private DefaultSignalManagerHub hub;
+    private LightSignalManager signalManager;
+    private LightSignalManager other;
+
+    @BeforeEach
+    public void setup() {
+        hub = new DefaultSignalManagerHub();
+        signalManager = new LightSignalManager(id -> Optional.empty(), hub);
+        other = new LightSignalManager(id -> Optional.empty(), hub);
+    }
+
+    @Test
+    public void testListenersSignalledInSubscriptionOrder() {
+        List<String> signalled = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            signalManager.addEventListener("signal", new RecordingListener(signalled, "listener" + i));
+        }
+
+        signalManager.signalEvent("signal", "data");
+        assertThat(signalled).containsExactly("listener0", "listener1", "listener2", "listener3", "listener4");
+    }
+
+    @Test
+    public void testListenerRemovingItselfWhileSignalled() {
+        List<String> signalled = new ArrayList<>();
+        EventListener first = new RecordingListener(signalled, "first") {
+            @Override
+            public void signalEvent(String type, Object event) {
+                super.signalEvent(type, event);
+                signalManager.removeEventListener(type, this);
+                signalManager.addEventListener(type, new RecordingListener(signalled, "added"));
+            }
+        };
+        signalManager.addEventListener("signal", first);
+        signalManager.addEventListener("signal", new RecordingListener(signalled, "second"));
+
+        // listeners changed while a signal is delivered only apply to the following signals
+        signalManager.signalEvent("signal", "data");
+        assertThat(signalled).containsExactly("first", "second");
+
+        signalled.clear();
+        signalManager.signalEvent("signal", "data");
+        assertThat(signalled).containsExactly("second", "added");
+    }
+
+    @Test
+    public void testSignalPublishedToOtherManagers() {
+        EventListener listener = mock(EventListener.class);
+        other.addEventListener("signal", listener);
+
+        signalManager.signalEvent("signal", "data");
+        verify(listener).signalEvent("signal", "data");
+
+        other.removeEventListener("signal", listener);
+        assertThat(signalManager.accept("signal", "data")).isFalse();
+        signalManager.signalEvent("signal", "more data");
+        verify(listener, never()).signalEvent("signal", "more data");
+    }
+
+    @Test
+    public void testStaysSubscribedWhileListenersRemain() {
+        EventListener first = mock(EventListener.class);
+        EventListener second = mock(EventListener.class);
+        other.addEventListener("signal", first);
+        other.addEventListener("signal", second);
+
+        other.removeEventListener("signal", first);
+        signalManager.signalEvent("signal", "data");
+
+        verify(first, never()).signalEvent(anyString(), any());
+        verify(second).signalEvent("signal", "data");
+    }
+
+    @Test
+    public void testHubUnsubscribe() {
+        SignalManager subscriber = mock(SignalManager.class);
+        hub.subscribe("signal", subscriber);
+        hub.subscribe("signal", subscriber);
+        hub.publish("signal", "data");
+        verify(subscriber).signalEvent("signal", "data");
+
+        hub.unsubscribe("signal", subscriber);
+        hub.publish("signal", "more data");
+        verify(subscriber, never()).signalEvent("signal", "more data");
+    }
+
+    @Test
+    public void testManySubscribers() {
+        List<String> signalled = new ArrayList<>();
+        List<EventListener> listeners = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            EventListener listener = new RecordingListener(signalled, "listener" + i);
+            listeners.add(listener);
+            signalManager.addEventListener("signal", listener);
+        }
+        for (int i = 0; i < listeners.size() - 1; i++) {
+            signalManager.removeEventListener("signal", listeners.get(i));
+        }
+
+        other.signalEvent("signal", "data");
+        assertThat(signalled).containsExactly("listener99999");
+
+        signalManager.removeEventListener("signal", listeners.get(listeners.size() - 1));
+        assertThat(other.accept("signal", "data")).isFalse();
+        assertThat(signalManager.accept("signal", "data")).isFalse();
+    }
+
+    private static class RecordingListener implements EventListener {
+
+        private final List<String> signalled;
+        private final String name;
+
+        RecordingListener(List<String> signalled, String name) {
+            this.signalled = signalled;
+            this.name = name;
+        }
+
+        @Override
+        public void signalEvent(String type, Object event) {
+            signalled.add(name);
+        }
+
+        @Override
+        public String[] getEventTypes() {
+            return new String[0];
+        }
+    }
+}
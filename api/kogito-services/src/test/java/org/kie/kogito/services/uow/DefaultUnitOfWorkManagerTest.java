@@ -15,6 +15,8 @@
  */
 package org.kie.kogito.services.uow;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -22,7 +24,10 @@ import org.junit.jupiter.api.Test;
 import org.kie.kogito.uow.UnitOfWork;
 import org.kie.kogito.uow.UnitOfWorkManager;
 import org.kie.kogito.uow.WorkUnit;
+import org.kie.kogito.uow.events.UnitOfWorkAbortEvent;
+import org.kie.kogito.uow.events.UnitOfWorkEndEvent;
 import org.kie.kogito.uow.events.UnitOfWorkEventListener;
+import org.kie.kogito.uow.events.UnitOfWorkStartEvent;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -146,4 +151,68 @@ public class DefaultUnitOfWorkManagerTest {
         assertThat(counter.get()).isEqualTo(1);
         assertThat(picounter.get()).isEqualTo(0);
     }
+
+    @Test
+    public void testListenersNotifiedByPriority() {
+        List<String> notified = new ArrayList<>();
+        unitOfWorkManager.register(new RecordingListener("low", UnitOfWorkEventListener.LOW_PRIORITY, notified, false));
+        unitOfWorkManager.register(new RecordingListener("default", UnitOfWorkEventListener.DEFAULT_PRIORITY, notified, false));
+
+        UnitOfWork unit = unitOfWorkManager.newUnitOfWork();
+        unit.start();
+        unit.end();
+
+        assertThat(notified).containsExactly("start:default", "start:low", "end:default", "end:low");
+    }
+
+    @Test
+    public void testListenersAbortedWhenEndListenerFails() {
+        List<String> notified = new ArrayList<>();
+        unitOfWorkManager.register(new RecordingListener("low", UnitOfWorkEventListener.LOW_PRIORITY, notified, false));
+        unitOfWorkManager.register(new RecordingListener("commit", UnitOfWorkEventListener.DEFAULT_PRIORITY, notified, true));
+
+        UnitOfWork unit = unitOfWorkManager.newUnitOfWork();
+        unit.start();
+        assertThrows(IllegalStateException.class, () -> unit.end());
+
+        assertThat(notified).containsExactly("start:commit", "start:low", "end:commit", "abort:low");
+    }
+
+    private static class RecordingListener implements UnitOfWorkEventListener {
+
+        private final String name;
+        private final int priority;
+        private final List<String> notified;
+        private final boolean failOnEnd;
+
+        private RecordingListener(String name, int priority, List<String> notified, boolean failOnEnd) {
+            this.name = name;
+            this.priority = priority;
+            this.notified = notified;
+            this.failOnEnd = failOnEnd;
+        }
+
+        @Override
+        public void onBeforeStartEvent(UnitOfWorkStartEvent event) {
+            notified.add("start:" + name);
+        }
+
+        @Override
+        public void onAfterEndEvent(UnitOfWorkEndEvent event) {
+            notified.add("end:" + name);
+            if (failOnEnd) {
+                throw new IllegalStateException("commit failed");
+            }
+        }
+
+        @Override
+        public void onAfterAbortEvent(UnitOfWorkAbortEvent event) {
+            notified.add("abort:" + name);
+        }
+
+        @Override
+        public int priority() {
+            return priority;
+        }
+    }
 }
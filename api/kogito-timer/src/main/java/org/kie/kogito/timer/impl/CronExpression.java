@@ -17,13 +17,15 @@ package org.kie.kogito.timer.impl;
 
 import java.io.Serializable;
 import java.text.ParseException;
+import java.util.BitSet;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.Map;
-import java.util.SortedSet;
 import java.util.StringTokenizer;
 import java.util.TimeZone;
 import java.util.TreeSet;
@@ -245,6 +247,32 @@ public class CronExpression implements Serializable, Cloneable {
     protected transient boolean nearestWeekday = false;
     protected transient boolean expressionParsed = false;
 
+    // the field sets as bitsets, so that the next matching value is found without walking the sets
+    private transient BitSet secondBits;
+    private transient BitSet minuteBits;
+    private transient BitSet hourBits;
+    private transient BitSet dayOfMonthBits;
+    private transient BitSet monthBits;
+    private transient BitSet dayOfWeekBits;
+    private transient BitSet yearBits;
+    private transient boolean dayOfMonthSpec;
+    private transient boolean dayOfWeekSpec;
+
+    private static final int PARSED_EXPRESSIONS_CACHE_SIZE = 1000;
+
+    /**
+     * Recently parsed expressions, whose field sets are shared by the expressions created with the same string. The
+     * field sets are not modified once parsed and do not depend on the time zone, which is only applied when computing
+     * fire times.
+     */
+    private static final Map<String, CronExpression> PARSED_EXPRESSIONS = Collections.synchronizedMap(
+            new LinkedHashMap<String, CronExpression>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CronExpression> eldest) {
+                    return size() > PARSED_EXPRESSIONS_CACHE_SIZE;
+                }
+            });
+
     /**
      * Constructs a new <CODE>CronExpression</CODE> based on the specified
      * parameter.
@@ -262,7 +290,18 @@ public class CronExpression implements Serializable, Cloneable {
 
         this.cronExpression = cronExpression.toUpperCase(Locale.US);
 
-        buildExpression(this.cronExpression);
+        if (getClass() != CronExpression.class) {
+            // subclasses may parse differently
+            buildExpression(this.cronExpression);
+            return;
+        }
+        CronExpression parsed = PARSED_EXPRESSIONS.get(this.cronExpression);
+        if (parsed != null) {
+            copyExpression(parsed);
+        } else {
+            buildExpression(this.cronExpression);
+            PARSED_EXPRESSIONS.put(this.cronExpression, this);
+        }
     }
 
     /**
@@ -463,6 +502,16 @@ public class CronExpression implements Serializable, Cloneable {
                 throw new ParseException(
                         "Support for specifying both or none of day-of-week AND a day-of-month parameters is not implemented.", 0);
             }
+
+            secondBits = toBits(seconds);
+            minuteBits = toBits(minutes);
+            hourBits = toBits(hours);
+            dayOfMonthBits = toBits(daysOfMonth);
+            monthBits = toBits(months);
+            dayOfWeekBits = toBits(daysOfWeek);
+            yearBits = toBits(years);
+            dayOfMonthSpec = dayOfMSpec;
+            dayOfWeekSpec = dayOfWSpec;
         } catch (ParseException pe) {
             throw pe;
         } catch (Exception e) {
@@ -471,6 +520,38 @@ public class CronExpression implements Serializable, Cloneable {
         }
     }
 
+    private static BitSet toBits(TreeSet set) {
+        BitSet bits = new BitSet();
+        for (Object value : set) {
+            bits.set((Integer) value);
+        }
+        return bits;
+    }
+
+    private void copyExpression(CronExpression parsed) {
+        seconds = parsed.seconds;
+        minutes = parsed.minutes;
+        hours = parsed.hours;
+        daysOfMonth = parsed.daysOfMonth;
+        months = parsed.months;
+        daysOfWeek = parsed.daysOfWeek;
+        years = parsed.years;
+        lastdayOfWeek = parsed.lastdayOfWeek;
+        nthdayOfWeek = parsed.nthdayOfWeek;
+        lastdayOfMonth = parsed.lastdayOfMonth;
+        nearestWeekday = parsed.nearestWeekday;
+        expressionParsed = parsed.expressionParsed;
+        secondBits = parsed.secondBits;
+        minuteBits = parsed.minuteBits;
+        hourBits = parsed.hourBits;
+        dayOfMonthBits = parsed.dayOfMonthBits;
+        monthBits = parsed.monthBits;
+        dayOfWeekBits = parsed.dayOfWeekBits;
+        yearBits = parsed.yearBits;
+        dayOfMonthSpec = parsed.dayOfMonthSpec;
+        dayOfWeekSpec = parsed.dayOfWeekSpec;
+    }
+
     protected int storeExpressionVals(int pos, String s, int type)
             throws ParseException {
 
@@ -1132,18 +1213,18 @@ public class CronExpression implements Serializable, Cloneable {
                 return null;
             }
 
-            SortedSet st = null;
+            int next;
             int t = 0;
 
             int sec = cl.get(Calendar.SECOND);
             int min = cl.get(Calendar.MINUTE);
 
             // get second.................................................
-            st = seconds.tailSet(sec);
-            if (st.size() != 0) {
-                sec = (Integer) st.first();
+            next = secondBits.nextSetBit(sec);
+            if (next != -1) {
+                sec = next;
             } else {
-                sec = (Integer) seconds.first();
+                sec = secondBits.nextSetBit(0);
                 min++;
                 cl.set(Calendar.MINUTE, min);
             }
@@ -1154,12 +1235,12 @@ public class CronExpression implements Serializable, Cloneable {
             t = -1;
 
             // get minute.................................................
-            st = minutes.tailSet(min);
-            if (st.size() != 0) {
+            next = minuteBits.nextSetBit(min);
+            if (next != -1) {
                 t = min;
-                min = (Integer) st.first();
+                min = next;
             } else {
-                min = (Integer) minutes.first();
+                min = minuteBits.nextSetBit(0);
                 hr++;
             }
             if (min != t) {
@@ -1175,12 +1256,12 @@ public class CronExpression implements Serializable, Cloneable {
             t = -1;
 
             // get hour...................................................
-            st = hours.tailSet(hr);
-            if (st.size() != 0) {
+            next = hourBits.nextSetBit(hr);
+            if (next != -1) {
                 t = hr;
-                hr = (Integer) st.first();
+                hr = next;
             } else {
-                hr = (Integer) hours.first();
+                hr = hourBits.nextSetBit(0);
                 day++;
             }
             if (hr != t) {
@@ -1200,10 +1281,8 @@ public class CronExpression implements Serializable, Cloneable {
             int tmon = mon;
 
             // get day...................................................
-            boolean dayOfMSpec = !daysOfMonth.contains(NO_SPEC);
-            boolean dayOfWSpec = !daysOfWeek.contains(NO_SPEC);
-            if (dayOfMSpec && !dayOfWSpec) { // get day by day of month rule
-                st = daysOfMonth.tailSet(day);
+            if (dayOfMonthSpec && !dayOfWeekSpec) { // get day by day of month rule
+                next = dayOfMonthBits.nextSetBit(day);
                 if (lastdayOfMonth) {
                     if (!nearestWeekday) {
                         t = day;
@@ -1246,7 +1325,7 @@ public class CronExpression implements Serializable, Cloneable {
                     }
                 } else if (nearestWeekday) {
                     t = day;
-                    day = (Integer) daysOfMonth.first();
+                    day = dayOfMonthBits.nextSetBit(0);
 
                     Calendar tcal = Calendar.getInstance(getTimeZone());
                     tcal.set(Calendar.SECOND, 0);
@@ -1276,20 +1355,20 @@ public class CronExpression implements Serializable, Cloneable {
                     tcal.set(Calendar.MONTH, mon - 1);
                     Date nTime = tcal.getTime();
                     if (nTime.before(afterTime)) {
-                        day = (Integer) daysOfMonth.first();
+                        day = dayOfMonthBits.nextSetBit(0);
                         mon++;
                     }
-                } else if (st.size() != 0) {
+                } else if (next != -1) {
                     t = day;
-                    day = (Integer) st.first();
+                    day = next;
                     // make sure we don't over-run a short month, such as february
                     int lastDay = getLastDayOfMonth(mon, cl.get(Calendar.YEAR));
                     if (day > lastDay) {
-                        day = (Integer) daysOfMonth.first();
+                        day = dayOfMonthBits.nextSetBit(0);
                         mon++;
                     }
                 } else {
-                    day = (Integer) daysOfMonth.first();
+                    day = dayOfMonthBits.nextSetBit(0);
                     mon++;
                 }
 
@@ -1303,10 +1382,10 @@ public class CronExpression implements Serializable, Cloneable {
                     // are 1-based
                     continue;
                 }
-            } else if (dayOfWSpec && !dayOfMSpec) { // get day by day of week rule
+            } else if (dayOfWeekSpec && !dayOfMonthSpec) { // get day by day of week rule
                 if (lastdayOfWeek) { // are we looking for the last XXX day of
                     // the month?
-                    int dow = (Integer) daysOfWeek.first(); // desired
+                    int dow = dayOfWeekBits.nextSetBit(0); // desired
                     // d-o-w
                     int cDow = cl.get(Calendar.DAY_OF_WEEK); // current d-o-w
                     int daysToAdd = 0;
@@ -1349,7 +1428,7 @@ public class CronExpression implements Serializable, Cloneable {
 
                 } else if (nthdayOfWeek != 0) {
                     // are we looking for the Nth XXX day in the month?
-                    int dow = (Integer) daysOfWeek.first(); // desired
+                    int dow = dayOfWeekBits.nextSetBit(0); // desired
                     // d-o-w
                     int cDow = cl.get(Calendar.DAY_OF_WEEK); // current d-o-w
                     int daysToAdd = 0;
@@ -1393,11 +1472,11 @@ public class CronExpression implements Serializable, Cloneable {
                     }
                 } else {
                     int cDow = cl.get(Calendar.DAY_OF_WEEK); // current d-o-w
-                    int dow = (Integer) daysOfWeek.first(); // desired
+                    int dow = dayOfWeekBits.nextSetBit(0); // desired
                     // d-o-w
-                    st = daysOfWeek.tailSet(cDow);
-                    if (st != null && st.size() > 0) {
-                        dow = (Integer) st.first();
+                    next = dayOfWeekBits.nextSetBit(cDow);
+                    if (next != -1) {
+                        dow = next;
                     }
 
                     int daysToAdd = 0;
@@ -1450,12 +1529,12 @@ public class CronExpression implements Serializable, Cloneable {
             }
 
             // get month...................................................
-            st = months.tailSet(mon);
-            if (st.size() != 0) {
+            next = monthBits.nextSetBit(mon);
+            if (next != -1) {
                 t = mon;
-                mon = (Integer) st.first();
+                mon = next;
             } else {
-                mon = (Integer) months.first();
+                mon = monthBits.nextSetBit(0);
                 year++;
             }
             if (mon != t) {
@@ -1477,10 +1556,10 @@ public class CronExpression implements Serializable, Cloneable {
             t = -1;
 
             // get year...................................................
-            st = years.tailSet(year);
-            if (st.size() != 0) {
+            next = yearBits.nextSetBit(year);
+            if (next != -1) {
                 t = year;
-                year = (Integer) st.first();
+                year = next;
             } else {
                 return null; // ran out of years...
             }
@@ -0,0 +1,476 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.timer.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.kie.kogito.timer.InternalSchedulerService;
+import org.kie.kogito.timer.Job;
+import org.kie.kogito.timer.JobContext;
+import org.kie.kogito.timer.JobHandle;
+import org.kie.kogito.timer.SessionClock;
+import org.kie.kogito.timer.TimerService;
+import org.kie.kogito.timer.Trigger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A Scheduler implementation that keeps the jobs in a hashed hierarchical timing wheel and uses the system clock as
+ * the clock.
+ * <p>
+ * Time is divided in ticks of <code>tickMillis</code> milliseconds. The wheel has {@value #LEVELS} levels of
+ * {@value #SLOTS} slots, the slots of each level spanning {@value #SLOTS} times the ticks of the level below, and
+ * each slot keeps its jobs in a doubly linked list. Scheduling and removing a job take constant time, unlike
+ * {@link JDKTimerService} whose queue is a heap where removed jobs stay until their fire time.
+ * <p>
+ * A single thread advances the wheel: when a slot of an upper level is reached its jobs are moved to the lower
+ * levels, and all the jobs of the reached slot of the first level are handed together to a pool of <code>size</code>
+ * threads that executes them. The thread sleeps until the next slot holding jobs and then jumps straight to it, so
+ * sparse timers do not wake it up on every tick. Jobs fire at most one tick after their fire time, never before.
+ */
+public class TimingWheelTimerService
+        implements
+        TimerService,
+        SessionClock,
+        InternalSchedulerService {
+
+    public static final long DEFAULT_TICK_MILLIS = 10;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TimingWheelTimerService.class);
+
+    private static final int SLOT_BITS = 8;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    // jobs farther away are kept in the last slot of the upper level reached and placed again once it is reached
+    private static final long MAX_TICKS = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    private static final AtomicInteger SERVICE_COUNT = new AtomicInteger();
+
+    private final int size;
+    private final long tickMillis;
+    private final long startTime;
+
+    private final AtomicLong idCounter = new AtomicLong(0L);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition scheduled = lock.newCondition();
+    private final Slot[][] wheel = new Slot[LEVELS][SLOTS];
+    private long currentTick;
+    // tick the ticker sleeps until, a job scheduled before it has to wake it up
+    private long wakeUpTick = Long.MAX_VALUE;
+    private int pending;
+    private boolean running = true;
+
+    private final ExecutorService executor;
+    private final Thread ticker;
+
+    protected TimerJobFactoryManager jobFactoryManager = DefaultTimerJobFactoryManager.instance;
+
+    public TimingWheelTimerService() {
+        this(1);
+    }
+
+    public TimingWheelTimerService(int size) {
+        this(size, DEFAULT_TICK_MILLIS);
+    }
+
+    public TimingWheelTimerService(int size, long tickMillis) {
+        if (size < 1 || tickMillis < 1) {
+            throw new IllegalArgumentException("Timer service size and tick must be positive");
+        }
+        this.size = size;
+        this.tickMillis = tickMillis;
+        this.startTime = System.currentTimeMillis();
+        for (Slot[] level : wheel) {
+            for (int i = 0; i < SLOTS; i++) {
+                level[i] = new Slot();
+            }
+        }
+        int serviceId = SERVICE_COUNT.incrementAndGet();
+        this.executor = Executors.newFixedThreadPool(size, new TimerThreadFactory("kogito-timer-" + serviceId + "-"));
+        this.ticker = new Thread(this::tick, "kogito-timer-wheel-" + serviceId);
+        this.ticker.setDaemon(true);
+        this.ticker.start();
+    }
+
+    public void setTimerJobFactoryManager(TimerJobFactoryManager timerJobFactoryManager) {
+        this.jobFactoryManager = timerJobFactoryManager;
+    }
+
+    public TimerJobFactoryManager getTimerJobFactoryManager() {
+        return this.jobFactoryManager;
+    }
+
+    /**
+     * @inheritDoc
+     */
+    public long getCurrentTime() {
+        return System.currentTimeMillis();
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void reset() {
+        if (idCounter.get() != 0L) {
+            lock.lock();
+            try {
+                for (Slot[] level : wheel) {
+                    for (Slot slot : level) {
+                        slot.clear();
+                    }
+                }
+                pending = 0;
+            } finally {
+                lock.unlock();
+            }
+            this.idCounter.set(0L);
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        lock.lock();
+        try {
+            running = false;
+            scheduled.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        this.executor.shutdownNow();
+    }
+
+    public JobHandle scheduleJob(Job job,
+            JobContext ctx,
+            Trigger trigger) {
+        Date date = trigger.hasNextFireTime();
+        if (date != null) {
+            WheelJobHandle jobHandle = new WheelJobHandle(idCounter.getAndIncrement());
+
+            TimerJobInstance jobInstance = jobFactoryManager.createTimerJobInstance(job,
+                    ctx,
+                    trigger,
+                    jobHandle,
+                    this);
+            jobHandle.setTimerJobInstance(jobInstance);
+            internalSchedule(jobInstance);
+
+            return jobHandle;
+        } else {
+            return null;
+        }
+    }
+
+    public void internalSchedule(TimerJobInstance timerJobInstance) {
+        long then = timerJobInstance.getTrigger().hasNextFireTime().getTime();
+        WheelJobHandle jobHandle = (WheelJobHandle) timerJobInstance.getJobHandle();
+        Entry entry = new Entry(timerJobInstance, ticksUntil(then));
+        jobFactoryManager.addTimerJobInstance(timerJobInstance);
+
+        boolean due;
+        lock.lock();
+        try {
+            if (jobHandle.isCancel()) {
+                // removed while its previous execution was running
+                return;
+            }
+            jobHandle.entry = entry;
+            due = entry.deadlineTick <= currentTick;
+            if (!due) {
+                pending++;
+                place(entry);
+                if (entry.deadlineTick < wakeUpTick) {
+                    scheduled.signal();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (due) {
+            execute(timerJobInstance);
+        }
+    }
+
+    public boolean removeJob(JobHandle jobHandle) {
+        jobHandle.setCancel(true);
+        WheelJobHandle wheelJobHandle = (WheelJobHandle) jobHandle;
+        jobFactoryManager.removeTimerJobInstance(wheelJobHandle.getTimerJobInstance());
+        lock.lock();
+        try {
+            Entry entry = wheelJobHandle.entry;
+            if (entry == null || entry.slot == null) {
+                return false;
+            }
+            entry.unlink();
+            pending--;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public static class WheelJobHandle extends DefaultJobHandle {
+
+        private static final long serialVersionUID = 510l;
+
+        private transient Entry entry;
+
+        public WheelJobHandle(long id) {
+            super(id);
+        }
+    }
+
+    public long getTimeToNextJob() {
+        return 0;
+    }
+
+    public Collection<TimerJobInstance> getTimerJobInstances(long id) {
+        return jobFactoryManager.getTimerJobInstances();
+    }
+
+    private long ticksUntil(long time) {
+        // rounded up, so that jobs never fire early
+        return Math.max(0, (time - startTime + tickMillis - 1) / tickMillis);
+    }
+
+    private long tickAt(long time) {
+        return (time - startTime) / tickMillis;
+    }
+
+    private void place(Entry entry) {
+        long deadline = Math.min(entry.deadlineTick, currentTick + MAX_TICKS);
+        long ticks = deadline - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && ticks >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        wheel[level][(int) (deadline >>> (SLOT_BITS * level)) & SLOT_MASK].add(entry);
+    }
+
+    private void tick() {
+        List<TimerJobInstance> expired = new ArrayList<>();
+        lock.lock();
+        try {
+            while (running) {
+                long now = tickAt(System.currentTimeMillis());
+                if (pending == 0) {
+                    // nothing to fire until a job is scheduled
+                    currentTick = Math.max(currentTick, now);
+                    wakeUpTick = Long.MAX_VALUE;
+                    scheduled.await();
+                    continue;
+                }
+                long next = nextOccupiedTick();
+                while (next <= now) {
+                    // the slots in between are empty, so the wheel jumps straight to the next one holding jobs
+                    currentTick = next - 1;
+                    advance(expired);
+                    next = nextOccupiedTick();
+                }
+                if (!expired.isEmpty()) {
+                    lock.unlock();
+                    try {
+                        for (TimerJobInstance jobInstance : expired) {
+                            execute(jobInstance);
+                        }
+                    } finally {
+                        lock.lock();
+                    }
+                    expired.clear();
+                    continue;
+                }
+                wakeUpTick = next;
+                if (next == Long.MAX_VALUE) {
+                    scheduled.await();
+                } else {
+                    scheduled.await(Math.max(1, startTime + next * tickMillis - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the first tick after the current one reaching a slot that holds jobs, at any level
+     */
+    private long nextOccupiedTick() {
+        long next = Long.MAX_VALUE;
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = SLOT_BITS * level;
+            long slotTick = currentTick >>> shift;
+            for (int i = 1; i <= SLOTS; i++) {
+                if (!wheel[level][(int) (slotTick + i) & SLOT_MASK].isEmpty()) {
+                    next = Math.min(next, (slotTick + i) << shift);
+                    break;
+                }
+            }
+        }
+        return next;
+    }
+
+    private void advance(List<TimerJobInstance> expired) {
+        currentTick++;
+        // move down the jobs of the upper level slots reached, starting from the top
+        for (int level = LEVELS - 1; level > 0; level--) {
+            if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                Entry entry = wheel[level][(int) (currentTick >>> (SLOT_BITS * level)) & SLOT_MASK].removeAll();
+                while (entry != null) {
+                    Entry next = entry.next;
+                    entry.next = null;
+                    entry.previous = null;
+                    if (entry.deadlineTick <= currentTick) {
+                        pending--;
+                        expired.add(entry.jobInstance);
+                    } else {
+                        place(entry);
+                    }
+                    entry = next;
+                }
+            }
+        }
+        Entry entry = wheel[0][(int) currentTick & SLOT_MASK].removeAll();
+        while (entry != null) {
+            pending--;
+            expired.add(entry.jobInstance);
+            Entry next = entry.next;
+            entry.next = null;
+            entry.previous = null;
+            entry = next;
+        }
+    }
+
+    private void execute(TimerJobInstance jobInstance) {
+        try {
+            executor.execute(() -> {
+                try {
+                    ((Callable<?>) jobInstance).call();
+                } catch (Exception e) {
+                    // already logged by the job instance
+                    LOGGER.debug("Timer job {} failed", jobInstance.getJobHandle().getId(), e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            LOGGER.debug("Timer service shut down, job {} not executed", jobInstance.getJobHandle().getId());
+        }
+    }
+
+    private static class Entry {
+
+        private final TimerJobInstance jobInstance;
+        private final long deadlineTick;
+        private Slot slot;
+        private Entry previous;
+        private Entry next;
+
+        private Entry(TimerJobInstance jobInstance, long deadlineTick) {
+            this.jobInstance = jobInstance;
+            this.deadlineTick = deadlineTick;
+        }
+
+        private void unlink() {
+            if (previous != null) {
+                previous.next = next;
+            } else {
+                slot.head = next;
+            }
+            if (next != null) {
+                next.previous = previous;
+            }
+            previous = null;
+            next = null;
+            slot = null;
+        }
+    }
+
+    private static class Slot {
+
+        private Entry head;
+
+        private boolean isEmpty() {
+            return head == null;
+        }
+
+        private void add(Entry entry) {
+            entry.slot = this;
+            entry.next = head;
+            if (head != null) {
+                head.previous = entry;
+            }
+            head = entry;
+        }
+
+        /**
+         * Empties the slot, returning its first entry, still linked to the following ones
+         */
+        private Entry removeAll() {
+            Entry first = head;
+            for (Entry entry = first; entry != null; entry = entry.next) {
+                entry.slot = null;
+            }
+            head = null;
+            return first;
+        }
+
+        private void clear() {
+            Entry entry = removeAll();
+            while (entry != null) {
+                Entry next = entry.next;
+                entry.next = null;
+                entry.previous = null;
+                entry = next;
+            }
+        }
+    }
+
+    private static class TimerThreadFactory implements ThreadFactory {
+
+        private final String prefix;
+        private final AtomicInteger count = new AtomicInteger();
+
+        private TimerThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,517 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.timer.impl;
+
+import java.text.ParseException;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Random;
+import java.util.SortedSet;
+import java.util.TimeZone;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class CronExpressionTest {
+
+    private static final String[] TIME_ZONES = { "UTC", "Europe/Madrid", "America/New_York", "Australia/Lord_Howe", "Asia/Kolkata" };
+
+    private static final String[] SECONDS = { "0", "*", "0/15", "5/20", "10-20", "50-10", "0,30", "*/7" };
+    private static final String[] MINUTES = { "0", "*", "0/5", "15,45", "20-40/3", "55-5", "*/13" };
+    private static final String[] HOURS = { "0", "*", "2", "9-17", "22-3", "0/6", "1,13", "*/5" };
+    private static final String[] DAYS_OF_MONTH = { "*", "1", "15", "31", "1-10", "28-3", "1/7", "L", "LW", "15W", "1W", "29" };
+    private static final String[] MONTHS = { "*", "1", "FEB", "JAN-MAR", "NOV-FEB", "1/4", "2,8", "*/5" };
+    private static final String[] DAYS_OF_WEEK = { "*", "MON", "MON-FRI", "SAT,SUN", "FRI-MON", "6L", "2#1", "4#5", "1/3", "L" };
+    private static final String[] YEARS = { "", "*", "2021-2030", "2024", "2020/4" };
+
+    @Test
+    public void testMatchesPreviousImplementation() throws ParseException {
+        Random random = new Random(4242);
+        for (int i = 0; i < 2000; i++) {
+            boolean byDayOfMonth = random.nextBoolean();
+            String expression = pick(random, SECONDS) + " " + pick(random, MINUTES) + " " + pick(random, HOURS) + " " +
+                    (byDayOfMonth ? pick(random, DAYS_OF_MONTH) : "?") + " " + pick(random, MONTHS) + " " +
+                    (byDayOfMonth ? "?" : pick(random, DAYS_OF_WEEK)) + " " + pick(random, YEARS);
+            TimeZone timeZone = TimeZone.getTimeZone(pick(random, TIME_ZONES));
+
+            CronExpression cron = new CronExpression(expression);
+            cron.setTimeZone(timeZone);
+            CronExpression previous = new PreviousCronExpression(expression);
+            previous.setTimeZone(timeZone);
+
+            Date after = new Date(1577836800000L + (long) (random.nextDouble() * 12L * 365 * 24 * 3600 * 1000));
+            for (int fire = 0; fire < 10 && after != null; fire++) {
+                Date next = cron.getNextValidTimeAfter(after);
+                assertThat(next).as("%s in %s after %s", expression, timeZone.getID(), after).isEqualTo(previous.getNextValidTimeAfter(after));
+                after = next;
+            }
+        }
+    }
+
+    @Test
+    public void testDaylightSavingTransitions() throws ParseException {
+        TimeZone timeZone = TimeZone.getTimeZone("Europe/Madrid");
+        for (String expression : new String[] { "0 30 2 * * ?", "0 0/15 * * * ?", "0 0 1-3 ? * SUN" }) {
+            CronExpression cron = new CronExpression(expression);
+            cron.setTimeZone(timeZone);
+            CronExpression previous = new PreviousCronExpression(expression);
+            previous.setTimeZone(timeZone);
+
+            Calendar calendar = Calendar.getInstance(timeZone);
+            calendar.clear();
+            calendar.set(2022, Calendar.MARCH, 26);
+            Date after = calendar.getTime();
+            calendar.set(2022, Calendar.NOVEMBER, 1);
+            Date end = calendar.getTime();
+            while (after.before(end)) {
+                Date next = cron.getNextValidTimeAfter(after);
+                assertThat(next).as("%s after %s", expression, after).isEqualTo(previous.getNextValidTimeAfter(after));
+                after = next;
+            }
+        }
+    }
+
+    @Test
+    public void testParsedExpressionsShared() throws ParseException {
+        CronExpression first = new CronExpression("0 0 12 ? * WED");
+        CronExpression second = new CronExpression("0 0 12 ? * wed");
+        first.setTimeZone(TimeZone.getTimeZone("UTC"));
+        second.setTimeZone(TimeZone.getTimeZone("Asia/Kolkata"));
+
+        assertThat(second.daysOfWeek).isSameAs(first.daysOfWeek);
+        Date after = new Date(1640995200000L); // 2022-01-01T00:00:00Z, a saturday
+        assertThat(first.getNextValidTimeAfter(after)).isEqualTo(new Date(1641384000000L)); // 2022-01-05T12:00:00Z
+        assertThat(second.getNextValidTimeAfter(after)).isEqualTo(new Date(1641364200000L)); // 2022-01-05T06:30:00Z
+    }
+
+    @Test
+    public void testInvalidExpression() {
+        assertThatExceptionOfType(ParseException.class).isThrownBy(() -> new CronExpression("0 0 25 * * ?"));
+        assertThatExceptionOfType(ParseException.class).isThrownBy(() -> new CronExpression("0 0 12 * * *"));
+        assertThat(CronExpression.isValidExpression("0 0 25 * * ?")).isFalse();
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    /**
+     * Computes the fire times walking the field sets, as done before they were kept as bitsets.
+     */
+    private static class PreviousCronExpression extends CronExpression {
+
+        private static final long serialVersionUID = 1L;
+
+        PreviousCronExpression(String cronExpression) throws ParseException {
+            super(cronExpression);
+        }
+
+        @Override
+        protected Date getTimeAfter(Date afterTime) {
+
+            Calendar cl = Calendar.getInstance(getTimeZone());
+
+            // move ahead one second, since we're computing the time *after* the
+            // given time
+            afterTime = new Date(afterTime.getTime() + 1000);
+            // CronTrigger does not deal with milliseconds
+            cl.setTime(afterTime);
+            cl.set(Calendar.MILLISECOND, 0);
+
+            boolean gotOne = false;
+            // loop until we've computed the next time, or we've past the endTime
+            while (!gotOne) {
+
+                //if (endTime != null && cl.getTime().after(endTime)) return null;
+                if (cl.get(Calendar.YEAR) > 2999) { // prevent endless loop...
+                    return null;
+                }
+
+                SortedSet st = null;
+                int t = 0;
+
+                int sec = cl.get(Calendar.SECOND);
+                int min = cl.get(Calendar.MINUTE);
+
+                // get second.................................................
+                st = seconds.tailSet(sec);
+                if (st.size() != 0) {
+                    sec = (Integer) st.first();
+                } else {
+                    sec = (Integer) seconds.first();
+                    min++;
+                    cl.set(Calendar.MINUTE, min);
+                }
+                cl.set(Calendar.SECOND, sec);
+
+                min = cl.get(Calendar.MINUTE);
+                int hr = cl.get(Calendar.HOUR_OF_DAY);
+                t = -1;
+
+                // get minute.................................................
+                st = minutes.tailSet(min);
+                if (st.size() != 0) {
+                    t = min;
+                    min = (Integer) st.first();
+                } else {
+                    min = (Integer) minutes.first();
+                    hr++;
+                }
+                if (min != t) {
+                    cl.set(Calendar.SECOND, 0);
+                    cl.set(Calendar.MINUTE, min);
+                    setCalendarHour(cl, hr);
+                    continue;
+                }
+                cl.set(Calendar.MINUTE, min);
+
+                hr = cl.get(Calendar.HOUR_OF_DAY);
+                int day = cl.get(Calendar.DAY_OF_MONTH);
+                t = -1;
+
+                // get hour...................................................
+                st = hours.tailSet(hr);
+                if (st.size() != 0) {
+                    t = hr;
+                    hr = (Integer) st.first();
+                } else {
+                    hr = (Integer) hours.first();
+                    day++;
+                }
+                if (hr != t) {
+                    cl.set(Calendar.SECOND, 0);
+                    cl.set(Calendar.MINUTE, 0);
+                    cl.set(Calendar.DAY_OF_MONTH, day);
+                    setCalendarHour(cl, hr);
+                    continue;
+                }
+                cl.set(Calendar.HOUR_OF_DAY, hr);
+
+                day = cl.get(Calendar.DAY_OF_MONTH);
+                int mon = cl.get(Calendar.MONTH) + 1;
+                // '+ 1' because calendar is 0-based for this field, and we are
+                // 1-based
+                t = -1;
+                int tmon = mon;
+
+                // get day...................................................
+                boolean dayOfMSpec = !daysOfMonth.contains(NO_SPEC);
+                boolean dayOfWSpec = !daysOfWeek.contains(NO_SPEC);
+                if (dayOfMSpec && !dayOfWSpec) { // get day by day of month rule
+                    st = daysOfMonth.tailSet(day);
+                    if (lastdayOfMonth) {
+                        if (!nearestWeekday) {
+                            t = day;
+                            day = getLastDayOfMonth(mon, cl.get(Calendar.YEAR));
+                        } else {
+                            t = day;
+                            day = getLastDayOfMonth(mon, cl.get(Calendar.YEAR));
+
+                            Calendar tcal = Calendar.getInstance(getTimeZone());
+                            tcal.set(Calendar.SECOND, 0);
+                            tcal.set(Calendar.MINUTE, 0);
+                            tcal.set(Calendar.HOUR_OF_DAY, 0);
+                            tcal.set(Calendar.DAY_OF_MONTH, day);
+                            tcal.set(Calendar.MONTH, mon - 1);
+                            tcal.set(Calendar.YEAR, cl.get(Calendar.YEAR));
+
+                            int ldom = getLastDayOfMonth(mon, cl.get(Calendar.YEAR));
+                            int dow = tcal.get(Calendar.DAY_OF_WEEK);
+
+                            if (dow == Calendar.SATURDAY && day == 1) {
+                                day += 2;
+                            } else if (dow == Calendar.SATURDAY) {
+                                day -= 1;
+                            } else if (dow == Calendar.SUNDAY && day == ldom) {
+                                day -= 2;
+                            } else if (dow == Calendar.SUNDAY) {
+                                day += 1;
+                            }
+
+                            tcal.set(Calendar.SECOND, sec);
+                            tcal.set(Calendar.MINUTE, min);
+                            tcal.set(Calendar.HOUR_OF_DAY, hr);
+                            tcal.set(Calendar.DAY_OF_MONTH, day);
+                            tcal.set(Calendar.MONTH, mon - 1);
+                            Date nTime = tcal.getTime();
+                            if (nTime.before(afterTime)) {
+                                day = 1;
+                                mon++;
+                            }
+                        }
+                    } else if (nearestWeekday) {
+                        t = day;
+                        day = (Integer) daysOfMonth.first();
+
+                        Calendar tcal = Calendar.getInstance(getTimeZone());
+                        tcal.set(Calendar.SECOND, 0);
+                        tcal.set(Calendar.MINUTE, 0);
+                        tcal.set(Calendar.HOUR_OF_DAY, 0);
+                        tcal.set(Calendar.DAY_OF_MONTH, day);
+                        tcal.set(Calendar.MONTH, mon - 1);
+                        tcal.set(Calendar.YEAR, cl.get(Calendar.YEAR));
+
+                        int ldom = getLastDayOfMonth(mon, cl.get(Calendar.YEAR));
+                        int dow = tcal.get(Calendar.DAY_OF_WEEK);
+
+                        if (dow == Calendar.SATURDAY && day == 1) {
+                            day += 2;
+                        } else if (dow == Calendar.SATURDAY) {
+                            day -= 1;
+                        } else if (dow == Calendar.SUNDAY && day == ldom) {
+                            day -= 2;
+                        } else if (dow == Calendar.SUNDAY) {
+                            day += 1;
+                        }
+
+                        tcal.set(Calendar.SECOND, sec);
+                        tcal.set(Calendar.MINUTE, min);
+                        tcal.set(Calendar.HOUR_OF_DAY, hr);
+                        tcal.set(Calendar.DAY_OF_MONTH, day);
+                        tcal.set(Calendar.MONTH, mon - 1);
+                        Date nTime = tcal.getTime();
+                        if (nTime.before(afterTime)) {
+                            day = (Integer) daysOfMonth.first();
+                            mon++;
+                        }
+                    } else if (st.size() != 0) {
+                        t = day;
+                        day = (Integer) st.first();
+                        // make sure we don't over-run a short month, such as february
+                        int lastDay = getLastDayOfMonth(mon, cl.get(Calendar.YEAR));
+                        if (day > lastDay) {
+                            day = (Integer) daysOfMonth.first();
+                            mon++;
+                        }
+                    } else {
+                        day = (Integer) daysOfMonth.first();
+                        mon++;
+                    }
+
+                    if (day != t || mon != tmon) {
+                        cl.set(Calendar.SECOND, 0);
+                        cl.set(Calendar.MINUTE, 0);
+                        cl.set(Calendar.HOUR_OF_DAY, 0);
+                        cl.set(Calendar.DAY_OF_MONTH, day);
+                        cl.set(Calendar.MONTH, mon - 1);
+                        // '- 1' because calendar is 0-based for this field, and we
+                        // are 1-based
+                        continue;
+                    }
+                } else if (dayOfWSpec && !dayOfMSpec) { // get day by day of week rule
+                    if (lastdayOfWeek) { // are we looking for the last XXX day of
+                        // the month?
+                        int dow = (Integer) daysOfWeek.first(); // desired
+                        // d-o-w
+                        int cDow = cl.get(Calendar.DAY_OF_WEEK); // current d-o-w
+                        int daysToAdd = 0;
+                        if (cDow < dow) {
+                            daysToAdd = dow - cDow;
+                        }
+                        if (cDow > dow) {
+                            daysToAdd = dow + (7 - cDow);
+                        }
+
+                        int lDay = getLastDayOfMonth(mon, cl.get(Calendar.YEAR));
+
+                        if (day + daysToAdd > lDay) { // did we already miss the
+                            // last one?
+                            cl.set(Calendar.SECOND, 0);
+                            cl.set(Calendar.MINUTE, 0);
+                            cl.set(Calendar.HOUR_OF_DAY, 0);
+                            cl.set(Calendar.DAY_OF_MONTH, 1);
+                            cl.set(Calendar.MONTH, mon);
+                            // no '- 1' here because we are promoting the month
+                            continue;
+                        }
+
+                        // find date of last occurance of this day in this month...
+                        while ((day + daysToAdd + 7) <= lDay) {
+                            daysToAdd += 7;
+                        }
+
+                        day += daysToAdd;
+
+                        if (daysToAdd > 0) {
+                            cl.set(Calendar.SECOND, 0);
+                            cl.set(Calendar.MINUTE, 0);
+                            cl.set(Calendar.HOUR_OF_DAY, 0);
+                            cl.set(Calendar.DAY_OF_MONTH, day);
+                            cl.set(Calendar.MONTH, mon - 1);
+                            // '- 1' here because we are not promoting the month
+                            continue;
+                        }
+
+                    } else if (nthdayOfWeek != 0) {
+                        // are we looking for the Nth XXX day in the month?
+                        int dow = (Integer) daysOfWeek.first(); // desired
+                        // d-o-w
+                        int cDow = cl.get(Calendar.DAY_OF_WEEK); // current d-o-w
+                        int daysToAdd = 0;
+                        if (cDow < dow) {
+                            daysToAdd = dow - cDow;
+                        } else if (cDow > dow) {
+                            daysToAdd = dow + (7 - cDow);
+                        }
+
+                        boolean dayShifted = false;
+                        if (daysToAdd > 0) {
+                            dayShifted = true;
+                        }
+
+                        day += daysToAdd;
+                        int weekOfMonth = day / 7;
+                        if (day % 7 > 0) {
+                            weekOfMonth++;
+                        }
+
+                        daysToAdd = (nthdayOfWeek - weekOfMonth) * 7;
+                        day += daysToAdd;
+                        if (daysToAdd < 0
+                                || day > getLastDayOfMonth(mon, cl
+                                        .get(Calendar.YEAR))) {
+                            cl.set(Calendar.SECOND, 0);
+                            cl.set(Calendar.MINUTE, 0);
+                            cl.set(Calendar.HOUR_OF_DAY, 0);
+                            cl.set(Calendar.DAY_OF_MONTH, 1);
+                            cl.set(Calendar.MONTH, mon);
+                            // no '- 1' here because we are promoting the month
+                            continue;
+                        } else if (daysToAdd > 0 || dayShifted) {
+                            cl.set(Calendar.SECOND, 0);
+                            cl.set(Calendar.MINUTE, 0);
+                            cl.set(Calendar.HOUR_OF_DAY, 0);
+                            cl.set(Calendar.DAY_OF_MONTH, day);
+                            cl.set(Calendar.MONTH, mon - 1);
+                            // '- 1' here because we are NOT promoting the month
+                            continue;
+                        }
+                    } else {
+                        int cDow = cl.get(Calendar.DAY_OF_WEEK); // current d-o-w
+                        int dow = (Integer) daysOfWeek.first(); // desired
+                        // d-o-w
+                        st = daysOfWeek.tailSet(cDow);
+                        if (st != null && st.size() > 0) {
+                            dow = (Integer) st.first();
+                        }
+
+                        int daysToAdd = 0;
+                        if (cDow < dow) {
+                            daysToAdd = dow - cDow;
+                        }
+                        if (cDow > dow) {
+                            daysToAdd = dow + (7 - cDow);
+                        }
+
+                        int lDay = getLastDayOfMonth(mon, cl.get(Calendar.YEAR));
+
+                        if (day + daysToAdd > lDay) { // will we pass the end of
+                            // the month?
+                            cl.set(Calendar.SECOND, 0);
+                            cl.set(Calendar.MINUTE, 0);
+                            cl.set(Calendar.HOUR_OF_DAY, 0);
+                            cl.set(Calendar.DAY_OF_MONTH, 1);
+                            cl.set(Calendar.MONTH, mon);
+                            // no '- 1' here because we are promoting the month
+                            continue;
+                        } else if (daysToAdd > 0) { // are we swithing days?
+                            cl.set(Calendar.SECOND, 0);
+                            cl.set(Calendar.MINUTE, 0);
+                            cl.set(Calendar.HOUR_OF_DAY, 0);
+                            cl.set(Calendar.DAY_OF_MONTH, day + daysToAdd);
+                            cl.set(Calendar.MONTH, mon - 1);
+                            // '- 1' because calendar is 0-based for this field,
+                            // and we are 1-based
+                            continue;
+                        }
+                    }
+                } else { // dayOfWSpec && !dayOfMSpec
+                    throw new UnsupportedOperationException(
+                            "Support for specifying both a day-of-week AND a day-of-month parameter is not implemented.");
+                    // TODO:
+                }
+                cl.set(Calendar.DAY_OF_MONTH, day);
+
+                mon = cl.get(Calendar.MONTH) + 1;
+                // '+ 1' because calendar is 0-based for this field, and we are
+                // 1-based
+                int year = cl.get(Calendar.YEAR);
+                t = -1;
+
+                // test for expressions that never generate a valid fire date,
+                // but keep looping...
+                if (year > CronTrigger.YEAR_TO_GIVEUP_SCHEDULING_AT) {
+                    return null;
+                }
+
+                // get month...................................................
+                st = months.tailSet(mon);
+                if (st.size() != 0) {
+                    t = mon;
+                    mon = (Integer) st.first();
+                } else {
+                    mon = (Integer) months.first();
+                    year++;
+                }
+                if (mon != t) {
+                    cl.set(Calendar.SECOND, 0);
+                    cl.set(Calendar.MINUTE, 0);
+                    cl.set(Calendar.HOUR_OF_DAY, 0);
+                    cl.set(Calendar.DAY_OF_MONTH, 1);
+                    cl.set(Calendar.MONTH, mon - 1);
+                    // '- 1' because calendar is 0-based for this field, and we are
+                    // 1-based
+                    cl.set(Calendar.YEAR, year);
+                    continue;
+                }
+                cl.set(Calendar.MONTH, mon - 1);
+                // '- 1' because calendar is 0-based for this field, and we are
+                // 1-based
+
+                year = cl.get(Calendar.YEAR);
+                t = -1;
+
+                // get year...................................................
+                st = years.tailSet(year);
+                if (st.size() != 0) {
+                    t = year;
+                    year = (Integer) st.first();
+                } else {
+                    return null; // ran out of years...
+                }
+
+                if (year != t) {
+                    cl.set(Calendar.SECOND, 0);
+                    cl.set(Calendar.MINUTE, 0);
+                    cl.set(Calendar.HOUR_OF_DAY, 0);
+                    cl.set(Calendar.DAY_OF_MONTH, 1);
+                    cl.set(Calendar.MONTH, 0);
+                    // '- 1' because calendar is 0-based for this field, and we are
+                    // 1-based
+                    cl.set(Calendar.YEAR, year);
+                    continue;
+                }
+                cl.set(Calendar.YEAR, year);
+
+                gotOne = true;
+            } // while( !done )
+
+            return cl.getTime();
+        }
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.timer.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.timer.Job;
+import org.kie.kogito.timer.JobContext;
+import org.kie.kogito.timer.JobHandle;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TimingWheelTimerServiceTest {
+
+    private TimingWheelTimerService timerService;
+
+    @BeforeEach
+    public void setUp() {
+        timerService = new TimingWheelTimerService(2, 1);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        timerService.shutdown();
+    }
+
+    @Test
+    public void testPointInTimeJobsFireInOrder() throws InterruptedException {
+        CountDownLatch fired = new CountDownLatch(3);
+        Queue<String> order = new ConcurrentLinkedQueue<>();
+        long now = timerService.getCurrentTime();
+        long[] firedAt = new long[1];
+
+        schedule(now + 150, ctx -> {
+            order.add("third");
+            fired.countDown();
+        });
+        schedule(now + 20, ctx -> {
+            firedAt[0] = timerService.getCurrentTime();
+            order.add("first");
+            fired.countDown();
+        });
+        schedule(now + 80, ctx -> {
+            order.add("second");
+            fired.countDown();
+        });
+
+        assertThat(fired.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(order).containsExactly("first", "second", "third");
+        assertThat(firedAt[0]).isGreaterThanOrEqualTo(now + 20);
+    }
+
+    @Test
+    public void testJobBeyondFirstLevelIsCascaded() throws InterruptedException {
+        // with a tick of 1 ms the first level spans 256 ms
+        CountDownLatch fired = new CountDownLatch(1);
+        long now = timerService.getCurrentTime();
+        long[] firedAt = new long[1];
+        schedule(now + 600, ctx -> {
+            firedAt[0] = timerService.getCurrentTime();
+            fired.countDown();
+        });
+
+        assertThat(fired.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(firedAt[0]).isGreaterThanOrEqualTo(now + 600);
+    }
+
+    @Test
+    public void testEarlierJobWakesUpSleepingWheel() throws InterruptedException {
+        CountDownLatch fired = new CountDownLatch(1);
+        long now = timerService.getCurrentTime();
+        long[] firedAt = new long[1];
+        // the wheel sleeps until the slot of the later job
+        schedule(now + 60_000, ctx -> {
+        });
+        Thread.sleep(20);
+        schedule(now + 50, ctx -> {
+            firedAt[0] = timerService.getCurrentTime();
+            fired.countDown();
+        });
+
+        assertThat(fired.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(firedAt[0]).isGreaterThanOrEqualTo(now + 50);
+    }
+
+    @Test
+    public void testPastJobFiresImmediately() throws InterruptedException {
+        CountDownLatch fired = new CountDownLatch(1);
+        schedule(timerService.getCurrentTime() - 1000, ctx -> fired.countDown());
+        assertThat(fired.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    public void testRemovedJobDoesNotFire() throws InterruptedException {
+        AtomicInteger removedFired = new AtomicInteger();
+        CountDownLatch fired = new CountDownLatch(1);
+        long now = timerService.getCurrentTime();
+
+        JobHandle removed = schedule(now + 50, ctx -> removedFired.incrementAndGet());
+        schedule(now + 100, ctx -> fired.countDown());
+
+        assertThat(timerService.removeJob(removed)).isTrue();
+        assertThat(timerService.removeJob(removed)).isFalse();
+        assertThat(fired.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(removedFired).hasValue(0);
+    }
+
+    @Test
+    public void testIntervalJobRepeatsUntilRemoved() throws InterruptedException {
+        AtomicInteger count = new AtomicInteger();
+        CountDownLatch fired = new CountDownLatch(3);
+        long now = timerService.getCurrentTime();
+        JobHandle handle = timerService.scheduleJob(ctx -> {
+            count.incrementAndGet();
+            fired.countDown();
+        }, new TestJobContext(), new IntervalTrigger(now, null, null, -1, 10, 20, null, null));
+
+        assertThat(fired.await(5, TimeUnit.SECONDS)).isTrue();
+        timerService.removeJob(handle);
+        int fireCount = count.get();
+        Thread.sleep(100);
+        // one execution may have been running while removing
+        assertThat(count.get()).isLessThanOrEqualTo(fireCount + 1);
+    }
+
+    @Test
+    public void testManyJobsScheduledAndRemoved() throws InterruptedException {
+        int size = 100_000;
+        AtomicInteger removedFired = new AtomicInteger();
+        CountDownLatch fired = new CountDownLatch(size / 2);
+        long now = timerService.getCurrentTime();
+        List<JobHandle> handles = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            boolean removed = i % 2 == 0;
+            handles.add(schedule(now + 1000 + i % 500, ctx -> {
+                if (removed) {
+                    removedFired.incrementAndGet();
+                } else {
+                    fired.countDown();
+                }
+            }));
+        }
+        for (int i = 0; i < size; i += 2) {
+            assertThat(timerService.removeJob(handles.get(i))).isTrue();
+        }
+
+        assertThat(fired.await(30, TimeUnit.SECONDS)).isTrue();
+        assertThat(removedFired).hasValue(0);
+    }
+
+    private JobHandle schedule(long time, Job<TestJobContext> job) {
+        return timerService.scheduleJob(job, new TestJobContext(), new PointInTimeTrigger(time, null, null));
+    }
+
+    private static class TestJobContext implements JobContext {
+
+        private JobHandle jobHandle;
+
+        @Override
+        public void setJobHandle(JobHandle jobHandle) {
+            this.jobHandle = jobHandle;
+        }
+
+        @Override
+        public JobHandle getJobHandle() {
+            return jobHandle;
+        }
+    }
+}
@@ -16,6 +16,7 @@
 package org.jbpm.compiler.canonical;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -62,9 +63,11 @@ import com.github.javaparser.ast.type.WildcardType;
 
 import static com.github.javaparser.StaticJavaParser.parseClassOrInterfaceType;
 import static org.drools.util.StringUtils.ucFirst;
+import static org.jbpm.ruleflow.core.Metadata.COMPILED_TEMPLATES;
 import static org.jbpm.ruleflow.core.Metadata.CUSTOM_AUTO_START;
 import static org.jbpm.ruleflow.core.Metadata.HIDDEN;
 import static org.jbpm.ruleflow.core.factory.NodeFactory.METHOD_DONE;
+import static org.jbpm.ruleflow.core.factory.NodeFactory.METHOD_METADATA;
 import static org.jbpm.ruleflow.core.factory.NodeFactory.METHOD_NAME;
 
 public abstract class AbstractNodeVisitor<T extends Node> extends AbstractVisitor {
@@ -167,6 +170,11 @@ public abstract class AbstractNodeVisitor<T extends Node> extends AbstractVisito
         return new ExpressionStmt(assignExpr);
     }
 
+    protected void visitCompiledTemplates(T node, BlockStmt body, VariableScope variableScope, ClassLoader classLoader, Collection<?> values) {
+        new CompiledTemplatesGenerator(classLoader).generate(node, variableScope, values)
+                .ifPresent(compiledTemplates -> body.addStatement(getFactoryMethod(getNodeId(node), METHOD_METADATA, new StringLiteralExpr(COMPILED_TEMPLATES), compiledTemplates)));
+    }
+
     protected void addNodeMappings(Mappable node, BlockStmt body, String variableName) {
         for (DataAssociation entry : node.getInAssociations()) {
             body.addStatement(getFactoryMethod(variableName, MappableNodeFactory.METHOD_IN_ASSOCIATION, buildDataAssociationExpression(entry)));
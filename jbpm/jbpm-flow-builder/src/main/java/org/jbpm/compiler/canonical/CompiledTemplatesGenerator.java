@@ -0,0 +1,213 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jbpm.compiler.canonical;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.jbpm.process.core.ContextContainer;
+import org.jbpm.process.core.context.variable.Variable;
+import org.jbpm.process.core.context.variable.VariableScope;
+import org.jbpm.process.instance.impl.util.CompiledTemplates;
+import org.jbpm.util.PatternConstants;
+import org.kie.api.definition.process.Node;
+import org.kie.kogito.internal.process.runtime.KogitoNode;
+
+import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.ast.body.Parameter;
+import com.github.javaparser.ast.expr.CastExpr;
+import com.github.javaparser.ast.expr.EnclosedExpr;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.FieldAccessExpr;
+import com.github.javaparser.ast.expr.LambdaExpr;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.ast.expr.NameExpr;
+import com.github.javaparser.ast.expr.ObjectCreationExpr;
+import com.github.javaparser.ast.expr.StringLiteralExpr;
+import com.github.javaparser.ast.type.UnknownType;
+
+import static com.github.javaparser.StaticJavaParser.parseClassOrInterfaceType;
+import static org.drools.util.StringUtils.ucFirst;
+
+/**
+ * Generates Java accessors for the <code>#{...}</code> placeholders of the expression templates of a node, so that
+ * they do not need to be matched and interpreted with MVEL every time the node is triggered.
+ * <p>
+ * Only placeholders referring to a process variable, optionally followed by a path of bean properties, are compiled;
+ * every property along the path must be resolvable on the declared type of the variable. Any other placeholder is left to
+ * the runtime, which interprets it as before.
+ */
+public class CompiledTemplatesGenerator {
+
+    private static final String KCONTEXT_VAR = "kcontext";
+
+    private static final Pattern PROPERTY_PATH = Pattern.compile("\\p{javaJavaIdentifierStart}\\p{javaJavaIdentifierPart}*(\\.\\p{javaJavaIdentifierStart}\\p{javaJavaIdentifierPart}*)*");
+
+    private final ClassLoader classLoader;
+
+    public CompiledTemplatesGenerator(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * @param node node using the templates
+     * @param variableScope variable scope the node is visited with
+     * @param values values possibly containing templates, values that are not strings are ignored
+     * @return the expression creating the {@link CompiledTemplates} of the node, empty if no placeholder can be compiled
+     */
+    public Optional<Expression> generate(Node node, VariableScope variableScope, Collection<?> values) {
+        Expression compiledTemplates = null;
+        Set<String> visited = new HashSet<>();
+        for (Object value : values) {
+            if (!(value instanceof String) || !visited.add((String) value)) {
+                continue;
+            }
+            String template = (String) value;
+            Set<String> expressions = new HashSet<>();
+            Matcher matcher = PatternConstants.PARAMETER_MATCHER.matcher(template);
+            while (matcher.find()) {
+                String expression = matcher.group(1);
+                if (!expressions.add(expression)) {
+                    continue;
+                }
+                Optional<Expression> accessor = buildAccessor(node, variableScope, expression);
+                if (accessor.isPresent()) {
+                    if (compiledTemplates == null) {
+                        compiledTemplates = new ObjectCreationExpr(null, parseClassOrInterfaceType(CompiledTemplates.class.getCanonicalName()), NodeList.nodeList());
+                    }
+                    compiledTemplates = new MethodCallExpr(compiledTemplates, "add",
+                            NodeList.nodeList(new StringLiteralExpr().setString(template), new StringLiteralExpr().setString(expression), accessor.get()));
+                }
+            }
+        }
+        return Optional.ofNullable(compiledTemplates);
+    }
+
+    private Optional<Expression> buildAccessor(Node node, VariableScope variableScope, String expression) {
+        if (!PROPERTY_PATH.matcher(expression).matches()) {
+            return Optional.empty();
+        }
+        String[] path = expression.split("\\.");
+        Variable variable = findVariable(node, variableScope, path[0]);
+        if (variable == null) {
+            return Optional.empty();
+        }
+        Expression access = new MethodCallExpr(new NameExpr(KCONTEXT_VAR), "getVariable", NodeList.nodeList(new StringLiteralExpr(path[0])));
+        if (path.length > 1) {
+            Class<?> type = loadClass(variable);
+            if (!isAccessible(type)) {
+                return Optional.empty();
+            }
+            access = new EnclosedExpr(new CastExpr(parseClassOrInterfaceType(type.getCanonicalName()), access));
+            for (int i = 1; i < path.length; i++) {
+                if (!isAccessible(type) || Map.class.isAssignableFrom(type)) {
+                    return Optional.empty();
+                }
+                Method getter = findGetter(type, path[i]);
+                if (getter != null) {
+                    access = new MethodCallExpr(access, getter.getName());
+                    type = getter.getReturnType();
+                } else {
+                    Field field = findField(type, path[i]);
+                    if (field == null) {
+                        return Optional.empty();
+                    }
+                    access = new FieldAccessExpr(access, field.getName());
+                    type = field.getType();
+                }
+            }
+        }
+        return Optional.of(new LambdaExpr(new Parameter(new UnknownType(), KCONTEXT_VAR), access));
+    }
+
+    private static Variable findVariable(Node node, VariableScope variableScope, String name) {
+        Variable variable = variableScope != null ? variableScope.findVariable(name) : null;
+        Object container = node;
+        while (variable == null && container != null) {
+            if (container instanceof ContextContainer) {
+                VariableScope scope = (VariableScope) ((ContextContainer) container).getDefaultContext(VariableScope.VARIABLE_SCOPE);
+                variable = scope != null ? scope.findVariable(name) : null;
+            }
+            container = container instanceof KogitoNode ? ((KogitoNode) container).getParentContainer() : null;
+        }
+        return variable;
+    }
+
+    private Class<?> loadClass(Variable variable) {
+        String className = variable.getType().getStringType();
+        if (className == null) {
+            return null;
+        }
+        int genericsIndex = className.indexOf('<');
+        if (genericsIndex >= 0) {
+            className = className.substring(0, genericsIndex);
+        }
+        try {
+            return Class.forName(className, false, classLoader != null ? classLoader : Thread.currentThread().getContextClassLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null;
+        }
+    }
+
+    private static boolean isAccessible(Class<?> type) {
+        if (type == null || type.isPrimitive() || type.isArray() || type == Object.class || type.getCanonicalName() == null) {
+            return false;
+        }
+        for (Class<?> current = type; current != null; current = current.getDeclaringClass()) {
+            if (!Modifier.isPublic(current.getModifiers())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Method findGetter(Class<?> type, String property) {
+        Method getter = findMethod(type, "get" + ucFirst(property));
+        if (getter == null) {
+            getter = findMethod(type, "is" + ucFirst(property));
+            if (getter != null && getter.getReturnType() != boolean.class && getter.getReturnType() != Boolean.class) {
+                getter = null;
+            }
+        }
+        return getter;
+    }
+
+    private static Method findMethod(Class<?> type, String name) {
+        try {
+            Method method = type.getMethod(name);
+            return method.getReturnType() == void.class || Modifier.isStatic(method.getModifiers()) ? null : method;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static Field findField(Class<?> type, String name) {
+        try {
+            Field field = type.getField(name);
+            return Modifier.isStatic(field.getModifiers()) ? null : field;
+        } catch (NoSuchFieldException e) {
+            return null;
+        }
+    }
+}
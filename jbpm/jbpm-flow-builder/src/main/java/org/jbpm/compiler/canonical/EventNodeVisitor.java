@@ -16,6 +16,7 @@
 package org.jbpm.compiler.canonical;
 
 import java.text.MessageFormat;
+import java.util.Collections;
 
 import org.jbpm.process.core.context.variable.Variable;
 import org.jbpm.process.core.context.variable.VariableScope;
@@ -71,6 +72,7 @@ public class EventNodeVisitor extends AbstractNodeVisitor<EventNode> {
         }
         addNodeMappings(node, body, getNodeId(node));
         visitMetaData(node.getMetaData(), body, getNodeId(node));
+        visitCompiledTemplates(node, body, variableScope, null, Collections.singletonList(node.getType()));
         body.addStatement(getDoneMethod(getNodeId(node)));
     }
 
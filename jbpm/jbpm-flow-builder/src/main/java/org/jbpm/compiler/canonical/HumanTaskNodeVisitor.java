@@ -26,7 +26,11 @@ import com.github.javaparser.ast.stmt.BlockStmt;
 public class HumanTaskNodeVisitor extends WorkItemNodeVisitor<HumanTaskNode> {
 
     public HumanTaskNodeVisitor() {
-        super(null);
+        this(null);
+    }
+
+    public HumanTaskNodeVisitor(ClassLoader contextClassLoader) {
+        super(contextClassLoader);
     }
 
     @Override
@@ -46,6 +50,7 @@ public class HumanTaskNodeVisitor extends WorkItemNodeVisitor<HumanTaskNode> {
         body.addStatement(getDoneMethod(getNodeId(node)));
 
         visitMetaData(node.getMetaData(), body, getNodeId(node));
+        visitCompiledTemplates(node, body, variableScope, contextClassLoader, work.getParameters().values());
 
         metadata.getWorkItems().add(work.getName());
     }
@@ -103,7 +103,7 @@ public class ProcessVisitor extends AbstractVisitor {
         this.nodesVisitors.put(StartNode.class, new StartNodeVisitor());
         this.nodesVisitors.put(ActionNode.class, new ActionNodeVisitor());
         this.nodesVisitors.put(EndNode.class, new EndNodeVisitor());
-        this.nodesVisitors.put(HumanTaskNode.class, new HumanTaskNodeVisitor());
+        this.nodesVisitors.put(HumanTaskNode.class, new HumanTaskNodeVisitor(contextClassLoader));
         this.nodesVisitors.put(WorkItemNode.class, new WorkItemNodeVisitor<>(contextClassLoader));
         this.nodesVisitors.put(SubProcessNode.class, new LambdaSubProcessNodeVisitor());
         this.nodesVisitors.put(Split.class, new SplitNodeVisitor());
@@ -68,7 +68,7 @@ public class WorkItemNodeVisitor<T extends WorkItemNode> extends AbstractNodeVis
         }
     }
 
-    private final ClassLoader contextClassLoader;
+    protected final ClassLoader contextClassLoader;
 
     public WorkItemNodeVisitor(ClassLoader contextClassLoader) {
         this.contextClassLoader = contextClassLoader;
@@ -109,6 +109,7 @@ public class WorkItemNodeVisitor<T extends WorkItemNode> extends AbstractNodeVis
         body.addStatement(getDoneMethod(nodeId));
 
         visitMetaData(node.getMetaData(), body, nodeId);
+        visitCompiledTemplates(node, body, variableScope, contextClassLoader, work.getParameters().values());
 
         metadata.getWorkItems().add(workName);
     }
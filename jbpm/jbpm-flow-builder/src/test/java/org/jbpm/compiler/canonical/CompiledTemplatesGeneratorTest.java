@@ -0,0 +1,99 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jbpm.compiler.canonical;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.jbpm.process.core.datatype.impl.type.ObjectDataType;
+import org.jbpm.process.core.datatype.impl.type.StringDataType;
+import org.jbpm.ruleflow.core.Metadata;
+import org.jbpm.ruleflow.core.RuleFlowProcess;
+import org.jbpm.ruleflow.core.RuleFlowProcessFactory;
+import org.jbpm.workflow.core.node.WorkItemNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.api.definition.process.WorkflowProcess;
+
+import com.github.javaparser.ast.expr.Expression;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CompiledTemplatesGeneratorTest {
+
+    private CompiledTemplatesGenerator generator;
+    private RuleFlowProcess process;
+    private WorkItemNode node;
+
+    @BeforeEach
+    public void setUp() {
+        RuleFlowProcessFactory factory = RuleFlowProcessFactory.createProcess("demo.templates");
+        factory
+                .variable("name", new StringDataType())
+                .variable("file", new ObjectDataType(java.io.File.class.getName()))
+                .variable("values", new ObjectDataType("java.util.Map<String, String>"))
+                .variable("order", new ObjectDataType("com.myspace.demo.Order"))
+                .name("templates")
+                .packageName("com.myspace.demo")
+                .startNode(1).name("start").done()
+                .workItemNode(2).name("task").workName("Task").workParameter("ActorId", "#{name}").done()
+                .endNode(3).name("end").done()
+                .connection(1, 2)
+                .connection(2, 3);
+        process = (RuleFlowProcess) factory.validate().getProcess();
+        node = (WorkItemNode) process.getNode(2);
+        generator = new CompiledTemplatesGenerator(getClass().getClassLoader());
+    }
+
+    @Test
+    public void testVariable() {
+        assertThat(generate("#{name}")).isEqualTo("new org.jbpm.process.instance.impl.util.CompiledTemplates()"
+                + ".add(\"#{name}\", \"name\", kcontext -> kcontext.getVariable(\"name\"))");
+    }
+
+    @Test
+    public void testPropertyPath() {
+        assertThat(generate("Hello #{file.name}, #{file.absoluteFile.parent} #{file.file}")).isEqualTo("new org.jbpm.process.instance.impl.util.CompiledTemplates()"
+                + ".add(\"Hello #{file.name}, #{file.absoluteFile.parent} #{file.file}\", \"file.name\", kcontext -> ((java.io.File) kcontext.getVariable(\"file\")).getName())"
+                + ".add(\"Hello #{file.name}, #{file.absoluteFile.parent} #{file.file}\", \"file.absoluteFile.parent\", kcontext -> ((java.io.File) kcontext.getVariable(\"file\")).getAbsoluteFile().getParent())"
+                + ".add(\"Hello #{file.name}, #{file.absoluteFile.parent} #{file.file}\", \"file.file\", kcontext -> ((java.io.File) kcontext.getVariable(\"file\")).isFile())");
+    }
+
+    @Test
+    public void testQuotesAreEscaped() {
+        assertThat(generate("\"#{name}\"")).contains(".add(\"\\\"#{name}\\\"\", \"name\"");
+    }
+
+    @Test
+    public void testInterpretedPlaceholders() {
+        // unknown variables, unknown properties, maps, types not on the classpath and expressions are left to MVEL
+        assertThat(generator.generate(node, process.getVariableScope(), Arrays.asList("#{missing}", "#{file.unknown}", "#{values.key}", "#{order.id}",
+                "#{name.toUpperCase()}", "#{name + 'x'}", "no placeholder", 5))).isEmpty();
+    }
+
+    @Test
+    public void testProcessGeneration() {
+        ProcessMetaData metadata = ProcessToExecModelGenerator.INSTANCE.generate((WorkflowProcess) process);
+
+        assertThat(metadata.getGeneratedClassModel().toString())
+                .contains("workItemNode2.metaData(\"" + Metadata.COMPILED_TEMPLATES + "\", new org.jbpm.process.instance.impl.util.CompiledTemplates()"
+                        + ".add(\"#{name}\", \"name\", kcontext -> kcontext.getVariable(\"name\")));");
+    }
+
+    private String generate(String template) {
+        return generator.generate(node, process.getVariableScope(), Collections.singletonList(template)).map(Expression::toString).orElse(null);
+    }
+}
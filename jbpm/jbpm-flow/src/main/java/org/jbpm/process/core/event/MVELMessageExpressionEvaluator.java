@@ -16,27 +16,44 @@
 
 package org.jbpm.process.core.event;
 
+import java.io.Serializable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 import org.jbpm.process.core.correlation.CorrelationExpressionEvaluator;
-import org.mvel2.MVEL;
+import org.jbpm.workflow.instance.impl.MVELProcessHelper;
 import org.mvel2.integration.VariableResolver;
 import org.mvel2.integration.impl.ImmutableDefaultFactory;
 import org.mvel2.integration.impl.SimpleValueResolver;
 
+/**
+ * Evaluates correlation and message expressions with MVEL. The expression is compiled on first use and the compiled
+ * form is reused afterwards, once per event type so that the accessors MVEL optimizes for one type are not
+ * invalidated by events of another type. Compiled expressions are not serialized and are rebuilt on demand.
+ */
 public class MVELMessageExpressionEvaluator implements CorrelationExpressionEvaluator {
 
     private static final long serialVersionUID = 3516244528735842694L;
 
     private String expression;
 
+    private transient volatile Map<Class<?>, Serializable> compiledByEventType;
+
+    private transient volatile Serializable compiledForResolver;
+
     public MVELMessageExpressionEvaluator(String expression) {
         this.expression = expression;
     }
 
+    public String getExpression() {
+        return expression;
+    }
+
     @Override
     public Object eval(Object event) {
-        return MVEL.eval(expression, event);
+        Class<?> eventType = event == null ? Void.class : event.getClass();
+        return MVELProcessHelper.evaluator().executeExpression(compiledByEventType().computeIfAbsent(eventType, k -> compile()), event);
     }
 
     @Override
@@ -54,7 +71,30 @@ public class MVELMessageExpressionEvaluator implements CorrelationExpressionEval
                 return new SimpleValueResolver(resolver.apply("#{" + name + "}"));
             };
         };
-        return MVEL.eval(expression, factory);
+        Serializable compiled = compiledForResolver;
+        if (compiled == null) {
+            compiled = compile();
+            compiledForResolver = compiled;
+        }
+        return MVELProcessHelper.evaluator().executeExpression(compiled, factory);
+    }
+
+    private Map<Class<?>, Serializable> compiledByEventType() {
+        Map<Class<?>, Serializable> compiled = compiledByEventType;
+        if (compiled == null) {
+            synchronized (this) {
+                compiled = compiledByEventType;
+                if (compiled == null) {
+                    compiled = new ConcurrentHashMap<>();
+                    compiledByEventType = compiled;
+                }
+            }
+        }
+        return compiled;
+    }
+
+    private Serializable compile() {
+        return MVELProcessHelper.compileExpression(expression);
     }
 
-}
\ No newline at end of file
+}
@@ -18,17 +18,24 @@ package org.jbpm.process.core.timer;
 import java.io.IOException;
 import java.io.InputStream;
 import java.text.SimpleDateFormat;
+import java.time.DayOfWeek;
 import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.GregorianCalendar;
 import java.util.List;
 import java.util.Properties;
 import java.util.TimeZone;
+import java.util.TreeSet;
 import java.util.regex.Matcher;
 
 import org.jbpm.util.PatternConstants;
@@ -78,9 +85,13 @@ public class BusinessCalendarImpl implements BusinessCalendar {
     private int startHour;
     private int endHour;
     private String timezone;
+    private ZoneId zone;
 
     private List<TimePeriod> holidays;
+    private HolidayIndex holidayIndex;
     private List<Integer> weekendDays = new ArrayList<>();
+    // indexed by java.util.Calendar day of week
+    private boolean[] weekend = new boolean[8];
     private SessionClock clock;
 
     private static final int SIM_WEEK = 3;
@@ -145,8 +156,15 @@ public class BusinessCalendarImpl implements BusinessCalendar {
         startHour = getPropertyAsInt(START_HOUR, "9");
         endHour = getPropertyAsInt(END_HOUR, "17");
         holidays = parseHolidays();
+        holidayIndex = new HolidayIndex(holidays);
         parseWeekendDays();
+        for (int day : weekendDays) {
+            if (day >= Calendar.SUNDAY && day <= Calendar.SATURDAY) {
+                weekend[day] = true;
+            }
+        }
         this.timezone = businessCalendarConfiguration.getProperty(TIMEZONE);
+        this.zone = timezone != null ? TimeZone.getTimeZone(timezone).toZoneId() : null;
     }
 
     protected String adoptISOFormat(String timeExpression) {
@@ -221,118 +239,98 @@ public class BusinessCalendarImpl implements BusinessCalendar {
         }
         int time = 0;
 
-        Calendar c = new GregorianCalendar();
-        if (timezone != null) {
-            c.setTimeZone(TimeZone.getTimeZone(timezone));
-        }
-        if (this.clock != null) {
-            c.setTimeInMillis(this.clock.getCurrentTime());
-        }
+        ZonedDateTime c = ZonedDateTime.ofInstant(Instant.ofEpochMilli(getCurrentTime()), zone != null ? zone : ZoneId.systemDefault());
 
         // calculate number of weeks
         int numberOfWeeks = days / daysPerWeek + weeks;
         if (numberOfWeeks > 0) {
-            c.add(Calendar.WEEK_OF_YEAR, numberOfWeeks);
+            c = plusDays(c, 7L * numberOfWeeks);
         }
-        handleWeekend(c, hours > 0 || min > 0);
+        c = handleWeekend(c, hours > 0 || min > 0);
         hours += (days - (numberOfWeeks * daysPerWeek)) * hoursInDay;
 
         // calculate number of days
         int numberOfDays = hours / hoursInDay;
         if (numberOfDays > 0) {
             for (int i = 0; i < numberOfDays; i++) {
-                c.add(Calendar.DAY_OF_YEAR, 1);
-                handleWeekend(c, false);
-                handleHoliday(c, hours > 0 || min > 0);
+                c = plusDays(c, 1);
+                c = handleWeekend(c, false);
+                c = handleHoliday(c, hours > 0 || min > 0);
             }
         }
 
-        int currentCalHour = c.get(Calendar.HOUR_OF_DAY);
+        int currentCalHour = c.getHour();
         if (currentCalHour >= endHour) {
-            c.add(Calendar.DAY_OF_YEAR, 1);
-            c.add(Calendar.HOUR_OF_DAY, startHour - currentCalHour);
-            c.set(Calendar.MINUTE, 0);
-            c.set(Calendar.SECOND, 0);
+            c = plusDays(c, 1);
+            c = c.plusHours(startHour - currentCalHour);
+            c = withLocalTime(c, c.toLocalDateTime().withMinute(0).withSecond(0));
         } else if (currentCalHour < startHour) {
-            c.add(Calendar.HOUR_OF_DAY, startHour);
+            c = c.plusHours(startHour);
         }
 
         // calculate remaining hours
         time = hours - (numberOfDays * hoursInDay);
-        c.add(Calendar.HOUR, time);
-        handleWeekend(c, true);
-        handleHoliday(c, hours > 0 || min > 0);
+        c = c.plusHours(time);
+        c = handleWeekend(c, true);
+        c = handleHoliday(c, hours > 0 || min > 0);
 
-        currentCalHour = c.get(Calendar.HOUR_OF_DAY);
-        if (currentCalHour >= endHour) {
-            c.add(Calendar.DAY_OF_YEAR, 1);
-            // set hour to the starting one
-            c.set(Calendar.HOUR_OF_DAY, startHour);
-            c.add(Calendar.HOUR_OF_DAY, currentCalHour - endHour);
-        } else if (currentCalHour < startHour) {
-            c.add(Calendar.HOUR_OF_DAY, startHour);
-        }
+        c = adjustToWorkingHours(c);
 
         // calculate minutes
         int numberOfHours = min / 60;
         if (numberOfHours > 0) {
-            c.add(Calendar.HOUR, numberOfHours);
+            c = c.plusHours(numberOfHours);
             min = min - (numberOfHours * 60);
         }
-        c.add(Calendar.MINUTE, min);
+        c = c.plusMinutes(min);
 
         // calculate seconds
         int numberOfMinutes = sec / 60;
         if (numberOfMinutes > 0) {
-            c.add(Calendar.MINUTE, numberOfMinutes);
+            c = c.plusMinutes(numberOfMinutes);
             sec = sec - (numberOfMinutes * 60);
         }
-        c.add(Calendar.SECOND, sec);
+        c = c.plusSeconds(sec);
 
-        currentCalHour = c.get(Calendar.HOUR_OF_DAY);
-        if (currentCalHour >= endHour) {
-            c.add(Calendar.DAY_OF_YEAR, 1);
-            // set hour to the starting one
-            c.set(Calendar.HOUR_OF_DAY, startHour);
-            c.add(Calendar.HOUR_OF_DAY, currentCalHour - endHour);
-        } else if (currentCalHour < startHour) {
-            c.add(Calendar.HOUR_OF_DAY, startHour);
-        }
+        c = adjustToWorkingHours(c);
         // take under consideration weekend
-        handleWeekend(c, false);
+        c = handleWeekend(c, false);
         // take under consideration holidays
-        handleHoliday(c, false);
+        c = handleHoliday(c, false);
 
-        return c.getTime();
+        return Date.from(c.toInstant());
     }
 
-    protected void handleHoliday(Calendar c, boolean resetTime) {
-        if (!holidays.isEmpty()) {
-            Date current = c.getTime();
-            for (TimePeriod holiday : holidays) {
-                // check each holiday if it overlaps current date and break after first match
-                if (current.after(holiday.getFrom()) && current.before(holiday.getTo())) {
-
-                    Calendar tmp = new GregorianCalendar();
-                    tmp.setTime(holiday.getTo());
-
-                    Calendar tmp2 = new GregorianCalendar();
-                    tmp2.setTime(current);
-                    tmp2.set(Calendar.HOUR_OF_DAY, 0);
-                    tmp2.set(Calendar.MINUTE, 0);
-                    tmp2.set(Calendar.SECOND, 0);
-                    tmp2.set(Calendar.MILLISECOND, 0);
-
-                    long difference = tmp.getTimeInMillis() - tmp2.getTimeInMillis();
-
-                    c.add(Calendar.HOUR_OF_DAY, (int) (difference / HOUR_IN_MILLIS));
+    private ZonedDateTime adjustToWorkingHours(ZonedDateTime c) {
+        int currentCalHour = c.getHour();
+        if (currentCalHour >= endHour) {
+            // move to the starting hour of the next day, keeping the time past the end hour
+            c = plusDays(c, 1);
+            return withLocalTime(c, c.toLocalDateTime().withHour(startHour)).plusHours(currentCalHour - endHour);
+        } else if (currentCalHour < startHour) {
+            return c.plusHours(startHour);
+        }
+        return c;
+    }
 
-                    handleWeekend(c, resetTime);
-                    break;
-                }
-            }
+    protected ZonedDateTime handleHoliday(ZonedDateTime c, boolean resetTime) {
+        long current = c.toInstant().toEpochMilli();
+        long holidayEnd = holidayIndex.endOfHoliday(current);
+        if (holidayEnd != HolidayIndex.NO_HOLIDAY) {
+            ZonedDateTime currentDefault = Instant.ofEpochMilli(current).atZone(ZoneId.systemDefault());
+            long startOfDay = withLocalTime(currentDefault, currentDefault.toLocalDate().atStartOfDay()).toInstant().toEpochMilli();
+            c = c.plusHours((int) ((holidayEnd - startOfDay) / HOUR_IN_MILLIS));
+            c = handleWeekend(c, resetTime);
         }
+        return c;
+    }
 
+    /**
+     * @deprecated use {@link #handleHoliday(ZonedDateTime, boolean)}
+     */
+    @Deprecated
+    protected void handleHoliday(Calendar c, boolean resetTime) {
+        c.setTimeInMillis(handleHoliday(toZonedDateTime(c), resetTime).toInstant().toEpochMilli());
     }
 
     protected int getPropertyAsInt(String propertyName, String defaultValue) {
@@ -450,7 +448,7 @@ public class BusinessCalendarImpl implements BusinessCalendar {
         }
     }
 
-    private class TimePeriod {
+    static class TimePeriod {
         private Date from;
         private Date to;
 
@@ -477,24 +475,109 @@ public class BusinessCalendarImpl implements BusinessCalendar {
     }
 
     protected boolean isWorkingDay(int day) {
-        if (weekendDays.contains(day)) {
-            return false;
-        }
+        return day < Calendar.SUNDAY || day > Calendar.SATURDAY || !weekend[day];
+    }
 
-        return true;
+    protected ZonedDateTime handleWeekend(ZonedDateTime c, boolean resetTime) {
+        while (!isWorkingDay(calendarDayOfWeek(c.getDayOfWeek()))) {
+            c = plusDays(c, 1);
+            if (resetTime) {
+                c = withLocalTime(c, c.toLocalDate().atStartOfDay());
+            }
+        }
+        return c;
     }
 
+    /**
+     * @deprecated use {@link #handleWeekend(ZonedDateTime, boolean)}
+     */
+    @Deprecated
     protected void handleWeekend(Calendar c, boolean resetTime) {
-        int dayOfTheWeek = c.get(Calendar.DAY_OF_WEEK);
-        while (!isWorkingDay(dayOfTheWeek)) {
-            c.add(Calendar.DAY_OF_YEAR, 1);
-            if (resetTime) {
-                c.set(Calendar.HOUR_OF_DAY, 0);
-                c.set(Calendar.MINUTE, 0);
-                c.set(Calendar.SECOND, 0);
-                c.set(Calendar.MILLISECOND, 0);
+        c.setTimeInMillis(handleWeekend(toZonedDateTime(c), resetTime).toInstant().toEpochMilli());
+    }
+
+    private static ZonedDateTime toZonedDateTime(Calendar c) {
+        return c.toInstant().atZone(c.getTimeZone().toZoneId());
+    }
+
+    /**
+     * Adds days keeping the time of day, resolved as java.util.Calendar does when the offset changes in between.
+     */
+    private static ZonedDateTime plusDays(ZonedDateTime c, long days) {
+        LocalDateTime target = c.toLocalDateTime().plusDays(days);
+        ZonedDateTime result = target.toInstant(c.getOffset()).atZone(c.getZone());
+        int offsetChange = c.getOffset().getTotalSeconds() - result.getOffset().getTotalSeconds();
+        if (offsetChange != 0) {
+            ZonedDateTime adjusted = result.plusSeconds(offsetChange);
+            if (adjusted.toLocalDate().equals(target.toLocalDate())) {
+                result = adjusted;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Moves to the given local time, resolved as java.util.Calendar does: times in a gap move forward by its length
+     * and times in an overlap take the later offset.
+     */
+    private static ZonedDateTime withLocalTime(ZonedDateTime c, LocalDateTime local) {
+        return ZonedDateTime.ofLocal(local, c.getZone(), null).withLaterOffsetAtOverlap();
+    }
+
+    private static int calendarDayOfWeek(DayOfWeek dayOfWeek) {
+        // java.util.Calendar weeks start on sunday
+        return dayOfWeek.getValue() % 7 + 1;
+    }
+
+    /**
+     * Holidays sorted by time, so that the holiday a given time falls in is found with a binary search instead of
+     * checking every holiday. The boundaries of all the holidays split the time line in segments and, for each
+     * boundary and each segment between two boundaries, the end of the first configured holiday containing it is
+     * precomputed.
+     */
+    private static class HolidayIndex {
+
+        private static final long NO_HOLIDAY = Long.MIN_VALUE;
+
+        private final long[] boundaries;
+        // end of the holiday containing boundaries[i]
+        private final long[] boundaryHolidayEnds;
+        // end of the holiday containing the times between boundaries[i] and boundaries[i + 1]
+        private final long[] segmentHolidayEnds;
+
+        private HolidayIndex(List<TimePeriod> holidays) {
+            TreeSet<Long> times = new TreeSet<>();
+            for (TimePeriod holiday : holidays) {
+                times.add(holiday.getFrom().getTime());
+                times.add(holiday.getTo().getTime());
+            }
+            boundaries = times.stream().mapToLong(Long::longValue).toArray();
+            boundaryHolidayEnds = new long[boundaries.length];
+            segmentHolidayEnds = new long[boundaries.length];
+            Arrays.fill(boundaryHolidayEnds, NO_HOLIDAY);
+            Arrays.fill(segmentHolidayEnds, NO_HOLIDAY);
+            // holidays contain the times strictly between their boundaries, and the first configured one wins
+            for (int i = holidays.size() - 1; i >= 0; i--) {
+                long from = holidays.get(i).getFrom().getTime();
+                long to = holidays.get(i).getTo().getTime();
+                for (int j = 0; j < boundaries.length; j++) {
+                    if (boundaries[j] > from && boundaries[j] < to) {
+                        boundaryHolidayEnds[j] = to;
+                    }
+                    if (j + 1 < boundaries.length && boundaries[j] >= from && boundaries[j + 1] <= to) {
+                        segmentHolidayEnds[j] = to;
+                    }
+                }
+            }
+        }
+
+        private long endOfHoliday(long time) {
+            int position = Arrays.binarySearch(boundaries, time);
+            if (position >= 0) {
+                return boundaryHolidayEnds[position];
             }
-            dayOfTheWeek = c.get(Calendar.DAY_OF_WEEK);
+            int segment = -position - 2;
+            return segment >= 0 ? segmentHolidayEnds[segment] : NO_HOLIDAY;
         }
     }
 }
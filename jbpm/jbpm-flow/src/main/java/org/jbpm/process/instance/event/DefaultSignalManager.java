@@ -18,10 +18,7 @@ package org.jbpm.process.instance.event;
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
-import java.util.List;
-import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.drools.core.common.InternalKnowledgeRuntime;
 import org.drools.core.common.InternalWorkingMemory;
@@ -33,11 +30,12 @@ import org.drools.core.phreak.PropagationEntry;
 import org.jbpm.process.instance.InternalProcessRuntime;
 import org.kie.api.runtime.process.EventListener;
 import org.kie.api.runtime.process.ProcessInstance;
+import org.kie.kogito.services.signal.SubscriptionSet;
 import org.kie.kogito.signal.SignalManager;
 
 public class DefaultSignalManager implements SignalManager {
 
-    private Map<String, List<EventListener>> processEventListeners = new ConcurrentHashMap<>();
+    private ConcurrentHashMap<String, SubscriptionSet<EventListener>> processEventListeners = new ConcurrentHashMap<>();
     private InternalKnowledgeRuntime kruntime;
 
     public DefaultSignalManager(InternalKnowledgeRuntime kruntime) {
@@ -45,31 +43,20 @@ public class DefaultSignalManager implements SignalManager {
     }
 
     public void addEventListener(String type, EventListener eventListener) {
-        List<EventListener> eventListeners = processEventListeners.get(type);
-        //this first "if" is not pretty, but allows to synchronize only when needed
-        if (eventListeners == null) {
-            synchronized (processEventListeners) {
-                eventListeners = processEventListeners.get(type);
-                if (eventListeners == null) {
-                    eventListeners = new CopyOnWriteArrayList<>();
-                    processEventListeners.put(type, eventListeners);
-                }
+        processEventListeners.compute(type, (k, v) -> {
+            if (v == null) {
+                v = new SubscriptionSet<>();
             }
-        }
-        eventListeners.add(eventListener);
+            v.add(eventListener);
+            return v;
+        });
     }
 
     public void removeEventListener(String type, EventListener eventListener) {
-        if (processEventListeners != null) {
-            List<EventListener> eventListeners = processEventListeners.get(type);
-            if (eventListeners != null) {
-                eventListeners.remove(eventListener);
-                if (eventListeners.isEmpty()) {
-                    processEventListeners.remove(type);
-                    eventListeners = null;
-                }
-            }
-        }
+        processEventListeners.computeIfPresent(type, (k, v) -> {
+            v.remove(eventListener);
+            return v.isEmpty() ? null : v;
+        });
     }
 
     public void signalEvent(String type, Object event) {
@@ -77,12 +64,10 @@ public class DefaultSignalManager implements SignalManager {
     }
 
     public void internalSignalEvent(String type, Object event) {
-        if (processEventListeners != null) {
-            List<EventListener> eventListeners = processEventListeners.get(type);
-            if (eventListeners != null) {
-                for (EventListener eventListener : eventListeners) {
-                    eventListener.signalEvent(type, event);
-                }
+        SubscriptionSet<EventListener> eventListeners = processEventListeners.get(type);
+        if (eventListeners != null) {
+            for (EventListener eventListener : eventListeners.snapshot()) {
+                eventListener.signalEvent(type, event);
             }
         }
     }
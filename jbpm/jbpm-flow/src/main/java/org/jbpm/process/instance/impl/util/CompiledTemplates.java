@@ -0,0 +1,88 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jbpm.process.instance.impl.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+
+import org.jbpm.process.instance.impl.ReturnValueEvaluator;
+import org.jbpm.ruleflow.core.Metadata;
+import org.jbpm.util.PatternConstants;
+import org.kie.api.definition.process.Node;
+
+/**
+ * Accessors generated at build time for the <code>#{...}</code> placeholders of the expression templates used by a node,
+ * registered as node metadata under {@link Metadata#COMPILED_TEMPLATES}.
+ * <p>
+ * Templates are parsed once, when registered. Placeholders without an accessor, or whose accessor fails, are still
+ * resolved at runtime as a process variable or an MVEL expression.
+ */
+public class CompiledTemplates {
+
+    private final Map<String, Template> templates = new HashMap<>();
+
+    public CompiledTemplates add(String template, String expression, ReturnValueEvaluator accessor) {
+        templates.computeIfAbsent(template, Template::new).accessors.put(expression, accessor);
+        return this;
+    }
+
+    public Template get(String template) {
+        return templates.get(template);
+    }
+
+    public static Template get(Node node, String template) {
+        if (node == null || template == null) {
+            return null;
+        }
+        Object compiledTemplates = node.getMetaData().get(Metadata.COMPILED_TEMPLATES);
+        return compiledTemplates instanceof CompiledTemplates ? ((CompiledTemplates) compiledTemplates).get(template) : null;
+    }
+
+    public static class Template {
+
+        private final List<String> expressions;
+        private final Map<String, ReturnValueEvaluator> accessors = new HashMap<>();
+
+        private Template(String template) {
+            Set<String> found = new LinkedHashSet<>();
+            Matcher matcher = PatternConstants.PARAMETER_MATCHER.matcher(template);
+            while (matcher.find()) {
+                found.add(matcher.group(1));
+            }
+            this.expressions = Collections.unmodifiableList(new ArrayList<>(found));
+        }
+
+        /**
+         * @return the distinct placeholder expressions of the template, in order of appearance
+         */
+        public List<String> getExpressions() {
+            return expressions;
+        }
+
+        /**
+         * @return the accessor generated for the given placeholder expression, <code>null</code> if it must be interpreted
+         */
+        public ReturnValueEvaluator getAccessor(String expression) {
+            return accessors.get(expression);
+        }
+    }
+}
@@ -21,10 +21,14 @@ import java.util.regex.Matcher;
 
 import org.jbpm.process.core.context.variable.VariableScope;
 import org.jbpm.process.instance.context.variable.VariableScopeInstance;
+import org.jbpm.process.instance.impl.ReturnValueEvaluator;
+import org.jbpm.util.ContextFactory;
 import org.jbpm.util.PatternConstants;
 import org.jbpm.workflow.instance.impl.MVELProcessHelper;
 import org.jbpm.workflow.instance.impl.NodeInstanceResolverFactory;
 import org.kie.api.runtime.process.NodeInstance;
+import org.kie.kogito.internal.process.runtime.KogitoNodeInstance;
+import org.kie.kogito.internal.process.runtime.KogitoProcessContext;
 
 public class VariableUtil {
     public static String resolveVariable(String s, NodeInstance nodeInstance) {
@@ -33,25 +37,32 @@ public class VariableUtil {
         }
 
         Map<String, String> replacements = new HashMap<>();
-        Matcher matcher = PatternConstants.PARAMETER_MATCHER.matcher(s);
-        while (matcher.find()) {
-            String paramName = matcher.group(1);
-            if (replacements.get(paramName) == null) {
-                VariableScopeInstance variableScopeInstance =
-                        (VariableScopeInstance) ((org.jbpm.workflow.instance.NodeInstance) nodeInstance).resolveContextInstance(VariableScope.VARIABLE_SCOPE, paramName);
-                if (variableScopeInstance != null) {
-                    Object variableValue = variableScopeInstance.getVariable(paramName);
-                    String variableValueString = variableValue == null ? "" : variableValue.toString();
-                    replacements.put(paramName, variableValueString);
-                } else {
+        CompiledTemplates.Template template = nodeInstance != null ? CompiledTemplates.get(nodeInstance.getNode(), s) : null;
+        if (template != null) {
+            KogitoProcessContext context = null;
+            for (String paramName : template.getExpressions()) {
+                ReturnValueEvaluator accessor = template.getAccessor(paramName);
+                if (accessor != null) {
+                    if (context == null) {
+                        context = ContextFactory.fromNode((KogitoNodeInstance) nodeInstance);
+                    }
                     try {
-                        Object variableValue = MVELProcessHelper.evaluator().eval(paramName, new NodeInstanceResolverFactory((org.jbpm.workflow.instance.NodeInstance) nodeInstance));
-                        String variableValueString = variableValue == null ? "" : variableValue.toString();
-                        replacements.put(paramName, variableValueString);
-                    } catch (Throwable t) {
-
+                        Object variableValue = accessor.evaluate(context);
+                        replacements.put(paramName, variableValue == null ? "" : variableValue.toString());
+                        continue;
+                    } catch (Exception e) {
+                        // interpreted below
                     }
                 }
+                resolveParameter(paramName, nodeInstance, replacements);
+            }
+        } else {
+            Matcher matcher = PatternConstants.PARAMETER_MATCHER.matcher(s);
+            while (matcher.find()) {
+                String paramName = matcher.group(1);
+                if (replacements.get(paramName) == null) {
+                    resolveParameter(paramName, nodeInstance, replacements);
+                }
             }
         }
         for (Map.Entry<String, String> replacement : replacements.entrySet()) {
@@ -60,4 +71,22 @@ public class VariableUtil {
 
         return s;
     }
+
+    private static void resolveParameter(String paramName, NodeInstance nodeInstance, Map<String, String> replacements) {
+        VariableScopeInstance variableScopeInstance =
+                (VariableScopeInstance) ((org.jbpm.workflow.instance.NodeInstance) nodeInstance).resolveContextInstance(VariableScope.VARIABLE_SCOPE, paramName);
+        if (variableScopeInstance != null) {
+            Object variableValue = variableScopeInstance.getVariable(paramName);
+            String variableValueString = variableValue == null ? "" : variableValue.toString();
+            replacements.put(paramName, variableValueString);
+        } else {
+            try {
+                Object variableValue = MVELProcessHelper.evaluator().eval(paramName, new NodeInstanceResolverFactory((org.jbpm.workflow.instance.NodeInstance) nodeInstance));
+                String variableValueString = variableValue == null ? "" : variableValue.toString();
+                replacements.put(paramName, variableValueString);
+            } catch (Throwable t) {
+
+            }
+        }
+    }
 }
@@ -42,6 +42,8 @@ import org.jbpm.process.instance.context.exclusive.ExclusiveGroupInstance;
 import org.jbpm.process.instance.context.variable.VariableScopeInstance;
 import org.jbpm.process.instance.impl.Action;
 import org.jbpm.process.instance.impl.ConstraintEvaluator;
+import org.jbpm.process.instance.impl.ReturnValueEvaluator;
+import org.jbpm.process.instance.impl.util.CompiledTemplates;
 import org.jbpm.util.ContextFactory;
 import org.jbpm.util.PatternConstants;
 import org.jbpm.workflow.core.Node;
@@ -630,7 +632,7 @@ public abstract class NodeInstanceImpl implements org.jbpm.workflow.instance.Nod
     }
 
     protected boolean isExpression(String expression) {
-        return expression != null && PatternConstants.PARAMETER_MATCHER.matcher(expression).find();
+        return expression != null && (CompiledTemplates.get(getNode(), expression) != null || PatternConstants.PARAMETER_MATCHER.matcher(expression).find());
     }
 
     protected String resolveExpression(String expression) {
@@ -656,6 +658,10 @@ public abstract class NodeInstanceImpl implements org.jbpm.workflow.instance.Nod
         if (expression == null) {
             return null;
         }
+        CompiledTemplates.Template template = CompiledTemplates.get(getNode(), expression);
+        if (template != null) {
+            return converter.apply(resolveTemplate(template));
+        }
         Object outcome = null;
         // cannot parse delay, trying to interpret it
         Map<String, Object> replacements = new HashMap<>();
@@ -665,20 +671,7 @@ public abstract class NodeInstanceImpl implements org.jbpm.workflow.instance.Nod
             while (matcher.find()) {
                 String paramName = matcher.group(1);
                 if (replacements.get(paramName) == null) {
-                    VariableScopeInstance variableScopeInstance = (VariableScopeInstance) resolveContextInstance(VariableScope.VARIABLE_SCOPE, paramName);
-                    if (variableScopeInstance != null) {
-                        Object variableValue = variableScopeInstance.getVariable(paramName);
-                        replacements.put(paramName, variableValue);
-                    } else {
-                        try {
-                            Object variableValue = MVELProcessHelper.evaluator().eval(paramName, new NodeInstanceResolverFactory(this));
-                            replacements.put(paramName, variableValue);
-                        } catch (Throwable t) {
-                            logger.error("Could not find variable scope for variable {}", paramName);
-                            logger.error("when trying to replace variable in processId for node {}", getNodeName());
-                            logger.error("Continuing without setting process id.");
-                        }
-                    }
+                    resolveParameter(paramName, replacements);
                 }
             }
             outcome = converter.apply(replacements);
@@ -690,6 +683,44 @@ public abstract class NodeInstanceImpl implements org.jbpm.workflow.instance.Nod
         return outcome;
     }
 
+    private Map<String, Object> resolveTemplate(CompiledTemplates.Template template) {
+        Map<String, Object> replacements = new HashMap<>();
+        KogitoProcessContext context = null;
+        for (String paramName : template.getExpressions()) {
+            ReturnValueEvaluator accessor = template.getAccessor(paramName);
+            if (accessor != null) {
+                if (context == null) {
+                    context = ContextFactory.fromNode(this);
+                }
+                try {
+                    replacements.put(paramName, accessor.evaluate(context));
+                    continue;
+                } catch (Exception e) {
+                    logger.debug("Compiled accessor for {} failed, interpreting it", paramName, e);
+                }
+            }
+            resolveParameter(paramName, replacements);
+        }
+        return replacements;
+    }
+
+    private void resolveParameter(String paramName, Map<String, Object> replacements) {
+        VariableScopeInstance variableScopeInstance = (VariableScopeInstance) resolveContextInstance(VariableScope.VARIABLE_SCOPE, paramName);
+        if (variableScopeInstance != null) {
+            Object variableValue = variableScopeInstance.getVariable(paramName);
+            replacements.put(paramName, variableValue);
+        } else {
+            try {
+                Object variableValue = MVELProcessHelper.evaluator().eval(paramName, new NodeInstanceResolverFactory(this));
+                replacements.put(paramName, variableValue);
+            } catch (Throwable t) {
+                logger.error("Could not find variable scope for variable {}", paramName);
+                logger.error("when trying to replace variable in processId for node {}", getNodeName());
+                logger.error("Continuing without setting process id.");
+            }
+        }
+    }
+
     protected void mapDynamicOutputData(Map<String, Object> results) {
         if (results != null && !results.isEmpty()) {
             VariableScope variableScope = (VariableScope) ((ContextContainer) getProcessInstance().getProcess()).getDefaultContext(VariableScope.VARIABLE_SCOPE);
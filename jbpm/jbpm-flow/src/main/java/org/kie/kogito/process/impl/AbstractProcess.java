@@ -20,6 +20,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Predicate;
@@ -59,10 +60,14 @@ import org.kie.kogito.process.ProcessInstancesFactory;
 import org.kie.kogito.process.ProcessVersionResolver;
 import org.kie.kogito.process.Signal;
 import org.kie.kogito.services.event.correlation.DefaultCorrelationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 @SuppressWarnings("unchecked")
 public abstract class AbstractProcess<T extends Model> implements Process<T>, ProcessSupplier {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(AbstractProcess.class);
+
     protected final ProcessRuntimeServiceProvider services;
     protected ProcessInstancesFactory processInstancesFactory;
     protected MutableProcessInstances<T> instances;
@@ -70,12 +75,14 @@ public abstract class AbstractProcess<T extends Model> implements Process<T>, Pr
 
     protected Application app;
 
-    protected boolean activated;
+    protected volatile boolean activated;
     protected List<String> startTimerInstances = new ArrayList<>();
     protected KogitoProcessRuntime processRuntime;
 
-    private org.kie.api.definition.process.Process process;
+    private volatile org.kie.api.definition.process.Process process;
     private Lock processInitLock = new ReentrantLock();
+    private ReentrantLock activationLock = new ReentrantLock();
+    private volatile boolean activationDeferred;
     private CorrelationService correlations;
     private ProcessVersionResolver versionResolver;
 
@@ -150,12 +157,13 @@ public abstract class AbstractProcess<T extends Model> implements Process<T>, Pr
 
     @Override
     public Collection<KogitoNode> findNodes(Predicate<KogitoNode> filter) {
-        RuleFlowProcess p = (RuleFlowProcess) this.process;
+        RuleFlowProcess p = (RuleFlowProcess) get();
         return p.getNodesRecursively().stream().map(n -> (KogitoNode) n).filter(filter).collect(Collectors.toList());
     }
 
     @Override
     public ProcessInstances<T> instances() {
+        activateIfDeferred();
         return instances;
     }
 
@@ -186,27 +194,70 @@ public abstract class AbstractProcess<T extends Model> implements Process<T>, Pr
         if (this.activated) {
             return;
         }
-        WorkflowProcessImpl p = (WorkflowProcessImpl) get();
-        configure();
-        List<StartNode> startNodes = p.getTimerStart();
-        if (startNodes != null && !startNodes.isEmpty()) {
-            this.processRuntime = createProcessRuntime().getKogitoProcessRuntime();
-            for (StartNode startNode : startNodes) {
-                if (startNode != null && startNode.getTimer() != null) {
-                    String timerId = processRuntime.getJobsService().scheduleProcessJob(ProcessJobDescription.of(configureTimerInstance(startNode.getTimer()), this));
-                    startTimerInstances.add(timerId);
+        activationLock.lock();
+        try {
+            // also skip calls made by this thread while activating, e.g. when creating the process runtime below
+            if (this.activated || activationLock.getHoldCount() > 1) {
+                return;
+            }
+            long start = System.nanoTime();
+            boolean onFirstUse = activationDeferred;
+            configure();
+            // the process definition is only built here if start timers have to be scheduled
+            if (hasTimerStart()) {
+                this.processRuntime = createProcessRuntime().getKogitoProcessRuntime();
+                for (StartNode startNode : ((WorkflowProcessImpl) get()).getTimerStart()) {
+                    if (startNode != null && startNode.getTimer() != null) {
+                        String timerId = processRuntime.getJobsService().scheduleProcessJob(ProcessJobDescription.of(configureTimerInstance(startNode.getTimer()), this));
+                        startTimerInstances.add(timerId);
+                    }
                 }
             }
+            // published only once fully configured, other threads wait for the lock till then
+            this.activated = true;
+            this.activationDeferred = false;
+            if (onFirstUse) {
+                LOGGER.info("Process {} activated on first use in {} ms", id(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            } else {
+                LOGGER.debug("Process {} activated in {} ms", id(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+        } finally {
+            activationLock.unlock();
+        }
+    }
+
+    /**
+     * Defers the activation of the process to its first use, that is when creating an instance or accessing the
+     * instances of the process, instead of activating it when created.
+     */
+    protected void deferActivation() {
+        this.activationDeferred = true;
+    }
+
+    /**
+     * Returns whether the activation of the process is deferred to its first use and did not happen yet.
+     */
+    public boolean isActivationDeferred() {
+        return activationDeferred && !activated;
+    }
+
+    private void activateIfDeferred() {
+        if (isActivationDeferred()) {
+            activate();
         }
-        this.activated = true;
     }
 
     @Override
     public void deactivate() {
-        for (String startTimerId : startTimerInstances) {
-            this.processRuntime.getJobsService().cancelJob(startTimerId);
+        activationLock.lock();
+        try {
+            for (String startTimerId : startTimerInstances) {
+                this.processRuntime.getJobsService().cancelJob(startTimerId);
+            }
+            this.activated = false;
+        } finally {
+            activationLock.unlock();
         }
-        this.activated = false;
     }
 
     protected ExpirationTime configureTimerInstance(Timer timer) {
@@ -241,20 +292,33 @@ public abstract class AbstractProcess<T extends Model> implements Process<T>, Pr
 
     @Override
     public org.kie.api.definition.process.Process get() {
-        processInitLock.lock();
-        try {
-            if (process == null) {
-                process = process();
+        if (process == null) {
+            processInitLock.lock();
+            try {
+                if (process == null) {
+                    process = process();
+                }
+            } finally {
+                processInitLock.unlock();
             }
-        } finally {
-            processInitLock.unlock();
         }
         return process;
     }
 
     protected abstract org.kie.api.definition.process.Process process();
 
+    /**
+     * Returns whether the process has start nodes triggered by timers, to be scheduled on activation.
+     * Generated processes override it with the value known at build time, so that their definition is
+     * only built on first use.
+     */
+    protected boolean hasTimerStart() {
+        List<StartNode> startNodes = ((WorkflowProcessImpl) get()).getTimerStart();
+        return startNodes != null && !startNodes.isEmpty();
+    }
+
     protected InternalProcessRuntime createProcessRuntime() {
+        activateIfDeferred();
         return LightProcessRuntime.of(app, Collections.singletonList(get()), services);
     }
 
@@ -16,17 +16,28 @@
 package org.kie.kogito.process.impl;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.kie.kogito.process.MutableProcessInstances;
 import org.kie.kogito.process.ProcessInstance;
 import org.kie.kogito.process.ProcessInstanceDuplicatedException;
+import org.kie.kogito.process.ProcessInstanceQuery;
 import org.kie.kogito.process.ProcessInstanceReadMode;
 
 class MapProcessInstances<T> implements MutableProcessInstances<T> {
 
     private final ConcurrentHashMap<String, ProcessInstance<T>> instances = new ConcurrentHashMap<>();
+    // secondary indexes, the status and business key each instance was indexed with are kept to unindex it
+    private final Map<Integer, Set<String>> byStatus = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> byBusinessKey = new ConcurrentHashMap<>();
+    private final Map<String, IndexedValues> indexed = new ConcurrentHashMap<>();
 
     @Override
     public Integer size() {
@@ -43,6 +54,25 @@ class MapProcessInstances<T> implements MutableProcessInstances<T> {
         return instances.values();
     }
 
+    @Override
+    public List<ProcessInstance<T>> find(ProcessInstanceQuery query, ProcessInstanceReadMode mode) {
+        Stream<String> candidates;
+        if (query.businessKey() != null) {
+            candidates = byBusinessKey.getOrDefault(query.businessKey(), Set.of()).stream();
+        } else if (query.status() != null) {
+            candidates = byStatus.getOrDefault(query.status(), Set.of()).stream();
+        } else {
+            candidates = instances.keySet().stream();
+        }
+        // instances are live, the indexes only narrow the candidates which are checked against the query
+        return candidates.sorted()
+                .map(instances::get)
+                .filter(instance -> instance != null && query.matches(instance))
+                .skip(query.offset())
+                .limit(query.limit())
+                .collect(Collectors.toList());
+    }
+
     @Override
     public void create(String id, ProcessInstance<T> instance) {
         if (isActive(instance)) {
@@ -50,6 +80,7 @@ class MapProcessInstances<T> implements MutableProcessInstances<T> {
             if (existing != null) {
                 throw new ProcessInstanceDuplicatedException(id);
             }
+            index(id, instance);
         }
     }
 
@@ -57,16 +88,81 @@ class MapProcessInstances<T> implements MutableProcessInstances<T> {
     public void update(String id, ProcessInstance<T> instance) {
         if (isActive(instance)) {
             instances.put(id, instance);
+            index(id, instance);
         }
     }
 
     @Override
     public void remove(String id) {
         instances.remove(id);
+        unindex(id);
     }
 
     @Override
     public boolean exists(String id) {
         return instances.containsKey(id);
     }
+
+    private void index(String id, ProcessInstance<T> instance) {
+        IndexedValues values = new IndexedValues(instance.status(), instance.businessKey());
+        IndexedValues previous = indexed.put(id, values);
+        if (values.equals(previous)) {
+            return;
+        }
+        if (previous != null) {
+            unindex(id, previous);
+        }
+        index(byStatus, values.status, id);
+        if (values.businessKey != null) {
+            index(byBusinessKey, values.businessKey, id);
+        }
+    }
+
+    // added under the lock of the bin, as unindex removes the set once empty
+    private static <K> void index(Map<K, Set<String>> index, K key, String id) {
+        index.compute(key, (k, ids) -> {
+            ids = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+            ids.add(id);
+            return ids;
+        });
+    }
+
+    private void unindex(String id) {
+        IndexedValues previous = indexed.remove(id);
+        if (previous != null) {
+            unindex(id, previous);
+        }
+    }
+
+    private void unindex(String id, IndexedValues values) {
+        byStatus.computeIfPresent(values.status, (k, ids) -> ids.remove(id) && ids.isEmpty() ? null : ids);
+        if (values.businessKey != null) {
+            byBusinessKey.computeIfPresent(values.businessKey, (k, ids) -> ids.remove(id) && ids.isEmpty() ? null : ids);
+        }
+    }
+
+    private static class IndexedValues {
+
+        private final int status;
+        private final String businessKey;
+
+        private IndexedValues(int status, String businessKey) {
+            this.status = status;
+            this.businessKey = businessKey;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof IndexedValues)) {
+                return false;
+            }
+            IndexedValues other = (IndexedValues) o;
+            return status == other.status && Objects.equals(businessKey, other.businessKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * status + (businessKey == null ? 0 : businessKey.hashCode());
+        }
+    }
 }
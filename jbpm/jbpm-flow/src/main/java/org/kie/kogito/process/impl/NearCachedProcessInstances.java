@@ -0,0 +1,30 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.process.impl;
+
+/**
+ * Persistence store keeping the process instances it reads in a {@link ProcessInstanceNearCache}.
+ */
+public interface NearCachedProcessInstances {
+
+    ProcessInstanceNearCache nearCache();
+
+    /**
+     * Returns whether {@link org.kie.kogito.process.ProcessInstances#find} reads only the requested page of process
+     * instances from the store, instead of scanning all of them, and puts them in the near cache.
+     */
+    boolean isPagedFind();
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.process.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded, least recently used cache of the marshalled process instances last written or read by a
+ * {@link org.kie.kogito.process.MutableProcessInstances} store, together with the version they were persisted with.
+ * <p>
+ * Stores consult it before reading from the database, so that an instance updated and then accessed again by a
+ * follow-up request is unmarshalled from memory instead of being read again. Before serving an entry they read the
+ * version currently persisted, without the payload, and discard the entry if it no longer matches, so that updates and
+ * removals made by other application instances are seen. Without optimistic locking the version never changes, the
+ * cache should then only be enabled when a single application instance writes to the store.
+ * <p>
+ * Stores writing within a transaction only put entries once it is committed, so that no other unit of work reads
+ * uncommitted state from the cache.
+ * <p>
+ * A cache created with a maximum size lower than one is disabled and never holds any entry.
+ */
+public class ProcessInstanceNearCache {
+
+    public static final int DISABLED = 0;
+
+    private static final ProcessInstanceNearCache NONE = new ProcessInstanceNearCache(DISABLED);
+
+    private final int maxSize;
+
+    private final Map<String, Entry> entries;
+
+    public ProcessInstanceNearCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > ProcessInstanceNearCache.this.maxSize;
+            }
+        };
+    }
+
+    public static ProcessInstanceNearCache disabled() {
+        return NONE;
+    }
+
+    public static ProcessInstanceNearCache of(Integer maxSize) {
+        return maxSize == null || maxSize < 1 ? disabled() : new ProcessInstanceNearCache(maxSize);
+    }
+
+    public boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    public int maxSize() {
+        return maxSize;
+    }
+
+    public Optional<Entry> get(String id) {
+        if (!isEnabled()) {
+            return Optional.empty();
+        }
+        synchronized (entries) {
+            return Optional.ofNullable(entries.get(id));
+        }
+    }
+
+    /**
+     * Records the payload of a process instance as persisted in the store.
+     *
+     * @param id process instance id
+     * @param payload marshalled process instance, as stored
+     * @param version version the payload was persisted with
+     */
+    public void put(String id, byte[] payload, long version) {
+        if (isEnabled()) {
+            synchronized (entries) {
+                entries.put(id, new Entry(payload, version));
+            }
+        }
+    }
+
+    public void invalidate(String id) {
+        if (isEnabled()) {
+            synchronized (entries) {
+                entries.remove(id);
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public static class Entry {
+
+        private final byte[] payload;
+        private final long version;
+
+        public Entry(byte[] payload, long version) {
+            this.payload = payload;
+            this.version = version;
+        }
+
+        public byte[] payload() {
+            return payload;
+        }
+
+        public long version() {
+            return version;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.process.impl;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.kie.kogito.process.Process;
+import org.kie.kogito.process.ProcessInstanceQuery;
+import org.kie.kogito.process.ProcessInstanceReadMode;
+import org.kie.kogito.process.ProcessInstances;
+import org.kie.kogito.process.Processes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads the process instances kept by the persistence stores while the application starts, so that the burst of
+ * timers, signals and requests following a restart does not read them one by one.
+ * <p>
+ * Only the stores that read pages of instances into an enabled near cache are warmed up, see
+ * {@link NearCachedProcessInstances}, since reading the others keeps nothing in memory. Processes whose activation is
+ * deferred to their first use are skipped as well, as accessing their instances would activate them.
+ * <p>
+ * The instances of each process are read in chunks of <code>chunkSize</code>, ordered by id, by <code>parallelism</code>
+ * threads. At most <code>maxInstances</code> instances are read for each process, bounded by the size of the near
+ * cache, and reading stops once the time budget is exhausted.
+ */
+public class ProcessInstancesWarmUp {
+
+    public static final String ENABLED = "kogito.processes.warm-up.enabled";
+    public static final String PARALLELISM = "kogito.processes.warm-up.parallelism";
+    public static final String CHUNK_SIZE = "kogito.processes.warm-up.chunk-size";
+    public static final String MAX_INSTANCES = "kogito.processes.warm-up.max-instances";
+    public static final String TIMEOUT = "kogito.processes.warm-up.timeout.millis";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProcessInstancesWarmUp.class);
+
+    private final Processes processes;
+    private final int parallelism;
+    private final int chunkSize;
+    private final int maxInstances;
+    private final Duration timeout;
+
+    public ProcessInstancesWarmUp(Processes processes, int parallelism, int chunkSize, int maxInstances, Duration timeout) {
+        if (parallelism < 1 || chunkSize < 1) {
+            throw new IllegalArgumentException("Warm-up parallelism and chunk size must be positive");
+        }
+        this.processes = processes;
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+        this.maxInstances = maxInstances;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Reads the process instances, returning once all of them have been read or the time budget is exhausted.
+     *
+     * @return number of process instances read
+     */
+    public int run() {
+        long start = System.nanoTime();
+        AtomicInteger loaded = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, new WarmUpThreadFactory());
+        try {
+            for (String processId : processes.processIds()) {
+                submit(executor, processes.processById(processId), loaded);
+            }
+            executor.shutdown();
+            if (!executor.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                LOGGER.warn("Process instances warm-up did not complete within {} ms, {} process instances read", timeout.toMillis(), loaded.get());
+                return loaded.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warn("Process instances warm-up interrupted, {} process instances read", loaded.get());
+            return loaded.get();
+        } finally {
+            executor.shutdownNow();
+        }
+        LOGGER.info("Process instances warm-up read {} process instances in {} ms", loaded.get(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return loaded.get();
+    }
+
+    private void submit(ExecutorService executor, Process<?> process, AtomicInteger loaded) {
+        if (process instanceof AbstractProcess && ((AbstractProcess<?>) process).isActivationDeferred()) {
+            LOGGER.debug("Process {} is activated on first use, skipping warm-up", process.id());
+            return;
+        }
+        ProcessInstances<?> instances = process.instances();
+        if (!(instances instanceof NearCachedProcessInstances)) {
+            return;
+        }
+        NearCachedProcessInstances cached = (NearCachedProcessInstances) instances;
+        if (!cached.isPagedFind() || !cached.nearCache().isEnabled()) {
+            LOGGER.debug("Process instances of process {} are not read into a near cache, skipping warm-up", process.id());
+            return;
+        }
+        int count = Math.min(instances.size(), Math.min(maxInstances, cached.nearCache().maxSize()));
+        LOGGER.debug("Reading {} process instances of process {}", count, process.id());
+        for (int offset = 0; offset < count; offset += chunkSize) {
+            ProcessInstanceQuery chunk = ProcessInstanceQuery.builder().offset(offset).limit(Math.min(chunkSize, count - offset)).build();
+            executor.execute(() -> {
+                try {
+                    loaded.addAndGet(instances.find(chunk, ProcessInstanceReadMode.READ_ONLY).size());
+                } catch (RuntimeException e) {
+                    LOGGER.warn("Error reading process instances of process {} during warm-up", process.id(), e);
+                }
+            });
+        }
+    }
+
+    private static class WarmUpThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "kogito-warm-up-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
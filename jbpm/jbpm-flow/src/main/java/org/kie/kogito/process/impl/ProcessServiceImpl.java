@@ -22,6 +22,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.jbpm.process.instance.impl.humantask.HumanTaskHelper;
 import org.jbpm.process.instance.impl.humantask.HumanTaskTransition;
@@ -92,19 +93,18 @@ public class ProcessServiceImpl implements ProcessService {
 
     @Override
     public <T extends MappableToModel<R>, R> List<R> getProcessInstanceOutput(Process<T> process) {
-        return process.instances().values().stream()
-                .map(ProcessInstance::variables)
-                .map(MappableToModel::toModel)
-                .collect(Collectors.toList());
+        try (Stream<T> variables = process.instances().streamVariables()) {
+            return variables
+                    .map(MappableToModel::toModel)
+                    .collect(Collectors.toList());
+        }
     }
 
     @Override
     public <T extends MappableToModel<R>, R> Optional<R> findById(Process<T> process, String id) {
-        Optional<ProcessInstance<T>> instance = process.instances()
-                .findById(id, ProcessInstanceReadMode.READ_ONLY);
-        Optional<T> mappable = instance.map(ProcessInstance::variables);
-        Optional<R> data = mappable.map(MappableToModel::toModel);
-        return data;
+        return process.instances()
+                .findVariablesById(id)
+                .map(MappableToModel::toModel);
     }
 
     @Override
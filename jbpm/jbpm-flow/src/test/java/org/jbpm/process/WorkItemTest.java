@@ -32,7 +32,10 @@ import org.jbpm.process.core.impl.ParameterDefinitionImpl;
 import org.jbpm.process.core.impl.WorkImpl;
 import org.jbpm.process.instance.impl.demo.DoNothingWorkItemHandler;
 import org.jbpm.process.instance.impl.demo.MockDataWorkItemHandler;
+import org.jbpm.process.instance.impl.util.CompiledTemplates;
 import org.jbpm.process.test.Person;
+import org.jbpm.process.test.TestWorkItemHandler;
+import org.jbpm.ruleflow.core.Metadata;
 import org.jbpm.ruleflow.core.RuleFlowProcess;
 import org.jbpm.test.util.AbstractBaseTest;
 import org.jbpm.workflow.core.Node;
@@ -44,6 +47,7 @@ import org.jbpm.workflow.instance.WorkflowProcessInstance;
 import org.junit.jupiter.api.Test;
 import org.kie.kogito.internal.process.runtime.KogitoProcessInstance;
 import org.kie.kogito.internal.process.runtime.KogitoProcessRuntime;
+import org.kie.kogito.internal.process.runtime.KogitoWorkItem;
 import org.kie.kogito.process.workitems.KogitoWorkItemHandlerNotFoundException;
 import org.slf4j.LoggerFactory;
 
@@ -203,6 +207,48 @@ public class WorkItemTest extends AbstractBaseTest {
                 processInstance.getState());
     }
 
+    @Test
+    public void testCompiledTemplates() {
+        String workName = "Compiled Task";
+        RuleFlowProcess process = getWorkItemProcess("org.drools.actions", workName);
+        process.getNode(2).getMetaData().put(Metadata.COMPILED_TEMPLATES, new CompiledTemplates()
+                .add("#{Person.name}", "Person.name", kcontext -> ((Person) kcontext.getVariable("Person")).getName().toUpperCase()));
+
+        KogitoWorkItem workItem = startWorkItemProcess(process, workName);
+
+        // compiled accessors are used when present, the other placeholders are still interpreted
+        assertEquals("JOHN DOE", workItem.getParameter("Content"));
+        assertEquals("John Doe", workItem.getParameter("ActorId"));
+    }
+
+    @Test
+    public void testCompiledTemplatesFallbackToInterpretation() {
+        String workName = "Compiled Task";
+        RuleFlowProcess process = getWorkItemProcess("org.drools.actions", workName);
+        process.getNode(2).getMetaData().put(Metadata.COMPILED_TEMPLATES, new CompiledTemplates()
+                .add("#{Person.name}", "Person.name", kcontext -> {
+                    throw new IllegalStateException("failing accessor");
+                }));
+
+        KogitoWorkItem workItem = startWorkItemProcess(process, workName);
+
+        assertEquals("John Doe", workItem.getParameter("Content"));
+    }
+
+    private KogitoWorkItem startWorkItemProcess(RuleFlowProcess process, String workName) {
+        KogitoProcessRuntime kruntime = createKogitoProcessRuntime(process);
+        TestWorkItemHandler handler = new TestWorkItemHandler();
+        kruntime.getKogitoWorkItemManager().registerWorkItemHandler(workName, handler);
+
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("UserName", "John Doe");
+        parameters.put("Person", new Person("John Doe"));
+        kruntime.startProcess(process.getId(), parameters);
+
+        assertEquals(1, handler.getWorkItems().size());
+        return handler.getWorkItems().getFirst();
+    }
+
     private RuleFlowProcess getWorkItemProcess(String processId,
             String workName) {
         RuleFlowProcess process = new RuleFlowProcess();
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jbpm.process.core.event;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MVELMessageExpressionEvaluatorTest {
+
+    public static class Order {
+        private final String id;
+
+        public Order(String id) {
+            this.id = id;
+        }
+
+        public String getId() {
+            return id;
+        }
+    }
+
+    @Test
+    public void testEvalEvent() {
+        MVELMessageExpressionEvaluator evaluator = new MVELMessageExpressionEvaluator("id");
+
+        assertThat(evaluator.eval(new Order("first"))).isEqualTo("first");
+        assertThat(evaluator.eval(new Order("second"))).isEqualTo("second");
+    }
+
+    @Test
+    public void testEvalEventsOfDifferentTypes() {
+        MVELMessageExpressionEvaluator evaluator = new MVELMessageExpressionEvaluator("id");
+        Map<String, Object> event = new HashMap<>();
+        event.put("id", "map");
+
+        assertThat(evaluator.eval(new Order("bean"))).isEqualTo("bean");
+        assertThat(evaluator.eval(event)).isEqualTo("map");
+        assertThat(evaluator.eval(new Order("bean again"))).isEqualTo("bean again");
+    }
+
+    @Test
+    public void testEvalResolver() {
+        MVELMessageExpressionEvaluator evaluator = new MVELMessageExpressionEvaluator("order.id + '-' + suffix");
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("#{order}", new Order("first"));
+        variables.put("#{suffix}", "a");
+
+        assertThat(evaluator.eval(variables::get)).isEqualTo("first-a");
+
+        variables.put("#{order}", new Order("second"));
+        assertThat(evaluator.eval(variables::get)).isEqualTo("second-a");
+    }
+
+    @Test
+    public void testEvalAfterSerialization() throws Exception {
+        MVELMessageExpressionEvaluator evaluator = new MVELMessageExpressionEvaluator("id");
+        assertThat(evaluator.eval(new Order("first"))).isEqualTo("first");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(evaluator);
+        }
+        MVELMessageExpressionEvaluator copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (MVELMessageExpressionEvaluator) in.readObject();
+        }
+
+        assertThat(copy.getExpression()).isEqualTo("id");
+        assertThat(copy.eval(new Order("second"))).isEqualTo("second");
+        assertThat(copy.eval(Collections.singletonMap("#{id}", "third")::get)).isEqualTo("third");
+    }
+}
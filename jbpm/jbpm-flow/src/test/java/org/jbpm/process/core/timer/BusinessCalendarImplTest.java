@@ -19,11 +19,18 @@ import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
 import java.util.Properties;
+import java.util.Random;
+import java.util.TimeZone;
 import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
 
 import org.jbpm.test.util.AbstractBaseTest;
+import org.jbpm.util.PatternConstants;
 import org.junit.jupiter.api.Test;
+import org.kie.kogito.timer.SessionClock;
 import org.kie.kogito.timer.SessionPseudoClock;
 import org.slf4j.LoggerFactory;
 
@@ -371,6 +378,66 @@ public class BusinessCalendarImplTest extends AbstractBaseTest {
         assertEquals(expectedDate, formatDate("yyyy-MM-dd HH:mm:ss", result));
     }
 
+    @Test
+    public void testMatchesPreviousImplementation() {
+        String[] weekendDays = { null, "1,7", "6,7", "1", "7,1,2" };
+        String[] holidays = { null, "2018-04-30,2018-05-03:2018-05-05", "2018-12-24:2019-01-02,2019-04-19",
+                "*-12-25,*-01-01:*-01-02,*-08-15", "2018-05-01:2018-05-10,2018-05-05:2018-05-20,2018-05-07" };
+        String[] timezones = { null, "UTC", "Europe/Madrid", "America/New_York" };
+        String[] durations = { "1h", "3h", "7h", "8h", "30m", "90m", "10s", "2d", "6d", "30d", "1w", "2w3d",
+                "1d4h30m", "45h", "300h", "5d7h59m59s", "PT36H", "P3DT2H", "1000" };
+        long from = parseToDate("2018-01-01").getTime();
+        long span = parseToDate("2020-01-01").getTime() - from;
+        long now = System.currentTimeMillis();
+
+        Random random = new Random(1234);
+        for (int i = 0; i < 5000; i++) {
+            Properties config = new Properties();
+            int hoursPerDay = 6 + random.nextInt(5);
+            int startHour = 6 + random.nextInt(4);
+            config.setProperty(BusinessCalendarImpl.DAYS_PER_WEEK, String.valueOf(4 + random.nextInt(3)));
+            config.setProperty(BusinessCalendarImpl.HOURS_PER_DAY, String.valueOf(hoursPerDay));
+            config.setProperty(BusinessCalendarImpl.START_HOUR, String.valueOf(startHour));
+            config.setProperty(BusinessCalendarImpl.END_HOUR, String.valueOf(startHour + hoursPerDay + random.nextInt(2)));
+            setIfNotNull(config, BusinessCalendarImpl.WEEKEND_DAYS, pick(random, weekendDays));
+            setIfNotNull(config, BusinessCalendarImpl.HOLIDAYS, pick(random, holidays));
+            setIfNotNull(config, BusinessCalendarImpl.TIMEZONE, pick(random, timezones));
+            // around the configured holidays, or around now for the ones repeated every year
+            long time = random.nextBoolean() ? from + (long) (random.nextDouble() * span) : now + (long) ((random.nextDouble() - 0.5) * span);
+            SessionPseudoClock clock = new StaticPseudoClock(time);
+            String duration = pick(random, durations);
+
+            assertEquals(new PreviousBusinessCalendar(config, clock).calculateBusinessTimeAsDate(duration),
+                    new BusinessCalendarImpl(config, clock).calculateBusinessTimeAsDate(duration),
+                    () -> duration + " after " + new Date(time) + " with " + config);
+        }
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testCalendarOverloads() {
+        Properties config = new Properties();
+        config.setProperty(BusinessCalendarImpl.HOLIDAYS, "2012-05-07");
+        BusinessCalendarImpl businessCal = new BusinessCalendarImpl(config, new StaticPseudoClock(0));
+
+        Calendar c = new GregorianCalendar();
+        c.setTime(parseToDateWithTime("2012-05-05 10:30"));
+        businessCal.handleWeekend(c, false);
+        assertEquals("2012-05-07 10:30", formatDate("yyyy-MM-dd HH:mm", c.getTime()));
+        businessCal.handleHoliday(c, false);
+        assertEquals("2012-05-08 10:30", formatDate("yyyy-MM-dd HH:mm", c.getTime()));
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static void setIfNotNull(Properties config, String key, String value) {
+        if (value != null) {
+            config.setProperty(key, value);
+        }
+    }
+
     private Date parseToDate(String dateString) {
         SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
 
@@ -436,4 +503,169 @@ public class BusinessCalendarImplTest extends AbstractBaseTest {
         }
 
     }
+
+    /**
+     * Calculates business time with java.util.Calendar, walking all the holidays at every step, as done before
+     * holidays were indexed.
+     */
+    private static class PreviousBusinessCalendar extends BusinessCalendarImpl {
+
+        private static final long HOUR_IN_MILLIS = 60 * 60 * 1000;
+
+        private final int daysPerWeek;
+        private final int hoursInDay;
+        private final int startHour;
+        private final int endHour;
+        private final String timezone;
+        private final List<TimePeriod> holidays;
+        private final SessionClock clock;
+
+        private PreviousBusinessCalendar(Properties configuration, SessionClock clock) {
+            super(configuration, clock);
+            this.daysPerWeek = getPropertyAsInt(DAYS_PER_WEEK, "5");
+            this.hoursInDay = getPropertyAsInt(HOURS_PER_DAY, "8");
+            this.startHour = getPropertyAsInt(START_HOUR, "9");
+            this.endHour = getPropertyAsInt(END_HOUR, "17");
+            this.timezone = configuration.getProperty(TIMEZONE);
+            this.holidays = parseHolidays();
+            this.clock = clock;
+        }
+
+        @Override
+        public Date calculateBusinessTimeAsDate(String timeExpression) {
+            timeExpression = adoptISOFormat(timeExpression);
+
+            String trimmed = timeExpression.trim();
+            int weeks = 0;
+            int days = 0;
+            int hours = 0;
+            int min = 0;
+            int sec = 0;
+
+            if (trimmed.length() > 0) {
+                Matcher mat = PatternConstants.SIMPLE_TIME_DATE_MATCHER.matcher(trimmed);
+                if (mat.matches()) {
+                    weeks = (mat.group(3) != null) ? Integer.parseInt(mat.group(3)) : 0;
+                    days = (mat.group(5) != null) ? Integer.parseInt(mat.group(5)) : 0;
+                    hours = (mat.group(7) != null) ? Integer.parseInt(mat.group(7)) : 0;
+                    min = (mat.group(9) != null) ? Integer.parseInt(mat.group(9)) : 0;
+                    sec = (mat.group(11) != null) ? Integer.parseInt(mat.group(11)) : 0;
+                }
+            }
+            int time = 0;
+
+            Calendar c = new GregorianCalendar();
+            if (timezone != null) {
+                c.setTimeZone(TimeZone.getTimeZone(timezone));
+            }
+            if (this.clock != null) {
+                c.setTimeInMillis(this.clock.getCurrentTime());
+            }
+
+            int numberOfWeeks = days / daysPerWeek + weeks;
+            if (numberOfWeeks > 0) {
+                c.add(Calendar.WEEK_OF_YEAR, numberOfWeeks);
+            }
+            handlePreviousWeekend(c, hours > 0 || min > 0);
+            hours += (days - (numberOfWeeks * daysPerWeek)) * hoursInDay;
+
+            int numberOfDays = hours / hoursInDay;
+            if (numberOfDays > 0) {
+                for (int i = 0; i < numberOfDays; i++) {
+                    c.add(Calendar.DAY_OF_YEAR, 1);
+                    handlePreviousWeekend(c, false);
+                    handlePreviousHoliday(c, hours > 0 || min > 0);
+                }
+            }
+
+            int currentCalHour = c.get(Calendar.HOUR_OF_DAY);
+            if (currentCalHour >= endHour) {
+                c.add(Calendar.DAY_OF_YEAR, 1);
+                c.add(Calendar.HOUR_OF_DAY, startHour - currentCalHour);
+                c.set(Calendar.MINUTE, 0);
+                c.set(Calendar.SECOND, 0);
+            } else if (currentCalHour < startHour) {
+                c.add(Calendar.HOUR_OF_DAY, startHour);
+            }
+
+            time = hours - (numberOfDays * hoursInDay);
+            c.add(Calendar.HOUR, time);
+            handlePreviousWeekend(c, true);
+            handlePreviousHoliday(c, hours > 0 || min > 0);
+
+            currentCalHour = c.get(Calendar.HOUR_OF_DAY);
+            if (currentCalHour >= endHour) {
+                c.add(Calendar.DAY_OF_YEAR, 1);
+                c.set(Calendar.HOUR_OF_DAY, startHour);
+                c.add(Calendar.HOUR_OF_DAY, currentCalHour - endHour);
+            } else if (currentCalHour < startHour) {
+                c.add(Calendar.HOUR_OF_DAY, startHour);
+            }
+
+            int numberOfHours = min / 60;
+            if (numberOfHours > 0) {
+                c.add(Calendar.HOUR, numberOfHours);
+                min = min - (numberOfHours * 60);
+            }
+            c.add(Calendar.MINUTE, min);
+
+            int numberOfMinutes = sec / 60;
+            if (numberOfMinutes > 0) {
+                c.add(Calendar.MINUTE, numberOfMinutes);
+                sec = sec - (numberOfMinutes * 60);
+            }
+            c.add(Calendar.SECOND, sec);
+
+            currentCalHour = c.get(Calendar.HOUR_OF_DAY);
+            if (currentCalHour >= endHour) {
+                c.add(Calendar.DAY_OF_YEAR, 1);
+                c.set(Calendar.HOUR_OF_DAY, startHour);
+                c.add(Calendar.HOUR_OF_DAY, currentCalHour - endHour);
+            } else if (currentCalHour < startHour) {
+                c.add(Calendar.HOUR_OF_DAY, startHour);
+            }
+            handlePreviousWeekend(c, false);
+            handlePreviousHoliday(c, false);
+
+            return c.getTime();
+        }
+
+        private void handlePreviousHoliday(Calendar c, boolean resetTime) {
+            Date current = c.getTime();
+            for (TimePeriod holiday : holidays) {
+                if (current.after(holiday.getFrom()) && current.before(holiday.getTo())) {
+                    Calendar tmp = new GregorianCalendar();
+                    tmp.setTime(holiday.getTo());
+
+                    Calendar tmp2 = new GregorianCalendar();
+                    tmp2.setTime(current);
+                    tmp2.set(Calendar.HOUR_OF_DAY, 0);
+                    tmp2.set(Calendar.MINUTE, 0);
+                    tmp2.set(Calendar.SECOND, 0);
+                    tmp2.set(Calendar.MILLISECOND, 0);
+
+                    long difference = tmp.getTimeInMillis() - tmp2.getTimeInMillis();
+
+                    c.add(Calendar.HOUR_OF_DAY, (int) (difference / HOUR_IN_MILLIS));
+
+                    handlePreviousWeekend(c, resetTime);
+                    break;
+                }
+            }
+        }
+
+        private void handlePreviousWeekend(Calendar c, boolean resetTime) {
+            int dayOfTheWeek = c.get(Calendar.DAY_OF_WEEK);
+            while (!isWorkingDay(dayOfTheWeek)) {
+                c.add(Calendar.DAY_OF_YEAR, 1);
+                if (resetTime) {
+                    c.set(Calendar.HOUR_OF_DAY, 0);
+                    c.set(Calendar.MINUTE, 0);
+                    c.set(Calendar.SECOND, 0);
+                    c.set(Calendar.MILLISECOND, 0);
+                }
+                dayOfTheWeek = c.get(Calendar.DAY_OF_WEEK);
+            }
+        }
+    }
 }
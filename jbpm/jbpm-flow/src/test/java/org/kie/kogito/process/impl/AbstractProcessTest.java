@@ -0,0 +1,182 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.process.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jbpm.process.instance.LightProcessRuntimeServiceProvider;
+import org.jbpm.ruleflow.core.RuleFlowProcess;
+import org.junit.jupiter.api.Test;
+import org.kie.api.definition.process.Process;
+import org.kie.api.runtime.process.WorkflowProcessInstance;
+import org.kie.kogito.Model;
+import org.kie.kogito.correlation.CompositeCorrelation;
+import org.kie.kogito.process.MutableProcessInstances;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstances;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class AbstractProcessTest {
+
+    @Test
+    void testDefinitionNotBuiltOnActivationWithoutTimerStart() {
+        TestProcess process = new TestProcess(false);
+        process.activate();
+        assertThat(process.id()).isEqualTo("test");
+        assertThat(process.built).hasValue(0);
+
+        assertThat(process.get().getId()).isEqualTo("test");
+        assertThat(process.get()).isSameAs(process.get());
+        assertThat(process.built).hasValue(1);
+    }
+
+    @Test
+    void testDefinitionBuiltWhenTimerStartUnknown() {
+        TestProcess process = new TestProcess(null);
+        process.activate();
+        assertThat(process.built).hasValue(1);
+    }
+
+    @Test
+    void testDeferredActivationOnInstancesAccess() {
+        TestProcess process = new TestProcess(false);
+        process.deferActivation();
+        assertThat(process.activated).isFalse();
+        assertThat(process.configured).hasValue(0);
+
+        process.instances();
+        process.instances();
+        assertThat(process.activated).isTrue();
+        assertThat(process.configured).hasValue(1);
+        assertThat(process.built).hasValue(0);
+    }
+
+    @Test
+    void testNotActivatedOnUseUnlessDeferred() {
+        TestProcess process = new TestProcess(false);
+        process.instances();
+        assertThat(process.activated).isFalse();
+        assertThat(process.configured).hasValue(0);
+    }
+
+    @Test
+    void testConcurrentFirstUseWaitsForActivation() throws Exception {
+        MutableProcessInstances<?> persistentInstances = mock(MutableProcessInstances.class);
+        CountDownLatch configuring = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TestProcess process = new TestProcess(false) {
+            @Override
+            public org.kie.kogito.process.Process<Model> configure() {
+                configuring.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.configure();
+            }
+        };
+        process.setProcessInstancesFactory(p -> persistentInstances);
+        process.deferActivation();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<ProcessInstances<Model>>> results = new ArrayList<>();
+            results.add(executor.submit(process::instances));
+            assertThat(configuring.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 0; i < 3; i++) {
+                results.add(executor.submit(process::instances));
+            }
+            // give the other threads the time to reach the activation while the first one is still configuring
+            Thread.sleep(100);
+            assertThat(results).noneMatch(Future::isDone);
+
+            release.countDown();
+            for (Future<ProcessInstances<Model>> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(persistentInstances);
+            }
+            assertThat(process.configured).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static class TestProcess extends AbstractProcess<Model> {
+
+        private final Boolean hasTimerStart;
+        private final AtomicInteger built = new AtomicInteger();
+        private final AtomicInteger configured = new AtomicInteger();
+
+        private TestProcess(Boolean hasTimerStart) {
+            super(new LightProcessRuntimeServiceProvider());
+            this.hasTimerStart = hasTimerStart;
+        }
+
+        @Override
+        public String id() {
+            return "test";
+        }
+
+        @Override
+        public org.kie.kogito.process.Process<Model> configure() {
+            configured.incrementAndGet();
+            return super.configure();
+        }
+
+        @Override
+        protected boolean hasTimerStart() {
+            // mimics generated processes, which know it at build time
+            return hasTimerStart == null ? super.hasTimerStart() : hasTimerStart;
+        }
+
+        @Override
+        protected Process process() {
+            built.incrementAndGet();
+            RuleFlowProcess process = new RuleFlowProcess();
+            process.setId("test");
+            return process;
+        }
+
+        @Override
+        public ProcessInstance<Model> createInstance(Model workingMemory) {
+            return null;
+        }
+
+        @Override
+        public ProcessInstance<Model> createInstance(String businessKey, CompositeCorrelation correlation, Model workingMemory) {
+            return null;
+        }
+
+        @Override
+        public ProcessInstance<Model> createInstance(WorkflowProcessInstance wpi) {
+            return null;
+        }
+
+        @Override
+        public ProcessInstance<Model> createReadOnlyInstance(WorkflowProcessInstance wpi) {
+            return null;
+        }
+    }
+}
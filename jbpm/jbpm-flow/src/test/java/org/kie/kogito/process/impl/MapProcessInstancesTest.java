@@ -0,0 +1,110 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.process.impl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.process.Process;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceQuery;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.kie.kogito.process.ProcessInstance.STATE_ACTIVE;
+import static org.kie.kogito.process.ProcessInstance.STATE_ERROR;
+import static org.kie.kogito.process.ProcessInstanceReadMode.READ_ONLY;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MapProcessInstancesTest {
+
+    private MapProcessInstances<Map<String, Object>> instances;
+    private Process<Map<String, Object>> process;
+
+    @SuppressWarnings("unchecked")
+    @BeforeEach
+    void setUp() {
+        instances = new MapProcessInstances<>();
+        process = mock(Process.class);
+        when(process.version()).thenReturn("1.0");
+        instances.create("5", instance("5", STATE_ACTIVE, "key-1", "acme"));
+        instances.create("3", instance("3", STATE_ACTIVE, "key-2", "acme"));
+        instances.create("1", instance("1", STATE_ERROR, "key-1", "other"));
+        instances.create("4", instance("4", STATE_ACTIVE, null, "acme"));
+        instances.create("2", instance("2", STATE_ACTIVE, "key-1", "acme"));
+    }
+
+    @Test
+    void testFindByStatus() {
+        assertThat(find(ProcessInstanceQuery.builder().status(STATE_ACTIVE))).containsExactly("2", "3", "4", "5");
+        assertThat(find(ProcessInstanceQuery.builder().status(STATE_ERROR))).containsExactly("1");
+    }
+
+    @Test
+    void testFindByBusinessKeyAndVariable() {
+        assertThat(find(ProcessInstanceQuery.builder().businessKey("key-1"))).containsExactly("1", "2", "5");
+        assertThat(find(ProcessInstanceQuery.builder().businessKey("key-1").variable("customer.name", "acme"))).containsExactly("2", "5");
+        assertThat(find(ProcessInstanceQuery.builder().variable("customer.name", "other"))).containsExactly("1");
+        assertThat(find(ProcessInstanceQuery.builder().variable("customer.missing", "acme"))).isEmpty();
+        assertThat(find(ProcessInstanceQuery.builder().businessKey("key-3"))).isEmpty();
+    }
+
+    @Test
+    void testFindByProcessVersion() {
+        assertThat(find(ProcessInstanceQuery.builder().processVersion("1.0"))).containsExactly("1", "2", "3", "4", "5");
+        assertThat(find(ProcessInstanceQuery.builder().processVersion("2.0"))).isEmpty();
+    }
+
+    @Test
+    void testPagination() {
+        assertThat(find(ProcessInstanceQuery.builder().limit(2))).containsExactly("1", "2");
+        assertThat(find(ProcessInstanceQuery.builder().offset(2).limit(2))).containsExactly("3", "4");
+        assertThat(find(ProcessInstanceQuery.builder().offset(4).limit(2))).containsExactly("5");
+        assertThat(find(ProcessInstanceQuery.builder().offset(5))).isEmpty();
+        // the offset applies to the matching instances
+        assertThat(find(ProcessInstanceQuery.builder().businessKey("key-1").offset(1))).containsExactly("2", "5");
+    }
+
+    @Test
+    void testIndexesFollowUpdates() {
+        instances.update("3", instance("3", STATE_ERROR, "key-1", "acme"));
+        assertThat(find(ProcessInstanceQuery.builder().status(STATE_ERROR))).containsExactly("1", "3");
+        assertThat(find(ProcessInstanceQuery.builder().businessKey("key-1"))).containsExactly("1", "2", "3", "5");
+        assertThat(find(ProcessInstanceQuery.builder().businessKey("key-2"))).isEmpty();
+
+        instances.remove("1");
+        assertThat(find(ProcessInstanceQuery.builder().status(STATE_ERROR))).containsExactly("3");
+        assertThat(find(ProcessInstanceQuery.builder().businessKey("key-1"))).containsExactly("2", "3", "5");
+    }
+
+    private List<String> find(ProcessInstanceQuery.Builder query) {
+        return instances.find(query.build(), READ_ONLY).stream().map(ProcessInstance::id).collect(Collectors.toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private ProcessInstance<Map<String, Object>> instance(String id, int status, String businessKey, String customer) {
+        ProcessInstance<Map<String, Object>> instance = mock(ProcessInstance.class);
+        when(instance.id()).thenReturn(id);
+        when(instance.status()).thenReturn(status);
+        when(instance.businessKey()).thenReturn(businessKey);
+        when(instance.process()).thenReturn(process);
+        when(instance.variables()).thenReturn(Map.of("customer", Map.of("name", customer)));
+        return instance;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.process.impl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProcessInstanceNearCacheTest {
+
+    private static final byte[] PAYLOAD = { 1, 2, 3 };
+
+    @Test
+    void testPutAndGet() {
+        ProcessInstanceNearCache cache = new ProcessInstanceNearCache(10);
+        cache.put("1", PAYLOAD, 3L);
+
+        assertThat(cache.get("1")).hasValueSatisfying(entry -> {
+            assertThat(entry.payload()).isEqualTo(PAYLOAD);
+            assertThat(entry.version()).isEqualTo(3L);
+        });
+        assertThat(cache.get("2")).isEmpty();
+    }
+
+    @Test
+    void testPutReplacesVersion() {
+        ProcessInstanceNearCache cache = new ProcessInstanceNearCache(10);
+        cache.put("1", PAYLOAD, 1L);
+        cache.put("1", PAYLOAD, 2L);
+
+        assertThat(cache.get("1")).hasValueSatisfying(entry -> assertThat(entry.version()).isEqualTo(2L));
+        assertThat(cache.size()).isOne();
+    }
+
+    @Test
+    void testInvalidate() {
+        ProcessInstanceNearCache cache = new ProcessInstanceNearCache(10);
+        cache.put("1", PAYLOAD, 1L);
+        cache.invalidate("1");
+
+        assertThat(cache.get("1")).isEmpty();
+    }
+
+    @Test
+    void testLeastRecentlyUsedIsEvicted() {
+        ProcessInstanceNearCache cache = new ProcessInstanceNearCache(2);
+        cache.put("1", PAYLOAD, 1L);
+        cache.put("2", PAYLOAD, 1L);
+        cache.get("1");
+        cache.put("3", PAYLOAD, 1L);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("1")).isPresent();
+        assertThat(cache.get("2")).isEmpty();
+        assertThat(cache.get("3")).isPresent();
+    }
+
+    @Test
+    void testDisabled() {
+        assertThat(ProcessInstanceNearCache.of(null).isEnabled()).isFalse();
+        assertThat(ProcessInstanceNearCache.of(0).isEnabled()).isFalse();
+        assertThat(ProcessInstanceNearCache.of(5).maxSize()).isEqualTo(5);
+
+        ProcessInstanceNearCache cache = ProcessInstanceNearCache.disabled();
+        cache.put("1", PAYLOAD, 1L);
+        assertThat(cache.get("1")).isEmpty();
+        assertThat(cache.size()).isZero();
+    }
+}
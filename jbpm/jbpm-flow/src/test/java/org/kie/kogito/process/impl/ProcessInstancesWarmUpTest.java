@@ -0,0 +1,158 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.process.impl;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.process.MutableProcessInstances;
+import org.kie.kogito.process.Process;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceQuery;
+import org.kie.kogito.process.Processes;
+import org.mockito.ArgumentCaptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.kie.kogito.process.ProcessInstanceReadMode.READ_ONLY;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+class ProcessInstancesWarmUpTest {
+
+    @Test
+    void testReadsInstancesInChunks() {
+        MutableProcessInstances<?> instances = instances(250);
+        Processes processes = processes(process("stored", instances), process("inMemory", new MapProcessInstances<>()));
+
+        assertThat(new ProcessInstancesWarmUp(processes, 2, 100, 1000, Duration.ofSeconds(10)).run()).isEqualTo(250);
+
+        ArgumentCaptor<ProcessInstanceQuery> queries = ArgumentCaptor.forClass(ProcessInstanceQuery.class);
+        verify(instances, times(3)).find(queries.capture(), eq(READ_ONLY));
+        assertThat(queries.getAllValues().stream().map(q -> q.offset() + ":" + q.limit()).sorted().collect(Collectors.toList()))
+                .containsExactly("0:100", "100:100", "200:50");
+    }
+
+    @Test
+    void testMaxInstances() {
+        MutableProcessInstances<?> instances = instances(250);
+
+        assertThat(new ProcessInstancesWarmUp(processes(process("stored", instances)), 1, 100, 120, Duration.ofSeconds(10)).run()).isEqualTo(120);
+        verify(instances, times(2)).find(any(), eq(READ_ONLY));
+    }
+
+    @Test
+    void testMaxInstancesBoundedByNearCache() {
+        MutableProcessInstances<?> instances = instances(250, true, new ProcessInstanceNearCache(150));
+
+        assertThat(new ProcessInstancesWarmUp(processes(process("stored", instances)), 1, 100, 1000, Duration.ofSeconds(10)).run()).isEqualTo(150);
+    }
+
+    @Test
+    void testSkipsStoresNotReadIntoNearCache() {
+        MutableProcessInstances<?> disabledCache = instances(100, true, ProcessInstanceNearCache.disabled());
+        MutableProcessInstances<?> scanning = instances(100, false, new ProcessInstanceNearCache(1000));
+        Processes processes = processes(process("disabledCache", disabledCache), process("scanning", scanning));
+
+        assertThat(new ProcessInstancesWarmUp(processes, 1, 100, 1000, Duration.ofSeconds(10)).run()).isZero();
+        verify(disabledCache, never()).find(any(), any());
+        verify(scanning, never()).find(any(), any());
+    }
+
+    @Test
+    void testSkipsProcessesActivatedOnFirstUse() {
+        AbstractProcess<?> process = mock(AbstractProcess.class);
+        when(process.id()).thenReturn("deferred");
+        when(process.isActivationDeferred()).thenReturn(true);
+
+        assertThat(new ProcessInstancesWarmUp(processes(process), 1, 100, 1000, Duration.ofSeconds(10)).run()).isZero();
+        verify(process, never()).instances();
+    }
+
+    @Test
+    void testFailedChunkDoesNotStopWarmUp() {
+        MutableProcessInstances<?> instances = instances(200);
+        when(instances.find(any(), eq(READ_ONLY))).thenThrow(new IllegalStateException("unavailable")).thenAnswer(i -> chunk(100));
+
+        assertThat(new ProcessInstancesWarmUp(processes(process("stored", instances)), 1, 100, 1000, Duration.ofSeconds(10)).run()).isEqualTo(100);
+    }
+
+    @Test
+    void testTimeout() {
+        CountDownLatch release = new CountDownLatch(1);
+        MutableProcessInstances<?> instances = instances(100);
+        when(instances.find(any(), eq(READ_ONLY))).thenAnswer(i -> {
+            release.await();
+            return chunk(100);
+        });
+
+        assertThat(new ProcessInstancesWarmUp(processes(process("stored", instances)), 1, 100, 1000, Duration.ofMillis(50)).run()).isZero();
+        release.countDown();
+    }
+
+    @Test
+    void testInvalidSettings() {
+        Processes processes = processes();
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> new ProcessInstancesWarmUp(processes, 0, 100, 1000, Duration.ofSeconds(1)));
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> new ProcessInstancesWarmUp(processes, 1, 0, 1000, Duration.ofSeconds(1)));
+    }
+
+    private static MutableProcessInstances<?> instances(int size) {
+        return instances(size, true, new ProcessInstanceNearCache(1000));
+    }
+
+    private static MutableProcessInstances<?> instances(int size, boolean pagedFind, ProcessInstanceNearCache nearCache) {
+        MutableProcessInstances<?> instances = mock(MutableProcessInstances.class, withSettings().extraInterfaces(NearCachedProcessInstances.class));
+        when(((NearCachedProcessInstances) instances).isPagedFind()).thenReturn(pagedFind);
+        when(((NearCachedProcessInstances) instances).nearCache()).thenReturn(nearCache);
+        when(instances.size()).thenReturn(size);
+        when(instances.find(any(), eq(READ_ONLY))).thenAnswer(i -> chunk(((ProcessInstanceQuery) i.getArgument(0)).limit()));
+        return instances;
+    }
+
+    private static List<ProcessInstance<?>> chunk(int size) {
+        return Collections.nCopies(size, mock(ProcessInstance.class));
+    }
+
+    private static Process<?> process(String id, MutableProcessInstances<?> instances) {
+        Process<?> process = mock(Process.class);
+        when(process.id()).thenReturn(id);
+        doReturn(instances).when(process).instances();
+        return process;
+    }
+
+    private static Processes processes(Process<?>... processes) {
+        Processes result = mock(Processes.class);
+        List<String> ids = Arrays.stream(processes).map(Process::id).collect(Collectors.toList());
+        when(result.processIds()).thenReturn(ids);
+        for (int i = 0; i < processes.length; i++) {
+            doReturn(processes[i]).when(result).processById(ids.get(i));
+        }
+        return result;
+    }
+}
@@ -15,6 +15,9 @@
  */
 package org.kie.kogito.serialization.process;
 
+import java.util.Map;
+
+import org.jbpm.process.core.context.variable.VariableScope;
 import org.kie.kogito.process.Process;
 
 public final class MarshallerContextName<T> {
@@ -23,6 +26,8 @@ public final class MarshallerContextName<T> {
     public static final MarshallerContextName<String> MARSHALLER_FORMAT = new MarshallerContextName<>("FORMAT");
     public static final MarshallerContextName<Process<?>> MARSHALLER_PROCESS = new MarshallerContextName<>("PROCESS");
     public static final MarshallerContextName<Boolean> MARSHALLER_INSTANCE_READ_ONLY = new MarshallerContextName<>("READ_ONLY");
+    public static final MarshallerContextName<Map<Class<?>, ObjectMarshallerStrategy>> OBJECT_MARSHALLING_STRATEGIES_BY_CLASS = new MarshallerContextName<>("OBJECT_MARSHALLING_STRATEGIES_BY_CLASS");
+    public static final MarshallerContextName<Map<VariableScope, String[]>> MARSHALLER_VARIABLES_ORDER = new MarshallerContextName<>("VARIABLES_ORDER");
 
     public static final String MARSHALLER_FORMAT_JSON = "json";
 
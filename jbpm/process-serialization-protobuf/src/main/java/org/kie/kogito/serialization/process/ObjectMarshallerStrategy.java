@@ -30,6 +30,10 @@ public interface ObjectMarshallerStrategy extends Comparable<ObjectMarshallerStr
         return that.order().compareTo(this.order());
     }
 
+    /**
+     * Returns whether this strategy marshalls the given value. The answer must only depend on the class of the value,
+     * since the strategy accepting a class is resolved once and reused for all its values.
+     */
     boolean acceptForMarshalling(Object value);
 
     Any marshall(Object unmarshalled);
@@ -18,6 +18,7 @@ package org.kie.kogito.serialization.process;
 import java.io.IOException;
 
 import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceHeader;
 
 /**
  * A ProcessInstanceMarshaller must contain all the write/read logic for nodes
@@ -37,4 +38,20 @@ public interface ProcessInstanceMarshaller {
 
     void reloadProcessInstance(MarshallerReaderContext context, ProcessInstance<?> processInstance) throws IOException;
 
+    /**
+     * Reads the identifying data of the process instance, implementations may skip the rest of its state.
+     */
+    default ProcessInstanceHeader readProcessInstanceHeader(MarshallerReaderContext context) throws IOException {
+        context.set(MarshallerContextName.MARSHALLER_INSTANCE_READ_ONLY, true);
+        return ProcessInstanceHeader.of(readProcessInstance(context));
+    }
+
+    /**
+     * Reads the variables model of the process instance, implementations may skip the rest of its state.
+     */
+    default Object readProcessInstanceVariables(MarshallerReaderContext context) throws IOException {
+        context.set(MarshallerContextName.MARSHALLER_INSTANCE_READ_ONLY, true);
+        return readProcessInstance(context).variables();
+    }
+
 }
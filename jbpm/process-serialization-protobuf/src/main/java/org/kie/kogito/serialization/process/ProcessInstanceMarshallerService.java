@@ -17,18 +17,24 @@ package org.kie.kogito.serialization.process;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.ServiceLoader;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
+import org.jbpm.process.core.context.variable.VariableScope;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceHeader;
 import org.kie.kogito.process.impl.AbstractProcessInstance;
+import org.kie.kogito.serialization.process.compression.PayloadCompression;
 import org.kie.kogito.serialization.process.impl.ProtobufProcessInstanceMarshallerFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,10 +44,19 @@ public class ProcessInstanceMarshallerService {
 
     private List<ObjectMarshallerStrategy> strats;
 
+    private ObjectMarshallerStrategy[] sortedStrats;
+
+    // shared by the marshalling of all process instances, so that it is resolved once per class and process definition
+    private Map<Class<?>, ObjectMarshallerStrategy> stratsByClass = new ConcurrentHashMap<>();
+
+    private Map<VariableScope, String[]> variablesOrder = Collections.synchronizedMap(new WeakHashMap<>());
+
     private Map<MarshallerContextName<Object>, Object> contextEntries;
 
     private ProcessInstanceMarshallerFactory processInstanceMarshallerFactory;
 
+    private PayloadCompression compression = PayloadCompression.none();
+
     public class Builder {
 
         public Builder() {
@@ -76,8 +91,18 @@ public class ProcessInstanceMarshallerService {
             return this;
         }
 
+        /**
+         * Compresses the marshalled process instances, compressed payloads are always read back whatever the
+         * configured compression.
+         */
+        public Builder withCompression(PayloadCompression compression) {
+            ProcessInstanceMarshallerService.this.compression = compression;
+            return this;
+        }
+
         public ProcessInstanceMarshallerService build() {
             Collections.sort(ProcessInstanceMarshallerService.this.strats);
+            ProcessInstanceMarshallerService.this.sortedStrats = strats.toArray(new ObjectMarshallerStrategy[strats.size()]);
             return ProcessInstanceMarshallerService.this;
         }
 
@@ -93,7 +118,9 @@ public class ProcessInstanceMarshallerService {
     }
 
     protected void setupEnvironment(MarshallerContext env) {
-        env.set(MarshallerContextName.OBJECT_MARSHALLING_STRATEGIES, strats.toArray(new ObjectMarshallerStrategy[strats.size()]));
+        env.set(MarshallerContextName.OBJECT_MARSHALLING_STRATEGIES, sortedStrats);
+        env.set(MarshallerContextName.OBJECT_MARSHALLING_STRATEGIES_BY_CLASS, stratsByClass);
+        env.set(MarshallerContextName.MARSHALLER_VARIABLES_ORDER, variablesOrder);
 
         for (Map.Entry<MarshallerContextName<Object>, Object> entry : contextEntries.entrySet()) {
             env.set(entry.getKey(), entry.getValue());
@@ -106,20 +133,41 @@ public class ProcessInstanceMarshallerService {
             setupEnvironment(context);
             org.kie.kogito.serialization.process.ProcessInstanceMarshaller marshaller = processInstanceMarshallerFactory.newKogitoProcessInstanceMarshaller();
             marshaller.writeProcessInstance(context, processInstance);
-            return baos.toByteArray();
+            return compression.compress(baos.toByteArray());
         } catch (Exception e) {
             throw new ProcessInstanceMarshallerException("Error while marshalling process instance", e);
         }
     }
 
     public ProcessInstance<?> unmarshallProcessInstance(byte[] data, Process<?> process, boolean readOnly) {
-        try (ByteArrayInputStream bais = new ByteArrayInputStream(data)) {
+        return read(data, process, readOnly, org.kie.kogito.serialization.process.ProcessInstanceMarshaller::readProcessInstance);
+    }
+
+    /**
+     * Reads the identifying data of the marshalled process instance without unmarshalling its variables nor its
+     * node instances. The version of the returned header is 0, stores keeping a version set it.
+     */
+    public ProcessInstanceHeader unmarshallProcessInstanceHeader(byte[] data, Process<?> process) {
+        return read(data, process, true, org.kie.kogito.serialization.process.ProcessInstanceMarshaller::readProcessInstanceHeader);
+    }
+
+    /**
+     * Reads the variables of the marshalled process instance into a new model of the process, without building
+     * the process instance.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T unmarshallProcessInstanceVariables(byte[] data, Process<T> process) {
+        return (T) read(data, process, true, org.kie.kogito.serialization.process.ProcessInstanceMarshaller::readProcessInstanceVariables);
+    }
+
+    private <R> R read(byte[] data, Process<?> process, boolean readOnly, ReadFunction<R> function) {
+        try (ByteArrayInputStream bais = new ByteArrayInputStream(compression.decompress(data))) {
             MarshallerReaderContext context = processInstanceMarshallerFactory.newReaderContext(bais);
             context.set(MarshallerContextName.MARSHALLER_PROCESS, process);
             context.set(MarshallerContextName.MARSHALLER_INSTANCE_READ_ONLY, readOnly);
             setupEnvironment(context);
             org.kie.kogito.serialization.process.ProcessInstanceMarshaller marshaller = processInstanceMarshallerFactory.newKogitoProcessInstanceMarshaller();
-            return marshaller.readProcessInstance(context);
+            return function.read(marshaller, context);
         } catch (Exception e) {
             throw new ProcessInstanceMarshallerException("Error while unmarshalling process instance", e);
         }
@@ -139,7 +187,7 @@ public class ProcessInstanceMarshallerService {
             if (data == null) {
                 LOGGER.warn("Process Instance {} cannot be found", processInstance.id());
             }
-            try (ByteArrayInputStream bais = new ByteArrayInputStream(data)) {
+            try (ByteArrayInputStream bais = new ByteArrayInputStream(compression.decompress(data))) {
                 MarshallerReaderContext context = processInstanceMarshallerFactory.newReaderContext(bais);
                 context.set(MarshallerContextName.MARSHALLER_PROCESS, processInstance.process());
                 setupEnvironment(context);
@@ -151,4 +199,9 @@ public class ProcessInstanceMarshallerService {
             }
         };
     }
+
+    @FunctionalInterface
+    private interface ReadFunction<R> {
+        R read(org.kie.kogito.serialization.process.ProcessInstanceMarshaller marshaller, MarshallerReaderContext context) throws IOException;
+    }
 }
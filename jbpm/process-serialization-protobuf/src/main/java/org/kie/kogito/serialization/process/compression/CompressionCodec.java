@@ -0,0 +1,46 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.serialization.process.compression;
+
+/**
+ * Compression algorithm applied to marshalled process instances by {@link PayloadCompression}.
+ * <p>
+ * Besides the built-in codecs, implementations can be registered through the {@link java.util.ServiceLoader}
+ * mechanism. The id of a codec is stored in the header of every payload it compresses, so it must be unique and
+ * never change once data has been written with it.
+ */
+public interface CompressionCodec {
+
+    /**
+     * @return identifier stored in the header of compressed payloads, between 1 and {@link PayloadCompression#MAX_CODEC_ID}
+     */
+    int id();
+
+    /**
+     * @return name used to select the codec in the configuration
+     */
+    String name();
+
+    byte[] compress(byte[] data);
+
+    /**
+     * @param data buffer holding the compressed data
+     * @param offset position of the compressed data in the buffer
+     * @param length length of the compressed data
+     * @param originalLength length of the data before compression
+     */
+    byte[] decompress(byte[] data, int offset, int length, int originalLength);
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.serialization.process.compression;
+
+import java.util.Arrays;
+
+/**
+ * Pure Java implementation of the LZ4 block format, favouring speed over ratio.
+ * <p>
+ * The compressor is the greedy single pass algorithm of the reference implementation: a hash table of the last
+ * position of every 4 bytes sequence finds match candidates within a 64KB window, and the lookup step grows while no
+ * match is found so that incompressible data is skipped quickly. The last 5 bytes are always emitted as literals and
+ * the last match starts at least 12 bytes before the end of the input, as required by the format.
+ */
+public class LZ4CompressionCodec implements CompressionCodec {
+
+    public static final int ID = 2;
+    public static final String NAME = "lz4";
+
+    private static final int MIN_MATCH = 4;
+    private static final int MF_LIMIT = 12;
+    private static final int LAST_LITERALS = 5;
+    private static final int MAX_DISTANCE = 65535;
+    private static final int HASH_LOG = 14;
+    private static final int SKIP_TRIGGER = 6;
+    private static final int RUN_MASK = 15;
+    private static final int ML_MASK = 15;
+
+    @Override
+    public int id() {
+        return ID;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public byte[] compress(byte[] src) {
+        int length = src.length;
+        byte[] dst = new byte[length + length / 255 + 16];
+        int dp = 0;
+        int anchor = 0;
+        if (length >= MF_LIMIT + 1) {
+            int[] table = new int[1 << HASH_LOG];
+            int limit = length - MF_LIMIT;
+            int matchLimit = length - LAST_LITERALS;
+            int sp = 0;
+            while (sp < limit) {
+                int sequence = readInt(src, sp);
+                int hash = hash(sequence);
+                // positions are stored shifted by one, so that 0 means empty
+                int ref = table[hash] - 1;
+                table[hash] = sp + 1;
+                if (ref < 0 || sp - ref > MAX_DISTANCE || readInt(src, ref) != sequence) {
+                    sp += 1 + ((sp - anchor) >>> SKIP_TRIGGER);
+                    continue;
+                }
+                while (sp > anchor && ref > 0 && src[sp - 1] == src[ref - 1]) {
+                    sp--;
+                    ref--;
+                }
+                int matchLength = MIN_MATCH;
+                while (sp + matchLength < matchLimit && src[sp + matchLength] == src[ref + matchLength]) {
+                    matchLength++;
+                }
+                dp = writeSequence(src, anchor, sp - anchor, sp - ref, matchLength, dst, dp);
+                sp += matchLength;
+                anchor = sp;
+                if (sp - 2 >= 0 && sp - 2 < limit) {
+                    table[hash(readInt(src, sp - 2))] = sp - 2 + 1;
+                }
+            }
+        }
+        dp = writeLastLiterals(src, anchor, length - anchor, dst, dp);
+        return Arrays.copyOf(dst, dp);
+    }
+
+    @Override
+    public byte[] decompress(byte[] src, int offset, int length, int originalLength) {
+        byte[] dst = new byte[originalLength];
+        int sp = offset;
+        int end = offset + length;
+        int dp = 0;
+        try {
+            while (sp < end) {
+                int token = src[sp++] & 0xFF;
+                int literals = token >>> 4;
+                if (literals == RUN_MASK) {
+                    int b;
+                    do {
+                        b = src[sp++] & 0xFF;
+                        literals += b;
+                    } while (b == 255);
+                }
+                System.arraycopy(src, sp, dst, dp, literals);
+                sp += literals;
+                dp += literals;
+                if (sp >= end) {
+                    break;
+                }
+                int distance = (src[sp++] & 0xFF) | ((src[sp++] & 0xFF) << 8);
+                int matchLength = token & ML_MASK;
+                if (matchLength == ML_MASK) {
+                    int b;
+                    do {
+                        b = src[sp++] & 0xFF;
+                        matchLength += b;
+                    } while (b == 255);
+                }
+                matchLength += MIN_MATCH;
+                int ref = dp - distance;
+                if (distance == 0 || ref < 0) {
+                    throw new IllegalArgumentException("Malformed LZ4 payload, invalid match offset " + distance + " at " + dp);
+                }
+                if (distance >= matchLength) {
+                    System.arraycopy(dst, ref, dst, dp, matchLength);
+                } else {
+                    // overlapping match, repeats the last bytes
+                    for (int i = 0; i < matchLength; i++) {
+                        dst[dp + i] = dst[ref + i];
+                    }
+                }
+                dp += matchLength;
+            }
+        } catch (IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Malformed LZ4 payload", e);
+        }
+        if (dp != originalLength) {
+            throw new IllegalArgumentException("LZ4 payload is truncated, expected " + originalLength + " bytes but got " + dp);
+        }
+        return dst;
+    }
+
+    private static int writeSequence(byte[] src, int anchor, int literals, int distance, int matchLength, byte[] dst, int dp) {
+        int token = dp++;
+        int encodedMatchLength = matchLength - MIN_MATCH;
+        dst[token] = (byte) ((Math.min(literals, RUN_MASK) << 4) | Math.min(encodedMatchLength, ML_MASK));
+        if (literals >= RUN_MASK) {
+            dp = writeLength(literals - RUN_MASK, dst, dp);
+        }
+        System.arraycopy(src, anchor, dst, dp, literals);
+        dp += literals;
+        dst[dp++] = (byte) distance;
+        dst[dp++] = (byte) (distance >>> 8);
+        if (encodedMatchLength >= ML_MASK) {
+            dp = writeLength(encodedMatchLength - ML_MASK, dst, dp);
+        }
+        return dp;
+    }
+
+    private static int writeLastLiterals(byte[] src, int anchor, int literals, byte[] dst, int dp) {
+        dst[dp++] = (byte) (Math.min(literals, RUN_MASK) << 4);
+        if (literals >= RUN_MASK) {
+            dp = writeLength(literals - RUN_MASK, dst, dp);
+        }
+        System.arraycopy(src, anchor, dst, dp, literals);
+        return dp + literals;
+    }
+
+    private static int writeLength(int length, byte[] dst, int dp) {
+        while (length >= 255) {
+            dst[dp++] = (byte) 255;
+            length -= 255;
+        }
+        dst[dp++] = (byte) length;
+        return dp;
+    }
+
+    private static int readInt(byte[] data, int position) {
+        return (data[position] & 0xFF) | (data[position + 1] & 0xFF) << 8 | (data[position + 2] & 0xFF) << 16 | (data[position + 3] & 0xFF) << 24;
+    }
+
+    private static int hash(int sequence) {
+        return (sequence * -1640531535) >>> (32 - HASH_LOG);
+    }
+}
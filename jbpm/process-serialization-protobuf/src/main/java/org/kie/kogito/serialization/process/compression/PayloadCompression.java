@@ -0,0 +1,180 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.serialization.process.compression;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * Compresses marshalled process instances whose size reaches a threshold.
+ * <p>
+ * A compressed payload starts with a header byte holding the id of the codec in its upper bits and <code>111</code>
+ * in its three lower bits, followed by the length of the uncompressed data as a varint. Protobuf has no wire type 7,
+ * so an uncompressed protobuf payload never starts with such a byte (nor does a JSON one): data written before
+ * compression was enabled, or below the threshold, is read as is. Payloads are decompressed with the codec named in
+ * their header, whatever the configured one, so the codec can be changed or compression disabled at any time.
+ * <p>
+ * Payloads are kept uncompressed when compression does not make them smaller. The length read from the header is
+ * checked before allocating the uncompressed data: it must exceed the length of the compressed data, without
+ * exceeding {@value #MAX_ORIGINAL_LENGTH} bytes nor {@value #MAX_COMPRESSION_RATIO} times the compressed length.
+ */
+public final class PayloadCompression {
+
+    public static final String NONE = "none";
+    public static final int DEFAULT_THRESHOLD = 1024;
+    public static final int MAX_CODEC_ID = 15;
+    public static final int MAX_ORIGINAL_LENGTH = 1 << 30;
+    // highest ratio deflate can reach, lz4 stays below 255
+    public static final int MAX_COMPRESSION_RATIO = 1032;
+
+    private static final int HEADER_MARKER = 0x07;
+
+    private static final Map<Integer, CompressionCodec> CODECS_BY_ID;
+    private static final Map<String, CompressionCodec> CODECS_BY_NAME;
+
+    static {
+        Map<Integer, CompressionCodec> byId = new HashMap<>();
+        Map<String, CompressionCodec> byName = new HashMap<>();
+        register(new DeflateCompressionCodec(), byId, byName);
+        register(new LZ4CompressionCodec(), byId, byName);
+        for (CompressionCodec codec : ServiceLoader.load(CompressionCodec.class)) {
+            register(codec, byId, byName);
+        }
+        CODECS_BY_ID = Collections.unmodifiableMap(byId);
+        CODECS_BY_NAME = Collections.unmodifiableMap(byName);
+    }
+
+    private static final PayloadCompression DISABLED = new PayloadCompression(null, Integer.MAX_VALUE);
+
+    private final CompressionCodec codec;
+    private final int threshold;
+
+    private PayloadCompression(CompressionCodec codec, int threshold) {
+        this.codec = codec;
+        this.threshold = threshold;
+    }
+
+    public static PayloadCompression none() {
+        return DISABLED;
+    }
+
+    public static PayloadCompression of(CompressionCodec codec, int threshold) {
+        if (codec.id() < 1 || codec.id() > MAX_CODEC_ID) {
+            throw new IllegalArgumentException("Compression codec id must be between 1 and " + MAX_CODEC_ID + ", got " + codec.id());
+        }
+        return new PayloadCompression(codec, Math.max(0, threshold));
+    }
+
+    /**
+     * @param codecName name of the codec, <code>null</code> or {@value #NONE} to disable compression
+     * @param threshold minimum size in bytes of the payloads to compress, {@value #DEFAULT_THRESHOLD} if
+     *        <code>null</code>
+     */
+    public static PayloadCompression of(String codecName, Integer threshold) {
+        if (codecName == null || codecName.trim().isEmpty() || NONE.equalsIgnoreCase(codecName.trim())) {
+            return none();
+        }
+        CompressionCodec codec = CODECS_BY_NAME.get(codecName.trim().toLowerCase());
+        if (codec == null) {
+            throw new IllegalArgumentException("Unknown compression codec " + codecName + ", available codecs are " + CODECS_BY_NAME.keySet());
+        }
+        return of(codec, threshold == null ? DEFAULT_THRESHOLD : threshold);
+    }
+
+    public boolean isEnabled() {
+        return codec != null;
+    }
+
+    public byte[] compress(byte[] data) {
+        if (codec == null || data.length < threshold) {
+            return data;
+        }
+        byte[] compressed = codec.compress(data);
+        int headerLength = 1 + varintLength(data.length);
+        if (compressed.length + headerLength >= data.length) {
+            return data;
+        }
+        byte[] result = new byte[headerLength + compressed.length];
+        result[0] = (byte) (codec.id() << 3 | HEADER_MARKER);
+        writeVarint(data.length, result, 1);
+        System.arraycopy(compressed, 0, result, headerLength, compressed.length);
+        return result;
+    }
+
+    public byte[] decompress(byte[] data) {
+        if (!isCompressed(data)) {
+            return data;
+        }
+        int id = (data[0] & 0xFF) >>> 3;
+        CompressionCodec payloadCodec = CODECS_BY_ID.get(id);
+        if (payloadCodec == null) {
+            throw new IllegalArgumentException("Payload was compressed with unknown codec " + id);
+        }
+        int position = 1;
+        int originalLength = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if (position >= data.length || shift > 28) {
+                throw new IllegalArgumentException("Malformed compressed payload header");
+            }
+            b = data[position++];
+            originalLength |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        int compressedLength = data.length - position;
+        // a corrupted length would otherwise allocate up to 2 GB before the codec notices the data does not match
+        if (originalLength <= compressedLength || originalLength > MAX_ORIGINAL_LENGTH || (long) originalLength > (long) compressedLength * MAX_COMPRESSION_RATIO) {
+            throw new IllegalArgumentException("Malformed compressed payload header, length " + originalLength + " does not match " + compressedLength + " bytes of compressed data");
+        }
+        return payloadCodec.decompress(data, position, compressedLength, originalLength);
+    }
+
+    public static boolean isCompressed(byte[] data) {
+        return data != null && data.length > 0 && (data[0] & HEADER_MARKER) == HEADER_MARKER && (data[0] & 0x80) == 0 && (data[0] & 0xFF) >>> 3 != 0;
+    }
+
+    @Override
+    public String toString() {
+        return codec == null ? NONE : codec.name() + " (threshold " + threshold + " bytes)";
+    }
+
+    private static void register(CompressionCodec codec, Map<Integer, CompressionCodec> byId, Map<String, CompressionCodec> byName) {
+        CompressionCodec previous = byId.putIfAbsent(codec.id(), codec);
+        if (previous != null && previous.getClass() != codec.getClass()) {
+            throw new IllegalStateException("Compression codecs " + previous.name() + " and " + codec.name() + " share id " + codec.id());
+        }
+        byName.putIfAbsent(codec.name().toLowerCase(), codec);
+    }
+
+    private static int varintLength(int value) {
+        int length = 1;
+        while ((value >>>= 7) != 0) {
+            length++;
+        }
+        return length;
+    }
+
+    private static void writeVarint(int value, byte[] data, int position) {
+        while ((value & ~0x7F) != 0) {
+            data[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[position] = (byte) value;
+    }
+}
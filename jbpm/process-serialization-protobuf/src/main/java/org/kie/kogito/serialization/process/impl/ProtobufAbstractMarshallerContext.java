@@ -47,7 +47,16 @@ public abstract class ProtobufAbstractMarshallerContext implements MarshallerCon
 
     @Override
     public ObjectMarshallerStrategy findObjectMarshallerStrategyFor(Object value) {
-        return findMarshaller(value, (s, v) -> s.acceptForMarshalling(v));
+        Map<Class<?>, ObjectMarshallerStrategy> strategiesByClass = get(MarshallerContextName.OBJECT_MARSHALLING_STRATEGIES_BY_CLASS);
+        if (strategiesByClass == null) {
+            return findMarshaller(value, (s, v) -> s.acceptForMarshalling(v));
+        }
+        ObjectMarshallerStrategy strategy = strategiesByClass.get(value.getClass());
+        if (strategy == null) {
+            strategy = findMarshaller(value, (s, v) -> s.acceptForMarshalling(v));
+            strategiesByClass.put(value.getClass(), strategy);
+        }
+        return strategy;
     }
 
     @Override
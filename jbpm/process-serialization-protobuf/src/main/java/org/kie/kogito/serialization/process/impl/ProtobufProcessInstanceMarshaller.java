@@ -19,6 +19,7 @@ import java.io.IOException;
 
 import org.jbpm.ruleflow.instance.RuleFlowProcessInstance;
 import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.ProcessInstanceHeader;
 import org.kie.kogito.process.impl.AbstractProcess;
 import org.kie.kogito.process.impl.AbstractProcessInstance;
 import org.kie.kogito.serialization.process.MarshallerContextName;
@@ -53,4 +54,20 @@ public class ProtobufProcessInstanceMarshaller implements ProcessInstanceMarshal
         ((AbstractProcessInstance<?>) processInstance).internalSetProcessInstance(reader.read(context.input()));
     }
 
+    @Override
+    public ProcessInstanceHeader readProcessInstanceHeader(MarshallerReaderContext context) throws IOException {
+        return new ProtobufProcessInstanceProjectionReader(context).readHeader(context.input());
+    }
+
+    @Override
+    public Object readProcessInstanceVariables(MarshallerReaderContext context) throws IOException {
+        AbstractProcess<?> process = (AbstractProcess<?>) context.get(MarshallerContextName.MARSHALLER_PROCESS);
+        Object model = process.createModel();
+        if (model == null) {
+            // no model to fill, the variables are only reachable through the process instance
+            return ProcessInstanceMarshaller.super.readProcessInstanceVariables(context);
+        }
+        return new ProtobufProcessInstanceProjectionReader(context).readVariables(context.input(), model);
+    }
+
 }
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.serialization.process.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jbpm.process.core.context.variable.Variable;
+import org.kie.kogito.MapInput;
+import org.kie.kogito.MapInputId;
+import org.kie.kogito.process.ProcessInstanceHeader;
+import org.kie.kogito.serialization.process.MarshallerContextName;
+import org.kie.kogito.serialization.process.MarshallerReaderContext;
+import org.kie.kogito.serialization.process.protobuf.KogitoProcessInstanceProtobuf;
+import org.kie.kogito.serialization.process.protobuf.KogitoTypesProtobuf;
+import org.kie.kogito.serialization.process.protobuf.KogitoTypesProtobuf.WorkflowContext;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.ExtensionRegistryLite;
+import com.google.protobuf.WireFormat;
+import com.google.protobuf.util.JsonFormat;
+
+import static org.kie.kogito.serialization.process.protobuf.ProtobufTypeRegistryFactory.protobufTypeRegistryFactoryInstance;
+
+/**
+ * Reads parts of a marshalled process instance without building the workflow process instance.
+ * <p>
+ * With the binary format the fields are scanned on the wire and only the requested ones are decoded: the node
+ * instances, exclusive groups and iteration levels of the workflow context are skipped, as are the variables when
+ * only the header is read.
+ */
+public class ProtobufProcessInstanceProjectionReader {
+
+    private final MarshallerReaderContext context;
+    private final ProtobufVariableReader varReader;
+
+    public ProtobufProcessInstanceProjectionReader(MarshallerReaderContext context) {
+        this.context = context;
+        this.varReader = new ProtobufVariableReader(context);
+    }
+
+    public ProcessInstanceHeader readHeader(InputStream input) throws IOException {
+        return read(input, false).header();
+    }
+
+    /**
+     * Fills the given model with the variables of the process instance the same way a read only process instance
+     * does.
+     */
+    public Object readVariables(InputStream input, Object model) throws IOException {
+        Projection projection = read(input, true);
+        Map<String, Object> variables = new HashMap<>();
+        for (Variable variable : varReader.buildVariables(projection.variables)) {
+            variables.put(variable.getName(), variable.getValue());
+        }
+        if (model instanceof MapInputId) {
+            ((MapInputId) model).fromMap(projection.id, variables);
+        } else if (model instanceof MapInput) {
+            ((MapInput) model).fromMap(variables);
+        }
+        return model;
+    }
+
+    private Projection read(InputStream input, boolean withVariables) throws IOException {
+        String format = context.get(MarshallerContextName.MARSHALLER_FORMAT);
+        if (MarshallerContextName.MARSHALLER_FORMAT_JSON.equals(format)) {
+            return readJson(input);
+        }
+        Projection projection = new Projection();
+        CodedInputStream in = CodedInputStream.newInstance(input);
+        int tag;
+        while ((tag = in.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case KogitoProcessInstanceProtobuf.ProcessInstance.ID_FIELD_NUMBER:
+                    projection.id = in.readStringRequireUtf8();
+                    break;
+                case KogitoProcessInstanceProtobuf.ProcessInstance.PROCESS_ID_FIELD_NUMBER:
+                    projection.processId = in.readStringRequireUtf8();
+                    break;
+                case KogitoProcessInstanceProtobuf.ProcessInstance.BUSINESS_KEY_FIELD_NUMBER:
+                    projection.businessKey = in.readStringRequireUtf8();
+                    break;
+                case KogitoProcessInstanceProtobuf.ProcessInstance.STATE_FIELD_NUMBER:
+                    projection.state = in.readInt32();
+                    break;
+                case KogitoProcessInstanceProtobuf.ProcessInstance.START_DATE_FIELD_NUMBER:
+                    projection.startDate = in.readInt64();
+                    break;
+                case KogitoProcessInstanceProtobuf.ProcessInstance.CONTEXT_FIELD_NUMBER:
+                    if (withVariables) {
+                        int limit = in.pushLimit(in.readRawVarint32());
+                        readContextVariables(in, projection.variables);
+                        in.popLimit(limit);
+                    } else {
+                        in.skipField(tag);
+                    }
+                    break;
+                default:
+                    in.skipField(tag);
+            }
+        }
+        return projection;
+    }
+
+    private void readContextVariables(CodedInputStream in, List<KogitoTypesProtobuf.Variable> variables) throws IOException {
+        int tag;
+        while ((tag = in.readTag()) != 0) {
+            if (WireFormat.getTagFieldNumber(tag) == WorkflowContext.VARIABLE_FIELD_NUMBER) {
+                variables.add(in.readMessage(KogitoTypesProtobuf.Variable.parser(), ExtensionRegistryLite.getEmptyRegistry()));
+            } else {
+                in.skipField(tag);
+            }
+        }
+    }
+
+    private Projection readJson(InputStream input) throws IOException {
+        KogitoProcessInstanceProtobuf.ProcessInstance.Builder builder = KogitoProcessInstanceProtobuf.ProcessInstance.newBuilder();
+        JsonFormat.parser().usingTypeRegistry(protobufTypeRegistryFactoryInstance().create()).ignoringUnknownFields().merge(new InputStreamReader(input), builder);
+        Projection projection = new Projection();
+        projection.id = builder.getId();
+        projection.processId = builder.getProcessId();
+        projection.businessKey = builder.getBusinessKey();
+        projection.state = builder.getState();
+        projection.startDate = builder.getStartDate();
+        projection.variables.addAll(builder.getContext().getVariableList());
+        return projection;
+    }
+
+    private static class Projection {
+
+        private String id = "";
+        private String processId = "";
+        private String businessKey = "";
+        private int state;
+        private long startDate;
+        private final List<KogitoTypesProtobuf.Variable> variables = new ArrayList<>();
+
+        private ProcessInstanceHeader header() {
+            // mirrors the process instance built by ProtobufProcessInstanceReader
+            return new ProcessInstanceHeader(id, processId, businessKey.trim().isEmpty() ? null : businessKey, state, new Date(startDate), 0L);
+        }
+    }
+}
@@ -146,7 +146,7 @@ public class ProtobufProcessInstanceWriter {
         List<NodeInstance> nodeInstances = new ArrayList<>(workFlow.getNodeInstances());
         List<ContextInstance> exclusiveGroupInstances = workFlow.getContextInstances(ExclusiveGroup.EXCLUSIVE_GROUP);
         VariableScopeInstance variableScopeInstance = (VariableScopeInstance) workFlow.getContextInstance(VariableScope.VARIABLE_SCOPE);
-        List<Map.Entry<String, Object>> variables = new ArrayList<>(variableScopeInstance.getVariables().entrySet());
+        List<KogitoTypesProtobuf.Variable> variables = buildVariables(variableScopeInstance);
         List<Map.Entry<String, Integer>> iterationlevels = new ArrayList<>(workFlow.getIterationLevels().entrySet());
         instance.setContext(buildWorkflowContext(nodeInstances, exclusiveGroupInstances, variables, iterationlevels));
 
@@ -191,18 +191,25 @@ public class ProtobufProcessInstanceWriter {
 
     private KogitoTypesProtobuf.WorkflowContext buildWorkflowContext(List<NodeInstance> nodeInstances,
             List<ContextInstance> exclusiveGroupInstances,
-            List<Entry<String, Object>> variables,
+            List<KogitoTypesProtobuf.Variable> variables,
             List<Entry<String, Integer>> iterationlevels) {
 
         KogitoTypesProtobuf.WorkflowContext.Builder workflowContextBuilder = KogitoTypesProtobuf.WorkflowContext.newBuilder();
         workflowContextBuilder.addAllNodeInstance(buildNodeInstances(nodeInstances));
         workflowContextBuilder.addAllExclusiveGroup(buildGroups(exclusiveGroupInstances));
-        workflowContextBuilder.addAllVariable(varWriter.buildVariables(variables));
+        workflowContextBuilder.addAllVariable(variables);
         workflowContextBuilder.addAllIterationLevels(buildIterationLevels(iterationlevels));
         return workflowContextBuilder.build();
 
     }
 
+    private List<KogitoTypesProtobuf.Variable> buildVariables(VariableScopeInstance variableScopeInstance) {
+        if (variableScopeInstance == null) {
+            return Collections.emptyList();
+        }
+        return varWriter.buildVariables(variableScopeInstance.getVariableScope(), variableScopeInstance.getVariables());
+    }
+
     private List<org.kie.kogito.serialization.process.protobuf.KogitoTypesProtobuf.NodeInstance> buildNodeInstances(List<NodeInstance> nodeInstances) {
         Comparator<NodeInstance> comparator = (o1, o2) -> ((KogitoNodeInstance) o1).getStringId().compareTo(((KogitoNodeInstance) o2).getStringId());
         Collections.sort(nodeInstances, comparator);
@@ -292,7 +299,7 @@ public class ProtobufProcessInstanceWriter {
 
         List<ContextInstance> exclusiveGroupInstances = nodeInstance.getContextInstances(ExclusiveGroup.EXCLUSIVE_GROUP);
         VariableScopeInstance variableScopeInstance = (VariableScopeInstance) nodeInstance.getContextInstance(VariableScope.VARIABLE_SCOPE);
-        List<Map.Entry<String, Object>> variables = (variableScopeInstance != null) ? new ArrayList<>(variableScopeInstance.getVariables().entrySet()) : Collections.emptyList();
+        List<KogitoTypesProtobuf.Variable> variables = buildVariables(variableScopeInstance);
         List<Map.Entry<String, Integer>> iterationlevels = new ArrayList<>(nodeInstance.getIterationLevels().entrySet());
         foreachBuilder.setContext(buildWorkflowContext(nodeInstances, exclusiveGroupInstances, variables, iterationlevels));
 
@@ -411,7 +418,7 @@ public class ProtobufProcessInstanceWriter {
         List<NodeInstance> nodeInstances = new ArrayList<>(nodeInstance.getNodeInstances());
         List<ContextInstance> exclusiveGroupInstances = nodeInstance.getContextInstances(ExclusiveGroup.EXCLUSIVE_GROUP);
         VariableScopeInstance variableScopeInstance = (VariableScopeInstance) nodeInstance.getContextInstance(VariableScope.VARIABLE_SCOPE);
-        List<Map.Entry<String, Object>> variables = (variableScopeInstance != null) ? new ArrayList<>(variableScopeInstance.getVariables().entrySet()) : Collections.emptyList();
+        List<KogitoTypesProtobuf.Variable> variables = buildVariables(variableScopeInstance);
         List<Map.Entry<String, Integer>> iterationlevels = new ArrayList<>(nodeInstance.getIterationLevels().entrySet());
         return buildWorkflowContext(nodeInstances, exclusiveGroupInstances, variables, iterationlevels);
     }
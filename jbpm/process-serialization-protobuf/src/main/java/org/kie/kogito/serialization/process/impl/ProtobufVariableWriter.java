@@ -17,11 +17,15 @@
 package org.kie.kogito.serialization.process.impl;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 
+import org.jbpm.process.core.context.variable.Variable;
+import org.jbpm.process.core.context.variable.VariableScope;
+import org.kie.kogito.serialization.process.MarshallerContextName;
 import org.kie.kogito.serialization.process.MarshallerWriterContext;
 import org.kie.kogito.serialization.process.ObjectMarshallerStrategy;
 import org.kie.kogito.serialization.process.protobuf.KogitoTypesProtobuf;
@@ -32,6 +36,8 @@ import com.google.protobuf.BytesValue;
 
 public class ProtobufVariableWriter {
 
+    private static final Comparator<Map.Entry<String, Object>> BY_NAME = Map.Entry.comparingByKey();
+
     private MarshallerWriterContext context;
 
     public ProtobufVariableWriter(MarshallerWriterContext context) {
@@ -39,23 +45,87 @@ public class ProtobufVariableWriter {
     }
 
     public List<KogitoTypesProtobuf.Variable> buildVariables(List<Map.Entry<String, Object>> variables) {
-        Comparator<Map.Entry<String, Object>> comparator = (o1, o2) -> o1.getKey().compareTo(o2.getKey());
-        Collections.sort(variables, comparator);
+        Collections.sort(variables, BY_NAME);
 
-        List<KogitoTypesProtobuf.Variable> variablesProtobuf = new ArrayList<>();
+        List<KogitoTypesProtobuf.Variable> variablesProtobuf = new ArrayList<>(variables.size());
         for (Map.Entry<String, Object> entry : variables) {
-            KogitoTypesProtobuf.Variable.Builder variableBuilder = KogitoTypesProtobuf.Variable.newBuilder();
-            variableBuilder.setName(entry.getKey());
-            if (entry.getValue() != null) {
-                Object value = entry.getValue();
-                ObjectMarshallerStrategy strategy = context.findObjectMarshallerStrategyFor(value);
-                variableBuilder.setDataType(entry.getValue().getClass().getName()).setValue((Any) strategy.marshall(value));
-            } else {
-                variableBuilder.setValue(Any.pack(BytesValue.of(ByteString.EMPTY)));
+            variablesProtobuf.add(buildVariable(entry.getKey(), entry.getValue()));
+        }
+        return variablesProtobuf;
+    }
+
+    /**
+     * Builds the variables of an instance of the given scope, sorted by name as {@link #buildVariables(List)} does.
+     * The names of the variables declared by the scope are only sorted once, the variables not declared by the scope
+     * are sorted on every call.
+     */
+    public List<KogitoTypesProtobuf.Variable> buildVariables(VariableScope variableScope, Map<String, Object> variables) {
+        String[] declaredNames = declaredNames(variableScope);
+
+        List<Map.Entry<String, Object>> dynamicVariables = Collections.emptyList();
+        for (Map.Entry<String, Object> entry : variables.entrySet()) {
+            if (Arrays.binarySearch(declaredNames, entry.getKey()) < 0) {
+                if (dynamicVariables.isEmpty()) {
+                    dynamicVariables = new ArrayList<>();
+                }
+                dynamicVariables.add(entry);
+            }
+        }
+        if (dynamicVariables.size() > 1) {
+            dynamicVariables.sort(BY_NAME);
+        }
+
+        // merges the declared and the dynamic variables, both sorted by name
+        List<KogitoTypesProtobuf.Variable> variablesProtobuf = new ArrayList<>(variables.size());
+        int dynamicIndex = 0;
+        for (String name : declaredNames) {
+            if (!variables.containsKey(name)) {
+                continue;
+            }
+            while (dynamicIndex < dynamicVariables.size() && dynamicVariables.get(dynamicIndex).getKey().compareTo(name) < 0) {
+                Map.Entry<String, Object> entry = dynamicVariables.get(dynamicIndex++);
+                variablesProtobuf.add(buildVariable(entry.getKey(), entry.getValue()));
             }
-            variablesProtobuf.add(variableBuilder.build());
+            variablesProtobuf.add(buildVariable(name, variables.get(name)));
+        }
+        while (dynamicIndex < dynamicVariables.size()) {
+            Map.Entry<String, Object> entry = dynamicVariables.get(dynamicIndex++);
+            variablesProtobuf.add(buildVariable(entry.getKey(), entry.getValue()));
         }
         return variablesProtobuf;
     }
 
+    private String[] declaredNames(VariableScope variableScope) {
+        Map<VariableScope, String[]> variablesOrder = context.get(MarshallerContextName.MARSHALLER_VARIABLES_ORDER);
+        if (variablesOrder == null) {
+            return sortedNames(variableScope);
+        }
+        String[] declaredNames = variablesOrder.get(variableScope);
+        if (declaredNames == null) {
+            declaredNames = sortedNames(variableScope);
+            variablesOrder.put(variableScope, declaredNames);
+        }
+        return declaredNames;
+    }
+
+    private static String[] sortedNames(VariableScope variableScope) {
+        return variableScope.getVariables().stream()
+                .map(Variable::getName)
+                .distinct()
+                .sorted()
+                .toArray(String[]::new);
+    }
+
+    private KogitoTypesProtobuf.Variable buildVariable(String name, Object value) {
+        KogitoTypesProtobuf.Variable.Builder variableBuilder = KogitoTypesProtobuf.Variable.newBuilder();
+        variableBuilder.setName(name);
+        if (value != null) {
+            ObjectMarshallerStrategy strategy = context.findObjectMarshallerStrategyFor(value);
+            variableBuilder.setDataType(value.getClass().getName()).setValue((Any) strategy.marshall(value));
+        } else {
+            variableBuilder.setValue(Any.pack(BytesValue.of(ByteString.EMPTY)));
+        }
+        return variableBuilder.build();
+    }
+
 }
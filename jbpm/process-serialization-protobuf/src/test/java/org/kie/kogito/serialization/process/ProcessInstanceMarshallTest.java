@@ -28,14 +28,20 @@ import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.ServiceLoader;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.jbpm.process.core.context.variable.Variable;
+import org.jbpm.process.core.context.variable.VariableScope;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -47,6 +53,7 @@ import org.kie.kogito.serialization.process.impl.ProtobufVariableWriter;
 import org.kie.kogito.serialization.process.protobuf.KogitoTypesProtobuf;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.Any;
 
 import static java.util.Collections.singletonMap;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -126,6 +133,73 @@ public class ProcessInstanceMarshallTest {
         assertThat(unmarshalledVars.get(0).getValue()).isEqualTo(toMarshall);
     }
 
+    @Test
+    public void testVariablesOfScopeSortedByName() {
+        VariableScope variableScope = new VariableScope();
+        for (String name : Arrays.asList("d", "b", "f")) {
+            Variable variable = new Variable();
+            variable.setName(name);
+            variableScope.addVariable(variable);
+        }
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("a", "dynamic");
+        variables.put("b", 1);
+        variables.put("c", null);
+        variables.put("d", "declared");
+        variables.put("g", 2L);
+        variables.put("0", true);
+
+        ProtobufProcessMarshallerWriteContext ctxOut = new ProtobufProcessMarshallerWriteContext(new ByteArrayOutputStream());
+        ctxOut.set(MarshallerContextName.OBJECT_MARSHALLING_STRATEGIES, defaultStrategies());
+        ctxOut.set(MarshallerContextName.MARSHALLER_VARIABLES_ORDER, new HashMap<>());
+        ProtobufVariableWriter writer = new ProtobufVariableWriter(ctxOut);
+
+        List<KogitoTypesProtobuf.Variable> marshalled = writer.buildVariables(variableScope, variables);
+        assertThat(marshalled).extracting(KogitoTypesProtobuf.Variable::getName).containsExactly("0", "a", "b", "c", "d", "g");
+        assertThat(marshalled).isEqualTo(writer.buildVariables(new ArrayList<>(variables.entrySet())));
+        // declared order computed once
+        assertThat(ctxOut.get(MarshallerContextName.MARSHALLER_VARIABLES_ORDER)).containsOnlyKeys(variableScope);
+        assertThat(writer.buildVariables(variableScope, variables)).isEqualTo(marshalled);
+    }
+
+    @Test
+    public void testMarshallingStrategyResolvedOncePerClass() {
+        AtomicInteger accepted = new AtomicInteger();
+        ObjectMarshallerStrategy[] strategies = Stream.of(defaultStrategies()).map(strategy -> new ObjectMarshallerStrategy() {
+            @Override
+            public boolean acceptForMarshalling(Object value) {
+                accepted.incrementAndGet();
+                return strategy.acceptForMarshalling(value);
+            }
+
+            @Override
+            public Any marshall(Object unmarshalled) {
+                return strategy.marshall(unmarshalled);
+            }
+
+            @Override
+            public boolean acceptForUnmarshalling(Any value) {
+                return strategy.acceptForUnmarshalling(value);
+            }
+
+            @Override
+            public Object unmarshall(Any marshalled) {
+                return strategy.unmarshall(marshalled);
+            }
+        }).toArray(ObjectMarshallerStrategy[]::new);
+
+        ProtobufProcessMarshallerWriteContext ctxOut = new ProtobufProcessMarshallerWriteContext(new ByteArrayOutputStream());
+        ctxOut.set(MarshallerContextName.OBJECT_MARSHALLING_STRATEGIES, strategies);
+        ctxOut.set(MarshallerContextName.OBJECT_MARSHALLING_STRATEGIES_BY_CLASS, new HashMap<>());
+
+        ObjectMarshallerStrategy strategy = ctxOut.findObjectMarshallerStrategyFor("first");
+        int acceptedForFirst = accepted.get();
+        assertThat(ctxOut.findObjectMarshallerStrategyFor("second")).isSameAs(strategy);
+        assertThat(accepted).hasValue(acceptedForFirst);
+        assertThat(ctxOut.findObjectMarshallerStrategyFor(1)).isNotSameAs(strategy);
+        assertThat(accepted.get()).isGreaterThan(acceptedForFirst);
+    }
+
     private ObjectMarshallerStrategy[] defaultStrategies() {
         List<ObjectMarshallerStrategy> strats = new ArrayList<>();
         ServiceLoader<ObjectMarshallerStrategy> loader = ServiceLoader.load(ObjectMarshallerStrategy.class);
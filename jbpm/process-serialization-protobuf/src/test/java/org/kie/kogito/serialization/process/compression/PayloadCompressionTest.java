@@ -0,0 +1,155 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.serialization.process.compression;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.kie.kogito.serialization.process.protobuf.KogitoProcessInstanceProtobuf;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class PayloadCompressionTest {
+
+    private static Stream<Arguments> payloads() {
+        Random random = new Random(42);
+        byte[] randomBytes = new byte[10_000];
+        random.nextBytes(randomBytes);
+        StringBuilder json = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            json.append("{\"name\":\"item").append(i).append("\",\"quantity\":").append(random.nextInt(100)).append(",\"status\":\"PENDING\"},");
+        }
+        byte[] longRun = new byte[70_000];
+        Arrays.fill(longRun, (byte) 'a');
+        return Stream.of("deflate", "lz4").flatMap(codec -> Stream.of(
+                Arguments.of(codec, new byte[0]),
+                Arguments.of(codec, "short".getBytes(StandardCharsets.UTF_8)),
+                Arguments.of(codec, "abcabcabcabcabcabcabcabcabcabc".getBytes(StandardCharsets.UTF_8)),
+                Arguments.of(codec, json.toString().getBytes(StandardCharsets.UTF_8)),
+                Arguments.of(codec, longRun),
+                Arguments.of(codec, randomBytes)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("payloads")
+    public void testCodecRoundTrip(String codecName, byte[] payload) {
+        PayloadCompression compression = PayloadCompression.of(codecName, 0);
+        byte[] compressed = compression.compress(payload);
+        assertThat(compression.decompress(compressed)).isEqualTo(payload);
+        assertThat(compressed.length).isLessThanOrEqualTo(payload.length);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "deflate", "lz4" })
+    public void testRepetitivePayloadIsCompressed(String codecName) {
+        byte[] payload = repetitive(4096);
+        byte[] compressed = PayloadCompression.of(codecName, 1024).compress(payload);
+
+        assertThat(PayloadCompression.isCompressed(compressed)).isTrue();
+        assertThat(compressed.length).isLessThan(payload.length / 4);
+        // compressed payloads are read whatever the configured compression
+        assertThat(PayloadCompression.none().decompress(compressed)).isEqualTo(payload);
+        assertThat(PayloadCompression.of("deflate".equals(codecName) ? "lz4" : "deflate", 1024).decompress(compressed)).isEqualTo(payload);
+    }
+
+    @Test
+    public void testPayloadBelowThresholdIsNotCompressed() {
+        byte[] payload = repetitive(512);
+        assertThat(PayloadCompression.of("lz4", 1024).compress(payload)).isSameAs(payload);
+        assertThat(PayloadCompression.none().compress(payload)).isSameAs(payload);
+    }
+
+    @Test
+    public void testIncompressiblePayloadIsNotCompressed() {
+        byte[] payload = new byte[2048];
+        new Random(7).nextBytes(payload);
+        assertThat(PayloadCompression.of("lz4", 0).compress(payload)).isSameAs(payload);
+    }
+
+    @Test
+    public void testUncompressedProtobufIsReadAsIs() {
+        byte[] payload = KogitoProcessInstanceProtobuf.ProcessInstance.newBuilder()
+                .setId("id")
+                .setProcessId("processId")
+                .setProcessType("RuleFlow")
+                .build()
+                .toByteArray();
+
+        assertThat(PayloadCompression.isCompressed(payload)).isFalse();
+        assertThat(PayloadCompression.of("deflate", 0).decompress(payload)).isSameAs(payload);
+        assertThat(PayloadCompression.isCompressed("{\"id\":\"id\"}".getBytes(StandardCharsets.UTF_8))).isFalse();
+    }
+
+    @Test
+    public void testUnknownCodec() {
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> PayloadCompression.of("zstd", 0));
+        byte[] payload = { (byte) (14 << 3 | 0x07), 1, 0 };
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> PayloadCompression.none().decompress(payload));
+    }
+
+    @Test
+    public void testMalformedOriginalLength() {
+        byte header = PayloadCompression.of("lz4", 0).compress(repetitive(4096))[0];
+        // not longer than the compressed data
+        assertMalformed(payload(header, 4, 0x01));
+        // negative once decoded
+        assertMalformed(payload(header, 3, 0xFF, 0xFF, 0xFF, 0xFF, 0x0F));
+        // above the maximum length
+        assertMalformed(payload(header, 2_000_000, 0x81, 0x80, 0x80, 0x80, 0x04));
+        // above the maximum compression ratio
+        assertMalformed(payload(header, 3, 0x80, 0x80, 0x04));
+        // truncated varint
+        assertMalformed(payload(header, 0, 0x80));
+    }
+
+    private static byte[] payload(byte header, int compressedLength, int... varint) {
+        byte[] payload = new byte[1 + varint.length + compressedLength];
+        payload[0] = header;
+        for (int i = 0; i < varint.length; i++) {
+            payload[i + 1] = (byte) varint[i];
+        }
+        return payload;
+    }
+
+    private static void assertMalformed(byte[] payload) {
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> PayloadCompression.none().decompress(payload))
+                .withMessageStartingWith("Malformed compressed payload header");
+    }
+
+    @Test
+    public void testNoneByName() {
+        assertThat(PayloadCompression.of("none", 10).isEnabled()).isFalse();
+        assertThat(PayloadCompression.of((String) null, null).isEnabled()).isFalse();
+        assertThat(PayloadCompression.of("LZ4", null).isEnabled()).isTrue();
+    }
+
+    private static byte[] repetitive(int size) {
+        StringBuilder builder = new StringBuilder();
+        int i = 0;
+        while (builder.length() < size) {
+            builder.append("variable").append(i++ % 10).append("=value;");
+        }
+        return builder.substring(0, size).getBytes(StandardCharsets.UTF_8);
+    }
+}
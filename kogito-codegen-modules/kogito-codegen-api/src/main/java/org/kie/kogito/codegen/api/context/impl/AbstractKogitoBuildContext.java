@@ -83,9 +83,10 @@ public abstract class AbstractKogitoBuildContext implements KogitoBuildContext {
         this.appPaths = builder.appPaths;
         this.gav = builder.gav;
         this.contextName = contextName;
-        this.contextAttributes = new HashMap<>();
+        // generators may run in parallel, see kogito.codegen.parallel
+        this.contextAttributes = Collections.synchronizedMap(new HashMap<>());
         this.applicationSections = new HashSet<>();
-        this.appHandlers = new HashSet<>();
+        this.appHandlers = Collections.synchronizedSet(new HashSet<>());
         this.sourceFileCodegenBindNotifier = builder.sourceFileCodegenBindNotifier;
     }
 
@@ -27,6 +27,12 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import org.drools.codegen.common.GeneratedFile;
@@ -46,6 +52,7 @@ public class ApplicationGenerator {
     private static final Logger LOGGER = LoggerFactory.getLogger(ApplicationGenerator.class);
 
     public static final String APPLICATION_CLASS_NAME = "Application";
+    public static final String PARALLEL_GENERATION_PROPERTY = "kogito.codegen.parallel";
     private static final GeneratedFileType APPLICATION_SECTION_TYPE = GeneratedFileType.of("APPLICATION_SECTION", GeneratedFileType.Category.SOURCE);
 
     private final ApplicationContainerGenerator applicationMainGenerator;
@@ -91,12 +98,50 @@ public class ApplicationGenerator {
     }
 
     public List<GeneratedFile> generateComponents() {
-        return generators.stream()
-                .flatMap(gen -> gen.generate().stream())
+        List<Collection<GeneratedFile>> generated = isParallelGeneration() ? generateComponentsInParallel()
+                : generators.stream().map(Generator::generate).collect(Collectors.toList());
+        return generated.stream()
+                .flatMap(Collection::stream)
                 .filter(this::filterGeneratedFile)
                 .collect(Collectors.toList());
     }
 
+    private boolean isParallelGeneration() {
+        return generators.size() > 1 && "true".equalsIgnoreCase(context.getApplicationProperty(PARALLEL_GENERATION_PROPERTY).orElse("false"));
+    }
+
+    /**
+     * Runs every generator in its own thread, returning the generated files in the order the generators were
+     * registered, so that the output does not depend on which generator completes first
+     */
+    private List<Collection<GeneratedFile>> generateComponentsInParallel() {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(generators.size(), Runtime.getRuntime().availableProcessors()),
+                new GeneratorThreadFactory(Thread.currentThread().getContextClassLoader()));
+        try {
+            List<Future<Collection<GeneratedFile>>> futures = generators.stream()
+                    .map(generator -> executor.submit(generator::generate))
+                    .collect(Collectors.toList());
+            List<Collection<GeneratedFile>> generated = new ArrayList<>(futures.size());
+            for (Future<Collection<GeneratedFile>> future : futures) {
+                generated.add(future.get());
+            }
+            return generated;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException("Code generation failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Code generation interrupted", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     public GeneratedFile generateApplicationDescriptor() {
         List<String> sections = generators.stream()
                 .map(Generator::section)
@@ -182,4 +227,23 @@ public class ApplicationGenerator {
             }
         }
     }
+
+    private static class GeneratorThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger(1);
+        // generators load classes and resources through the context class loader of the build
+        private final ClassLoader contextClassLoader;
+
+        private GeneratorThreadFactory(ClassLoader contextClassLoader) {
+            this.contextClassLoader = contextClassLoader;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "kogito-codegen-" + counter.getAndIncrement());
+            thread.setContextClassLoader(contextClassLoader);
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 }
@@ -0,0 +1,271 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.codegen.core.utils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.drools.codegen.common.AppPaths;
+import org.drools.codegen.common.GeneratedFile;
+import org.drools.codegen.common.GeneratedFileType;
+import org.kie.kogito.codegen.api.context.KogitoBuildContext;
+import org.kie.kogito.codegen.core.ApplicationGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the files generated by the last build under the build directory, so that a build whose inputs did not change
+ * can reuse them instead of running the generators again.
+ * <p>
+ * The inputs are summarized by a {@link #fingerprint(KogitoBuildContext, String...)} hashing the content of the
+ * resources and sources of the application, the application and <code>kogito.*</code> system properties, the
+ * archives and directories in the class path and the Kogito version. The output directories of the project are left
+ * out, since the build writes there, also the files generated here, while the sources compiled there are already
+ * hashed. Only the files of the last build are kept: any change of the
+ * inputs regenerates all the files, since generators may combine several resources in a single file.
+ */
+public class GeneratedFilesCache {
+
+    public static final String CACHE_PROPERTY = "kogito.codegen.cache";
+    public static final String CACHE_DIRECTORY = "kogito-codegen-cache";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GeneratedFilesCache.class);
+
+    private static final String FINGERPRINT_FILE = "fingerprint";
+    private static final String FILES_FILE = "files";
+    private static final int FORMAT_VERSION = 1;
+
+    private final Path directory;
+
+    public GeneratedFilesCache(Path directory) {
+        this.directory = directory;
+    }
+
+    public static GeneratedFilesCache of(KogitoBuildContext context) {
+        return new GeneratedFilesCache(context.getAppPaths().getOutputTarget().resolve(CACHE_DIRECTORY));
+    }
+
+    /**
+     * Returns the files stored for the given fingerprint, or nothing if the stored files were generated from
+     * different inputs
+     */
+    public Optional<Collection<GeneratedFile>> get(String fingerprint) {
+        Path fingerprintFile = directory.resolve(FINGERPRINT_FILE);
+        Path filesFile = directory.resolve(FILES_FILE);
+        try {
+            if (!Files.isRegularFile(fingerprintFile) || !Files.isRegularFile(filesFile) ||
+                    !fingerprint.equals(new String(Files.readAllBytes(fingerprintFile), StandardCharsets.UTF_8))) {
+                return Optional.empty();
+            }
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(filesFile)))) {
+                if (in.readInt() != FORMAT_VERSION) {
+                    return Optional.empty();
+                }
+                int size = in.readInt();
+                List<GeneratedFile> files = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    GeneratedFileType type = GeneratedFileType.of(in.readUTF(), GeneratedFileType.Category.valueOf(in.readUTF()), in.readBoolean(), in.readBoolean());
+                    String relativePath = in.readUTF();
+                    byte[] contents = new byte[in.readInt()];
+                    in.readFully(contents);
+                    files.add(new GeneratedFile(type, relativePath, contents));
+                }
+                LOGGER.debug("Reusing {} generated files, application inputs did not change", size);
+                return Optional.of(files);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            LOGGER.warn("Ignoring unreadable code generation cache {}", directory, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stores the files generated from the inputs with the given fingerprint, replacing the stored ones
+     */
+    public void put(String fingerprint, Collection<GeneratedFile> files) {
+        try {
+            Files.createDirectories(directory);
+            Path fingerprintFile = directory.resolve(FINGERPRINT_FILE);
+            // removed first, so that files and fingerprint never mismatch if writing fails
+            Files.deleteIfExists(fingerprintFile);
+            Path tmpFile = Files.createTempFile(directory, FILES_FILE, ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile)))) {
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(files.size());
+                for (GeneratedFile file : files) {
+                    out.writeUTF(file.type().name());
+                    out.writeUTF(file.type().category().name());
+                    out.writeBoolean(file.type().canHotReload());
+                    out.writeBoolean(file.type().isCustomizable());
+                    out.writeUTF(file.relativePath());
+                    out.writeInt(file.contents().length);
+                    out.write(file.contents());
+                }
+            }
+            Files.move(tmpFile, directory.resolve(FILES_FILE), StandardCopyOption.REPLACE_EXISTING);
+            Files.write(fingerprintFile, fingerprint.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            LOGGER.warn("Unable to store generated files in code generation cache {}", directory, e);
+        }
+    }
+
+    /**
+     * Computes the fingerprint of the inputs of the code generation for the given context
+     *
+     * @param discriminators any other setting affecting the generated files, such as the kind of generation
+     */
+    public static String fingerprint(KogitoBuildContext context, String... discriminators) {
+        MessageDigest digest = newDigest();
+        update(digest, String.valueOf(ApplicationGenerator.class.getPackage().getImplementationVersion()));
+        update(digest, context.name());
+        update(digest, context.getPackageName());
+        for (String discriminator : discriminators) {
+            update(digest, discriminator);
+        }
+        new TreeMap<>(context.getPropertiesMap()).forEach((key, value) -> update(digest, key + "=" + value));
+        System.getProperties().stringPropertyNames().stream()
+                .filter(key -> key.startsWith("kogito."))
+                .sorted()
+                .forEach(key -> update(digest, key + "=" + System.getProperty(key)));
+
+        AppPaths appPaths = context.getAppPaths();
+        Stream.concat(Stream.of(appPaths.getPaths()), Stream.of(appPaths.getSourcePaths()))
+                .distinct()
+                .forEach(path -> updateWithContent(digest, path));
+        if (context.getClassLoader() instanceof URLClassLoader) {
+            List<Path> outputPaths = Stream.concat(Stream.of(appPaths.getOutputTarget()), appPaths.getClassesPaths().stream())
+                    .filter(Objects::nonNull)
+                    .map(path -> path.toAbsolutePath().normalize())
+                    .collect(Collectors.toList());
+            for (URL url : ((URLClassLoader) context.getClassLoader()).getURLs()) {
+                updateWithClassPathEntry(digest, url, outputPaths);
+            }
+        }
+
+        StringBuilder fingerprint = new StringBuilder();
+        for (byte b : digest.digest()) {
+            fingerprint.append(String.format("%02x", b));
+        }
+        return fingerprint.toString();
+    }
+
+    private static void updateWithContent(MessageDigest digest, Path path) {
+        if (Files.isRegularFile(path)) {
+            update(digest, path.toString());
+            update(digest, readAllBytes(path));
+        } else if (Files.isDirectory(path)) {
+            try (Stream<Path> files = Files.walk(path)) {
+                // sorted, so that the fingerprint does not depend on the order of the file system
+                Map<String, Path> sortedFiles = files.filter(Files::isRegularFile)
+                        .collect(Collectors.toMap(file -> path.relativize(file).toString(), file -> file, (a, b) -> a, TreeMap::new));
+                sortedFiles.forEach((relativePath, file) -> {
+                    update(digest, relativePath);
+                    update(digest, readAllBytes(file));
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static void updateWithClassPathEntry(MessageDigest digest, URL url, List<Path> outputPaths) {
+        if (!"file".equals(url.getProtocol())) {
+            update(digest, url.toString());
+            return;
+        }
+        try {
+            Path path = Paths.get(url.toURI()).toAbsolutePath().normalize();
+            if (outputPaths.stream().anyMatch(path::startsWith)) {
+                return;
+            }
+            // entries are identified by size and modification time of their files, reading them on every build would be too slow
+            if (Files.isRegularFile(path)) {
+                updateWithMetadata(digest, path.toString(), path);
+            } else if (Files.isDirectory(path)) {
+                update(digest, path.toString());
+                try (Stream<Path> files = Files.walk(path)) {
+                    Map<String, Path> sortedFiles = files.filter(Files::isRegularFile)
+                            .collect(Collectors.toMap(file -> path.relativize(file).toString(), file -> file, (a, b) -> a, TreeMap::new));
+                    sortedFiles.forEach((relativePath, file) -> updateWithMetadata(digest, relativePath, file));
+                }
+            } else {
+                update(digest, path.toString());
+            }
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            update(digest, url.toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void updateWithMetadata(MessageDigest digest, String name, Path file) {
+        try {
+            update(digest, name + ":" + Files.size(file) + ":" + Files.getLastModifiedTime(file).toMillis());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] readAllBytes(Path file) {
+        try {
+            return Files.readAllBytes(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        update(digest, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void update(MessageDigest digest, byte[] value) {
+        // length prefixed, so that consecutive values cannot be confused
+        int length = value.length;
+        digest.update(new byte[] { (byte) (length >>> 24), (byte) (length >>> 16), (byte) (length >>> 8), (byte) length });
+        digest.update(value);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
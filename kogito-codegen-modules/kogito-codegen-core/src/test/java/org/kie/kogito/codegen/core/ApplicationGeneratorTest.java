@@ -19,8 +19,11 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.drools.codegen.common.GeneratedFile;
+import org.drools.codegen.common.GeneratedFileType;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.kie.kogito.codegen.api.ApplicationSection;
@@ -33,6 +36,7 @@ import com.github.javaparser.ast.expr.Expression;
 import com.github.javaparser.ast.expr.MethodCallExpr;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.kie.kogito.codegen.api.Generator.REST_TYPE;
 
 public class ApplicationGeneratorTest {
@@ -165,6 +169,38 @@ public class ApplicationGeneratorTest {
         }
     }
 
+    @ParameterizedTest
+    @MethodSource("org.kie.kogito.codegen.api.utils.KogitoContextTestUtils#contextBuilders")
+    public void parallelGenerationKeepsGeneratorOrder(KogitoBuildContext.Builder contextBuilder) {
+        final KogitoBuildContext context = contextBuilder.build();
+        context.setApplicationProperty(ApplicationGenerator.PARALLEL_GENERATION_PROPERTY, "true");
+        final ApplicationGenerator appGenerator = new ApplicationGenerator(context);
+        final Set<String> threads = ConcurrentHashMap.newKeySet();
+        for (int i = 0; i < 4; i++) {
+            // first generators are the slowest ones
+            appGenerator.registerGeneratorIfEnabled(new SlowGenerator(context, "slow" + i, 40L - 10L * i, threads));
+        }
+
+        assertThat(appGenerator.generateComponents())
+                .extracting(GeneratedFile::relativePath)
+                .containsExactly("slow0/A.java", "slow0/B.java", "slow1/A.java", "slow1/B.java", "slow2/A.java", "slow2/B.java", "slow3/A.java", "slow3/B.java");
+        assertThat(threads).doesNotContain(Thread.currentThread().getName());
+    }
+
+    @ParameterizedTest
+    @MethodSource("org.kie.kogito.codegen.api.utils.KogitoContextTestUtils#contextBuilders")
+    public void parallelGenerationFailure(KogitoBuildContext.Builder contextBuilder) {
+        final KogitoBuildContext context = contextBuilder.build();
+        context.setApplicationProperty(ApplicationGenerator.PARALLEL_GENERATION_PROPERTY, "true");
+        final ApplicationGenerator appGenerator = new ApplicationGenerator(context);
+        appGenerator.registerGeneratorIfEnabled(new SlowGenerator(context, "slow", 10L, ConcurrentHashMap.newKeySet()));
+        appGenerator.registerGeneratorIfEnabled(new SlowGenerator(context, "failing", -1L, ConcurrentHashMap.newKeySet()));
+
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(appGenerator::generateComponents)
+                .withMessage("failing");
+    }
+
     private void assertCompilationUnit(final CompilationUnit compilationUnit, final boolean checkCDI) {
         assertThat(compilationUnit).isNotNull();
 
@@ -246,4 +282,41 @@ public class ApplicationGeneratorTest {
             return !isEnabled();
         }
     }
+
+    static class SlowGenerator extends AbstractGenerator {
+
+        private final long delay;
+        private final Set<String> threads;
+
+        SlowGenerator(KogitoBuildContext context, String name, long delay, Set<String> threads) {
+            super(context, name);
+            this.delay = delay;
+            this.threads = threads;
+        }
+
+        @Override
+        public Optional<ApplicationSection> section() {
+            return Optional.empty();
+        }
+
+        @Override
+        protected Collection<GeneratedFile> internalGenerate() {
+            threads.add(Thread.currentThread().getName());
+            if (delay < 0) {
+                throw new IllegalArgumentException(name());
+            }
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Arrays.asList(new GeneratedFile(GeneratedFileType.SOURCE, name() + "/A.java", ""),
+                    new GeneratedFile(GeneratedFileType.SOURCE, name() + "/B.java", ""));
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return false;
+        }
+    }
 }
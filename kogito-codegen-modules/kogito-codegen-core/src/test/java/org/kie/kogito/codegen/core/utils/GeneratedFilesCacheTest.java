@@ -0,0 +1,157 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.codegen.core.utils;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.drools.codegen.common.AppPaths;
+import org.drools.codegen.common.GeneratedFile;
+import org.drools.codegen.common.GeneratedFileType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.kie.kogito.codegen.api.context.KogitoBuildContext;
+import org.kie.kogito.codegen.api.context.impl.JavaKogitoBuildContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GeneratedFilesCacheTest {
+
+    private static final GeneratedFileType REST = GeneratedFileType.of("REST", GeneratedFileType.Category.SOURCE, true, true);
+
+    @TempDir
+    Path projectDir;
+
+    private Path process;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path resources = Files.createDirectories(projectDir.resolve("src/main/resources/org/acme"));
+        process = Files.write(resources.resolve("approval.bpmn"), "<process id=\"approval\"/>".getBytes(StandardCharsets.UTF_8));
+        Files.write(resources.resolve("rules.drl"), "rule R when then end".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testStoredFilesReusedForSameInputs() {
+        KogitoBuildContext context = context();
+        GeneratedFilesCache cache = GeneratedFilesCache.of(context);
+        String fingerprint = GeneratedFilesCache.fingerprint(context, "full");
+        assertThat(cache.get(fingerprint)).isEmpty();
+
+        List<GeneratedFile> files = Arrays.asList(new GeneratedFile(GeneratedFileType.SOURCE, "org/acme/Approval.java", "class Approval {}"),
+                new GeneratedFile(REST, "org/acme/ApprovalResource.java", "class ApprovalResource {}"),
+                new GeneratedFile(GeneratedFileType.COMPILED_CLASS, "org.acme.Rules", new byte[] { 0, 1, 2 }));
+        cache.put(fingerprint, files);
+
+        KogitoBuildContext nextBuild = context();
+        Collection<GeneratedFile> cached = GeneratedFilesCache.of(nextBuild).get(GeneratedFilesCache.fingerprint(nextBuild, "full")).orElseThrow();
+        assertThat(cached).containsExactlyElementsOf(files);
+        assertThat(cached).extracting(GeneratedFile::type).containsExactly(GeneratedFileType.SOURCE, REST, GeneratedFileType.COMPILED_CLASS);
+    }
+
+    @Test
+    void testFingerprintChangesWithInputs() throws IOException {
+        String fingerprint = GeneratedFilesCache.fingerprint(context(), "full");
+        assertThat(GeneratedFilesCache.fingerprint(context(), "full")).isEqualTo(fingerprint);
+        assertThat(GeneratedFilesCache.fingerprint(context(), "partial")).isNotEqualTo(fingerprint);
+
+        KogitoBuildContext withProperty = context();
+        withProperty.setApplicationProperty("kogito.generate.rest", "false");
+        assertThat(GeneratedFilesCache.fingerprint(withProperty, "full")).isNotEqualTo(fingerprint);
+
+        Files.write(process, "<process id=\"approval2\"/>".getBytes(StandardCharsets.UTF_8));
+        String changed = GeneratedFilesCache.fingerprint(context(), "full");
+        assertThat(changed).isNotEqualTo(fingerprint);
+
+        Files.write(process.resolveSibling("new.dmn"), "<definitions/>".getBytes(StandardCharsets.UTF_8));
+        assertThat(GeneratedFilesCache.fingerprint(context(), "full")).isNotEqualTo(changed);
+    }
+
+    @Test
+    void testFingerprintChangesWithClassPathDirectory() throws IOException {
+        Path classes = Files.createDirectories(projectDir.resolve("dependency/classes/org/acme"));
+        Path modelClass = Files.write(classes.resolve("Model.class"), new byte[] { 0, 1 });
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] { projectDir.resolve("dependency/classes").toUri().toURL() }, null)) {
+            String fingerprint = GeneratedFilesCache.fingerprint(context(classLoader), "full");
+            assertThat(GeneratedFilesCache.fingerprint(context(classLoader), "full")).isEqualTo(fingerprint);
+
+            Files.write(modelClass, new byte[] { 0, 1, 2 });
+            String changed = GeneratedFilesCache.fingerprint(context(classLoader), "full");
+            assertThat(changed).isNotEqualTo(fingerprint);
+
+            Files.write(classes.resolve("Other.class"), new byte[] { 0 });
+            assertThat(GeneratedFilesCache.fingerprint(context(classLoader), "full")).isNotEqualTo(changed);
+        }
+    }
+
+    @Test
+    void testFingerprintIgnoresProjectOutputDirectory() throws IOException {
+        Path outputDirectory = Files.createDirectories(projectDir.resolve("target/classes"));
+        Path dependencyDirectory = Files.createDirectories(projectDir.resolve("dependency/classes"));
+        Files.write(outputDirectory.resolve("Approval.class"), new byte[] { 0, 1 });
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] { outputDirectory.toUri().toURL(), dependencyDirectory.toUri().toURL() }, null)) {
+            String fingerprint = GeneratedFilesCache.fingerprint(context(classLoader), "full");
+
+            // written by the generation and the compilation following it
+            Files.write(outputDirectory.resolve("Approval.class"), new byte[] { 0, 1, 2 });
+            Files.write(Files.createDirectories(outputDirectory.resolve("org/acme")).resolve("ApprovalResource.class"), new byte[] { 0 });
+            assertThat(GeneratedFilesCache.fingerprint(context(classLoader), "full")).isEqualTo(fingerprint);
+
+            Files.write(dependencyDirectory.resolve("Model.class"), new byte[] { 0 });
+            assertThat(GeneratedFilesCache.fingerprint(context(classLoader), "full")).isNotEqualTo(fingerprint);
+        }
+    }
+
+    @Test
+    void testStoredFilesNotReusedForOtherInputs() throws IOException {
+        KogitoBuildContext context = context();
+        GeneratedFilesCache cache = GeneratedFilesCache.of(context);
+        cache.put(GeneratedFilesCache.fingerprint(context, "full"), Arrays.asList(new GeneratedFile(GeneratedFileType.SOURCE, "org/acme/Approval.java", "")));
+
+        Files.write(process, "<process id=\"approval2\"/>".getBytes(StandardCharsets.UTF_8));
+        assertThat(cache.get(GeneratedFilesCache.fingerprint(context(), "full"))).isEmpty();
+    }
+
+    @Test
+    void testCorruptedCacheIgnored() throws IOException {
+        KogitoBuildContext context = context();
+        GeneratedFilesCache cache = GeneratedFilesCache.of(context);
+        String fingerprint = GeneratedFilesCache.fingerprint(context, "full");
+        cache.put(fingerprint, Arrays.asList(new GeneratedFile(GeneratedFileType.SOURCE, "org/acme/Approval.java", "")));
+        Files.write(projectDir.resolve("target").resolve(GeneratedFilesCache.CACHE_DIRECTORY).resolve("files"), new byte[] { 0, 0, 0, 1, 0 });
+
+        assertThat(cache.get(fingerprint)).isEmpty();
+    }
+
+    private KogitoBuildContext context() {
+        return context(Thread.currentThread().getContextClassLoader());
+    }
+
+    private KogitoBuildContext context(ClassLoader classLoader) {
+        return JavaKogitoBuildContext.builder()
+                .withAppPaths(AppPaths.fromProjectDir(projectDir, projectDir.resolve("target")))
+                .withClassLoader(classLoader)
+                .build();
+    }
+}
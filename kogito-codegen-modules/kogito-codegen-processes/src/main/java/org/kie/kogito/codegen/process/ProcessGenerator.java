@@ -29,6 +29,7 @@ import org.drools.compiler.compiler.io.memory.MemoryFileSystem;
 import org.drools.util.StringUtils;
 import org.jbpm.compiler.canonical.ProcessMetaData;
 import org.jbpm.compiler.canonical.TriggerMetaData;
+import org.jbpm.workflow.core.impl.WorkflowProcessImpl;
 import org.kie.api.definition.process.Process;
 import org.kie.api.runtime.process.WorkflowProcessInstance;
 import org.kie.kogito.Model;
@@ -53,11 +54,13 @@ import com.github.javaparser.ast.body.Parameter;
 import com.github.javaparser.ast.body.VariableDeclarator;
 import com.github.javaparser.ast.expr.AssignExpr;
 import com.github.javaparser.ast.expr.AssignExpr.Operator;
+import com.github.javaparser.ast.expr.BooleanLiteralExpr;
 import com.github.javaparser.ast.expr.CastExpr;
 import com.github.javaparser.ast.expr.ClassExpr;
 import com.github.javaparser.ast.expr.FieldAccessExpr;
 import com.github.javaparser.ast.expr.MethodCallExpr;
 import com.github.javaparser.ast.expr.NameExpr;
+import com.github.javaparser.ast.expr.NullLiteralExpr;
 import com.github.javaparser.ast.expr.ObjectCreationExpr;
 import com.github.javaparser.ast.expr.SimpleName;
 import com.github.javaparser.ast.expr.StringLiteralExpr;
@@ -77,6 +80,13 @@ import static com.github.javaparser.StaticJavaParser.parseClassOrInterfaceType;
  */
 public class ProcessGenerator {
 
+    /**
+     * Set to <code>lazy</code> to activate processes on their first use instead of on startup, except those with
+     * timer start nodes
+     */
+    public static final String ACTIVATION_PROPERTY = "kogito.processes.activation";
+    public static final String LAZY_ACTIVATION = "lazy";
+
     private static final String BUSINESS_KEY = "businessKey";
     private static final String CREATE_MODEL = "createModel";
     private static final String APPLICATION = "app";
@@ -295,6 +305,30 @@ public class ProcessGenerator {
                 .setName("process");
     }
 
+    // known at build time, so that identifying the process does not build its definition
+    private MethodDeclaration definitionAttribute(String name, String value) {
+        return new MethodDeclaration()
+                .addModifier(Keyword.PUBLIC)
+                .setName(name)
+                .setType(String.class)
+                .addAnnotation(Override.class)
+                .setBody(new BlockStmt().addStatement(new ReturnStmt(value == null ? new NullLiteralExpr() : new StringLiteralExpr().setString(value))));
+    }
+
+    private MethodDeclaration hasTimerStart() {
+        return new MethodDeclaration()
+                .addModifier(Keyword.PROTECTED)
+                .setName("hasTimerStart")
+                .setType(boolean.class)
+                .addAnnotation(Override.class)
+                .setBody(new BlockStmt().addStatement(new ReturnStmt(new BooleanLiteralExpr(isTimerStart()))));
+    }
+
+    private boolean isTimerStart() {
+        return process instanceof WorkflowProcessImpl && ((WorkflowProcessImpl) process).getTimerStart() != null
+                && !((WorkflowProcessImpl) process).getTimerStart().isEmpty();
+    }
+
     private MethodCallExpr createProcessRuntime() {
         return new MethodCallExpr(
                 new ThisExpr(),
@@ -384,13 +418,17 @@ public class ProcessGenerator {
             superMethod.addArgument(new NameExpr(FACTORY));
         }
 
+        // processes with timer start nodes are always activated on startup, to schedule their timers
+        boolean lazyActivation = LAZY_ACTIVATION.equalsIgnoreCase(context.getApplicationProperty(ACTIVATION_PROPERTY).orElse(null)) && !isTimerStart();
         constructor.setBody(new BlockStmt()
                 .addStatement(superMethod)
-                .addStatement(new MethodCallExpr("activate")));
+                .addStatement(new MethodCallExpr(lazyActivation ? "deferActivation" : "activate")));
 
         if (context.hasDI()) {
             context.getDependencyInjectionAnnotator().withNamedApplicationComponent(cls, process.getId());
-            context.getDependencyInjectionAnnotator().withEagerStartup(cls);
+            if (!lazyActivation) {
+                context.getDependencyInjectionAnnotator().withEagerStartup(cls);
+            }
             context.getDependencyInjectionAnnotator().withInjection(constructor);
         }
 
@@ -478,7 +516,11 @@ public class ProcessGenerator {
                 .addMember(createInstanceGenericWithBusinessKeyMethod(processInstanceFQCN))
                 .addMember(createInstanceGenericWithWorkflowInstanceMethod(processInstanceFQCN))
                 .addMember(createReadOnlyInstanceGenericWithWorkflowInstanceMethod(processInstanceFQCN))
-                .addMember(process(processMetaData));
+                .addMember(process(processMetaData))
+                .addMember(definitionAttribute("id", process.getId()))
+                .addMember(definitionAttribute("name", process.getName()))
+                .addMember(definitionAttribute("type", process.getType()))
+                .addMember(hasTimerStart());
 
         internalConfigure(processMetaData).ifPresent(cls::addMember);
         internalRegisterListeners(processMetaData).ifPresent(cls::addMember);
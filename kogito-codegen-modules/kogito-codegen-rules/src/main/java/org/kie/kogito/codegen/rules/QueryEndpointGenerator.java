@@ -174,7 +174,7 @@ public class QueryEndpointGenerator extends AbstractQueryEntrypointGenerator {
         BlockStmt cb = new BlockStmt();
         cb.addStatement(parseStatement(
                 String.format(
-                        "systemMetricsCollectorProvider.get().registerException(\"%s\", %s.getStackTrace()[0].toString());",
+                        "systemMetricsCollectorProvider.get().registerException(\"%s\", %s);",
                         nameURL,
                         exceptionName)));
         cb.addStatement(new ThrowStmt(new NameExpr(exceptionName)));
@@ -22,10 +22,13 @@ import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -36,8 +39,10 @@ import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.plugins.annotations.ResolutionScope;
 import org.drools.codegen.common.GeneratedFile;
 import org.drools.codegen.common.GeneratedFileType;
+import org.kie.kogito.codegen.api.context.KogitoBuildContext;
 import org.kie.kogito.codegen.core.ApplicationGenerator;
 import org.kie.kogito.codegen.core.utils.ApplicationGeneratorDiscovery;
+import org.kie.kogito.codegen.core.utils.GeneratedFilesCache;
 
 import static org.drools.codegen.common.GeneratedFileType.COMPILED_CLASS;
 import static org.kie.efesto.common.api.constants.Constants.INDEXFILE_DIRECTORY_PROPERTY;
@@ -69,6 +74,13 @@ public class GenerateModelMojo extends AbstractKieMojo {
     @Parameter(property = "kogito.sources.keep", defaultValue = "false")
     private boolean keepSources;
 
+    /**
+     * Reuses the files generated by the previous build when the resources, sources, properties and dependencies of
+     * the project did not change. The files are kept in the kogito-codegen-cache directory of the build directory.
+     */
+    @Parameter(property = GeneratedFilesCache.CACHE_PROPERTY, defaultValue = "false")
+    private boolean codegenCache;
+
     @Parameter(property = "build.output.directory", readonly = true, defaultValue = "${project.build.directory}/classes/")
     private String buildOutputDirectory;
 
@@ -114,15 +126,8 @@ public class GenerateModelMojo extends AbstractKieMojo {
 
         setSystemProperties(properties);
 
-        ApplicationGenerator appGen = ApplicationGeneratorDiscovery
-                .discover(discoverKogitoRuntimeContext(projectClassLoader()));
-
-        Collection<GeneratedFile> generatedFiles;
-        if (generatePartial) {
-            generatedFiles = appGen.generateComponents();
-        } else {
-            generatedFiles = appGen.generate();
-        }
+        KogitoBuildContext context = discoverKogitoRuntimeContext(projectClassLoader());
+        Collection<GeneratedFile> generatedFiles = codegenCache ? generateFilesWithCache(context) : generateFiles(context);
 
         Map<GeneratedFileType, List<GeneratedFile>> mappedGeneratedFiles = generatedFiles.stream()
                 .collect(Collectors.groupingBy(GeneratedFile::type));
@@ -142,6 +147,30 @@ public class GenerateModelMojo extends AbstractKieMojo {
         }
     }
 
+    private Collection<GeneratedFile> generateFiles(KogitoBuildContext context) {
+        ApplicationGenerator appGen = ApplicationGeneratorDiscovery.discover(context);
+        if (generatePartial) {
+            return appGen.generateComponents();
+        } else {
+            return appGen.generate();
+        }
+    }
+
+    private Collection<GeneratedFile> generateFilesWithCache(KogitoBuildContext context) {
+        // kept out of the output directory, which is packaged and is part of the class path of the project
+        GeneratedFilesCache cache = new GeneratedFilesCache(Paths.get(project.getBuild().getDirectory(), GeneratedFilesCache.CACHE_DIRECTORY));
+        String fingerprint = GeneratedFilesCache.fingerprint(context, generatePartial ? "partial" : "full",
+                String.valueOf(properties == null ? null : new TreeMap<>(properties)));
+        Optional<Collection<GeneratedFile>> cachedFiles = cache.get(fingerprint);
+        if (cachedFiles.isPresent()) {
+            getLog().info("Sources of the project did not change, reusing the generated files of the previous build");
+            return cachedFiles.get();
+        }
+        Collection<GeneratedFile> generatedFiles = generateFiles(context);
+        cache.put(fingerprint, generatedFiles);
+        return generatedFiles;
+    }
+
     private String convertPath(String toConvert) {
         return toConvert.replace('.', File.separatorChar) + ".class";
     }
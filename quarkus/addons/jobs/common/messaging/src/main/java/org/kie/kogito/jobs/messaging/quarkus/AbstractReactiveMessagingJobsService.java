@@ -17,7 +17,10 @@
 package org.kie.kogito.jobs.messaging.quarkus;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import org.eclipse.microprofile.reactive.messaging.Emitter;
 import org.eclipse.microprofile.reactive.messaging.Message;
@@ -26,10 +29,17 @@ import org.kie.kogito.jobs.JobsServiceException;
 import org.kie.kogito.jobs.ProcessInstanceJobDescription;
 import org.kie.kogito.jobs.ProcessJobDescription;
 import org.kie.kogito.jobs.api.Job;
+import org.kie.kogito.jobs.api.JobRequestBatcher;
+import org.kie.kogito.jobs.api.JobRequestBatcher.FailureHandler;
+import org.kie.kogito.jobs.api.JobRequestBatcher.JobRequest;
 import org.kie.kogito.jobs.api.event.CancelJobRequestEvent;
 import org.kie.kogito.jobs.api.event.CreateProcessInstanceJobRequestEvent;
 import org.kie.kogito.jobs.api.event.JobCloudEvent;
 import org.kie.kogito.jobs.api.event.serialization.JobCloudEventSerializer;
+import org.kie.kogito.uow.events.UnitOfWorkAbortEvent;
+import org.kie.kogito.uow.events.UnitOfWorkEndEvent;
+import org.kie.kogito.uow.events.UnitOfWorkEventListener;
+import org.kie.kogito.uow.events.UnitOfWorkStartEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -43,7 +53,15 @@ import io.vertx.core.Vertx;
 import static org.kie.kogito.jobs.api.JobCallbackResourceDef.buildCallbackPatternJob;
 import static org.kie.kogito.jobs.api.JobCallbackResourceDef.buildCallbackURI;
 
-public abstract class AbstractReactiveMessagingJobsService implements JobsService {
+/**
+ * Base class for the jobs services sending job requests as events.
+ * <p>
+ * Job creations and cancellations are collected by a {@link JobRequestBatcher} and emitted together once the unit of work
+ * they belong to has been committed: all the events of a batch are sent before waiting for their acknowledgement, and the
+ * not acknowledged ones are sent again up to the maximum number of attempts. Events still not acknowledged are logged and
+ * passed to {@link #onFailedJobRequest(JobRequest, Exception)}.
+ */
+public abstract class AbstractReactiveMessagingJobsService implements JobsService, UnitOfWorkEventListener {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractReactiveMessagingJobsService.class);
 
@@ -55,6 +73,8 @@ public abstract class AbstractReactiveMessagingJobsService implements JobsServic
 
     private final Emitter<String> eventsEmitter;
 
+    private final JobRequestBatcher batcher = new JobRequestBatcher(this::flush, this::onFailedJobRequest);
+
     protected AbstractReactiveMessagingJobsService() {
         this(null, null, null);
     }
@@ -74,9 +94,77 @@ public abstract class AbstractReactiveMessagingJobsService implements JobsServic
 
     @Override
     public String scheduleProcessInstanceJob(ProcessInstanceJobDescription description) {
+        batcher.create(description);
+        return description.id();
+    }
+
+    @Override
+    public boolean cancelJob(String id) {
+        batcher.cancel(id);
+        return true;
+    }
+
+    @Override
+    public void onBeforeStartEvent(UnitOfWorkStartEvent event) {
+        batcher.onBeforeStartEvent(event);
+    }
+
+    @Override
+    public void onAfterEndEvent(UnitOfWorkEndEvent event) {
+        batcher.onAfterEndEvent(event);
+    }
+
+    @Override
+    public void onAfterAbortEvent(UnitOfWorkAbortEvent event) {
+        batcher.onAfterAbortEvent(event);
+    }
+
+    @Override
+    public int priority() {
+        return batcher.priority();
+    }
+
+    /**
+     * Invoked for each job request given up on after its unit of work was committed, does nothing by default.
+     */
+    protected void onFailedJobRequest(JobRequest request, Exception error) {
+        // NO-OP
+    }
+
+    void flush(List<JobRequest> requests, int maxAttempts, FailureHandler failureHandler) {
+        List<PendingRequest> pending = new ArrayList<>(requests.size());
+        for (JobRequest request : requests) {
+            try {
+                pending.add(new PendingRequest(request,
+                        request.getType() == JobRequest.Type.CREATE ? buildCreateEvent(request.getDescription()) : buildCancelEvent(request.getJobId())));
+            } catch (RuntimeException e) {
+                failureHandler.onFailure(request, e);
+            }
+        }
+        for (int attempt = 1; !pending.isEmpty(); attempt++) {
+            pending.forEach(PendingRequest::emit);
+
+            List<PendingRequest> failed = new ArrayList<>();
+            for (PendingRequest pendingRequest : pending) {
+                try {
+                    pendingRequest.await();
+                } catch (JobsServiceException e) {
+                    if (attempt >= maxAttempts) {
+                        failureHandler.onFailure(pendingRequest.request, e);
+                    } else {
+                        failed.add(pendingRequest);
+                        LOGGER.warn("JobCloudEvent {} was not emitted on attempt {} of {}, retrying", pendingRequest.event, attempt, maxAttempts, e);
+                    }
+                }
+            }
+            pending = failed;
+        }
+    }
+
+    private CreateProcessInstanceJobRequestEvent buildCreateEvent(ProcessInstanceJobDescription description) {
         Job job = buildCallbackPatternJob(description, buildCallbackURI(description, serviceUrl.toString()));
         LOGGER.debug("scheduleProcessInstanceJob job: {}", job);
-        CreateProcessInstanceJobRequestEvent event = CreateProcessInstanceJobRequestEvent.builder()
+        return CreateProcessInstanceJobRequestEvent.builder()
                 .source(serviceUrl)
                 .job(job)
                 .processInstanceId(description.processInstanceId())
@@ -85,20 +173,15 @@ public abstract class AbstractReactiveMessagingJobsService implements JobsServic
                 .rootProcessId(description.rootProcessId())
                 .kogitoAddons(getAddonName())
                 .build();
-        emitEvent(event);
-        return job.getId();
     }
 
-    @Override
-    public boolean cancelJob(String id) {
+    private CancelJobRequestEvent buildCancelEvent(String id) {
         LOGGER.debug("cancelJob, id: {}", id);
-        CancelJobRequestEvent event = CancelJobRequestEvent.builder()
+        return CancelJobRequestEvent.builder()
                 .source(serviceUrl)
                 .jobId(id)
                 .kogitoAddons(getAddonName())
                 .build();
-        emitEvent(event);
-        return true;
     }
 
     protected Message<String> decorate(Message<String> message) {
@@ -107,7 +190,12 @@ public abstract class AbstractReactiveMessagingJobsService implements JobsServic
 
     protected abstract String getAddonName();
 
-    void emitEvent(JobCloudEvent<?> event) {
+    /**
+     * Sends the event without waiting for its acknowledgement.
+     *
+     * @return a future completed when the event is acknowledged, completed exceptionally when it can't be sent
+     */
+    CompletableFuture<Void> emitEvent(JobCloudEvent<?> event) {
         LOGGER.debug("About to emit JobCloudEvent {} to channel {}", event, KOGITO_JOB_SERVICE_JOB_REQUEST_EVENTS_CHANNEL);
         try {
             String json = serializer.serialize(event);
@@ -124,11 +212,37 @@ public abstract class AbstractReactiveMessagingJobsService implements JobsServic
             if (context != null) {
                 uni = uni.emitOn(runnable -> context.runOnContext(x -> runnable.run()));
             }
-            uni.await().indefinitely();
-            LOGGER.trace("Successfully emitted JobCloudEvent {} to channel {}", event, KOGITO_JOB_SERVICE_JOB_REQUEST_EVENTS_CHANNEL);
+            return uni.subscribeAsCompletionStage();
         } catch (Exception e) {
-            throw new JobsServiceException("Error while emitting JobCloudEvent event to channel: " +
-                    KOGITO_JOB_SERVICE_JOB_REQUEST_EVENTS_CHANNEL + ", event: " + event, e);
+            CompletableFuture<Void> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+    private class PendingRequest {
+
+        private final JobRequest request;
+        private final JobCloudEvent<?> event;
+        private CompletableFuture<Void> acknowledgement;
+
+        private PendingRequest(JobRequest request, JobCloudEvent<?> event) {
+            this.request = request;
+            this.event = event;
+        }
+
+        private void emit() {
+            acknowledgement = emitEvent(event);
+        }
+
+        private void await() {
+            try {
+                acknowledgement.join();
+                LOGGER.trace("Successfully emitted JobCloudEvent {} to channel {}", event, KOGITO_JOB_SERVICE_JOB_REQUEST_EVENTS_CHANNEL);
+            } catch (CompletionException e) {
+                throw new JobsServiceException("Error while emitting JobCloudEvent event to channel: " +
+                        KOGITO_JOB_SERVICE_JOB_REQUEST_EVENTS_CHANNEL + ", event: " + event, e.getCause());
+            }
         }
     }
 }
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.jobs.messaging.quarkus;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.jobs.ExactExpirationTime;
+import org.kie.kogito.jobs.JobsServiceException;
+import org.kie.kogito.jobs.ProcessInstanceJobDescription;
+import org.kie.kogito.jobs.TimerJobId;
+import org.kie.kogito.jobs.api.JobRequestBatcher.JobRequest;
+import org.kie.kogito.jobs.api.event.CancelJobRequestEvent;
+import org.kie.kogito.jobs.api.event.CreateProcessInstanceJobRequestEvent;
+import org.kie.kogito.jobs.api.event.JobCloudEvent;
+import org.kie.kogito.uow.UnitOfWork;
+import org.kie.kogito.uow.events.UnitOfWorkEndEvent;
+import org.kie.kogito.uow.events.UnitOfWorkStartEvent;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class ReactiveMessagingJobsServiceBatchTest {
+
+    private static final URI SERVICE_URI = URI.create("http://myService.com:8080");
+
+    private TestJobsService jobsService;
+
+    @BeforeEach
+    void setUp() {
+        jobsService = new TestJobsService();
+    }
+
+    @Test
+    void testPartialEmitterFailureDoesNotStopTheBatch() {
+        ProcessInstanceJobDescription description = description("job-1");
+        jobsService.failingJobs.add(description.id());
+
+        UnitOfWork unitOfWork = mock(UnitOfWork.class);
+        jobsService.onBeforeStartEvent(new UnitOfWorkStartEvent(unitOfWork));
+        jobsService.scheduleProcessInstanceJob(description);
+        assertThat(jobsService.cancelJob("job-2")).isTrue();
+        assertThat(jobsService.cancelJob("job-3")).isTrue();
+        assertThat(jobsService.emitted).isEmpty();
+
+        jobsService.onAfterEndEvent(new UnitOfWorkEndEvent(unitOfWork));
+
+        // all the events are emitted on the first attempt, only the failing one is emitted again
+        assertThat(jobsService.emitted).containsExactly(description.id(), "job-2", "job-3", description.id(), description.id());
+        assertThat(jobsService.failedRequests).extracting(JobRequest::getJobId).containsExactly(description.id());
+    }
+
+    @Test
+    void testFailingEventSucceedsOnRetry() {
+        jobsService.failingJobs.add("job-1");
+        jobsService.failuresBeforeSuccess = 1;
+
+        UnitOfWork unitOfWork = mock(UnitOfWork.class);
+        jobsService.onBeforeStartEvent(new UnitOfWorkStartEvent(unitOfWork));
+        jobsService.cancelJob("job-1");
+        jobsService.cancelJob("job-2");
+        jobsService.onAfterEndEvent(new UnitOfWorkEndEvent(unitOfWork));
+
+        assertThat(jobsService.emitted).containsExactly("job-1", "job-2", "job-1");
+        assertThat(jobsService.failedRequests).isEmpty();
+    }
+
+    private static ProcessInstanceJobDescription description(String id) {
+        return ProcessInstanceJobDescription.of(new TimerJobId(id), ExactExpirationTime.now(), "processInstanceId", "processId");
+    }
+
+    private static class TestJobsService extends AbstractReactiveMessagingJobsService {
+
+        private final List<String> emitted = new ArrayList<>();
+        private final Set<String> failingJobs = new HashSet<>();
+        private final List<JobRequest> failedRequests = new ArrayList<>();
+        private int failuresBeforeSuccess = Integer.MAX_VALUE;
+
+        private TestJobsService() {
+            super(SERVICE_URI, mock(ObjectMapper.class), null);
+        }
+
+        @Override
+        protected String getAddonName() {
+            return "test";
+        }
+
+        @Override
+        CompletableFuture<Void> emitEvent(JobCloudEvent<?> event) {
+            String jobId = event instanceof CancelJobRequestEvent ? ((CancelJobRequestEvent) event).getData().getId()
+                    : ((CreateProcessInstanceJobRequestEvent) event).getData().getId();
+            emitted.add(jobId);
+            CompletableFuture<Void> acknowledgement = new CompletableFuture<>();
+            if (failingJobs.contains(jobId) && emitted.stream().filter(jobId::equals).count() <= failuresBeforeSuccess) {
+                acknowledgement.completeExceptionally(new JobsServiceException("nack " + jobId));
+            } else {
+                acknowledgement.complete(null);
+            }
+            return acknowledgement;
+        }
+
+        @Override
+        protected void onFailedJobRequest(JobRequest request, Exception error) {
+            failedRequests.add(request);
+        }
+    }
+}
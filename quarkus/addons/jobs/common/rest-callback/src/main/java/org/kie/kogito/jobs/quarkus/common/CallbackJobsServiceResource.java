@@ -16,22 +16,31 @@
 
 package org.kie.kogito.jobs.quarkus.common;
 
+import java.util.List;
+
 import javax.inject.Inject;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DefaultValue;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.context.ManagedExecutor;
 import org.kie.kogito.Application;
+import org.kie.kogito.jobs.ExpiredJob;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.Processes;
 import org.kie.kogito.services.jobs.impl.TriggerJobCommand;
+import org.kie.kogito.services.jobs.impl.TriggerJobsCommand;
 
+import static org.kie.kogito.jobs.api.JobCallbackResourceDef.JOBS_CALLBACK_BULK_MAX_PARALLELISM;
+import static org.kie.kogito.jobs.api.JobCallbackResourceDef.JOBS_CALLBACK_BULK_POST_URI;
 import static org.kie.kogito.jobs.api.JobCallbackResourceDef.JOBS_CALLBACK_POST_URI;
 import static org.kie.kogito.jobs.api.JobCallbackResourceDef.JOBS_CALLBACK_URI;
 import static org.kie.kogito.jobs.api.JobCallbackResourceDef.LIMIT;
@@ -49,6 +58,12 @@ public class CallbackJobsServiceResource {
     @Inject
     Application application;
 
+    @Inject
+    ManagedExecutor executor;
+
+    @ConfigProperty(name = JOBS_CALLBACK_BULK_MAX_PARALLELISM, defaultValue = "" + TriggerJobsCommand.DEFAULT_MAX_PARALLELISM)
+    int maxParallelism;
+
     @POST
     @Path(JOBS_CALLBACK_POST_URI)
     @Consumes(MediaType.APPLICATION_JSON)
@@ -70,4 +85,15 @@ public class CallbackJobsServiceResource {
                 : Response.status(Status.NOT_FOUND).entity("Process instance with id " + processInstanceId + " not found").build();
 
     }
+
+    @POST
+    @Path(JOBS_CALLBACK_BULK_POST_URI)
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response triggerTimers(List<ExpiredJob> jobs) {
+        if (jobs == null) {
+            return Response.status(Status.BAD_REQUEST).entity("Expired jobs must be given").build();
+        }
+        return Response.ok(new TriggerJobsCommand(jobs, processes, application.unitOfWorkManager(), executor, maxParallelism).execute()).build();
+    }
 }
@@ -16,18 +16,23 @@
 
 package org.kie.kogito.jobs.quarkus.common;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import javax.ws.rs.core.Response;
 
+import org.eclipse.microprofile.context.ManagedExecutor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.kie.kogito.Application;
+import org.kie.kogito.jobs.ExpiredJob;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessInstance;
 import org.kie.kogito.process.ProcessInstances;
 import org.kie.kogito.process.Processes;
+import org.kie.kogito.services.jobs.impl.TriggerJobsCommand;
 import org.kie.kogito.uow.UnitOfWork;
 import org.kie.kogito.uow.UnitOfWorkManager;
 import org.mockito.Mock;
@@ -38,6 +43,7 @@ import static javax.ws.rs.core.Response.Status.NOT_FOUND;
 import static javax.ws.rs.core.Response.Status.OK;
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.verify;
 
@@ -70,6 +76,9 @@ class CallbackJobsServiceResourceTest {
     @Mock
     private ProcessInstance<?> processInstance;
 
+    @Mock
+    private ManagedExecutor executor;
+
     private CallbackJobsServiceResource resource;
 
     @BeforeEach
@@ -77,6 +86,8 @@ class CallbackJobsServiceResourceTest {
         resource = new CallbackJobsServiceResource();
         resource.application = application;
         resource.processes = processes;
+        resource.executor = executor;
+        resource.maxParallelism = TriggerJobsCommand.DEFAULT_MAX_PARALLELISM;
     }
 
     @Test
@@ -127,4 +138,32 @@ class CallbackJobsServiceResourceTest {
         assertThat(response.getStatus()).isEqualTo(OK.getStatusCode());
         verify(processInstance).send(any());
     }
+
+    @Test
+    void triggerTimersNotPresent() {
+        Response response = resource.triggerTimers(null);
+        assertThat(response.getStatus()).isEqualTo(BAD_REQUEST.getStatusCode());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void triggerTimersOK() {
+        doReturn(process).when(processes).processById(PROCESS_ID);
+        doReturn(instances).when(process).instances();
+        doReturn(unitOfWorkManager).when(application).unitOfWorkManager();
+        doReturn(unitOfWork).when(unitOfWorkManager).newUnitOfWork();
+        doReturn(Optional.of(processInstance)).when(instances).findById(PROCESS_INSTANCE_ID);
+        doReturn(ProcessInstance.STATE_ACTIVE).when(processInstance).status();
+        doAnswer(invocation -> {
+            invocation.<Runnable> getArgument(0).run();
+            return null;
+        }).when(executor).execute(any());
+
+        Response response = resource.triggerTimers(Collections.singletonList(new ExpiredJob(PROCESS_ID, PROCESS_INSTANCE_ID, TIMER_ID, LIMIT)));
+        assertThat(response.getStatus()).isEqualTo(OK.getStatusCode());
+        assertThat((List<TriggerJobsCommand.Result>) response.getEntity())
+                .extracting(TriggerJobsCommand.Result::getStatus)
+                .containsExactly(TriggerJobsCommand.Status.TRIGGERED);
+        verify(processInstance).send(any());
+    }
 }
@@ -16,6 +16,7 @@
 package org.kie.kogito.jobs.management.quarkus;
 
 import java.net.URI;
+import java.util.List;
 
 import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
@@ -23,9 +24,11 @@ import javax.enterprise.inject.Instance;
 import javax.inject.Inject;
 
 import org.eclipse.microprofile.config.inject.ConfigProperty;
-import org.kie.kogito.jobs.ProcessInstanceJobDescription;
+import org.kie.kogito.jobs.JobsServiceException;
 import org.kie.kogito.jobs.ProcessJobDescription;
 import org.kie.kogito.jobs.api.Job;
+import org.kie.kogito.jobs.api.JobRequestBatcher.FailureHandler;
+import org.kie.kogito.jobs.api.JobRequestBatcher.JobRequest;
 import org.kie.kogito.jobs.management.RestJobsService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,8 +36,10 @@ import org.slf4j.LoggerFactory;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
+import io.vertx.core.AsyncResult;
 import io.vertx.core.Vertx;
 import io.vertx.core.json.jackson.DatabindCodec;
+import io.vertx.ext.web.client.HttpResponse;
 import io.vertx.ext.web.client.WebClient;
 import io.vertx.ext.web.client.WebClientOptions;
 
@@ -95,30 +100,51 @@ public class VertxJobsService extends RestJobsService {
     }
 
     @Override
-    public String scheduleProcessInstanceJob(ProcessInstanceJobDescription description) {
-        String callback = getCallbackEndpoint(description);
-        LOGGER.debug("Job to be scheduled {} with callback URL {}", description, callback);
-        final Job job = buildJob(description, callback);
+    protected void flush(List<JobRequest> requests, int maxAttempts, FailureHandler failureHandler) {
+        // requests are sent concurrently, the web client does not block the caller
+        for (JobRequest request : requests) {
+            if (request.getType() == JobRequest.Type.CREATE) {
+                String callback = getCallbackEndpoint(request.getDescription());
+                LOGGER.debug("Job to be scheduled {} with callback URL {}", request.getDescription(), callback);
+                createJob(request, buildJob(request.getDescription(), callback), 1, maxAttempts, failureHandler);
+            } else {
+                cancelJob(request, 1, maxAttempts, failureHandler);
+            }
+        }
+    }
+
+    private void createJob(JobRequest request, Job job, int attempt, int maxAttempts, FailureHandler failureHandler) {
         client.post(JOBS_PATH).sendJson(job, res -> {
             if (res.succeeded() && res.result().statusCode() == 200) {
                 LOGGER.debug("Creating of the job {} done with status code {} ", job, res.result().statusCode());
+            } else if (attempt < maxAttempts) {
+                LOGGER.warn("Scheduling of job {} failed on attempt {} of {}, retrying", job, attempt, maxAttempts, res.cause());
+                createJob(request, job, attempt + 1, maxAttempts, failureHandler);
             } else {
-                LOGGER.error("Scheduling of job {} failed with response code {}", job, res.result().statusCode(), res.cause());
+                failureHandler.onFailure(request, failure("Scheduling of job " + job.getId(), res));
             }
         });
-        return job.getId();
     }
 
-    @Override
-    public boolean cancelJob(String id) {
+    private void cancelJob(JobRequest request, int attempt, int maxAttempts, FailureHandler failureHandler) {
+        String id = request.getJobId();
         client.delete(JOBS_PATH + "/" + id).send(res -> {
             if (res.succeeded() && (res.result().statusCode() == 200 || res.result().statusCode() == 404)) {
                 LOGGER.debug("Canceling of the job {} done with status code {} ", id, res.result().statusCode());
+            } else if (attempt < maxAttempts) {
+                LOGGER.warn("Canceling of job {} failed on attempt {} of {}, retrying", id, attempt, maxAttempts, res.cause());
+                cancelJob(request, attempt + 1, maxAttempts, failureHandler);
             } else {
-                LOGGER.error("Canceling of job {} failed with response code {}", id, res.result().statusCode(), res.cause());
+                failureHandler.onFailure(request, failure("Canceling of job " + id, res));
             }
         });
+    }
+
+    private static JobsServiceException failure(String operation, AsyncResult<? extends HttpResponse<?>> res) {
+        return new JobsServiceException(operation + " failed with response code " + statusCode(res), res.cause());
+    }
 
-        return true;
+    private static Integer statusCode(AsyncResult<? extends HttpResponse<?>> res) {
+        return res.succeeded() ? res.result().statusCode() : null;
     }
 }
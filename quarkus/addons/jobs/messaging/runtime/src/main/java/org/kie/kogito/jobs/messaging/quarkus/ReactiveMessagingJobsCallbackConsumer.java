@@ -0,0 +1,91 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.jobs.messaging.quarkus;
+
+import java.io.IOException;
+import java.util.List;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.context.ManagedExecutor;
+import org.eclipse.microprofile.reactive.messaging.Incoming;
+import org.kie.kogito.Application;
+import org.kie.kogito.jobs.ExpiredJob;
+import org.kie.kogito.process.Processes;
+import org.kie.kogito.services.jobs.impl.TriggerJobsCommand;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.smallrye.reactive.messaging.annotations.Blocking;
+
+import static org.kie.kogito.jobs.api.JobCallbackResourceDef.JOBS_CALLBACK_BULK_MAX_PARALLELISM;
+
+/**
+ * Messaging counterpart of the bulk timers callback endpoint: each received message carries a JSON array of
+ * {@link ExpiredJob}s, which are triggered together by a {@link TriggerJobsCommand}.
+ * <p>
+ * The consumer is only registered when the build property <code>kogito.jobs.callback.messaging.enabled</code> is
+ * <code>true</code>, since the incoming channel <code>kogito-job-service-job-callback-events</code> must then be
+ * bound to a connector, e.g.
+ * <code>mp.messaging.incoming.kogito-job-service-job-callback-events.connector=smallrye-kafka</code>. The jobs of a
+ * message are triggered by the calling worker thread and threads of the managed executor.
+ */
+@ApplicationScoped
+@IfBuildProperty(name = ReactiveMessagingJobsCallbackConsumer.ENABLED, stringValue = "true")
+public class ReactiveMessagingJobsCallbackConsumer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReactiveMessagingJobsCallbackConsumer.class);
+
+    public static final String ENABLED = "kogito.jobs.callback.messaging.enabled";
+
+    public static final String KOGITO_JOB_SERVICE_JOB_CALLBACK_EVENTS_CHANNEL = "kogito-job-service-job-callback-events";
+
+    private static final TypeReference<List<ExpiredJob>> EXPIRED_JOBS_TYPE = new TypeReference<List<ExpiredJob>>() {
+    };
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    Processes processes;
+
+    @Inject
+    Application application;
+
+    @Inject
+    ManagedExecutor executor;
+
+    @ConfigProperty(name = JOBS_CALLBACK_BULK_MAX_PARALLELISM, defaultValue = "" + TriggerJobsCommand.DEFAULT_MAX_PARALLELISM)
+    int maxParallelism;
+
+    @Incoming(KOGITO_JOB_SERVICE_JOB_CALLBACK_EVENTS_CHANNEL)
+    @Blocking
+    public void onExpiredJobs(String payload) throws IOException {
+        List<ExpiredJob> jobs = objectMapper.readValue(payload, EXPIRED_JOBS_TYPE);
+        LOGGER.debug("Received {} expired jobs from channel {}", jobs.size(), KOGITO_JOB_SERVICE_JOB_CALLBACK_EVENTS_CHANNEL);
+        for (TriggerJobsCommand.Result result : new TriggerJobsCommand(jobs, processes, application.unitOfWorkManager(), executor, maxParallelism).execute()) {
+            if (result.getStatus() != TriggerJobsCommand.Status.TRIGGERED) {
+                LOGGER.warn("Expired job {} was not triggered: {}", result.getJob(), result.getStatus());
+            }
+        }
+    }
+}
@@ -22,6 +22,8 @@ import javax.inject.Inject;
 
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.kie.kogito.event.EventExecutorServiceFactory;
+import org.kie.kogito.event.EventExecutorType;
+import org.kie.kogito.event.EventExecutors;
 import org.kie.kogito.event.KogitoEventStreams;
 
 import io.quarkus.arc.DefaultBean;
@@ -36,11 +38,18 @@ public class QuarkusEventExecutorServiceFactory implements EventExecutorServiceF
     @ConfigProperty(name = KogitoEventStreams.QUEUE_SIZE_PROPERTY, defaultValue = KogitoEventStreams.DEFAULT_QUEUE_SIZE)
     int queueSize;
 
+    @ConfigProperty(name = KogitoEventStreams.EXECUTOR_TYPE_PROPERTY, defaultValue = KogitoEventStreams.DEFAULT_EXECUTOR_TYPE)
+    String executorType;
+
     @Inject
     QuarkusEmitterController emitterStatus;
 
     @Override
     public ExecutorService getExecutorService(String channelName) {
+        ExecutorService executor = EventExecutors.create(EventExecutorType.fromValue(executorType), numThreads, queueSize);
+        if (executor != null) {
+            return executor;
+        }
         return new QuarkusEventThreadPool(numThreads, queueSize, emitterStatus, channelName);
     }
 }
@@ -19,8 +19,10 @@ import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.kie.kogito.KogitoGAV;
 import org.kie.kogito.conf.ConfigBean;
+import org.kie.kogito.monitoring.core.common.Constants;
 import org.kie.kogito.monitoring.core.common.system.metrics.SystemMetricsCollector;
 import org.kie.kogito.monitoring.core.common.system.metrics.SystemMetricsCollectorProvider;
 
@@ -34,11 +36,15 @@ public class QuarkusSystemMetricsCollectorProvider implements SystemMetricsColle
     @Inject
     ConfigBean configBean;
 
+    @ConfigProperty(name = Constants.MONITORING_TAGS_MAX_VALUES, defaultValue = "100")
+    int maxTagValues;
+
     SystemMetricsCollector systemMetricsCollector;
 
     @PostConstruct
     public void init() {
         systemMetricsCollector = new SystemMetricsCollector(configBean.getGav().orElse(KogitoGAV.EMPTY_GAV), Metrics.globalRegistry);
+        systemMetricsCollector.getTagLimiter().setMaxValuesPerTag(maxTagValues);
     }
 
     public SystemMetricsCollector get() {
@@ -16,6 +16,7 @@
 
 package org.kie.kogito.persistence.quarkus;
 
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
@@ -30,7 +31,21 @@ public class FileSystemProcessInstancesFactory extends AbstractProcessInstancesF
     }
 
     @Inject
-    public FileSystemProcessInstancesFactory(@ConfigProperty(name = "kogito.persistence.filesystem.path", defaultValue = "/tmp") String path) {
-        super(path);
+    public FileSystemProcessInstancesFactory(@ConfigProperty(name = "kogito.persistence.filesystem.path", defaultValue = "/tmp") String path,
+            @ConfigProperty(name = "kogito.persistence.filesystem.storage", defaultValue = STORAGE_FILE) String storage,
+            @ConfigProperty(name = "kogito.persistence.filesystem.log.fsync", defaultValue = "unit-of-work") String fsyncPolicy,
+            @ConfigProperty(name = "kogito.persistence.filesystem.log.fsync.interval", defaultValue = "1000") long fsyncInterval,
+            @ConfigProperty(name = "kogito.persistence.filesystem.log.segment.size", defaultValue = "67108864") long segmentSize,
+            @ConfigProperty(name = "kogito.persistence.filesystem.log.compaction.threshold", defaultValue = "0.5") double compactionThreshold,
+            @ConfigProperty(name = "kogito.persistence.filesystem.log.compaction.interval", defaultValue = "10000") long compactionInterval,
+            @ConfigProperty(name = "kogito.persistence.compression", defaultValue = "none") String compression,
+            @ConfigProperty(name = "kogito.persistence.compression.threshold", defaultValue = "1024") Integer compressionThreshold) {
+        super(path, storage, fsyncPolicy, fsyncInterval, segmentSize, compactionThreshold, compactionInterval, compression, compressionThreshold);
+    }
+
+    @PreDestroy
+    @Override
+    public void close() {
+        super.close();
     }
 }
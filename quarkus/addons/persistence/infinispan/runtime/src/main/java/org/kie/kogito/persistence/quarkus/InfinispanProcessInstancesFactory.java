@@ -35,8 +35,10 @@ public class InfinispanProcessInstancesFactory extends AbstractProcessInstancesF
     @Inject
     public InfinispanProcessInstancesFactory(RemoteCacheManager cacheManager,
             @ConfigProperty(name = "kogito.persistence.optimistic.lock", defaultValue = "false") Boolean lock,
-            @ConfigProperty(name = "kogito.persistence.infinispan.template") Optional<String> templateName) {
-        super(cacheManager, lock, templateName.orElse(null));
+            @ConfigProperty(name = "kogito.persistence.infinispan.template") Optional<String> templateName,
+            @ConfigProperty(name = "kogito.persistence.compression", defaultValue = "none") String compression,
+            @ConfigProperty(name = "kogito.persistence.compression.threshold", defaultValue = "1024") Integer compressionThreshold) {
+        super(cacheManager, lock, templateName.orElse(null), compression, compressionThreshold);
     }
 
 }
@@ -16,21 +16,29 @@
 
 package org.kie.kogito.persistence.quarkus;
 
+import java.util.Optional;
+
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.sql.DataSource;
 
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.kie.kogito.persistence.jdbc.AbstractProcessInstancesFactory;
+import org.kie.kogito.persistence.jdbc.transaction.AbstractTransactionManager;
 
 @ApplicationScoped
 public class JDBCProcessInstancesFactory extends AbstractProcessInstancesFactory {
 
     @Inject
     public JDBCProcessInstancesFactory(DataSource dataSource,
+            AbstractTransactionManager transactionManager,
             @ConfigProperty(name = "kogito.persistence.auto.ddl", defaultValue = "true") Boolean autoDDL,
-            @ConfigProperty(name = "kogito.persistence.optimistic.lock", defaultValue = "false") Boolean lock) {
-        super(dataSource, autoDDL, lock);
+            @ConfigProperty(name = "kogito.persistence.optimistic.lock", defaultValue = "false") Boolean lock,
+            @ConfigProperty(name = "kogito.persistence.near.cache.max.size", defaultValue = "0") Integer nearCacheSize,
+            @ConfigProperty(name = "kogito.persistence.compression", defaultValue = "none") String compression,
+            @ConfigProperty(name = "kogito.persistence.compression.threshold", defaultValue = "1024") Integer compressionThreshold,
+            @ConfigProperty(name = "kogito.persistence.query.variable") Optional<String> queryVariable) {
+        super(dataSource, autoDDL, lock, nearCacheSize, compression, compressionThreshold, queryVariable.orElse(null), transactionManager);
     }
 
     public JDBCProcessInstancesFactory() {
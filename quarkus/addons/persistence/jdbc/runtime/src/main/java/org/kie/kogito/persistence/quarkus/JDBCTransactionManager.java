@@ -0,0 +1,37 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.persistence.quarkus;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.sql.DataSource;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.kie.kogito.persistence.jdbc.transaction.AbstractTransactionManager;
+
+@ApplicationScoped
+public class JDBCTransactionManager extends AbstractTransactionManager {
+
+    public JDBCTransactionManager() {
+        super(null, false);
+    }
+
+    @Inject
+    public JDBCTransactionManager(DataSource dataSource,
+            @ConfigProperty(name = "kogito.persistence.transaction.enabled", defaultValue = "false") Boolean enabled) {
+        super(dataSource, enabled);
+    }
+}
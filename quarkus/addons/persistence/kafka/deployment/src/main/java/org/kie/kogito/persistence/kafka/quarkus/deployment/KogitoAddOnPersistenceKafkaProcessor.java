@@ -27,6 +27,7 @@ class KogitoAddOnPersistenceKafkaProcessor extends RequireCapabilityKogitoAddOnP
 
     private static final String FEATURE = "kogito-addon-persistence-kafka-extension";
     private static final String QUARKUS_KAFKA_STREAMS_TOPICS_PROP = "quarkus.kafka-streams.topics";
+    private static final String KAFKA_STREAMS_CONSUMER_ISOLATION_LEVEL_PROP = "kafka-streams.consumer.isolation.level";
 
     KogitoAddOnPersistenceKafkaProcessor() {
         super(KogitoCapability.PROCESSES);
@@ -41,4 +42,10 @@ class KogitoAddOnPersistenceKafkaProcessor extends RequireCapabilityKogitoAddOnP
     RunTimeConfigurationDefaultBuildItem runTimeConfiguration() {
         return new RunTimeConfigurationDefaultBuildItem(QUARKUS_KAFKA_STREAMS_TOPICS_PROP, KafkaPersistenceUtils.topicName());
     }
+
+    @BuildStep
+    RunTimeConfigurationDefaultBuildItem isolationLevelConfiguration() {
+        // records of aborted persistence transactions must not reach the process instances table
+        return new RunTimeConfigurationDefaultBuildItem(KAFKA_STREAMS_CONSUMER_ISOLATION_LEVEL_PROP, "read_committed");
+    }
 }
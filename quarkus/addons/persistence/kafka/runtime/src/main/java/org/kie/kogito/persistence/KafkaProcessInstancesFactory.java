@@ -15,31 +15,50 @@
  */
 package org.kie.kogito.persistence;
 
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
 import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.kie.kogito.persistence.kafka.KafkaProcessInstances;
+import org.kie.kogito.persistence.kafka.KafkaProcessInstancesBatcher;
 import org.kie.kogito.persistence.kafka.KafkaStreamsStateListener;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessInstancesFactory;
+import org.kie.kogito.serialization.process.compression.PayloadCompression;
+import org.kie.kogito.uow.events.UnitOfWorkAbortEvent;
+import org.kie.kogito.uow.events.UnitOfWorkEndEvent;
+import org.kie.kogito.uow.events.UnitOfWorkEventListener;
+import org.kie.kogito.uow.events.UnitOfWorkStartEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.smallrye.common.annotation.Identifier;
 
+/**
+ * Creates the Kafka process instance stores, all sharing the same producer. The records written within a unit of work
+ * are sent once it ends, in a single transaction when <code>kogito.persistence.kafka.transactional.id</code> is set;
+ * the id must be unique for each running application instance.
+ */
 @ApplicationScoped
-public class KafkaProcessInstancesFactory implements ProcessInstancesFactory {
+public class KafkaProcessInstancesFactory implements ProcessInstancesFactory, UnitOfWorkEventListener {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(KafkaProcessInstancesFactory.class);
 
+    public static final String TRANSACTIONAL_ID = "kogito.persistence.kafka.transactional.id";
+
     KafkaStreamsStateListener stateListener;
     KafkaProducer<String, byte[]> producer;
+    KafkaProcessInstancesBatcher batcher;
+    PayloadCompression compression = PayloadCompression.none();
 
     @Inject
     public void setStateListener(KafkaStreamsStateListener stateListener) {
@@ -47,8 +66,36 @@ public class KafkaProcessInstancesFactory implements ProcessInstancesFactory {
     }
 
     @Inject
-    public void setKafkaConfig(@Identifier("default-kafka-broker") Map<String, Object> kafkaConfig) {
-        producer = new KafkaProducer<>(kafkaConfig, new StringSerializer(), new ByteArraySerializer());
+    public void setKafkaConfig(@Identifier("default-kafka-broker") Map<String, Object> kafkaConfig,
+            @ConfigProperty(name = TRANSACTIONAL_ID) Optional<String> transactionalId) {
+        Map<String, Object> producerConfig = new HashMap<>(kafkaConfig);
+        transactionalId.ifPresent(id -> producerConfig.put(ProducerConfig.TRANSACTIONAL_ID_CONFIG, id));
+        producer = new KafkaProducer<>(producerConfig, new StringSerializer(), new ByteArraySerializer());
+        if (transactionalId.isPresent()) {
+            producer.initTransactions();
+        }
+        batcher = new KafkaProcessInstancesBatcher(producer, transactionalId.isPresent());
+    }
+
+    @Inject
+    public void setCompression(@ConfigProperty(name = "kogito.persistence.compression", defaultValue = "none") String compression,
+            @ConfigProperty(name = "kogito.persistence.compression.threshold", defaultValue = "1024") Integer compressionThreshold) {
+        this.compression = PayloadCompression.of(compression, compressionThreshold);
+    }
+
+    @Override
+    public void onBeforeStartEvent(UnitOfWorkStartEvent event) {
+        batcher.onBeforeStartEvent(event);
+    }
+
+    @Override
+    public void onAfterEndEvent(UnitOfWorkEndEvent event) {
+        batcher.onAfterEndEvent(event);
+    }
+
+    @Override
+    public void onAfterAbortEvent(UnitOfWorkAbortEvent event) {
+        batcher.onAfterAbortEvent(event);
     }
 
     @PreDestroy
@@ -63,7 +110,7 @@ public class KafkaProcessInstancesFactory implements ProcessInstancesFactory {
             if (LOGGER.isInfoEnabled()) {
                 LOGGER.info("Creating KafkaProcessInstances for process: {}", process.id());
             }
-            KafkaProcessInstances pi = new KafkaProcessInstances(process, producer);
+            KafkaProcessInstances pi = new KafkaProcessInstances(process, batcher, compression);
             stateListener.addProcessInstances(pi);
             return pi;
         } catch (Exception ex) {
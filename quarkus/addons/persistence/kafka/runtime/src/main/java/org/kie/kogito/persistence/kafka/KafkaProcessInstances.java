@@ -17,25 +17,28 @@ package org.kie.kogito.persistence.kafka;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.KeyValue;
 import org.apache.kafka.streams.state.KeyValueIterator;
 import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
 import org.kie.kogito.process.MutableProcessInstances;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.ProcessInstance;
 import org.kie.kogito.process.ProcessInstanceDuplicatedException;
+import org.kie.kogito.process.ProcessInstanceHeader;
 import org.kie.kogito.process.ProcessInstanceReadMode;
 import org.kie.kogito.process.impl.AbstractProcessInstance;
 import org.kie.kogito.serialization.process.ProcessInstanceMarshallerService;
+import org.kie.kogito.serialization.process.compression.PayloadCompression;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -43,22 +46,35 @@ import static java.lang.String.format;
 import static org.kie.kogito.persistence.kafka.KafkaPersistenceUtils.topicName;
 import static org.kie.kogito.process.ProcessInstanceReadMode.MUTABLE;
 
+/**
+ * Process instances stored as records of a compacted Kafka topic, read back through the global table materialized by
+ * Kafka Streams. Writes go through a {@link KafkaProcessInstancesBatcher}, which holds them until the unit of work ends;
+ * reads overlay the records still pending in the current unit of work on top of the state store.
+ */
 public class KafkaProcessInstances implements MutableProcessInstances {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(KafkaProcessInstances.class);
 
     private Process<?> process;
-    private KafkaProducer<String, byte[]> producer;
+    private KafkaProcessInstancesBatcher batcher;
     private String topic;
     private ReadOnlyKeyValueStore<String, byte[]> store;
     private ProcessInstanceMarshallerService marshaller;
     private CountDownLatch latch = new CountDownLatch(1);
 
     public KafkaProcessInstances(Process<?> process, KafkaProducer<String, byte[]> producer) {
+        this(process, new KafkaProcessInstancesBatcher(producer));
+    }
+
+    public KafkaProcessInstances(Process<?> process, KafkaProcessInstancesBatcher batcher) {
+        this(process, batcher, PayloadCompression.none());
+    }
+
+    public KafkaProcessInstances(Process<?> process, KafkaProcessInstancesBatcher batcher, PayloadCompression compression) {
         this.process = process;
         this.topic = topicName();
-        this.producer = producer;
-        setMarshaller(ProcessInstanceMarshallerService.newBuilder().withDefaultObjectMarshallerStrategies().build());
+        this.batcher = batcher;
+        setMarshaller(ProcessInstanceMarshallerService.newBuilder().withDefaultObjectMarshallerStrategies().withCompression(compression).build());
     }
 
     protected Process<?> getProcess() {
@@ -104,15 +120,17 @@ public class KafkaProcessInstances implements MutableProcessInstances {
     }
 
     protected byte[] getProcessInstanceById(String id) {
-        return getStore().get(getKeyForProcessInstance(id));
+        String key = getKeyForProcessInstance(id);
+        Optional<ProducerRecord<String, byte[]>> pending = batcher.pending(key);
+        return pending.isPresent() ? pending.get().value() : getStore().get(key);
     }
 
     protected String getKeyForProcessInstance(String id) {
         return format("%s-%s", getProcess().id(), id);
     }
 
-    protected void sendKafkaRecord(String id, byte[] data) throws ExecutionException, InterruptedException {
-        producer.send(new ProducerRecord<>(topic, getKeyForProcessInstance(id), data)).get();
+    protected void sendKafkaRecord(String id, byte[] data) {
+        batcher.send(new ProducerRecord<>(topic, getKeyForProcessInstance(id), data));
     }
 
     @Override
@@ -162,29 +180,65 @@ public class KafkaProcessInstances implements MutableProcessInstances {
         return Optional.of(mode == MUTABLE ? marshaller.unmarshallProcessInstance(data, process) : marshaller.unmarshallReadOnlyProcessInstance(data, process));
     }
 
+    @Override
+    public Optional findVariablesById(String id) {
+        return Optional.ofNullable(getProcessInstanceById(id)).map(data -> marshaller.unmarshallProcessInstanceVariables(data, process));
+    }
+
+    @Override
+    public Optional<ProcessInstanceHeader> findHeaderById(String id) {
+        return Optional.ofNullable(getProcessInstanceById(id)).map(data -> marshaller.unmarshallProcessInstanceHeader(data, process));
+    }
+
     @Override
     public Collection<ProcessInstance> values(ProcessInstanceReadMode mode) {
-        final List<ProcessInstance> instances = new ArrayList<>();
+        final Collection<ProcessInstance> instances = new ArrayList<>();
+        Map<String, ProducerRecord<String, byte[]>> pending = pendingRecords();
         try (final KeyValueIterator<String, byte[]> iterator = getStore().prefixScan(getProcess().id(), Serdes.String().serializer())) {
             while (iterator.hasNext()) {
-                instances.add(mode == MUTABLE ? marshaller.unmarshallProcessInstance(iterator.next().value, process) : marshaller.unmarshallReadOnlyProcessInstance(iterator.next().value, process));
+                KeyValue<String, byte[]> entry = iterator.next();
+                ProducerRecord<String, byte[]> record = pending.remove(entry.key);
+                if (record == null) {
+                    instances.add(unmarshall(entry.value, mode));
+                } else if (record.value() != null) {
+                    instances.add(unmarshall(record.value(), mode));
+                }
             }
-            return instances;
         } catch (Exception e) {
             throw new RuntimeException("Unable to read process instances ", e);
         }
+        pending.values().stream().map(ProducerRecord::value).filter(data -> data != null).forEach(data -> instances.add(unmarshall(data, mode)));
+        return instances;
     }
 
     @Override
     public Integer size() {
         int size = 0;
+        Map<String, ProducerRecord<String, byte[]>> pending = pendingRecords();
         try (KeyValueIterator<String, byte[]> iterator = getStore().prefixScan(getProcess().id(), Serdes.String().serializer())) {
             while (iterator.hasNext()) {
-                size++;
-                iterator.next();
+                ProducerRecord<String, byte[]> record = pending.remove(iterator.next().key);
+                if (record == null || record.value() != null) {
+                    size++;
+                }
             }
         }
-        return size;
+        return size + (int) pending.values().stream().filter(record -> record.value() != null).count();
+    }
+
+    private ProcessInstance unmarshall(byte[] data, ProcessInstanceReadMode mode) {
+        return mode == MUTABLE ? marshaller.unmarshallProcessInstance(data, process) : marshaller.unmarshallReadOnlyProcessInstance(data, process);
+    }
+
+    private Map<String, ProducerRecord<String, byte[]>> pendingRecords() {
+        String prefix = getKeyForProcessInstance("");
+        Map<String, ProducerRecord<String, byte[]>> pending = new LinkedHashMap<>();
+        batcher.pending().forEach((key, record) -> {
+            if (key.startsWith(prefix)) {
+                pending.put(key, record);
+            }
+        });
+        return pending;
     }
 
     protected void disconnect(ProcessInstance instance) {
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.persistence.kafka;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.errors.AuthorizationException;
+import org.apache.kafka.common.errors.OutOfOrderSequenceException;
+import org.apache.kafka.common.errors.ProducerFencedException;
+import org.kie.kogito.uow.UnitOfWork;
+import org.kie.kogito.uow.events.UnitOfWorkAbortEvent;
+import org.kie.kogito.uow.events.UnitOfWorkEndEvent;
+import org.kie.kogito.uow.events.UnitOfWorkEventListener;
+import org.kie.kogito.uow.events.UnitOfWorkStartEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects the process instance records produced while a unit of work is running and sends them together once the
+ * unit of work ends, within a single Kafka transaction when the producer is transactional. Records are discarded if
+ * the unit of work is aborted and only the last record of each key is sent, as the topic is read as a table.
+ * <p>
+ * Records of a nested unit of work are merged into the batch of the enclosing one when it ends, its records replacing
+ * older ones of the same keys, so that they are only sent once the outermost unit of work ends and are discarded if it
+ * is aborted.
+ * <p>
+ * Records sent outside of a unit of work are sent immediately. Pending records are exposed through
+ * {@link #pending(String)} so that stores can overlay them on top of the Kafka Streams state store, which only
+ * reflects them once they have been committed and consumed.
+ * <p>
+ * A transactional producer supports a single open transaction, so flushes from concurrent units of work are
+ * serialized. The batcher must be registered as {@link UnitOfWorkEventListener} to be aware of the running units of work.
+ */
+public class KafkaProcessInstancesBatcher implements UnitOfWorkEventListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(KafkaProcessInstancesBatcher.class);
+
+    private final ThreadLocal<Batch> currentBatch = new ThreadLocal<>();
+
+    private final Producer<String, byte[]> producer;
+
+    private final boolean transactional;
+
+    public KafkaProcessInstancesBatcher(Producer<String, byte[]> producer) {
+        this(producer, false);
+    }
+
+    /**
+     * @param producer producer used to send the records
+     * @param transactional whether the producer has been initialized for transactions
+     */
+    public KafkaProcessInstancesBatcher(Producer<String, byte[]> producer, boolean transactional) {
+        this.producer = producer;
+        this.transactional = transactional;
+    }
+
+    public boolean isTransactional() {
+        return transactional;
+    }
+
+    public void send(ProducerRecord<String, byte[]> record) {
+        Batch batch = currentBatch.get();
+        if (batch == null) {
+            flush(Collections.singletonList(record));
+        } else {
+            batch.add(record);
+        }
+    }
+
+    /**
+     * Returns the record pending for the given key in the units of work running in the current thread, the value of the
+     * record is <code>null</code> if the key has been removed.
+     */
+    public Optional<ProducerRecord<String, byte[]>> pending(String key) {
+        for (Batch batch = currentBatch.get(); batch != null; batch = batch.parent) {
+            ProducerRecord<String, byte[]> record = batch.records.get(key);
+            if (record != null) {
+                return Optional.of(record);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the records pending in the units of work running in the current thread, by key.
+     */
+    public Map<String, ProducerRecord<String, byte[]>> pending() {
+        Batch batch = currentBatch.get();
+        if (batch == null) {
+            return Collections.emptyMap();
+        }
+        List<Batch> batches = new ArrayList<>();
+        for (; batch != null; batch = batch.parent) {
+            batches.add(0, batch);
+        }
+        Map<String, ProducerRecord<String, byte[]>> records = new LinkedHashMap<>();
+        batches.forEach(b -> records.putAll(b.records));
+        return records;
+    }
+
+    @Override
+    public void onBeforeStartEvent(UnitOfWorkStartEvent event) {
+        currentBatch.set(new Batch(event.getUnitOfWork(), currentBatch.get()));
+    }
+
+    @Override
+    public void onAfterEndEvent(UnitOfWorkEndEvent event) {
+        Batch batch = release(event.getUnitOfWork());
+        if (batch != null && batch.parent != null) {
+            batch.records.values().forEach(batch.parent::add);
+        } else if (batch != null && !batch.records.isEmpty()) {
+            LOGGER.debug("Flushing {} process instance records", batch.records.size());
+            flush(batch.records.values());
+        }
+    }
+
+    @Override
+    public void onAfterAbortEvent(UnitOfWorkAbortEvent event) {
+        Batch batch = release(event.getUnitOfWork());
+        if (batch != null) {
+            LOGGER.debug("Unit of work aborted, discarding {} process instance records", batch.records.size());
+        }
+    }
+
+    private Batch release(UnitOfWork unitOfWork) {
+        Batch batch = currentBatch.get();
+        if (batch == null || batch.unitOfWork != unitOfWork) {
+            return null;
+        }
+        if (batch.parent == null) {
+            currentBatch.remove();
+        } else {
+            currentBatch.set(batch.parent);
+        }
+        return batch;
+    }
+
+    protected void flush(Collection<ProducerRecord<String, byte[]>> records) {
+        if (transactional) {
+            flushInTransaction(records);
+        } else {
+            List<Future<RecordMetadata>> futures = new ArrayList<>(records.size());
+            for (ProducerRecord<String, byte[]> record : records) {
+                futures.add(producer.send(record));
+            }
+            try {
+                for (Future<RecordMetadata> future : futures) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new KafkaException("Interrupted while sending process instance records", e);
+            } catch (ExecutionException e) {
+                throw new KafkaException("Unable to send process instance records", e.getCause());
+            }
+        }
+    }
+
+    private void flushInTransaction(Collection<ProducerRecord<String, byte[]>> records) {
+        synchronized (producer) {
+            producer.beginTransaction();
+            try {
+                records.forEach(producer::send);
+                producer.commitTransaction();
+            } catch (ProducerFencedException | OutOfOrderSequenceException | AuthorizationException e) {
+                // the producer cannot recover, the transaction is aborted when it is closed
+                throw new KafkaException("Unable to commit process instance records", e);
+            } catch (KafkaException e) {
+                producer.abortTransaction();
+                throw new KafkaException("Unable to commit process instance records, transaction aborted", e);
+            }
+        }
+    }
+
+    private static class Batch {
+
+        private final UnitOfWork unitOfWork;
+        private final Batch parent;
+        private final Map<String, ProducerRecord<String, byte[]>> records = new LinkedHashMap<>();
+
+        private Batch(UnitOfWork unitOfWork, Batch parent) {
+            this.unitOfWork = unitOfWork;
+            this.parent = parent;
+        }
+
+        private void add(ProducerRecord<String, byte[]> record) {
+            records.put(record.key(), record);
+        }
+    }
+}
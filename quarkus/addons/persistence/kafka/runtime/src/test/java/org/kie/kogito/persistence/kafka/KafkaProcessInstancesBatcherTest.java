@@ -0,0 +1,241 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.persistence.kafka;
+
+import java.util.Properties;
+import java.util.UUID;
+
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.kie.kogito.process.Process;
+import org.kie.kogito.process.ProcessInstance;
+import org.kie.kogito.process.impl.AbstractProcessInstance;
+import org.kie.kogito.serialization.process.ProcessInstanceMarshallerService;
+import org.kie.kogito.uow.UnitOfWork;
+import org.kie.kogito.uow.events.UnitOfWorkAbortEvent;
+import org.kie.kogito.uow.events.UnitOfWorkEndEvent;
+import org.kie.kogito.uow.events.UnitOfWorkStartEvent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.kie.kogito.persistence.kafka.KafkaPersistenceUtils.createTopologyForProcesses;
+import static org.kie.kogito.persistence.kafka.KafkaPersistenceUtils.storeName;
+import static org.kie.kogito.persistence.kafka.KafkaPersistenceUtils.topicName;
+import static org.kie.kogito.process.ProcessInstanceReadMode.MUTABLE;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class KafkaProcessInstancesBatcherTest {
+
+    private static final String PROCESS_ID = "aProcessId";
+
+    private TopologyTestDriver driver;
+    private TestInputTopic<String, byte[]> topic;
+    private MockProducer<String, byte[]> producer;
+    private KafkaProcessInstancesBatcher batcher;
+    private ProcessInstanceMarshallerService marshaller;
+    private KafkaProcessInstances instances;
+
+    @BeforeEach
+    public void setup() {
+        Properties config = new Properties();
+        config.put(StreamsConfig.APPLICATION_ID_CONFIG, "test");
+        config.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "dummy:9092");
+        driver = new TopologyTestDriver(createTopologyForProcesses(), config);
+        topic = driver.createInputTopic(topicName(), new StringSerializer(), new ByteArraySerializer());
+
+        producer = new MockProducer<>(true, new StringSerializer(), new ByteArraySerializer());
+        producer.initTransactions();
+        batcher = new KafkaProcessInstancesBatcher(producer, true);
+
+        Process<?> process = mock(Process.class);
+        doReturn(PROCESS_ID).when(process).id();
+        marshaller = mock(ProcessInstanceMarshallerService.class);
+        when(marshaller.unmarshallProcessInstance(any(), eq(process))).thenAnswer(invocation -> instance(new String((byte[]) invocation.getArgument(0))));
+        instances = new KafkaProcessInstances(process, batcher);
+        instances.setMarshaller(marshaller);
+        instances.setStore(driver.getKeyValueStore(storeName()));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        driver.close();
+    }
+
+    @Test
+    public void testRecordsAreCommittedWhenUnitOfWorkEnds() {
+        String first = UUID.randomUUID().toString();
+        String second = UUID.randomUUID().toString();
+        UnitOfWork uow = start();
+
+        create(first, "first");
+        create(second, "second");
+        update(first, "first updated");
+
+        assertThat(producer.history()).isEmpty();
+        // read your writes
+        assertThat(instances.findById(first)).hasValueSatisfying(pi -> assertThat(((ProcessInstance<?>) pi).id()).isEqualTo("first updated"));
+        assertThat(instances.exists(second)).isTrue();
+        assertThat(instances.size()).isEqualTo(2);
+        assertThat(instances.values(MUTABLE)).extracting(pi -> ((ProcessInstance<?>) pi).id()).containsExactly("first updated", "second");
+
+        end(uow);
+
+        assertThat(producer.transactionCommitted()).isTrue();
+        assertThat(producer.history()).extracting(ProducerRecord::key).containsExactly(key(first), key(second));
+
+        pipeHistory();
+        assertThat(instances.findById(first)).hasValueSatisfying(pi -> assertThat(((ProcessInstance<?>) pi).id()).isEqualTo("first updated"));
+        assertThat(instances.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void testPendingRemovalHidesStoredInstance() {
+        String id = UUID.randomUUID().toString();
+        create(id, "stored");
+        pipeHistory();
+        assertThat(instances.exists(id)).isTrue();
+
+        UnitOfWork uow = start();
+        instances.remove(id);
+
+        assertThat(instances.exists(id)).isFalse();
+        assertThat(instances.size()).isZero();
+        assertThat(instances.values(MUTABLE)).isEmpty();
+
+        end(uow);
+        pipeHistory();
+
+        assertThat(instances.exists(id)).isFalse();
+    }
+
+    @Test
+    public void testRecordsAreDiscardedWhenUnitOfWorkAborts() {
+        String id = UUID.randomUUID().toString();
+        UnitOfWork uow = start();
+        create(id, "aborted");
+        batcher.onAfterAbortEvent(new UnitOfWorkAbortEvent(uow));
+
+        assertThat(producer.history()).isEmpty();
+        assertThat(instances.exists(id)).isFalse();
+    }
+
+    @Test
+    public void testNestedUnitsOfWork() {
+        String outerId = UUID.randomUUID().toString();
+        String innerId = UUID.randomUUID().toString();
+        UnitOfWork outer = start();
+        create(outerId, "outer");
+        UnitOfWork inner = start();
+        create(innerId, "inner");
+        update(outerId, "outer updated");
+        assertThat(instances.exists(outerId)).isTrue();
+        end(inner);
+
+        // only sent once the outermost unit of work ends
+        assertThat(producer.history()).isEmpty();
+        assertThat(instances.exists(innerId)).isTrue();
+        assertThat(instances.findById(outerId)).hasValueSatisfying(pi -> assertThat(((ProcessInstance<?>) pi).id()).isEqualTo("outer updated"));
+
+        end(outer);
+        // the record of the nested unit of work replaces the older one of the same key
+        assertThat(producer.history()).extracting(ProducerRecord::key).containsExactly(key(outerId), key(innerId));
+        assertThat(producer.history()).extracting(r -> new String(r.value())).containsExactly("outer updated", "inner");
+    }
+
+    @Test
+    public void testNestedUnitOfWorkIsDiscardedWhenOuterAborts() {
+        String id = UUID.randomUUID().toString();
+        UnitOfWork outer = start();
+        UnitOfWork inner = start();
+        create(id, "inner");
+        end(inner);
+        batcher.onAfterAbortEvent(new UnitOfWorkAbortEvent(outer));
+
+        assertThat(producer.history()).isEmpty();
+        assertThat(instances.exists(id)).isFalse();
+    }
+
+    @Test
+    public void testRecordsOutsideUnitOfWorkAreSentImmediately() {
+        String id = UUID.randomUUID().toString();
+        create(id, "immediate");
+
+        assertThat(producer.transactionCommitted()).isTrue();
+        assertThat(producer.history()).hasSize(1);
+    }
+
+    @Test
+    public void testFailedCommitAbortsTransaction() {
+        producer.commitTransactionException = new KafkaException("failure");
+        UnitOfWork uow = start();
+        create(UUID.randomUUID().toString(), "failing");
+
+        assertThatExceptionOfType(KafkaException.class).isThrownBy(() -> end(uow));
+        assertThat(producer.transactionAborted()).isTrue();
+        assertThat(producer.history()).isEmpty();
+    }
+
+    private UnitOfWork start() {
+        UnitOfWork uow = mock(UnitOfWork.class);
+        batcher.onBeforeStartEvent(new UnitOfWorkStartEvent(uow));
+        return uow;
+    }
+
+    private void end(UnitOfWork uow) {
+        batcher.onAfterEndEvent(new UnitOfWorkEndEvent(uow));
+    }
+
+    private void create(String id, String payload) {
+        AbstractProcessInstance<?> instance = instance(payload);
+        doReturn(payload.getBytes()).when(marshaller).marshallProcessInstance(instance);
+        instances.create(id, instance);
+    }
+
+    private void update(String id, String payload) {
+        AbstractProcessInstance<?> instance = instance(payload);
+        doReturn(payload.getBytes()).when(marshaller).marshallProcessInstance(instance);
+        instances.update(id, instance);
+    }
+
+    private void pipeHistory() {
+        producer.history().forEach(record -> topic.pipeInput(record.key(), record.value()));
+        producer.clear();
+    }
+
+    private static AbstractProcessInstance<?> instance(String payload) {
+        AbstractProcessInstance<?> instance = mock(AbstractProcessInstance.class);
+        when(instance.status()).thenReturn(ProcessInstance.STATE_ACTIVE);
+        when(instance.id()).thenReturn(payload);
+        return instance;
+    }
+
+    private static String key(String id) {
+        return PROCESS_ID + "-" + id;
+    }
+}
@@ -16,6 +16,8 @@
 
 package org.kie.kogito.persistence.quarkus;
 
+import java.util.Optional;
+
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
@@ -36,8 +38,9 @@ public class MongoDBProcessInstancesFactory extends AbstractProcessInstancesFact
     public MongoDBProcessInstancesFactory(MongoClient mongoClient,
             AbstractTransactionManager transactionManager,
             @ConfigProperty(name = "quarkus.mongodb.database", defaultValue = "kogito") String dbName,
-            @ConfigProperty(name = "kogito.persistence.optimistic.lock", defaultValue = "false") Boolean lock) {
-        super(mongoClient, dbName, lock, transactionManager);
+            @ConfigProperty(name = "kogito.persistence.optimistic.lock", defaultValue = "false") Boolean lock,
+            @ConfigProperty(name = "kogito.persistence.query.variable") Optional<String> queryVariable) {
+        super(mongoClient, dbName, lock, transactionManager, queryVariable.orElse(null));
     }
 
 }
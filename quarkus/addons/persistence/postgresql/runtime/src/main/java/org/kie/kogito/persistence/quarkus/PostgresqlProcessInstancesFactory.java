@@ -16,6 +16,8 @@
 
 package org.kie.kogito.persistence.quarkus;
 
+import java.util.Optional;
+
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
@@ -31,8 +33,12 @@ public class PostgresqlProcessInstancesFactory extends AbstractProcessInstancesF
     public PostgresqlProcessInstancesFactory(PgPool client,
             @ConfigProperty(name = "kogito.persistence.auto.ddl", defaultValue = "true") Boolean autoDDL,
             @ConfigProperty(name = "kogito.persistence.query.timeout.millis", defaultValue = "10000") Long queryTimeout,
-            @ConfigProperty(name = "kogito.persistence.optimistic.lock", defaultValue = "false") Boolean lock) {
-        super(client, autoDDL, queryTimeout, lock);
+            @ConfigProperty(name = "kogito.persistence.optimistic.lock", defaultValue = "false") Boolean lock,
+            @ConfigProperty(name = "kogito.persistence.near.cache.max.size", defaultValue = "0") Integer nearCacheSize,
+            @ConfigProperty(name = "kogito.persistence.compression", defaultValue = "none") String compression,
+            @ConfigProperty(name = "kogito.persistence.compression.threshold", defaultValue = "1024") Integer compressionThreshold,
+            @ConfigProperty(name = "kogito.persistence.query.variable") Optional<String> queryVariable) {
+        super(client, autoDDL, queryTimeout, lock, nearCacheSize, compression, compressionThreshold, queryVariable.orElse(null));
     }
 
     protected PostgresqlProcessInstancesFactory() {
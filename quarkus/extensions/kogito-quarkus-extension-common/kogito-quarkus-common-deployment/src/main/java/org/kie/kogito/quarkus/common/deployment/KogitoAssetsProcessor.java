@@ -136,7 +136,9 @@ public class KogitoAssetsProcessor {
             System.setProperty(INDEXFILE_DIRECTORY_PROPERTY, context.getAppPaths().getOutputTarget().toString());
             indexFileDirectorySet = true;
         }
-        Collection<GeneratedFile> generatedFiles = generateFiles(context);
+        // on dev mode reloads the files of the previous build are reused if no input of the code generation changed,
+        // any change to an input generates all the files again
+        Collection<GeneratedFile> generatedFiles = KogitoLiveReloadState.of(liveReload).generatedFiles(context, () -> generateFiles(context));
         // TODO to be removed with DROOLS-7090
         if (indexFileDirectorySet) {
             System.clearProperty(INDEXFILE_DIRECTORY_PROPERTY);
@@ -267,9 +269,18 @@ public class KogitoAssetsProcessor {
             Collection<GeneratedFile> generatedFiles,
             boolean useDebugSymbols) throws IOException {
 
+        KogitoLiveReloadState liveReloadState = KogitoLiveReloadState.of(liveReload);
+        String compilationName = "kogito-generated-sources" + (useDebugSymbols ? "-debug" : "");
+        Optional<Collection<GeneratedBeanBuildItem>> compiledClasses = liveReloadState.compiledClasses(compilationName, generatedFiles);
+        if (compiledClasses.isPresent()) {
+            return compiledClasses.get();
+        }
+
         Collection<ResolvedDependency> dependencies =
                 curateOutcomeBuildItem.getApplicationModel().getRuntimeDependencies();
-        return compileGeneratedSources(context, dependencies, generatedFiles, useDebugSymbols);
+        Collection<GeneratedBeanBuildItem> generatedBeanBuildItems = compileGeneratedSources(context, dependencies, generatedFiles, useDebugSymbols);
+        liveReloadState.compiledClasses(compilationName, generatedFiles, generatedBeanBuildItems);
+        return generatedBeanBuildItems;
     }
 
     private Collection<GeneratedBeanBuildItem> createGeneratedBeanBuildItemsFromCompiledClasses(
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.quarkus.common.deployment;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.drools.codegen.common.GeneratedFile;
+import org.jboss.logging.Logger;
+import org.kie.kogito.codegen.api.ApplicationSection;
+import org.kie.kogito.codegen.api.SourceFileCodegenBindEvent;
+import org.kie.kogito.codegen.api.context.KogitoBuildContext;
+import org.kie.kogito.codegen.core.utils.GeneratedFilesCache;
+
+import io.quarkus.deployment.builditem.LiveReloadBuildItem;
+
+/**
+ * Results of the previous build kept across dev mode reloads, so that a reload that changed none of the Kogito inputs
+ * does not generate and compile them again.
+ * <p>
+ * This only skips no-op reloads, such as a reload triggered by a change of a user class that the code generation does
+ * not read: the generated files are reused when none of the inputs of the code generation changed, see
+ * {@link GeneratedFilesCache#fingerprint(KogitoBuildContext, String...)}, restoring in the build context the
+ * application sections and attributes that later build steps read. The classes compiled from a set of generated
+ * sources are reused when the sources did not change and neither did the inputs of the code generation, since the
+ * compilation also depends on the user classes and the class path.
+ * <p>
+ * A change to any input, even a single resource, generates and compiles everything again: generators combine several
+ * resources in the same generated files (application sections, containers, REST resources), so there is no mapping
+ * from a resource to the files generated from it alone.
+ */
+public class KogitoLiveReloadState {
+
+    private static final Logger LOGGER = Logger.getLogger(KogitoLiveReloadState.class);
+
+    private Generation generation;
+    private final Map<String, Compilation<?>> compilations = new HashMap<>();
+
+    public static KogitoLiveReloadState of(LiveReloadBuildItem liveReload) {
+        KogitoLiveReloadState state = liveReload.getContextObject(KogitoLiveReloadState.class);
+        if (state == null) {
+            state = new KogitoLiveReloadState();
+            liveReload.setContextObject(KogitoLiveReloadState.class, state);
+        }
+        return state;
+    }
+
+    /**
+     * Returns the files generated for the given context, generating them only if the inputs changed since the
+     * previous build
+     */
+    public synchronized Collection<GeneratedFile> generatedFiles(KogitoBuildContext context, Supplier<Collection<GeneratedFile>> generator) {
+        String fingerprint = GeneratedFilesCache.fingerprint(context);
+        if (generation != null && generation.fingerprint.equals(fingerprint)) {
+            LOGGER.debugf("Kogito resources did not change, reusing %d generated files", generation.files.size());
+            context.addAllApplicationSections(generation.applicationSections);
+            generation.contextAttributes.forEach(context::addContextAttribute);
+            context.getSourceFileCodegenBindNotifier().ifPresent(notifier -> generation.bindEvents.forEach(notifier::notify));
+            return new ArrayList<>(generation.files);
+        }
+        generation = null;
+        List<SourceFileCodegenBindEvent> bindEvents = new ArrayList<>();
+        context.getSourceFileCodegenBindNotifier().ifPresent(notifier -> notifier.addListeners(bindEvents::add));
+        Collection<GeneratedFile> files = generator.get();
+        generation = new Generation(fingerprint, new ArrayList<>(files), new HashSet<>(context.getApplicationSections()),
+                new HashMap<>(context.getContextAttributes()), bindEvents);
+        return files;
+    }
+
+    /**
+     * Returns the classes compiled from the given sources, if they are the same sources compiled by the previous build
+     * under the same name and the inputs of the code generation did not change since then
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T> Optional<Collection<T>> compiledClasses(String name, Collection<GeneratedFile> sources) {
+        Compilation<?> compilation = compilations.get(name);
+        if (compilation != null && compilation.fingerprint.equals(compilationFingerprint(sources))) {
+            LOGGER.debugf("Generated sources of %s did not change, reusing %d compiled classes", name, compilation.classes.size());
+            return Optional.of(new ArrayList<>((Collection<T>) compilation.classes));
+        }
+        return Optional.empty();
+    }
+
+    public synchronized <T> void compiledClasses(String name, Collection<GeneratedFile> sources, Collection<T> classes) {
+        String fingerprint = compilationFingerprint(sources);
+        if (fingerprint == null) {
+            compilations.remove(name);
+        } else {
+            compilations.put(name, new Compilation<>(fingerprint, new ArrayList<>(classes)));
+        }
+    }
+
+    private String compilationFingerprint(Collection<GeneratedFile> sources) {
+        // without a completed generation the user classes and the class path the sources are compiled against are unknown
+        return generation == null ? null : generation.fingerprint + ":" + fingerprint(sources);
+    }
+
+    static String fingerprint(Collection<GeneratedFile> files) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        List<GeneratedFile> sortedFiles = new ArrayList<>(files);
+        sortedFiles.sort(Comparator.comparing(GeneratedFile::relativePath));
+        for (GeneratedFile file : sortedFiles) {
+            digest.update(file.relativePath().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(file.type().name().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(Integer.toString(file.contents().length).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(file.contents());
+        }
+        StringBuilder fingerprint = new StringBuilder();
+        for (byte b : digest.digest()) {
+            fingerprint.append(String.format("%02x", b));
+        }
+        return fingerprint.toString();
+    }
+
+    private static class Generation {
+
+        private final String fingerprint;
+        private final Collection<GeneratedFile> files;
+        private final Set<ApplicationSection> applicationSections;
+        private final Map<String, Object> contextAttributes;
+        private final List<SourceFileCodegenBindEvent> bindEvents;
+
+        private Generation(String fingerprint, Collection<GeneratedFile> files, Set<ApplicationSection> applicationSections, Map<String, Object> contextAttributes,
+                List<SourceFileCodegenBindEvent> bindEvents) {
+            this.fingerprint = fingerprint;
+            this.files = files;
+            this.applicationSections = applicationSections;
+            this.contextAttributes = contextAttributes;
+            this.bindEvents = bindEvents;
+        }
+    }
+
+    private static class Compilation<T> {
+
+        private final String fingerprint;
+        private final Collection<T> classes;
+
+        private Compilation(String fingerprint, Collection<T> classes) {
+            this.fingerprint = fingerprint;
+            this.classes = classes;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.quarkus.common.deployment;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.drools.codegen.common.AppPaths;
+import org.drools.codegen.common.GeneratedFile;
+import org.drools.codegen.common.GeneratedFileType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.kie.kogito.codegen.api.context.KogitoBuildContext;
+import org.kie.kogito.codegen.api.context.impl.JavaKogitoBuildContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KogitoLiveReloadStateTest {
+
+    private static final String ATTRIBUTE = "generated-attribute";
+
+    @TempDir
+    Path projectDir;
+
+    private Path process;
+
+    private final AtomicInteger generations = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path resources = Files.createDirectories(projectDir.resolve("src/main/resources/org/acme"));
+        process = Files.write(resources.resolve("approval.bpmn"), "<process id=\"approval\"/>".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testGeneratedFilesReusedWhenInputsDidNotChange() {
+        KogitoLiveReloadState state = new KogitoLiveReloadState();
+        KogitoBuildContext context = context();
+        Collection<GeneratedFile> files = state.generatedFiles(context, generator(context));
+        assertThat(generations).hasValue(1);
+
+        KogitoBuildContext reload = context();
+        assertThat(state.generatedFiles(reload, generator(reload))).containsExactlyElementsOf(files);
+        assertThat(generations).hasValue(1);
+        assertThat(reload.getContextAttribute(ATTRIBUTE, Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    void testAllFilesGeneratedAgainWhenAResourceChanged() throws IOException {
+        KogitoLiveReloadState state = new KogitoLiveReloadState();
+        KogitoBuildContext context = context();
+        state.generatedFiles(context, generator(context));
+
+        Files.write(process, "<process id=\"approval2\"/>".getBytes(StandardCharsets.UTF_8));
+        KogitoBuildContext reload = context();
+        state.generatedFiles(reload, generator(reload));
+        assertThat(generations).hasValue(2);
+
+        KogitoBuildContext nextReload = context();
+        state.generatedFiles(nextReload, generator(nextReload));
+        assertThat(generations).hasValue(2);
+        assertThat(nextReload.getContextAttribute(ATTRIBUTE, Integer.class)).isEqualTo(2);
+    }
+
+    @Test
+    void testCompiledClassesReusedForSameSources() {
+        KogitoLiveReloadState state = new KogitoLiveReloadState();
+        KogitoBuildContext context = context();
+        List<GeneratedFile> sources = Arrays.asList(source("org/acme/Approval.java", "class Approval {}"));
+        state.generatedFiles(context, generator(context));
+        state.compiledClasses("sources", sources, Arrays.asList("org.acme.Approval"));
+
+        List<GeneratedFile> sameSources = Arrays.asList(source("org/acme/Approval.java", "class Approval {}"));
+        assertThat(state.<String> compiledClasses("sources", sameSources)).hasValueSatisfying(classes -> assertThat(classes).containsExactly("org.acme.Approval"));
+        assertThat(state.<String> compiledClasses("other", sameSources)).isEmpty();
+        assertThat(state.<String> compiledClasses("sources", Arrays.asList(source("org/acme/Approval.java", "class Approval { }")))).isEmpty();
+    }
+
+    @Test
+    void testCompiledClassesNotReusedWhenGenerationInputsChanged() throws IOException {
+        KogitoLiveReloadState state = new KogitoLiveReloadState();
+        KogitoBuildContext context = context();
+        List<GeneratedFile> sources = Arrays.asList(source("org/acme/Approval.java", "class Approval {}"));
+        state.generatedFiles(context, generator(context));
+        state.compiledClasses("sources", sources, Arrays.asList("org.acme.Approval"));
+
+        Files.write(process, "<process id=\"approval2\"/>".getBytes(StandardCharsets.UTF_8));
+        KogitoBuildContext reload = context();
+        state.generatedFiles(reload, generator(reload));
+        assertThat(state.<String> compiledClasses("sources", sources)).isEmpty();
+    }
+
+    @Test
+    void testCompiledClassesNotStoredWithoutGeneration() {
+        KogitoLiveReloadState state = new KogitoLiveReloadState();
+        List<GeneratedFile> sources = Arrays.asList(source("org/acme/Approval.java", "class Approval {}"));
+        state.compiledClasses("sources", sources, Arrays.asList("org.acme.Approval"));
+
+        assertThat(state.<String> compiledClasses("sources", sources)).isEmpty();
+    }
+
+    @Test
+    void testFingerprintIgnoresOrderOfFiles() {
+        GeneratedFile approval = source("org/acme/Approval.java", "class Approval {}");
+        GeneratedFile resource = source("org/acme/ApprovalResource.java", "class ApprovalResource {}");
+
+        String fingerprint = KogitoLiveReloadState.fingerprint(Arrays.asList(approval, resource));
+        assertThat(KogitoLiveReloadState.fingerprint(Arrays.asList(resource, approval))).isEqualTo(fingerprint);
+        assertThat(KogitoLiveReloadState.fingerprint(Arrays.asList(approval))).isNotEqualTo(fingerprint);
+        assertThat(KogitoLiveReloadState.fingerprint(Arrays.asList(approval, new GeneratedFile(GeneratedFileType.INTERNAL_RESOURCE, "org/acme/ApprovalResource.java", "class ApprovalResource {}"))))
+                .isNotEqualTo(fingerprint);
+    }
+
+    private Supplier<Collection<GeneratedFile>> generator(KogitoBuildContext context) {
+        return () -> {
+            int generation = generations.incrementAndGet();
+            context.addContextAttribute(ATTRIBUTE, generation);
+            return Arrays.asList(source("org/acme/Approval.java", "class Approval { int generation = " + generation + "; }"));
+        };
+    }
+
+    private static GeneratedFile source(String path, String contents) {
+        return new GeneratedFile(GeneratedFileType.SOURCE, path, contents);
+    }
+
+    private KogitoBuildContext context() {
+        return JavaKogitoBuildContext.builder()
+                .withAppPaths(AppPaths.fromProjectDir(projectDir, projectDir.resolve("target")))
+                .build();
+    }
+}
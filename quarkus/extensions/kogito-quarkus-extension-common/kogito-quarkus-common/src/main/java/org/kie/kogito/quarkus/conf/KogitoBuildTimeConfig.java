@@ -56,6 +56,14 @@ public class KogitoBuildTimeConfig {
     @ConfigItem(name = "workflow.version-strategy", defaultValue = "workflow")
     public String versionStrategy;
 
+    /**
+     * If this property is True, the generators of processes, rules, decisions and predictions run in parallel
+     * <p>
+     * If not defined, false will be used.
+     */
+    @ConfigItem(name = "codegen.parallel", defaultValue = "false")
+    public Boolean parallelCodegen;
+
     /**
      * Persistence build time configuration
      */
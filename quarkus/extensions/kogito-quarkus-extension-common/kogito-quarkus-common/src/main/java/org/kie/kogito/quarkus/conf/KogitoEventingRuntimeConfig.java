@@ -26,6 +26,8 @@ public class KogitoEventingRuntimeConfig {
     private static final String DEFAULT_MAX_THREADS = "10";
     private static final String DEFAULT_QUEUE_SIZE = "1";
     private static final String QUEUE_SIZE_PROPERTY = "threads.queueSize";
+    private static final String EXECUTOR_TYPE_PROPERTY = "threads.type";
+    private static final String DEFAULT_EXECUTOR_TYPE = "bounded";
 
     /**
      * Maximum number of threads to handle incoming events by channel
@@ -38,4 +40,15 @@ public class KogitoEventingRuntimeConfig {
      */
     @ConfigItem(name = QUEUE_SIZE_PROPERTY, defaultValue = DEFAULT_QUEUE_SIZE)
     public int queueSize;
+
+    /**
+     * Kind of executor handling incoming events by channel: <code>bounded</code> pool of at most
+     * <code>threads.poolSize</code> threads and a queue of <code>threads.queueSize</code> events,
+     * <code>work-stealing</code> pool of <code>threads.poolSize</code> threads, or a <code>virtual</code> thread
+     * for every event, falling back to the work stealing pool when the JVM does not support virtual threads. The
+     * last two handle at most <code>threads.poolSize</code> plus <code>threads.queueSize</code> events at once, the
+     * thread receiving further events handling them itself.
+     */
+    @ConfigItem(name = EXECUTOR_TYPE_PROPERTY, defaultValue = DEFAULT_EXECUTOR_TYPE)
+    public String executorType;
 }
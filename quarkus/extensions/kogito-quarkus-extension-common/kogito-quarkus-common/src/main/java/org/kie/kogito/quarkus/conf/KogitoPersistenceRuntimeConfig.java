@@ -48,4 +48,36 @@ public class KogitoPersistenceRuntimeConfig {
     @ConfigItem(name = "query.timeout.millis", defaultValue = "10000")
     public long queryTimeout;
 
+    /**
+     * Maximum number of process instances of each process kept in memory by the persistence store to avoid reading
+     * them again, 0 disables the near cache. Only used by the JDBC and PostgreSQL stores
+     */
+    @ConfigItem(name = "near.cache.max.size", defaultValue = "0")
+    public int nearCacheMaxSize;
+
+    /**
+     * Codec compressing the marshalled process instances written by the persistence store, either none, deflate or lz4
+     */
+    @ConfigItem(name = "compression", defaultValue = "none")
+    public String compression;
+
+    /**
+     * Minimum size in bytes of the marshalled process instances to compress
+     */
+    @ConfigItem(name = "compression.threshold", defaultValue = "1024")
+    public int compressionThreshold;
+
+    /**
+     * Dot separated path of the process variable indexed by the persistence store so that process instances can be
+     * queried by its value
+     */
+    @ConfigItem(name = "query.variable")
+    public Optional<String> queryVariable;
+
+    /**
+     * Run the writes of each unit of work in a single database transaction, committed when the unit of work ends
+     */
+    @ConfigItem(name = "transaction.enabled", defaultValue = "false")
+    public boolean transactionEnabled;
+
 }
@@ -48,4 +48,10 @@ public class KogitoRuntimeConfig {
      */
     @ConfigItem(name = "quarkus.events")
     public KogitoEventingRuntimeConfig eventingConfig;
+
+    /**
+     * Process instances warm-up runtime configuration
+     */
+    @ConfigItem(name = "processes.warm-up")
+    public KogitoWarmUpRuntimeConfig warmUp;
 }
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.quarkus.conf;
+
+import io.quarkus.runtime.annotations.ConfigGroup;
+import io.quarkus.runtime.annotations.ConfigItem;
+
+@ConfigGroup
+public class KogitoWarmUpRuntimeConfig {
+
+    /**
+     * Read the persisted process instances while the application starts, filling the near cache of the persistence
+     * store
+     */
+    @ConfigItem(name = "enabled", defaultValue = "false")
+    public boolean enabled;
+
+    /**
+     * Number of threads reading the process instances
+     */
+    @ConfigItem(name = "parallelism", defaultValue = "4")
+    public int parallelism;
+
+    /**
+     * Number of process instances read at once by each thread
+     */
+    @ConfigItem(name = "chunk-size", defaultValue = "100")
+    public int chunkSize;
+
+    /**
+     * Maximum number of process instances read for each process
+     */
+    @ConfigItem(name = "max-instances", defaultValue = "1000")
+    public int maxInstances;
+
+    /**
+     * Time budget of the warm-up, the application starts once elapsed even if not all process instances were read
+     */
+    @ConfigItem(name = "timeout.millis", defaultValue = "30000")
+    public long timeout;
+}
@@ -36,4 +36,12 @@ public class KogitoBuildTimeConfig {
     @ConfigItem(name = "logger.always-include", defaultValue = "false")
     public boolean alwaysInclude;
 
+    /**
+     * Activation of the processes: <code>eager</code> activates them on startup, <code>lazy</code> on their first
+     * use, that is when an instance is created or looked up. Processes with timer start nodes are always activated
+     * on startup.
+     */
+    @ConfigItem(name = "processes.activation", defaultValue = "eager")
+    public String processesActivation;
+
 }
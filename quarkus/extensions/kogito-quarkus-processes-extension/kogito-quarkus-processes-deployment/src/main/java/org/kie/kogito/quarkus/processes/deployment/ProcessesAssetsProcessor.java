@@ -66,6 +66,7 @@ import org.kie.kogito.event.process.VariableInstanceEventBody;
 import org.kie.kogito.quarkus.common.deployment.KogitoBuildContextBuildItem;
 import org.kie.kogito.quarkus.common.deployment.KogitoGeneratedClassesBuildItem;
 import org.kie.kogito.quarkus.common.deployment.KogitoGeneratedSourcesBuildItem;
+import org.kie.kogito.quarkus.common.deployment.KogitoLiveReloadState;
 import org.kie.kogito.quarkus.extensions.spi.deployment.KogitoProcessContainerGeneratorBuildItem;
 import org.kie.kogito.quarkus.processes.KogitoBeanProducer;
 import org.kie.kogito.serialization.process.ObjectMarshallerStrategy;
@@ -274,9 +275,17 @@ public class ProcessesAssetsProcessor {
 
         validateGeneratedFileTypes(persistenceGeneratedFiles, asList(GeneratedFileType.Category.SOURCE, GeneratedFileType.Category.INTERNAL_RESOURCE, GeneratedFileType.Category.STATIC_HTTP_RESOURCE));
 
-        Collection<ResolvedDependency> dependencies = curateOutcomeBuildItem.getApplicationModel().getRuntimeDependencies();
-        compileGeneratedSources(context, dependencies, persistenceGeneratedFiles, useDebugSymbols)
-                .forEach(generatedBeans::produce);
+        KogitoLiveReloadState liveReloadState = KogitoLiveReloadState.of(liveReload);
+        String compilationName = "kogito-persistence-sources" + (useDebugSymbols ? "-debug" : "");
+        Optional<Collection<GeneratedBeanBuildItem>> compiledClasses = liveReloadState.compiledClasses(compilationName, persistenceGeneratedFiles);
+        if (compiledClasses.isPresent()) {
+            compiledClasses.get().forEach(generatedBeans::produce);
+        } else {
+            Collection<ResolvedDependency> dependencies = curateOutcomeBuildItem.getApplicationModel().getRuntimeDependencies();
+            Collection<GeneratedBeanBuildItem> generatedBeanBuildItems = compileGeneratedSources(context, dependencies, persistenceGeneratedFiles, useDebugSymbols);
+            liveReloadState.compiledClasses(compilationName, persistenceGeneratedFiles, generatedBeanBuildItems);
+            generatedBeanBuildItems.forEach(generatedBeans::produce);
+        }
 
         return persistenceGeneratedFiles;
     }
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.quarkus.processes;
+
+import java.time.Duration;
+
+import javax.enterprise.event.Observes;
+import javax.enterprise.inject.Instance;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.kie.kogito.process.Processes;
+import org.kie.kogito.process.impl.ProcessInstancesWarmUp;
+
+import io.quarkus.runtime.StartupEvent;
+
+/**
+ * Runs the {@link ProcessInstancesWarmUp} while the application starts, when enabled.
+ */
+@Singleton
+public class ProcessInstancesWarmUpObserver {
+
+    @Inject
+    Instance<Processes> processes;
+
+    @ConfigProperty(name = ProcessInstancesWarmUp.ENABLED, defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = ProcessInstancesWarmUp.PARALLELISM, defaultValue = "4")
+    int parallelism;
+
+    @ConfigProperty(name = ProcessInstancesWarmUp.CHUNK_SIZE, defaultValue = "100")
+    int chunkSize;
+
+    @ConfigProperty(name = ProcessInstancesWarmUp.MAX_INSTANCES, defaultValue = "1000")
+    int maxInstances;
+
+    @ConfigProperty(name = ProcessInstancesWarmUp.TIMEOUT, defaultValue = "30000")
+    long timeoutMillis;
+
+    void onStart(@Observes StartupEvent event) {
+        if (enabled && processes.isResolvable()) {
+            new ProcessInstancesWarmUp(processes.get(), parallelism, chunkSize, maxInstances, Duration.ofMillis(timeoutMillis)).run();
+        }
+    }
+}
@@ -16,20 +16,34 @@
 
 package org.kie.kogito.jobs.management.springboot;
 
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
 import org.kie.kogito.Application;
+import org.kie.kogito.event.KogitoThreadPoolFactory;
+import org.kie.kogito.jobs.ExpiredJob;
 import org.kie.kogito.process.Process;
 import org.kie.kogito.process.Processes;
 import org.kie.kogito.services.jobs.impl.TriggerJobCommand;
+import org.kie.kogito.services.jobs.impl.TriggerJobsCommand;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import static org.kie.kogito.jobs.api.JobCallbackResourceDef.JOBS_CALLBACK_BULK_POST_URI;
 import static org.kie.kogito.jobs.api.JobCallbackResourceDef.JOBS_CALLBACK_POST_URI;
 import static org.kie.kogito.jobs.api.JobCallbackResourceDef.JOBS_CALLBACK_URI;
 import static org.kie.kogito.jobs.api.JobCallbackResourceDef.LIMIT;
@@ -42,12 +56,36 @@ import static org.kie.kogito.jobs.api.JobCallbackResourceDef.TIMER_ID;
 @RequestMapping(JOBS_CALLBACK_URI)
 public class CallbackJobsServiceResource {
 
+    private static final String THREAD_NAME = "kogito-jobs-callback";
+
     @Autowired
     Processes processes;
 
     @Autowired
     Application application;
 
+    @Value("${kogito.jobs.callback.bulk.max-parallelism:" + TriggerJobsCommand.DEFAULT_MAX_PARALLELISM + "}")
+    int maxParallelism;
+
+    private ThreadPoolExecutor executor;
+
+    /**
+     * Creates the pool triggering the expired jobs of bulk callbacks, of at most <code>maxParallelism</code> threads.
+     * Once its queue is full, the jobs are triggered by the thread handling the request.
+     */
+    @PostConstruct
+    void init() {
+        int threads = Math.max(1, maxParallelism);
+        executor = new ThreadPoolExecutor(threads, threads, 1L, TimeUnit.MINUTES, new ArrayBlockingQueue<>(threads), new KogitoThreadPoolFactory(THREAD_NAME),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void close() {
+        executor.shutdown();
+    }
+
     @PostMapping(value = JOBS_CALLBACK_POST_URI, produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<String> triggerTimer(@PathVariable(PROCESS_ID) String processId,
             @PathVariable(PROCESS_INSTANCE_ID) String processInstanceId,
@@ -67,4 +105,9 @@ public class CallbackJobsServiceResource {
                 : ResponseEntity.status(HttpStatus.NOT_FOUND).body("Process instance with id " + processInstanceId + " not found");
 
     }
+
+    @PostMapping(value = JOBS_CALLBACK_BULK_POST_URI, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<TriggerJobsCommand.Result>> triggerTimers(@RequestBody List<ExpiredJob> jobs) {
+        return ResponseEntity.ok(new TriggerJobsCommand(jobs, processes, application.unitOfWorkManager(), executor, maxParallelism).execute());
+    }
 }
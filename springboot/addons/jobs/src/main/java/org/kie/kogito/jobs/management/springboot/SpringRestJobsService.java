@@ -15,11 +15,14 @@
  */
 package org.kie.kogito.jobs.management.springboot;
 
+import java.util.List;
+
 import javax.annotation.PostConstruct;
 
-import org.kie.kogito.jobs.ProcessInstanceJobDescription;
 import org.kie.kogito.jobs.ProcessJobDescription;
 import org.kie.kogito.jobs.api.Job;
+import org.kie.kogito.jobs.api.JobRequestBatcher.FailureHandler;
+import org.kie.kogito.jobs.api.JobRequestBatcher.JobRequest;
 import org.kie.kogito.jobs.management.RestJobsService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -65,29 +68,50 @@ public class SpringRestJobsService extends RestJobsService {
     }
 
     @Override
-    public String scheduleProcessInstanceJob(ProcessInstanceJobDescription description) {
-        String callback = getCallbackEndpoint(description);
-        LOGGER.debug("Job to be scheduled {} with callback URL {}", description, callback);
-        final Job job = buildJob(description, callback);
-        ResponseEntity<String> result = restTemplate.postForEntity(getJobsServiceUri(),
-                job,
-                String.class);
-        if (result.getStatusCode().ordinal() == 200) {
-            LOGGER.debug("Creating of the job {} done with status code {} ", job, result.getStatusCode());
+    protected void flush(List<JobRequest> requests, int maxAttempts, FailureHandler failureHandler) {
+        for (JobRequest request : requests) {
+            try {
+                if (request.getType() == JobRequest.Type.CREATE) {
+                    String callback = getCallbackEndpoint(request.getDescription());
+                    LOGGER.debug("Job to be scheduled {} with callback URL {}", request.getDescription(), callback);
+                    createJob(buildJob(request.getDescription(), callback), maxAttempts);
+                } else {
+                    cancelJob(request.getJobId(), maxAttempts);
+                }
+            } catch (RestClientException e) {
+                failureHandler.onFailure(request, e);
+            }
         }
-        return job.getId();
     }
 
-    @Override
-    public boolean cancelJob(String id) {
-
-        try {
-            restTemplate.delete(getJobsServiceUri() + "/{id}", id);
+    private void createJob(Job job, int maxAttempts) {
+        for (int attempt = 1;; attempt++) {
+            try {
+                ResponseEntity<String> result = restTemplate.postForEntity(getJobsServiceUri(),
+                        job,
+                        String.class);
+                LOGGER.debug("Creating of the job {} done with status code {} ", job, result.getStatusCode());
+                return;
+            } catch (RestClientException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                LOGGER.warn("Scheduling of job {} failed on attempt {} of {}, retrying", job, attempt, maxAttempts, e);
+            }
+        }
+    }
 
-            return true;
-        } catch (RestClientException e) {
-            LOGGER.debug("Exception thrown during canceling of job {}", id, e);
-            return false;
+    private void cancelJob(String id, int maxAttempts) {
+        for (int attempt = 1;; attempt++) {
+            try {
+                restTemplate.delete(getJobsServiceUri() + "/{id}", id);
+                return;
+            } catch (RestClientException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                LOGGER.warn("Canceling of job {} failed on attempt {} of {}, retrying", id, attempt, maxAttempts, e);
+            }
         }
     }
 }
@@ -21,6 +21,8 @@ import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 import org.kie.kogito.event.EventExecutorServiceFactory;
+import org.kie.kogito.event.EventExecutorType;
+import org.kie.kogito.event.EventExecutors;
 import org.kie.kogito.event.KogitoEventStreams;
 import org.kie.kogito.event.KogitoThreadPoolFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -35,8 +37,15 @@ public class SpringEventExecutorServiceFactory implements EventExecutorServiceFa
     @Value("${" + KogitoEventStreams.QUEUE_SIZE_PROPERTY + ":#{" + KogitoEventStreams.DEFAULT_QUEUE_SIZE + "}}")
     int queueSize;
 
+    @Value("${" + KogitoEventStreams.EXECUTOR_TYPE_PROPERTY + ":" + KogitoEventStreams.DEFAULT_EXECUTOR_TYPE + "}")
+    String executorType;
+
     @Override
     public ExecutorService getExecutorService(String channelName) {
+        ExecutorService executor = EventExecutors.create(EventExecutorType.fromValue(executorType), numThreads, queueSize);
+        if (executor != null) {
+            return executor;
+        }
         return new ThreadPoolExecutor(1, numThreads, 1L, TimeUnit.MINUTES, new ArrayBlockingQueue<>(queueSize), new KogitoThreadPoolFactory(KogitoEventStreams.THREAD_NAME),
                 new ThreadPoolExecutor.CallerRunsPolicy());
     }
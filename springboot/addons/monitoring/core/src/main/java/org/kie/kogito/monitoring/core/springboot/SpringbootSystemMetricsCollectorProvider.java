@@ -22,6 +22,7 @@ import org.kie.kogito.conf.ConfigBean;
 import org.kie.kogito.monitoring.core.common.system.metrics.SystemMetricsCollector;
 import org.kie.kogito.monitoring.core.common.system.metrics.SystemMetricsCollectorProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import io.micrometer.core.instrument.Metrics;
@@ -32,12 +33,16 @@ public class SpringbootSystemMetricsCollectorProvider implements SystemMetricsCo
     @Autowired
     ConfigBean configBean;
 
+    @Value("${kogito.monitoring.tags.maxValues:100}")
+    int maxTagValues;
+
     SystemMetricsCollector systemMetricsCollector;
 
     @PostConstruct
     public void init() {
         systemMetricsCollector = new SystemMetricsCollector(configBean.getGav().orElse(KogitoGAV.EMPTY_GAV),
                 Metrics.globalRegistry);
+        systemMetricsCollector.getTagLimiter().setMaxValuesPerTag(maxTagValues);
     }
 
     @Override
@@ -16,6 +16,8 @@
 
 package org.kie.kogito.persistence.springboot;
 
+import javax.annotation.PreDestroy;
+
 import org.kie.kogito.persistence.filesystem.AbstractProcessInstancesFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -23,8 +25,21 @@ import org.springframework.stereotype.Component;
 @Component
 public class FileSystemProcessInstancesFactory extends AbstractProcessInstancesFactory {
 
-    public FileSystemProcessInstancesFactory(@Value("${kogito.persistence.filesystem.path:/tmp}") String path) {
-        super(path);
+    public FileSystemProcessInstancesFactory(@Value("${kogito.persistence.filesystem.path:/tmp}") String path,
+            @Value("${kogito.persistence.filesystem.storage:file}") String storage,
+            @Value("${kogito.persistence.filesystem.log.fsync:unit-of-work}") String fsyncPolicy,
+            @Value("${kogito.persistence.filesystem.log.fsync.interval:1000}") long fsyncInterval,
+            @Value("${kogito.persistence.filesystem.log.segment.size:67108864}") long segmentSize,
+            @Value("${kogito.persistence.filesystem.log.compaction.threshold:0.5}") double compactionThreshold,
+            @Value("${kogito.persistence.filesystem.log.compaction.interval:10000}") long compactionInterval,
+            @Value("${kogito.persistence.compression:none}") String compression,
+            @Value("${kogito.persistence.compression.threshold:1024}") Integer compressionThreshold) {
+        super(path, storage, fsyncPolicy, fsyncInterval, segmentSize, compactionThreshold, compactionInterval, compression, compressionThreshold);
     }
 
+    @PreDestroy
+    @Override
+    public void close() {
+        super.close();
+    }
 }
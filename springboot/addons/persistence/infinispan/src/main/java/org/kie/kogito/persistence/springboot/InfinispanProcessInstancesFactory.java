@@ -28,8 +28,10 @@ public class InfinispanProcessInstancesFactory extends AbstractProcessInstancesF
     @Autowired
     public InfinispanProcessInstancesFactory(RemoteCacheManager cacheManager,
             @Value("${kogito.persistence.optimistic.lock:false}") Boolean lock,
-            @Value("${kogito.persistence.infinispan.template:#{null}}") String templateName) {
-        super(cacheManager, lock, templateName);
+            @Value("${kogito.persistence.infinispan.template:#{null}}") String templateName,
+            @Value("${kogito.persistence.compression:none}") String compression,
+            @Value("${kogito.persistence.compression.threshold:1024}") Integer compressionThreshold) {
+        super(cacheManager, lock, templateName, compression, compressionThreshold);
     }
 
 }
@@ -19,6 +19,7 @@ package org.kie.kogito.persistence.springboot;
 import javax.sql.DataSource;
 
 import org.kie.kogito.persistence.jdbc.AbstractProcessInstancesFactory;
+import org.kie.kogito.persistence.jdbc.transaction.AbstractTransactionManager;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -28,9 +29,14 @@ public class JDBCProcessInstancesFactory extends AbstractProcessInstancesFactory
 
     @Autowired
     public JDBCProcessInstancesFactory(DataSource dataSource,
+            AbstractTransactionManager transactionManager,
             @Value("${kogito.persistence.auto.ddl:true}") Boolean autoDDL,
-            @Value("${kogito.persistence.optimistic.lock:false}") Boolean lock) {
-        super(dataSource, autoDDL, lock);
+            @Value("${kogito.persistence.optimistic.lock:false}") Boolean lock,
+            @Value("${kogito.persistence.near.cache.max.size:0}") Integer nearCacheSize,
+            @Value("${kogito.persistence.compression:none}") String compression,
+            @Value("${kogito.persistence.compression.threshold:1024}") Integer compressionThreshold,
+            @Value("${kogito.persistence.query.variable:#{null}}") String queryVariable) {
+        super(dataSource, autoDDL, lock, nearCacheSize, compression, compressionThreshold, queryVariable, transactionManager);
     }
 
 }
@@ -31,8 +31,12 @@ public class PostgresqlProcessInstancesFactory extends AbstractProcessInstancesF
     public PostgresqlProcessInstancesFactory(@Qualifier("kogito") PgPool client,
             @Value("${kogito.persistence.auto.ddl:true}") Boolean autoDDL,
             @Value("${kogito.persistence.query.timeout.millis:10000}") Long queryTimeout,
-            @Value("${kogito.persistence.optimistic.lock:false}") Boolean lock) {
-        super(client, autoDDL, queryTimeout, lock);
+            @Value("${kogito.persistence.optimistic.lock:false}") Boolean lock,
+            @Value("${kogito.persistence.near.cache.max.size:0}") Integer nearCacheSize,
+            @Value("${kogito.persistence.compression:none}") String compression,
+            @Value("${kogito.persistence.compression.threshold:1024}") Integer compressionThreshold,
+            @Value("${kogito.persistence.query.variable:#{null}}") String queryVariable) {
+        super(client, autoDDL, queryTimeout, lock, nearCacheSize, compression, compressionThreshold, queryVariable);
     }
 
     protected PostgresqlProcessInstancesFactory() {
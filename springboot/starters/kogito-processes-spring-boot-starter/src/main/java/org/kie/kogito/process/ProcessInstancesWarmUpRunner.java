@@ -0,0 +1,51 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.kie.kogito.process;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.kie.kogito.process.impl.ProcessInstancesWarmUp;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the {@link ProcessInstancesWarmUp} before the application is ready to accept traffic, when enabled.
+ */
+@Component
+@ConditionalOnProperty(value = ProcessInstancesWarmUp.ENABLED, havingValue = "true")
+public class ProcessInstancesWarmUpRunner implements ApplicationRunner {
+
+    private final Optional<ProcessInstancesWarmUp> warmUp;
+
+    @Autowired
+    public ProcessInstancesWarmUpRunner(Optional<Processes> processes,
+            @Value("${" + ProcessInstancesWarmUp.PARALLELISM + ":4}") int parallelism,
+            @Value("${" + ProcessInstancesWarmUp.CHUNK_SIZE + ":100}") int chunkSize,
+            @Value("${" + ProcessInstancesWarmUp.MAX_INSTANCES + ":1000}") int maxInstances,
+            @Value("${" + ProcessInstancesWarmUp.TIMEOUT + ":30000}") long timeoutMillis) {
+        this.warmUp = processes.map(p -> new ProcessInstancesWarmUp(p, parallelism, chunkSize, maxInstances, Duration.ofMillis(timeoutMillis)));
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        warmUp.ifPresent(ProcessInstancesWarmUp::run);
+    }
+}